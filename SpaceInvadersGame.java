@@ -4,42 +4,121 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.VolatileImage;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
 
 /**
  * The main class for the Space Invaders game, containing all other necessary classes as inner or nested classes.
- * It acts as the main window (JFrame) and manages the different game screens (panels)
- * using a CardLayout. It also orchestrates the transitions between game states.
+ * It acts as the main window (JFrame), whose only content is the game panel: the menus are scenes drawn on the same
+ * surface as the game, so a screen is a game state. It also orchestrates the transitions between game states.
  * ---
  * La classe principale du jeu Space Invaders, contenant toutes les autres classes nécessaires en tant que classes internes ou imbriquées.
- * Elle agit comme la fenêtre principale (JFrame) et gère les différents écrans de jeu (panneaux)
- * à l'aide d'un CardLayout. Elle orchestre également les transitions entre les états du jeu.
+ * Elle agit comme la fenêtre principale (JFrame), dont le seul contenu est le panneau de jeu : les menus sont des scènes
+ * dessinées sur la même surface que le jeu, un écran est donc un état du jeu. Elle orchestre également les transitions entre les états du jeu.
  */
 public class SpaceInvadersGame extends JFrame {
 
-    // A layout manager that allows switching between different panels.
-    // Un gestionnaire de layout qui permet de basculer entre différents panneaux.
-    private final CardLayout cardLayout;
-
-    // The main panel that holds all other panels (screens).
-    // Le panneau principal qui contient tous les autres panneaux (écrans).
-    private final JPanel mainPanel;
-
+    // The single surface every screen is drawn on. / L'unique surface sur laquelle chaque écran est dessiné.
     private final GamePanel gamePanel;
-    private final GameMenu mainMenu;
-    private final GameMenu pauseMenu;
-    private final GameMenu highscoreMenu;
-    private final JPanel instructionsPanel;
-    private final JPanel aboutPanel;
+
+    // Menu screens are built on first display (see menuFor); the high-score widgets stay null until then.
+    // Les écrans de menu sont construits à leur premier affichage (voir menuFor) ; les widgets des scores restent null jusque-là.
+    private final Map<GameState, Supplier<MenuScene>> menuFactories = new EnumMap<>(GameState.class);
+    private final Map<GameState, MenuScene> menus = new EnumMap<>(GameState.class);
+    private LeaderboardView leaderboard;
+    private MenuScene.TextField filterField;
+    private int fullScreenRefreshRate;
 
     private final HighScoreManager highScoreManager;
+    // The name entered after the last game, for the leaderboard's "My Rank". / Le nom saisi après la dernière partie, pour « My Rank » du classement.
+    private String lastPlayerName;
+
+    // Address of the co-op server when started with --connect, null for a local game.
+    // Adresse du serveur coopératif lorsque le jeu est lancé avec --connect, null pour une partie locale.
+    private final InetSocketAddress serverAddress;
+
+    // A single daemon thread for work that must stay off the game loop (wave preparation, file I/O).
+    // Un unique thread démon pour le travail qui doit rester hors de la boucle de jeu (préparation des vagues, E/S fichiers).
+    private final ExecutorService backgroundExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SpaceInvaders-Background");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Assets not needed by the main menu, loaded in the background at startup.
+    // Ressources inutiles au menu principal, chargées en arrière-plan au démarrage.
+    private final Future<?> deferredAssets;
+
+    // The history read in the background; the exit save waits for it so an empty history never overwrites the file.
+    // L'historique lu en arrière-plan ; la sauvegarde de sortie l'attend pour qu'un historique vide n'écrase jamais le fichier.
+    private final Future<?> highScoresLoaded;
 
     /**
      * Constructor for the SpaceInvadersGame.
@@ -51,69 +130,75 @@ public class SpaceInvadersGame extends JFrame {
      * et affiche le menu principal.
      */
     public SpaceInvadersGame() {
+        this(null);
+    }
+
+    /**
+     * Constructor for a game that joins a co-op server instead of simulating locally.
+     * ---
+     * Constructeur pour une partie qui rejoint un serveur coopératif au lieu de simuler localement.
+     *
+     * @param serverAddress The co-op server to join, or null for a local game. / Le serveur coopératif à rejoindre, ou null pour une partie locale.
+     */
+    public SpaceInvadersGame(InetSocketAddress serverAddress) {
+        this.serverAddress = serverAddress;
         setTitle("Space Invaders - All-In-One Edition");
         setSize(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setLocationRelativeTo(null); // Center the window on screen. / Centrer la fenêtre.
-        setResizable(false);
+        // The game screen scales to any size, so the window can be resized freely.
+        // L'écran de jeu s'adapte à toutes les tailles : la fenêtre peut être redimensionnée librement.
+        setResizable(true);
 
-        // Load all assets (images, sounds, fonts) before starting the UI.
-        // Charger toutes les ressources (images, sons, polices) avant de lancer l'interface.
-        AssetLoader.load();
-        SoundManager.init();
+        // Only what the main menu needs is loaded now (fonts, click sound); sprites and the other sounds
+        // load on the background thread while the player looks at the menu.
+        // Seul ce dont le menu principal a besoin est chargé maintenant (polices, son de clic) ; les sprites et les autres sons
+        // se chargent sur le thread d'arrière-plan pendant que le joueur regarde le menu.
+        AssetLoader.loadFonts();
+        SoundManager.initMenu();
+        deferredAssets = backgroundExecutor.submit(this::loadDeferredAssets);
 
+        // A long history takes a moment to read, so it loads on the background thread instead of delaying the menu.
+        // Un long historique prend un moment à lire : il se charge sur le thread d'arrière-plan au lieu de retarder le menu.
         highScoreManager = new HighScoreManager(GameConstants.HIGHSCORE_FILE);
-        try {
-            highScoreManager.loadHighScores();
-        } catch (IOException | ClassNotFoundException e) {
-            System.err.println("Error loading high scores: " + e.getMessage());
-            JOptionPane.showMessageDialog(this,
-                "Could not load high scores file. It might be corrupted or missing.\n" +
-                "A new one will be created.",
-                "High Score Error",
-                JOptionPane.WARNING_MESSAGE);
-        }
+        highScoresLoaded = backgroundExecutor.submit(this::loadHighScores);
 
-        cardLayout = new CardLayout();
-        mainPanel = new JPanel(cardLayout);
+        // --- Register the menu screens; each one is built the first time it is shown ---
+        registerMenu(GameState.MAIN_MENU, () -> MenuScene.menu("SPACE INVADERS", null,
+                new String[]{"New Game", "High Scores", "Instructions", "About", "Quit"},
+                new Runnable[]{this::startGame, this::showHighScores, this::showInstructions, this::showAbout, this::quit}));
 
-        // --- Create all game panels ---
-        mainMenu = new GameMenu("SPACE INVADERS", new String[]{
-                "New Game", "High Scores", "Instructions", "About", "Quit"
-        }, GameState.MAIN_MENU);
+        // No title: the paused game shows its own banner above the buttons. / Sans titre : le jeu en pause affiche sa propre bannière au-dessus des boutons.
+        registerMenu(GameState.PAUSE_MENU, () -> MenuScene.menu(null, this::resumeGame,
+                new String[]{"Resume", "Main Menu", "Quit"},
+                new Runnable[]{this::resumeGame, this::showMainMenu, this::quit}));
 
-        gamePanel = new GamePanel();
+        registerMenu(GameState.HIGHSCORE_MENU, this::createHighScoreMenu);
+
+        registerMenu(GameState.INSTRUCTIONS, () -> createInfoMenu("Instructions",
+                "MOVE the ship with LEFT/RIGHT ARROWS.",
+                "SHOOT with the SPACE key (hold for continuous fire).",
+                "PAUSE with ESCAPE or P. Toggle the AUTOPILOT with B.",
+                "",
+                "Destroy all alien waves to score points and climb the leaderboard.",
+                "Collect power-ups to enhance your ship!",
+                "",
+                "In menus: ARROWS or TAB to choose, ENTER to confirm, ESCAPE to go back."
+        ));
+
+        registerMenu(GameState.ABOUT, () -> createInfoMenu("About",
+                "Space Invaders - All-In-One Edition",
+                "",
+                "Original Concept by Samyn-Antoy ABASSE",
+                "Refactoring & Design by Gemini AI",
+                "",
+                "Version 3.1 - Powered by Java Swing"
+        ));
 
-        pauseMenu = new GameMenu("Game Paused", new String[]{
-                "Resume", "Main Menu", "Quit"
-        }, GameState.PAUSE_MENU);
-
-        highscoreMenu = new GameMenu("High Scores", new String[]{}, GameState.HIGHSCORE_MENU);
-
-        instructionsPanel = createInfoPanel("Instructions",
-                "<html><center>MOVE the ship with LEFT/RIGHT ARROWS.<br>" +
-                        "SHOOT with the SPACE key.<br>" +
-                        "PAUSE with ESCAPE or P.<br><br>" +
-                        "Destroy all alien waves to score points and climb the leaderboard.<br>" +
-                        "Collect <font color='CYAN'>power-ups</font> to enhance your ship!</center></html>"
-        );
-
-        aboutPanel = createInfoPanel("About",
-                "<html><center>Space Invaders - All-In-One Edition<br><br>" +
-                        "Original Concept by Samyn-Antoy ABASSE<br>" +
-                        "Refactoring & Design by Gemini AI<br><br>" +
-                        "Version 3.1 - Powered by Java Swing</center></html>"
-        );
-
-        // --- Add panels to the CardLayout ---
-        mainPanel.add(mainMenu, "MAIN_MENU");
-        mainPanel.add(gamePanel, "GAME");
-        mainPanel.add(pauseMenu, "PAUSE_MENU");
-        mainPanel.add(highscoreMenu, "HIGHSCORE_MENU");
-        mainPanel.add(instructionsPanel, "INSTRUCTIONS");
-        mainPanel.add(aboutPanel, "ABOUT");
-
-        add(mainPanel);
+        // The game panel draws the menus too, so it exists from the start; its sprites may still be loading.
+        // Le panneau de jeu dessine aussi les menus : il existe dès le départ ; ses sprites peuvent encore être en chargement.
+        gamePanel = new GamePanel();
+        add(gamePanel);
 
         // Add a listener to save scores when the window is closed.
         // Ajouter un écouteur pour sauvegarder les scores à la fermeture de la fenêtre.
@@ -124,52 +209,162 @@ public class SpaceInvadersGame extends JFrame {
             }
         });
 
-        setVisible(true);
+        showOnDisplay();
+        if (fullScreenRefreshRate > 0) gamePanel.updateRefreshRate(fullScreenRefreshRate);
         showMainMenu();
+        gamePanel.requestFocusInWindow();
+    }
+
+    private void registerMenu(GameState state, Supplier<MenuScene> factory) {
+        menuFactories.put(state, factory);
+    }
+
+    /**
+     * Returns the menu drawn in a state, building it the first time it is needed, or null for the states of a game.
+     * ---
+     * Retourne le menu dessiné dans un état, en le construisant la première fois qu'il est nécessaire, ou null pour les états d'une partie.
+     */
+    private MenuScene menuFor(GameState state) {
+        MenuScene menu = menus.get(state);
+        if (menu == null) {
+            Supplier<MenuScene> factory = menuFactories.remove(state);
+            if (factory != null) menus.put(state, menu = factory.get());
+        }
+        return menu;
+    }
+
+    private void loadDeferredAssets() {
+        AssetLoader.loadSprites();
+        SoundManager.loadMenuMusic();
+        SwingUtilities.invokeLater(() -> {
+            // The menu was shown silent until its music was ready. / Le menu était muet jusqu'à ce que sa musique soit prête.
+            if (gamePanel.gameState == GameState.MAIN_MENU) SoundManager.playMusic(SoundManager.menuMusic, true);
+        });
+        SoundManager.initGameplay();
+        StartupTimer.mark("deferred assets loaded");
+    }
+
+    private void loadHighScores() {
+        try {
+            highScoreManager.loadHighScores();
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error loading high scores: " + e.getMessage());
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                "Could not load high scores file. It might be corrupted or missing.\n" +
+                "A new one will be created.",
+                "High Score Error",
+                JOptionPane.WARNING_MESSAGE));
+            return;
+        }
+        SwingUtilities.invokeLater(() -> {
+            if (leaderboard != null) leaderboard.refresh();
+        });
+    }
+
+    private void awaitDeferredAssets() {
+        try {
+            deferredAssets.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Failed to load assets: " + e.getCause());
+        }
+    }
+
+    /**
+     * Shows the window, in full-screen exclusive mode (with the requested display mode) when enabled.
+     * ---
+     * Affiche la fenêtre, en mode plein écran exclusif (avec le mode d'affichage demandé) si activé.
+     */
+    private void showOnDisplay() {
+        GraphicsDevice device = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+        if (!DisplaySettings.isFullScreenRequested() || !device.isFullScreenSupported()) {
+            setVisible(true);
+            return;
+        }
+        setUndecorated(true);
+        device.setFullScreenWindow(this);
+        DisplayMode mode = DisplaySettings.selectDisplayMode(device, System.getProperty(DisplaySettings.DISPLAY_MODE_PROPERTY));
+        if (mode != null && device.isDisplayChangeSupported()) {
+            try {
+                device.setDisplayMode(mode);
+            } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                System.err.println("Could not switch display mode: " + e.getMessage());
+            }
+        }
+        fullScreenRefreshRate = device.getDisplayMode().getRefreshRate();
     }
     
     /**
-     * Creates a generic panel for displaying information like "Instructions" or "About".
+     * Creates a generic screen for displaying information like "Instructions" or "About".
      * ---
-     * Crée un panneau générique pour afficher des informations comme "Instructions" ou "À Propos".
+     * Crée un écran générique pour afficher des informations comme "Instructions" ou "À Propos".
      *
      * @param title The title to display at the top. / Le titre à afficher en haut.
-     * @param text  The HTML-formatted text to display in the center. / Le texte formaté en HTML à afficher au centre.
-     * @return A fully configured JPanel. / Un JPanel entièrement configuré.
+     * @param lines The lines of text to display in the center. / Les lignes de texte à afficher au centre.
+     * @return The menu scene of the screen. / La scène de menu de l'écran.
      */
-    private JPanel createInfoPanel(String title, String text) {
-        JPanel infoPanel = new JPanel(new BorderLayout()) {
-             @Override
-             protected void paintComponent(Graphics g) {
-                 super.paintComponent(g);
-                 g.setColor(Color.BLACK);
-                 g.fillRect(0, 0, getWidth(), getHeight());
-                 if (mainMenu != null) mainMenu.drawAnimatedBackground(g, this);
-             }
-        };
-        infoPanel.setBackground(Color.BLACK);
+    private MenuScene createInfoMenu(String title, String... lines) {
+        MenuScene scene = new MenuScene(this::showMainMenu);
+        int centerX = GameConstants.WINDOW_WIDTH / 2;
+        scene.add(new MenuScene.Label(centerX, 50, GameRenderer.titleFont(48f), Color.WHITE, title));
+        Font font = GameRenderer.uiFont(20f, Font.PLAIN);
+        int textHeight = MenuScene.metrics(font).getHeight() * lines.length;
+        scene.add(new MenuScene.Label(centerX, (GameConstants.WINDOW_HEIGHT - textHeight) / 2, font, Color.LIGHT_GRAY, lines));
+        scene.add(new MenuScene.Button(centerX, GameConstants.WINDOW_HEIGHT - 110, MenuScene.BUTTON_WIDTH,
+                GameRenderer.uiFont(24f, Font.BOLD), "Back", this::showMainMenu));
+        return scene;
+    }
 
-        JLabel titleLabel = new JLabel(title, JLabel.CENTER);
-        titleLabel.setFont(AssetLoader.fontTitle != null ? AssetLoader.fontTitle.deriveFont(48f) : new Font("Arial", Font.BOLD, 48));
-        titleLabel.setForeground(Color.WHITE);
-        titleLabel.setBorder(BorderFactory.createEmptyBorder(50, 20, 20, 20));
-        infoPanel.add(titleLabel, BorderLayout.NORTH);
+    /**
+     * Creates the high-score screen: a name filter, a "My Rank" button, the leaderboard and a way back.
+     * ---
+     * Crée l'écran des meilleurs scores : un filtre par nom, un bouton « My Rank », le classement et un retour.
+     */
+    private MenuScene createHighScoreMenu() {
+        MenuScene scene = new MenuScene(this::showMainMenu);
+        int centerX = GameConstants.WINDOW_WIDTH / 2;
+        Font font = AssetLoader.fontUI != null ? AssetLoader.fontUI.deriveFont(20f) : new Font("Monospaced", Font.PLAIN, 20);
+        Font buttonFont = GameRenderer.uiFont(24f, Font.BOLD);
+        scene.add(new MenuScene.Label(centerX, 30, GameRenderer.titleFont(64f), Color.WHITE, "High Scores"));
 
-        JLabel textLabel = new JLabel(text, JLabel.CENTER);
-        textLabel.setFont(AssetLoader.fontUI != null ? AssetLoader.fontUI.deriveFont(20f) : new Font("Arial", Font.PLAIN, 20));
-        textLabel.setForeground(Color.LIGHT_GRAY);
-        infoPanel.add(textLabel, BorderLayout.CENTER);
+        // Filtering waits for a pause in typing, so a million names are not scanned at every key.
+        // Le filtrage attend une pause dans la saisie, pour ne pas parcourir un million de noms à chaque touche.
+        Timer filterTimer = new Timer(LeaderboardView.FILTER_DELAY_MS, e -> leaderboard.setFilter(filterField.getText().trim()));
+        filterTimer.setRepeats(false);
+        int rowY = 120;
+        MenuScene.Label nameLabel = scene.add(new MenuScene.Label(175, rowY + 4, font, Color.WHITE, "Name:"));
+        filterField = scene.add(new MenuScene.TextField(nameLabel.x + nameLabel.width + 10, rowY, 220, font,
+                GameConstants.MAX_PLAYER_NAME_LENGTH, filterTimer::restart));
+        scene.add(new MenuScene.Button(filterField.x + filterField.width + 90, rowY - 6, 160, buttonFont, "My Rank", this::jumpToPlayerRank));
 
-        StyledButton backButton = new StyledButton("Back");
-        backButton.addActionListener(e -> showMainMenu());
+        leaderboard = scene.add(new LeaderboardView(highScoreManager, font, centerX - 220, rowY + 60, 440));
+        scene.add(new MenuScene.Button(centerX, leaderboard.y + leaderboard.height + 15, 400, buttonFont, "Back to Main Menu", this::showMainMenu));
+        return scene;
+    }
 
-        JPanel southPanel = new JPanel(new FlowLayout(FlowLayout.CENTER));
-        southPanel.setOpaque(false);
-        southPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 40, 20));
-        southPanel.add(backButton);
-        infoPanel.add(southPanel, BorderLayout.SOUTH);
+    /**
+     * Scrolls to the best rank of the last name entered after a game, or of the typed name when none was entered yet.
+     * ---
+     * Fait défiler jusqu'au meilleur rang du dernier nom saisi après une partie, ou du nom tapé si aucun ne l'a encore été.
+     */
+    private void jumpToPlayerRank() {
+        String name = lastPlayerName != null ? lastPlayerName : filterField.getText().trim();
+        int rank = highScoreManager.rankOf(name);
+        if (rank < 0) {
+            Toolkit.getDefaultToolkit().beep();
+            return;
+        }
+        if (!leaderboard.isShown(rank)) {
+            filterField.setText("");
+            leaderboard.setFilter("");
+        }
+        leaderboard.jumpToRank(rank);
+    }
 
-        return infoPanel;
+    private void quit() {
+        saveScoresOnExit();
+        System.exit(0);
     }
 
     // ===================================================================================
@@ -177,69 +372,102 @@ public class SpaceInvadersGame extends JFrame {
     // ===================================================================================
 
     public void showMainMenu() {
+        gamePanel.setNetworkClient(null);
         SoundManager.playMusic(SoundManager.menuMusic, true);
-        cardLayout.show(mainPanel, "MAIN_MENU");
         gamePanel.setGameState(GameState.MAIN_MENU);
         gamePanel.stopGame();
-        mainMenu.requestFocusInWindow();
     }
 
     public void startGame() {
+        StartupTimer.begin("first game frame");
+        GameClient client = null;
+        if (serverAddress != null) {
+            try {
+                client = GameClient.connect(serverAddress, true);
+            } catch (IOException e) {
+                System.err.println("Could not connect to " + serverAddress + ": " + e.getMessage());
+                JOptionPane.showMessageDialog(this, "Could not connect to the co-op server " + serverAddress + ".", "Connection Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        awaitDeferredAssets();
+        gamePanel.setNetworkClient(client);
         SoundManager.stopMusic();
         SoundManager.playMusic(SoundManager.gameMusic, true);
-        cardLayout.show(mainPanel, "GAME");
-        gamePanel.setGameState(GameState.PLAYING);
+        // Reset first: entering PLAYING resumes the simulation thread, which must not see the previous game.
+        // Réinitialiser d'abord : passer en PLAYING relance le thread de simulation, qui ne doit pas voir la partie précédente.
         gamePanel.resetGame();
+        gamePanel.setGameState(GameState.PLAYING);
         gamePanel.startGame();
-        gamePanel.requestFocusInWindow();
     }
 
     public void showPauseMenu() {
         SoundManager.pauseMusic();
         gamePanel.setGameState(GameState.PAUSE_MENU);
-        cardLayout.show(mainPanel, "PAUSE_MENU");
-        pauseMenu.requestFocusInWindow();
     }
 
     public void resumeGame() {
         SoundManager.resumeMusic();
-        cardLayout.show(mainPanel, "GAME");
         gamePanel.setGameState(GameState.PLAYING);
-        gamePanel.requestFocusInWindow();
     }
 
     public void showHighScores() {
-        highscoreMenu.updateHighScoresDisplay(highScoreManager.getHighScores());
-        cardLayout.show(mainPanel, "HIGHSCORE_MENU");
-        highscoreMenu.requestFocusInWindow();
+        menuFor(GameState.HIGHSCORE_MENU);
+        leaderboard.refresh();
+        gamePanel.setGameState(GameState.HIGHSCORE_MENU);
     }
 
     public void showInstructions() {
-        cardLayout.show(mainPanel, "INSTRUCTIONS");
+        gamePanel.setGameState(GameState.INSTRUCTIONS);
     }
 
     public void showAbout() {
-        cardLayout.show(mainPanel, "ABOUT");
+        gamePanel.setGameState(GameState.ABOUT);
     }
 
     public void gameOver(int score) {
         SoundManager.stopMusic();
         SoundManager.playSound(SoundManager.gameOverSound);
-        
-        String playerName = JOptionPane.showInputDialog(this, "Game Over! Your score: " + score + "\nEnter your name:", "Save Score", JOptionPane.PLAIN_MESSAGE);
+        // The name is typed on an overlay drawn by the game panel, without blocking the loop.
+        // Le nom est saisi sur un calque dessiné par le panneau de jeu, sans bloquer la boucle.
+        gamePanel.setGameState(GameState.GAME_OVER);
+    }
+
+    /**
+     * Records the name entered on the game-over overlay, saves the scores on the background thread
+     * and returns to the main menu. An empty name skips the high score.
+     * ---
+     * Enregistre le nom saisi sur le calque de fin de partie, sauvegarde les scores sur le thread d'arrière-plan
+     * et revient au menu principal. Un nom vide ignore le meilleur score.
+     */
+    public void submitHighScore(String playerName, int score) {
         if (playerName != null && !playerName.trim().isEmpty()) {
-            highScoreManager.addHighScore(playerName.trim(), score);
-            try {
-                highScoreManager.saveHighScores();
-            } catch (IOException e) {
-                System.err.println("Error saving score: " + e.getMessage());
-                JOptionPane.showMessageDialog(this, "Could not save the high score.", "Save Error", JOptionPane.ERROR_MESSAGE);
-            }
+            lastPlayerName = playerName.trim();
+            highScoreManager.addHighScore(lastPlayerName, score);
+            backgroundExecutor.execute(() -> {
+                try {
+                    highScoreManager.saveHighScores();
+                } catch (IOException e) {
+                    System.err.println("Error saving score: " + e.getMessage());
+                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "Could not save the high score.", "Save Error", JOptionPane.ERROR_MESSAGE));
+                }
+            });
         }
         showMainMenu();
     }
 
     public void saveScoresOnExit() {
+        // Quitting before the history is read would write the scores of this session alone over the whole file.
+        // Quitter avant la lecture de l'historique écrirait les seuls scores de cette session sur tout le fichier.
+        try {
+            highScoresLoaded.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            System.err.println("Failed to load high scores: " + e.getCause());
+            return;
+        }
         try {
             highScoreManager.saveHighScores();
         } catch (IOException ioException) {
@@ -255,8 +483,126 @@ public class SpaceInvadersGame extends JFrame {
     // SECTION: Main Entry Point / Point d'Entrée Principal
     // ===================================================================================
 
-    public static void main(String[] args) {
-        SwingUtilities.invokeLater(SpaceInvadersGame::new);
+    /**
+     * Starts the game. Optional arguments select another mode:
+     * {@code --server [port]} runs a headless co-op server, {@code --connect host[:port]} joins one,
+     * {@code --bench-net} runs the loopback network benchmark, {@code --telemetry-reader file} tails the telemetry
+     * published with {@code -Dspaceinvaders.telemetry=file}, {@code --bench-telemetry} measures its cost,
+     * {@code -Dspaceinvaders.jfr=file} records the game's flight recorder events, {@code --jfr-summary file} summarizes
+     * such a recording into per-phase percentiles and {@code --bench-jfr} measures what the events cost,
+     * {@code --bench-alloc [--sites]} checks the allocation budgets, {@code --bench-present} measures scaled presentation,
+     * {@code --bench-render [--update-golden]} times each render pass and checks it against golden frames,
+     * {@code --list-display-modes} lists full-screen modes, {@code --cds-training [archive]} builds a class-data-sharing archive
+     * {@code --bench-leaderboard [count]} measures the leaderboard with a large history, {@code --bench-menu} compares
+     * retained menu frames with Swing components, {@code --bench-autopilot}
+     * measures the autopilot (enabled in game with the B key or {@code -Dspaceinvaders.autopilot=true}),
+     * {@code --bench-pipeline} compares sequential and pipelined simulation and rendering, {@code --bench-raster} compares
+     * the Java2D pass with the software rasterizer ({@code -Dspaceinvaders.renderer=software}), {@code --bench-timers} measures
+     * the timing wheel with 100,000 timers and {@code --bench-collision} compares swept and discrete projectile collisions. Games are recorded with
+     * {@code -Dspaceinvaders.record=directory}; {@code --export-recording file directory} turns a recording into PNG files
+     * and {@code --bench-capture} measures the cost of recording.
+     * ---
+     * Lance le jeu. Des arguments optionnels choisissent un autre mode :
+     * {@code --server [port]} lance un serveur coopératif sans affichage, {@code --connect hôte[:port]} en rejoint un,
+     * {@code --bench-net} lance le banc d'essai réseau en boucle locale, {@code --telemetry-reader fichier} suit la télémétrie
+     * publiée avec {@code -Dspaceinvaders.telemetry=fichier}, {@code --bench-telemetry} en mesure le coût,
+     * {@code -Dspaceinvaders.jfr=fichier} enregistre les événements de l'enregistreur de vol du jeu, {@code --jfr-summary fichier}
+     * résume un tel enregistrement en centiles par phase et {@code --bench-jfr} mesure le coût des événements,
+     * {@code --bench-alloc [--sites]} vérifie les budgets d'allocation, {@code --bench-present} mesure la présentation mise à l'échelle,
+     * {@code --bench-render [--update-golden]} chronomètre chaque passe de rendu et la compare aux images de référence,
+     * {@code --list-display-modes} liste les modes plein écran, {@code --cds-training [archive]} construit une archive de partage de classes
+     * {@code --bench-leaderboard [nombre]} mesure le classement avec un long historique, {@code --bench-menu} compare
+     * les images de menu conservées aux composants Swing, {@code --bench-autopilot}
+     * mesure le pilote automatique (activé en jeu avec la touche B ou {@code -Dspaceinvaders.autopilot=true}),
+     * {@code --bench-pipeline} compare la simulation et le rendu séquentiels et en pipeline, {@code --bench-raster} compare
+     * la passe Java2D au rastériseur logiciel ({@code -Dspaceinvaders.renderer=software}), {@code --bench-timers} mesure
+     * la roue de minuteries avec 100 000 minuteries et {@code --bench-collision} compare les collisions balayées et discrètes
+     * des projectiles. Les parties sont enregistrées avec
+     * {@code -Dspaceinvaders.record=répertoire} ; {@code --export-recording fichier répertoire} convertit un enregistrement en
+     * fichiers PNG et {@code --bench-capture} mesure le coût de l'enregistrement.
+     */
+    public static void main(String[] args) throws Exception {
+        String mode = args.length > 0 ? args[0] : "";
+        // Checked here so that a plain launch never loads the flight recorder. / Vérifiée ici pour qu'un lancement simple ne charge jamais l'enregistreur de vol.
+        if (System.getProperty(FlightEvents.PROPERTY) != null) FlightEvents.startFromSystemProperty();
+        switch (mode) {
+            case "--server":
+                GameServer.runStandalone(args.length > 1 ? Integer.parseInt(args[1]) : GameConstants.NET_DEFAULT_PORT);
+                return;
+            case "--bench-net":
+                NetBenchmark.run();
+                return;
+            case "--telemetry-reader":
+                Telemetry.tail(args);
+                return;
+            case "--bench-telemetry":
+                Telemetry.benchmark();
+                return;
+            case "--jfr-summary":
+                FlightEvents.summarize(args);
+                return;
+            case "--bench-jfr":
+                FlightEvents.benchmark();
+                return;
+            case "--bench-alloc":
+                AllocationBudget.run(args);
+                return;
+            case "--bench-present":
+                ScaledBackBuffer.benchmark();
+                return;
+            case "--bench-render":
+                RenderBenchmark.run(args);
+                return;
+            case "--bench-leaderboard":
+                LeaderboardView.benchmark(args);
+                return;
+            case "--bench-menu":
+                MenuScene.benchmark();
+                return;
+            case "--bench-autopilot":
+                Autopilot.benchmark();
+                return;
+            case "--bench-raster":
+                SoftwareRasterizer.benchmark();
+                return;
+            case "--bench-pipeline":
+                SnapshotExchange.benchmark();
+                return;
+            case "--bench-timers":
+                TimerWheel.benchmark();
+                return;
+            case "--bench-collision":
+                CollisionMask.benchmark();
+                return;
+            case "--bench-capture":
+                FrameRecorder.benchmark();
+                return;
+            case "--export-recording":
+                FrameRecorder.export(args);
+                return;
+            case "--list-display-modes":
+                DisplaySettings.listDisplayModes();
+                return;
+            case "--cds-training":
+                CdsTraining.train(args);
+                return;
+            case "--cds-script":
+                StartupTimer.printMilestones();
+                CdsTraining.script();
+                return;
+            case "--connect":
+                InetSocketAddress address = parseAddress(args.length > 1 ? args[1] : "localhost");
+                SwingUtilities.invokeLater(() -> new SpaceInvadersGame(address));
+                return;
+            default:
+                SwingUtilities.invokeLater(SpaceInvadersGame::new);
+        }
+    }
+
+    private static InetSocketAddress parseAddress(String hostAndPort) {
+        int colon = hostAndPort.lastIndexOf(':');
+        if (colon < 0) return new InetSocketAddress(hostAndPort, GameConstants.NET_DEFAULT_PORT);
+        return new InetSocketAddress(hostAndPort.substring(0, colon), Integer.parseInt(hostAndPort.substring(colon + 1)));
     }
 
     // ===================================================================================
@@ -282,9 +628,54 @@ public class SpaceInvadersGame extends JFrame {
         int BACKGROUND_STAR_COUNT = 200;
         long POWERUP_DURATION_MS = 10000;
         int POWERUP_DROP_CHANCE = 15;
+        int POWERUP_SIZE = 30;
         int EXPLOSION_PARTICLE_COUNT = 30;
         int INITIAL_LIVES = 3;
         String HIGHSCORE_FILE = "highscores.dat";
+        int HIGHSCORE_HISTORY_LIMIT = 1_000_000;
+        long LEVEL_BANNER_DURATION_MS = 2000;
+        int MAX_PLAYER_NAME_LENGTH = 15;
+        int NET_DEFAULT_PORT = 7777;
+        int NET_SNAPSHOT_INTERVAL_TICKS = 1;
+        int TICKS_PER_SECOND = 60;
+        long TICK_NANOS = 1_000_000_000L / TICKS_PER_SECOND;
+        long MAX_FRAME_CATCHUP_NANOS = 250_000_000L;
+        // Session measurements printed to the console, off for players. / Mesures de session affichées dans la console, désactivées pour les joueurs.
+        String DIAGNOSTICS_PROPERTY = "spaceinvaders.diagnostics";
+        boolean DIAGNOSTICS = Boolean.getBoolean(DIAGNOSTICS_PROPERTY);
+    }
+
+    /**
+     * A monotonic, tick-based clock for the simulation. It only advances when the game world is
+     * stepped, so pausing the game truly freezes every cooldown and power-up duration.
+     * ---
+     * Une horloge monotone, basée sur des ticks, pour la simulation. Elle n'avance que lorsque le monde
+     * du jeu est mis à jour : mettre le jeu en pause gèle réellement tous les délais et durées de bonus.
+     */
+    public static class GameClock {
+        private long tick;
+
+        public long now() { return tick; }
+        public void advance() { tick++; }
+        public void reset() { tick = 0; }
+
+        /**
+         * Converts a duration in milliseconds to a whole number of simulation ticks (rounded up).
+         * ---
+         * Convertit une durée en millisecondes en un nombre entier de ticks de simulation (arrondi au supérieur).
+         */
+        public static long msToTicks(long ms) {
+            return (ms * GameConstants.TICKS_PER_SECOND + 999) / 1000;
+        }
+
+        /**
+         * Linearly interpolates between the previous and current tick positions of an entity.
+         * ---
+         * Interpole linéairement entre les positions du tick précédent et du tick courant d'une entité.
+         */
+        public static int interpolate(float previous, float current, float alpha) {
+            return Math.round(previous + (current - previous) * alpha);
+        }
     }
 
     /**
@@ -293,7 +684,7 @@ public class SpaceInvadersGame extends JFrame {
      * Représente les différents états dans lesquels le jeu peut se trouver.
      */
     public enum GameState {
-        MAIN_MENU, PLAYING, PAUSE_MENU, HIGHSCORE_MENU, INSTRUCTIONS, ABOUT
+        MAIN_MENU, PLAYING, LEVEL_CLEAR, GAME_OVER, PAUSE_MENU, HIGHSCORE_MENU, INSTRUCTIONS, ABOUT
     }
     
     // ===================================================================================
@@ -310,44 +701,328 @@ public class SpaceInvadersGame extends JFrame {
     public static class AssetLoader {
         public static Image playerShip, alien1, alien2, alien3, laserPlayer, laserAlien, powerUpShield, powerUpRapid;
         public static Font fontTitle, fontUI;
+        // Collision masks, computed once per prepared sprite. / Masques de collision, calculés une fois par sprite préparé.
+        private static final Map<Image, CollisionMask> masks = new IdentityHashMap<>();
 
         public static void load() {
-            playerShip = loadImage("/resources/playerShip.png");
-            alien1 = loadImage("/resources/alien1.png");
-            alien2 = loadImage("/resources/alien2.png");
-            alien3 = loadImage("/resources/alien3.png");
-            laserPlayer = loadImage("/resources/laser_player.png");
-            laserAlien = loadImage("/resources/laser_alien.png");
-            powerUpShield = loadImage("/resources/powerup_shield.png");
-            powerUpRapid = loadImage("/resources/powerup_rapid.png");
+            loadFonts();
+            loadSprites();
+        }
+
+        public static void loadSprites() {
+            playerShip = prepareSprite(loadImage("/resources/playerShip.png"));
+            alien1 = prepareSprite(loadImage("/resources/alien1.png"));
+            alien2 = prepareSprite(loadImage("/resources/alien2.png"));
+            alien3 = prepareSprite(loadImage("/resources/alien3.png"));
+            laserPlayer = prepareSprite(loadImage("/resources/laser_player.png"));
+            laserAlien = prepareSprite(loadImage("/resources/laser_alien.png"));
+            powerUpShield = prepareSprite(loadImage("/resources/powerup_shield.png"), GameConstants.POWERUP_SIZE, GameConstants.POWERUP_SIZE);
+            powerUpRapid = prepareSprite(loadImage("/resources/powerup_rapid.png"), GameConstants.POWERUP_SIZE, GameConstants.POWERUP_SIZE);
+        }
+
+        public static void loadFonts() {
             fontTitle = loadFont("/resources/kenvector_future.ttf", 64f);
             fontUI = loadFont("/resources/kenvector_future.ttf", 24f);
         }
 
         private static Image loadImage(String path) {
+            FlightEvents.AssetLoad event = FlightEvents.beginAssetLoad();
+            Image image = null;
             try {
                 URL url = SpaceInvadersGame.class.getResource(path);
                 if (url == null) {
                     System.err.println("Resource file not found: " + path);
                     return null;
                 }
-                return ImageIO.read(url);
+                image = ImageIO.read(url);
+                return image;
             } catch (IOException e) {
                 System.err.println("Failed to load image: " + path);
                 return null;
+            } finally {
+                FlightEvents.commitAssetLoad(event, "image", path, image != null);
             }
         }
 
+        private static Image prepareSprite(Image source) {
+            return source == null ? null : prepareSprite(source, source.getWidth(null), source.getHeight(null));
+        }
+
+        /**
+         * Converts a sprite once, at load time, into an image compatible with the display and already at the size
+         * it is drawn, so that every frame draws it with a plain 1:1 copy instead of a per-sprite scale or format conversion.
+         * ---
+         * Convertit un sprite une seule fois, au chargement, en une image compatible avec l'écran et déjà à la taille à laquelle
+         * il est dessiné, pour que chaque image le dessine par une simple copie 1:1 plutôt qu'une mise à l'échelle ou une conversion.
+         */
+        private static Image prepareSprite(Image source, int width, int height) {
+            if (source == null) return null;
+            BufferedImage sprite = GraphicsEnvironment.isHeadless()
+                    ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE)
+                    : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration()
+                            .createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            Graphics2D g = sprite.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+            g.dispose();
+            masks.put(sprite, CollisionMask.of(sprite));
+            return sprite;
+        }
+
+        /**
+         * Returns the collision mask of a loaded sprite, or null for a missing image.
+         * ---
+         * Retourne le masque de collision d'un sprite chargé, ou null pour une image manquante.
+         */
+        public static CollisionMask maskOf(Image image) {
+            return image == null ? null : masks.get(image);
+        }
+
         private static Font loadFont(String path, float size) {
+            FlightEvents.AssetLoad event = FlightEvents.beginAssetLoad();
+            boolean loaded = false;
             try (InputStream is = SpaceInvadersGame.class.getResourceAsStream(path)) {
                 if(is == null) {
                     System.err.println("Font file not found: " + path + ". Using default font.");
                     return new Font("Arial", Font.BOLD, (int)size);
                 }
-                return Font.createFont(Font.TRUETYPE_FONT, is).deriveFont(size);
+                Font font = Font.createFont(Font.TRUETYPE_FONT, is).deriveFont(size);
+                loaded = true;
+                return font;
             } catch (Exception e) {
                 System.err.println("Failed to load font: " + path + ". Using default font. Error: " + e.getMessage());
                 return new Font("Arial", Font.BOLD, (int)size);
+            } finally {
+                FlightEvents.commitAssetLoad(event, "font", path, loaded);
+            }
+        }
+    }
+
+    /**
+     * The opaque pixels of a sprite as a bitmask, one bit per pixel packed into 64-bit words per row.
+     * Used as a narrowphase after an AABB test: two sprites touch only if some row of their overlap has
+     * a common bit, which is tested 64 pixels at a time with a single AND.
+     * ---
+     * Les pixels opaques d'un sprite sous forme de masque de bits, un bit par pixel regroupé en mots de 64 bits par ligne.
+     * Utilisé comme phase fine après un test AABB : deux sprites ne se touchent que si une ligne de leur recouvrement
+     * a un bit commun, ce qui se teste 64 pixels à la fois avec un seul ET.
+     */
+    public static final class CollisionMask {
+        // Pixels at least this opaque collide. / Les pixels au moins aussi opaques entrent en collision.
+        static final int ALPHA_THRESHOLD = 128;
+
+        final int width, height, wordsPerRow;
+        final long[] bits;
+
+        private CollisionMask(int width, int height) {
+            this.width = width;
+            this.height = height;
+            this.wordsPerRow = (width + 63) >>> 6;
+            this.bits = new long[wordsPerRow * height];
+        }
+
+        public static CollisionMask of(BufferedImage image) {
+            CollisionMask mask = new CollisionMask(image.getWidth(), image.getHeight());
+            int[] row = new int[mask.width];
+            for (int y = 0; y < mask.height; y++) {
+                image.getRGB(0, y, mask.width, 1, row, 0, mask.width);
+                for (int x = 0; x < mask.width; x++) {
+                    if ((row[x] >>> 24) >= ALPHA_THRESHOLD) mask.bits[y * mask.wordsPerRow + (x >>> 6)] |= 1L << (x & 63);
+                }
+            }
+            return mask;
+        }
+
+        /**
+         * Tells whether two masks placed at the given positions share an opaque pixel. A null mask (no image loaded)
+         * counts as fully opaque, so callers keep their AABB result.
+         * ---
+         * Indique si deux masques placés aux positions données ont un pixel opaque en commun. Un masque null (image non chargée)
+         * compte comme entièrement opaque, les appelants gardent donc leur résultat AABB.
+         */
+        public static boolean overlaps(CollisionMask a, int ax, int ay, CollisionMask b, int bx, int by) {
+            if (a == null || b == null) return true;
+            int left = Math.max(ax, bx), right = Math.min(ax + a.width, bx + b.width);
+            int top = Math.max(ay, by), bottom = Math.min(ay + a.height, by + b.height);
+            for (int y = top; y < bottom; y++) {
+                for (int x = left; x < right; x += 64) {
+                    int span = Math.min(64, right - x);
+                    long spanMask = span == 64 ? -1L : (1L << span) - 1;
+                    if ((a.bitsAt(y - ay, x - ax) & b.bitsAt(y - by, x - bx) & spanMask) != 0) return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The full test between two sprites: their boxes first, then their masks if the boxes overlap.
+         * ---
+         * Le test complet entre deux sprites : d'abord leurs boîtes, puis leurs masques si les boîtes se chevauchent.
+         */
+        public static boolean hit(CollisionMask a, int ax, int ay, int aw, int ah, CollisionMask b, int bx, int by, int bw, int bh) {
+            return ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah && overlaps(a, ax, ay, b, bx, by);
+        }
+
+        /**
+         * The number of positions a sprite moving vertically from {@code prevY} to {@code y} is tested at by {@link #sweep}:
+         * just the end position while it moves no farther than its own height, as the discrete test did, more when it is faster.
+         * ---
+         * Le nombre de positions auxquelles {@link #sweep} teste un sprite qui se déplace verticalement de {@code prevY} à {@code y} :
+         * la seule position d'arrivée tant qu'il ne va pas plus loin que sa propre hauteur, comme le faisait le test discret, plus s'il est plus rapide.
+         */
+        public static int steps(int prevY, int y, int height) {
+            return Math.max(1, (Math.abs(y - prevY) + height - 1) / Math.max(1, height));
+        }
+
+        /**
+         * Swept test of a sprite moving vertically during one tick, from {@code aPrevY} to {@code ay}, against a still sprite.
+         * The box swept by the whole motion is tested first; then the sprite is placed at {@code steps} evenly spaced positions
+         * along the motion, the last one being {@code ay}. Positions no farther apart than the sprite's height leave no gap
+         * between two of its boxes, so nothing it crosses is skipped however fast it goes. Returns the first position (from 1)
+         * at which the two sprites share an opaque pixel, its time of impact in steps, or 0 when they never touch.
+         * ---
+         * Test balayé d'un sprite qui se déplace verticalement pendant un tick, de {@code aPrevY} à {@code ay}, contre un sprite immobile.
+         * La boîte balayée par tout le mouvement est testée d'abord ; puis le sprite est placé à {@code steps} positions régulièrement
+         * espacées le long du mouvement, la dernière étant {@code ay}. Des positions pas plus éloignées que la hauteur du sprite ne
+         * laissent aucun trou entre deux de ses boîtes : rien de ce qu'il traverse n'est sauté, aussi vite qu'il aille. Retourne la
+         * première position (à partir de 1) à laquelle les deux sprites ont un pixel opaque en commun, son instant d'impact en pas,
+         * ou 0 s'ils ne se touchent jamais.
+         */
+        public static int sweep(CollisionMask a, int ax, int aPrevY, int ay, int aw, int ah, int steps,
+                                CollisionMask b, int bx, int by, int bw, int bh) {
+            if (ax >= bx + bw || bx >= ax + aw || Math.min(aPrevY, ay) >= by + bh || by >= Math.max(aPrevY, ay) + ah) return 0;
+            for (int step = 1; step <= steps; step++) {
+                int y = aPrevY + (ay - aPrevY) * step / steps;
+                if (y < by + bh && by < y + ah && overlaps(a, ax, y, b, bx, by)) return step;
+            }
+            return 0;
+        }
+
+        // The 64 pixels of a row starting at the given column, column 0 in the lowest bit.
+        // Les 64 pixels d'une ligne à partir de la colonne donnée, la colonne 0 dans le bit de poids faible.
+        private long bitsAt(int row, int column) {
+            int word = column >>> 6, shift = column & 63, base = row * wordsPerRow;
+            long value = bits[base + word] >>> shift;
+            if (shift != 0 && word + 1 < wordsPerRow) value |= bits[base + word + 1] << (64 - shift);
+            return value;
+        }
+
+        /**
+         * Compares the swept test with the discrete one ({@code --bench-collision}): player lasers shot at a wave and alien
+         * lasers dropped on the ship, at the normal projectile speeds and at speeds multiplied as a coarser tick would. Each
+         * shot is flown by the discrete test, the swept test and a reference sweeping one pixel at a time, then the first
+         * target and tick of each test are compared with the reference's. Also reports the cost of a collision pass.
+         * ---
+         * Compare le test balayé au test discret ({@code --bench-collision}) : des lasers du joueur tirés sur une vague et des
+         * lasers d'aliens lâchés sur le vaisseau, aux vitesses normales des projectiles et à des vitesses multipliées comme le
+         * ferait un tick plus grossier. Chaque tir est joué par le test discret, le test balayé et une référence qui balaie pixel
+         * par pixel, puis la première cible et le tick de chaque test sont comparés à ceux de la référence. Indique aussi le coût
+         * d'une passe de collision.
+         */
+        static void benchmark() {
+            AssetLoader.load();
+            SweepBenchmark bench = new SweepBenchmark();
+            // The first round warms the JIT up. / Le premier tour chauffe le JIT.
+            bench.run(false);
+            bench.run(true);
+        }
+
+        private static final class SweepBenchmark {
+            static final int SHOTS = 20_000;
+            static final int[] SPEED_FACTORS = {1, 2, 3, 4, 6, 8};
+            static final int DISCRETE = 0, SWEPT = 1, REFERENCE = 2;
+            final int[] alienX, alienY, alienWidth, alienHeight, shipX, shipY, shipWidth, shipHeight;
+            final CollisionMask[] alienMasks, shipMasks;
+            final Laser playerLaser = new Laser(0, 0, false), alienLaser = new Laser(0, 0, true);
+            long passes;
+
+            SweepBenchmark() {
+                List<Alien> aliens = GameWorld.prepareWave(1).aliens;
+                int count = aliens.size();
+                alienX = new int[count]; alienY = new int[count]; alienWidth = new int[count]; alienHeight = new int[count];
+                alienMasks = new CollisionMask[count];
+                for (int i = 0; i < count; i++) {
+                    Alien alien = aliens.get(i);
+                    alienX[i] = alien.x; alienY[i] = alien.y; alienWidth[i] = alien.width; alienHeight[i] = alien.height;
+                    alienMasks[i] = alien.getMask();
+                }
+                PlayerShip ship = new PlayerShip(0, GameConstants.WINDOW_WIDTH / 2, GameConstants.WINDOW_HEIGHT - 80, new TimerWheel());
+                shipX = new int[] {ship.x}; shipY = new int[] {ship.y}; shipWidth = new int[] {ship.width}; shipHeight = new int[] {ship.height};
+                shipMasks = new CollisionMask[] {ship.getMask()};
+            }
+
+            void run(boolean print) {
+                if (print) {
+                    System.out.printf("Player laser %dx%d against %d aliens of %dx%d, alien laser %dx%d against a ship of %dx%d, %d shots per row%n",
+                            playerLaser.width, playerLaser.height, alienX.length, alienWidth[0], alienHeight[0],
+                            alienLaser.width, alienLaser.height, shipWidth[0], shipHeight[0], SHOTS);
+                    System.out.printf("%-14s %8s  %12s %12s  %16s %16s%n", "shot", "px/tick", "discrete ns", "swept ns",
+                            "discrete missed", "swept missed");
+                }
+                Random random = new Random(43);
+                int[] startX = new int[SHOTS], startY = new int[SHOTS];
+                for (int factor : SPEED_FACTORS) {
+                    // Shots start anywhere within one step, so they meet their targets at every phase of the step.
+                    // Les tirs partent n'importe où dans un pas, pour rencontrer leurs cibles à toutes les phases du pas.
+                    int velocity = GameConstants.PLAYER_LASER_SPEED * factor;
+                    for (int i = 0; i < SHOTS; i++) {
+                        startX[i] = random.nextInt(GameConstants.WINDOW_WIDTH - playerLaser.width);
+                        startY[i] = shipY[0] - random.nextInt(velocity);
+                    }
+                    row("laser->alien", factor, playerLaser, -velocity, startX, startY, alienX, alienY, alienWidth, alienHeight, alienMasks, print);
+                    velocity = GameConstants.ALIEN_LASER_SPEED * factor;
+                    for (int i = 0; i < SHOTS; i++) {
+                        startX[i] = shipX[0] - alienLaser.width + 1 + random.nextInt(shipWidth[0] + alienLaser.width - 1);
+                        startY[i] = shipY[0] - 300 + random.nextInt(velocity);
+                    }
+                    row("laser->ship", factor, alienLaser, velocity, startX, startY, shipX, shipY, shipWidth, shipHeight, shipMasks, print);
+                }
+            }
+
+            private void row(String name, int factor, Laser laser, int velocity, int[] startX, int[] startY,
+                             int[] x, int[] y, int[] width, int[] height, CollisionMask[] masks, boolean print) {
+                long[] reference = new long[SHOTS];
+                for (int i = 0; i < SHOTS; i++) reference[i] = firstHit(REFERENCE, laser, startX[i], startY[i], velocity, x, y, width, height, masks);
+                long[] nanosPerPass = new long[2];
+                int[] missed = new int[2];
+                for (int method = DISCRETE; method <= SWEPT; method++) {
+                    passes = 0;
+                    long start = System.nanoTime();
+                    for (int i = 0; i < SHOTS; i++) {
+                        // A wrong target or tick counts as missed. / Une mauvaise cible ou un mauvais tick compte comme manqué.
+                        if (firstHit(method, laser, startX[i], startY[i], velocity, x, y, width, height, masks) != reference[i]) missed[method]++;
+                    }
+                    nanosPerPass[method] = (System.nanoTime() - start) / Math.max(1, passes);
+                }
+                if (print) {
+                    System.out.printf("%-14s %5d %dx  %12d %12d  %16d %16d%n", name, Math.abs(velocity), factor,
+                            nanosPerPass[DISCRETE], nanosPerPass[SWEPT], missed[DISCRETE], missed[SWEPT]);
+                }
+            }
+
+            // The first hit of one shot flown by one test, as tick * targets + target, or -1.
+            // Le premier impact d'un tir joué par un test, en tick * cibles + cible, ou -1.
+            private long firstHit(int method, Laser laser, int laserX, int laserY, int velocity,
+                                  int[] x, int[] y, int[] width, int[] height, CollisionMask[] masks) {
+                CollisionMask mask = laser.getMask();
+                for (int tick = 1; laserY + laser.height > 0 && laserY < GameConstants.WINDOW_HEIGHT; tick++) {
+                    int prevY = laserY;
+                    laserY += velocity;
+                    passes++;
+                    int steps = method == REFERENCE ? Math.abs(velocity) : steps(prevY, laserY, laser.height);
+                    int first = -1, firstStep = steps + 1;
+                    for (int t = 0; t < x.length && firstStep > 1; t++) {
+                        int step = method == DISCRETE
+                                ? (hit(mask, laserX, laserY, laser.width, laser.height, masks[t], x[t], y[t], width[t], height[t]) ? 1 : 0)
+                                : sweep(mask, laserX, prevY, laserY, laser.width, laser.height, steps, masks[t], x[t], y[t], width[t], height[t]);
+                        if (step > 0 && step < firstStep) {
+                            first = t;
+                            firstStep = step;
+                        }
+                    }
+                    if (first >= 0) return (long) tick * x.length + first;
+                }
+                return -1;
             }
         }
     }
@@ -360,23 +1035,58 @@ public class SpaceInvadersGame extends JFrame {
      * Elle gère les erreurs de chargement potentielles de manière robuste.
      */
     public static class SoundManager {
-        public static Clip playerShootSound, explosionSound, hitSound, playerHitSound, powerupSound, clickSound, gameOverSound, alienShootSound;
-        public static Clip menuMusic, gameMusic;
+        // Volatile: most clips are loaded by the background thread while the menu is already running.
+        // Volatils : la plupart des clips sont chargés par le thread d'arrière-plan alors que le menu tourne déjà.
+        public static volatile Clip playerShootSound, explosionSound, hitSound, playerHitSound, powerupSound, clickSound, gameOverSound, alienShootSound;
+        public static volatile Clip menuMusic, gameMusic;
+        private static volatile Clip[] allClips = new Clip[0];
         
         public static void init() {
+            initMenu();
+            loadMenuMusic();
+            initGameplay();
+        }
+
+        /**
+         * Loads the sounds the main menu needs right away. A clip that is not loaded yet is simply not played.
+         * ---
+         * Charge les sons dont le menu principal a besoin immédiatement. Un clip pas encore chargé n'est simplement pas joué.
+         */
+        public static void initMenu() {
+            clickSound = loadSound("/resources/click.wav");
+        }
+
+        public static void loadMenuMusic() {
+            menuMusic = loadSound("/resources/menu_music.wav");
+        }
+
+        public static void initGameplay() {
             playerShootSound = loadSound("/resources/laserShoot.wav");
             explosionSound = loadSound("/resources/explosion.wav");
             hitSound = loadSound("/resources/hit.wav");
             playerHitSound = loadSound("/resources/player_hit.wav");
             powerupSound = loadSound("/resources/powerup.wav");
-            clickSound = loadSound("/resources/click.wav");
             gameOverSound = loadSound("/resources/gameover.wav");
             alienShootSound = loadSound("/resources/alien_shoot.wav");
-            menuMusic = loadSound("/resources/menu_music.wav");
             gameMusic = loadSound("/resources/game_music.wav");
+            allClips = new Clip[]{playerShootSound, explosionSound, hitSound, playerHitSound, powerupSound, clickSound,
+                    gameOverSound, alienShootSound, menuMusic, gameMusic};
+        }
+
+        /**
+         * Counts the clips currently playing, i.e. the audio voices in use.
+         * ---
+         * Compte les clips en cours de lecture, c'est-à-dire les voix audio utilisées.
+         */
+        public static int countActiveVoices() {
+            int voices = 0;
+            for (Clip clip : allClips) if (clip != null && clip.isRunning()) voices++;
+            return voices;
         }
         
         private static Clip loadSound(String path) {
+            FlightEvents.AssetLoad event = FlightEvents.beginAssetLoad();
+            Clip loaded = null;
             try {
                 URL url = SoundManager.class.getResource(path);
                  if (url == null) {
@@ -386,11 +1096,14 @@ public class SpaceInvadersGame extends JFrame {
                 try (AudioInputStream audioIn = AudioSystem.getAudioInputStream(url)) {
                     Clip clip = AudioSystem.getClip();
                     clip.open(audioIn);
+                    loaded = clip;
                     return clip;
                 }
             } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
                 System.err.println("Failed to load sound: " + path + " - " + e.getMessage());
                 return null;
+            } finally {
+                FlightEvents.commitAssetLoad(event, "sound", path, loaded != null);
             }
         }
 
@@ -400,6 +1113,49 @@ public class SpaceInvadersGame extends JFrame {
                 clip.start();
             }
         }
+
+        /**
+         * Plays a clip with its gain raised by the given number of decibels (0 for the normal level).
+         * ---
+         * Joue un clip avec son gain augmenté du nombre de décibels donné (0 pour le niveau normal).
+         */
+        public static void playSound(Clip clip, float gainBoostDb) {
+            if (clip == null) return;
+            if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+                FloatControl gain = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+                gain.setValue(Math.max(gain.getMinimum(), Math.min(gain.getMaximum(), gainBoostDb)));
+            }
+            playSound(clip);
+        }
+
+        /**
+         * Plays each kind of gameplay sound at most once per tick, louder when several events of the same type
+         * happened together (+3 dB per doubling, capped at +6 dB).
+         * ---
+         * Joue chaque type de son de jeu au plus une fois par tick, plus fort quand plusieurs événements du même type
+         * sont survenus ensemble (+3 dB par doublement, plafonné à +6 dB).
+         */
+        static final GameEventQueue.Subscriber EVENT_AUDIO = new GameEventQueue.Subscriber() {
+            @Override
+            public void onTickSummary(int[] countsByType) {
+                play(alienHitClip(countsByType), countsByType[GameEventQueue.ALIEN_HIT]);
+                play(explosionSound, countsByType[GameEventQueue.ALIEN_DESTROYED]);
+                play(playerHitSound, countsByType[GameEventQueue.PLAYER_HIT]);
+                play(powerupSound, countsByType[GameEventQueue.POWERUP_COLLECTED]);
+                play(playerShootSound, countsByType[GameEventQueue.PLAYER_FIRED]);
+                play(alienShootSound, countsByType[GameEventQueue.ALIEN_FIRED]);
+            }
+
+            // A destroyed alien's explosion covers the hit sound of the same tick.
+            // L'explosion d'un alien détruit couvre le son d'impact du même tick.
+            private Clip alienHitClip(int[] countsByType) {
+                return countsByType[GameEventQueue.ALIEN_DESTROYED] > 0 ? null : hitSound;
+            }
+
+            private void play(Clip clip, int count) {
+                if (count > 0) playSound(clip, Math.min(6f, (float) (3 * Math.log(count) / Math.log(2))));
+            }
+        };
         
         public static void playMusic(Clip clip, boolean loop) {
             if (clip != null) {
@@ -425,543 +1181,6974 @@ public class SpaceInvadersGame extends JFrame {
     }
 
     /**
-     * Manages high scores, including adding, sorting, loading, and saving.
-     * Uses Java Serialization, which is simple but can be fragile. For a more robust
-     * application, a format like JSON or XML would be preferable.
+     * Manages the high score history: adding, ranking, paging, loading and saving. Entries are kept in two parallel
+     * arrays sorted by descending score, so a screen can copy just the page it shows and a million entries cost
+     * a few megabytes. Files are written in a compact binary format; the older serialized list format is still read.
      * ---
-     * Gère les meilleurs scores, y compris l'ajout, le tri, le chargement et la sauvegarde.
-     * Utilise la Sérialisation Java, qui est simple mais peut être fragile. Pour une application
-     * plus robuste, un format comme JSON ou XML serait préférable.
+     * Gère l'historique des meilleurs scores : ajout, classement, pagination, chargement et sauvegarde. Les entrées sont
+     * rangées dans deux tableaux parallèles triés par score décroissant : un écran peut ne copier que la page qu'il affiche,
+     * et un million d'entrées ne coûte que quelques mégaoctets. Les fichiers sont écrits dans un format binaire compact ;
+     * l'ancien format de liste sérialisée est toujours lu.
      */
     public static class HighScoreManager {
-        private List<ScoreEntry> highScores;
+        private static final int FILE_MAGIC = 0x53494853; // "SIHS"
+        private static final int FILE_VERSION = 1;
+        private static final int SERIALIZATION_MAGIC = 0xACED;
+
+        // Rank order: higher score first, and the older entry first among equal scores.
+        // Ordre du classement : le score le plus haut d'abord, et l'entrée la plus ancienne d'abord à score égal.
+        private int[] scores = new int[16];
+        private String[] names = new String[16];
+        private int size;
         private final String filename;
+        private final Object fileLock = new Object();
         
-        public HighScoreManager(String filename) { this.filename = filename; highScores = new ArrayList<>(); }
+        public HighScoreManager(String filename) { this.filename = filename; }
         
-        public void addHighScore(String name, int score) {
-            highScores.add(new ScoreEntry(name, score));
-            sortHighScores();
-            if (highScores.size() > 10) highScores = highScores.subList(0, 10);
+        public synchronized void addHighScore(String name, int score) {
+            int rank = insertionRank(score);
+            if (rank >= GameConstants.HIGHSCORE_HISTORY_LIMIT) return;
+            ensureCapacity(size + 1);
+            System.arraycopy(scores, rank, scores, rank + 1, size - rank);
+            System.arraycopy(names, rank, names, rank + 1, size - rank);
+            scores[rank] = score;
+            names[rank] = name;
+            size = Math.min(size + 1, GameConstants.HIGHSCORE_HISTORY_LIMIT);
+            names[size] = null;
         }
-        
-        public List<ScoreEntry> getHighScores() { return Collections.unmodifiableList(highScores); }
-        
-        private void sortHighScores() { highScores.sort(Comparator.comparingInt(ScoreEntry::getScore).reversed()); }
 
-        public void saveHighScores() throws IOException {
-            try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filename))) { oos.writeObject(highScores); }
-        }
-        
-        @SuppressWarnings("unchecked") // This is a necessary cast for deserialization
-        public void loadHighScores() throws IOException, ClassNotFoundException {
-            File file = new File(filename);
-            if (file.exists()) {
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filename))) { 
-                    highScores = (List<ScoreEntry>) ois.readObject(); 
-                    sortHighScores(); 
-                }
+        /**
+         * Adds many entries at once with a single sort, instead of shifting the arrays for each one.
+         * ---
+         * Ajoute de nombreuses entrées d'un coup avec un seul tri, au lieu de décaler les tableaux pour chacune.
+         */
+        public synchronized void addHighScores(int[] newScores, String[] newNames, int count) {
+            int total = size + count;
+            // Each key packs the inverted score above the original position, so sorting the keys gives the rank order.
+            // Chaque clé place le score inversé au-dessus de la position d'origine : trier les clés donne l'ordre du classement.
+            long[] keys = new long[total];
+            for (int i = 0; i < size; i++) keys[i] = ((long) ~scores[i] << 32) | i;
+            for (int i = 0; i < count; i++) keys[size + i] = ((long) ~newScores[i] << 32) | (size + i);
+            Arrays.sort(keys);
+            int kept = Math.min(total, GameConstants.HIGHSCORE_HISTORY_LIMIT);
+            int[] sortedScores = new int[Math.max(16, kept + 1)];
+            String[] sortedNames = new String[sortedScores.length];
+            for (int rank = 0; rank < kept; rank++) {
+                int source = (int) keys[rank];
+                sortedScores[rank] = source < size ? scores[source] : newScores[source - size];
+                sortedNames[rank] = source < size ? names[source] : newNames[source - size];
             }
+            scores = sortedScores;
+            names = sortedNames;
+            size = kept;
         }
-        
+
+        public synchronized int size() { return size; }
+
         /**
-         * Represents a single high score entry. Must implement Serializable to be saved to a file.
+         * Copies the entries from {@code firstRank} (0-based) into the caller's buffers and returns how many were copied.
          * ---
-         * Représente une seule entrée de meilleur score. Doit implémenter Serializable pour être sauvegardée.
+         * Copie les entrées à partir de {@code firstRank} (base 0) dans les tampons de l'appelant et renvoie leur nombre.
          */
-        public static class ScoreEntry implements Serializable {
-            // A unique ID for serialization versioning.
-            // Un ID unique pour le versioning de la sérialisation.
-            private static final long serialVersionUID = 1L;
-            
-            private final String name; 
-            private final int score;
-            
-            public ScoreEntry(String name, int score) { this.name = name; this.score = score; }
+        public synchronized int fetchPage(int firstRank, int count, int[] scoresOut, String[] namesOut) {
+            int copied = Math.max(0, Math.min(count, size - firstRank));
+            System.arraycopy(scores, firstRank, scoresOut, 0, copied);
+            System.arraycopy(names, firstRank, namesOut, 0, copied);
+            return copied;
+        }
+
+        /**
+         * Same as {@link #fetchPage} for the entries whose ranks are listed in {@code ranks[from..]}, e.g. a filter result.
+         * ---
+         * Identique à {@link #fetchPage} pour les entrées dont les rangs sont listés dans {@code ranks[from..]}, par exemple un résultat de filtre.
+         */
+        public synchronized int fetchRanks(int[] ranks, int from, int count, int[] scoresOut, String[] namesOut) {
+            int copied = 0;
+            for (int i = from; i < ranks.length && copied < count && ranks[i] < size; i++, copied++) {
+                scoresOut[copied] = scores[ranks[i]];
+                namesOut[copied] = names[ranks[i]];
+            }
+            return copied;
+        }
+
+        /** @return The best rank (0-based) held by this name, ignoring case, or -1. / Le meilleur rang (base 0) de ce nom, sans tenir compte de la casse, ou -1. */
+        public synchronized int rankOf(String name) {
+            for (int rank = 0; rank < size; rank++) {
+                if (names[rank].equalsIgnoreCase(name)) return rank;
+            }
+            return -1;
+        }
+
+        /** @return The ranks, in order, of the names containing {@code query}, ignoring case. / Les rangs, dans l'ordre, des noms contenant {@code query}, sans tenir compte de la casse. */
+        public synchronized int[] findRanks(String query) {
+            char[] lowerQuery = query.toLowerCase().toCharArray();
+            int[] matches = new int[16];
+            int count = 0;
+            for (int rank = 0; rank < size; rank++) {
+                if (!containsIgnoreCase(names[rank], lowerQuery)) continue;
+                if (count == matches.length) matches = Arrays.copyOf(matches, count * 2);
+                matches[count++] = rank;
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        private static boolean containsIgnoreCase(String name, char[] lowerQuery) {
+            next:
+            for (int start = 0; start <= name.length() - lowerQuery.length; start++) {
+                for (int i = 0; i < lowerQuery.length; i++) {
+                    if (Character.toLowerCase(name.charAt(start + i)) != lowerQuery[i]) continue next;
+                }
+                return true;
+            }
+            return false;
+        }
+
+        private int insertionRank(int score) {
+            int low = 0, high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (scores[mid] >= score) low = mid + 1;
+                else high = mid;
+            }
+            return low;
+        }
+
+        private void ensureCapacity(int capacity) {
+            // One spare slot, so addHighScore can shift before trimming to the limit. / Une case de réserve, pour qu'addHighScore puisse décaler avant de couper à la limite.
+            if (capacity + 1 <= scores.length) return;
+            int grown = Math.max(capacity + 1, scores.length * 2);
+            scores = Arrays.copyOf(scores, grown);
+            names = Arrays.copyOf(names, grown);
+        }
+
+        /**
+         * Writes a copy of the history taken under the lock, so a large save never blocks the screens that page through it.
+         * ---
+         * Écrit une copie de l'historique prise sous le verrou : une grosse sauvegarde ne bloque jamais les écrans qui le parcourent.
+         */
+        public void saveHighScores() throws IOException {
+            int count;
+            int[] savedScores;
+            String[] savedNames;
+            synchronized (this) {
+                count = size;
+                savedScores = Arrays.copyOf(scores, count);
+                savedNames = Arrays.copyOf(names, count);
+            }
+            synchronized (fileLock) {
+                FlightEvents.HighScoreIo event = FlightEvents.beginHighScoreIo();
+                boolean saved = false;
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+                    out.writeInt(FILE_MAGIC);
+                    out.writeInt(FILE_VERSION);
+                    out.writeInt(count);
+                    for (int i = 0; i < count; i++) {
+                        out.writeInt(savedScores[i]);
+                        out.writeUTF(savedNames[i]);
+                    }
+                    saved = true;
+                } finally {
+                    // After the stream is closed, so the size is that of the whole file. / Après la fermeture du flux, pour que la taille soit celle du fichier entier.
+                    FlightEvents.commitHighScoreIo(event, "save", filename, count, saved);
+                }
+            }
+        }
+        
+        @SuppressWarnings("unchecked") // This is a necessary cast for deserialization
+        public void loadHighScores() throws IOException, ClassNotFoundException {
+            File file = new File(filename);
+            if (!file.exists()) return;
+            int[] loadedScores = null;
+            String[] loadedNames;
+            synchronized (fileLock) {
+                FlightEvents.HighScoreIo event = FlightEvents.beginHighScoreIo();
+                boolean loaded = false;
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                    in.mark(2);
+                    if (in.readUnsignedShort() == SERIALIZATION_MAGIC) {
+                        in.reset();
+                        List<ScoreEntry> legacy = (List<ScoreEntry>) new ObjectInputStream(in).readObject();
+                        loadedScores = new int[legacy.size()];
+                        loadedNames = new String[legacy.size()];
+                        for (int i = 0; i < legacy.size(); i++) {
+                            loadedScores[i] = legacy.get(i).getScore();
+                            loadedNames[i] = legacy.get(i).getName();
+                        }
+                    } else {
+                        in.reset();
+                        if (in.readInt() != FILE_MAGIC) throw new IOException("Not a high score file");
+                        int version = in.readInt();
+                        if (version != FILE_VERSION) throw new IOException("Unsupported high score file version " + version);
+                        int count = in.readInt();
+                        if (count < 0) throw new IOException("Corrupted high score file");
+                        loadedScores = new int[count];
+                        loadedNames = new String[count];
+                        for (int i = 0; i < count; i++) {
+                            loadedScores[i] = in.readInt();
+                            loadedNames[i] = in.readUTF();
+                        }
+                    }
+                    loaded = true;
+                } finally {
+                    FlightEvents.commitHighScoreIo(event, "load", filename, loaded ? loadedScores.length : 0, loaded);
+                }
+            }
+            // Merged rather than replaced, so a score added while the file was being read is kept.
+            // Fusionnés plutôt que remplacés : un score ajouté pendant la lecture du fichier est conservé.
+            addHighScores(loadedScores, loadedNames, loadedScores.length);
+        }
+        
+        /**
+         * A single entry of the legacy high score file, which stored a serialized list of them. Kept to read those files.
+         * ---
+         * Une entrée de l'ancien fichier de scores, qui en stockait une liste sérialisée. Conservée pour lire ces fichiers.
+         */
+        public static class ScoreEntry implements Serializable {
+            // A unique ID for serialization versioning.
+            // Un ID unique pour le versioning de la sérialisation.
+            private static final long serialVersionUID = 1L;
+            
+            private final String name; 
+            private final int score;
+            
+            public ScoreEntry(String name, int score) { this.name = name; this.score = score; }
             public String getName() { return name; }
             public int getScore() { return score; }
             @Override public String toString() { return String.format("%s: %d", name, score); }
         }
     }
     
-    // ===================================================================================
-    // SECTION: UI Inner Classes / Classes Internes de l'Interface Utilisateur
-    // ===================================================================================
+    /**
+     * A lock-free record of the gameplay keys. The Event Dispatch Thread only sets and clears bits;
+     * the simulation samples the state once at the start of each tick. Presses are latched until the
+     * next sample, so a tap shorter than a tick is never lost, and the time of the oldest unconsumed
+     * press is kept to measure input latency.
+     * ---
+     * Un enregistrement sans verrou des touches de jeu. L'Event Dispatch Thread ne fait que lever et baisser
+     * des bits ; la simulation échantillonne l'état une fois au début de chaque tick. Les appuis sont mémorisés
+     * jusqu'au prochain échantillonnage, si bien qu'un appui plus court qu'un tick n'est jamais perdu, et l'heure
+     * du plus ancien appui non consommé est conservée pour mesurer la latence d'entrée.
+     */
+    public static class InputState {
+        public static final int MOVE_LEFT = 1;
+        public static final int MOVE_RIGHT = 1 << 1;
+        public static final int FIRE = 1 << 2;
+
+        private final AtomicInteger held = new AtomicInteger();
+        private final AtomicInteger pressedSinceSample = new AtomicInteger();
+        private final AtomicLong oldestPendingPressNanos = new AtomicLong();
+
+        public final LatencyHistogram inputToSimulation = new LatencyHistogram();
+        public final LatencyHistogram inputToPresent = new LatencyHistogram();
+        // Press time of the last sampled input, waiting for the frame that will show its effect.
+        // Heure d'appui de la dernière entrée échantillonnée, en attente de l'image qui en montrera l'effet.
+        private final AtomicLong awaitingPresentNanos = new AtomicLong();
+
+        /**
+         * Maps a key code to its action bit, or 0 if the key is not a gameplay key.
+         * ---
+         * Associe un code de touche à son bit d'action, ou 0 si la touche n'est pas une touche de jeu.
+         */
+        public static int actionFor(int keyCode) {
+            switch (keyCode) {
+                case KeyEvent.VK_LEFT: return MOVE_LEFT;
+                case KeyEvent.VK_RIGHT: return MOVE_RIGHT;
+                case KeyEvent.VK_SPACE: return FIRE;
+                default: return 0;
+            }
+        }
+
+        public void press(int action) {
+            if (action == 0) return;
+            int bits;
+            do { bits = held.get(); } while (!held.compareAndSet(bits, bits | action));
+            do { bits = pressedSinceSample.get(); } while (!pressedSinceSample.compareAndSet(bits, bits | action));
+            oldestPendingPressNanos.compareAndSet(0, System.nanoTime());
+        }
+
+        public void release(int action) {
+            if (action == 0) return;
+            int bits;
+            do { bits = held.get(); } while (!held.compareAndSet(bits, bits & ~action));
+        }
+
+        /**
+         * Returns the actions active for this tick: every held key plus every key pressed since the last sample.
+         * ---
+         * Retourne les actions actives pour ce tick : toutes les touches maintenues et toutes celles appuyées depuis le dernier échantillon.
+         */
+        public int sample() {
+            int actions = held.get() | pressedSinceSample.getAndSet(0);
+            long pressNanos = oldestPendingPressNanos.getAndSet(0);
+            if (pressNanos != 0) {
+                inputToSimulation.record(System.nanoTime() - pressNanos);
+                awaitingPresentNanos.compareAndSet(0, pressNanos);
+            }
+            return actions;
+        }
+
+        /**
+         * Called once a frame has been handed to the display.
+         * ---
+         * Appelée une fois qu'une image a été transmise à l'écran.
+         */
+        public void framePresented() {
+            long pressNanos = awaitingPresentNanos.getAndSet(0);
+            if (pressNanos != 0) inputToPresent.record(System.nanoTime() - pressNanos);
+        }
+
+        public void clear() {
+            held.set(0);
+            pressedSinceSample.set(0);
+            oldestPendingPressNanos.set(0);
+            awaitingPresentNanos.set(0);
+        }
+    }
 
     /**
-     * Inner class representing the main gameplay panel. It contains the game loop and all game logic.
-     * As an inner class, it has direct access to the main frame's methods like gameOver().
+     * A fixed-size latency histogram with four sub-buckets per power of two of microseconds.
+     * Recording never allocates; each instance expects a single writing thread.
      * ---
-     * Classe interne représentant le panneau de jeu principal. Elle contient la boucle de jeu et toute la logique.
-     * En tant que classe interne, elle a un accès direct aux méthodes de la fenêtre principale comme gameOver().
+     * Un histogramme de latence de taille fixe avec quatre sous-intervalles par puissance de deux de microsecondes.
+     * L'enregistrement n'alloue jamais ; chaque instance suppose un seul thread écrivain.
      */
-    private class GamePanel extends JPanel implements ActionListener {
+    public static class LatencyHistogram {
+        private static final int BUCKET_COUNT = 96;
+        private final long[] counts = new long[BUCKET_COUNT];
+        private long total;
+        private long maxNanos;
 
-        private Timer gameTimer;
-        private GameState gameState;
-        private PlayerShip player;
-        private List<Alien> aliens;
-        private List<Laser> playerLasers;
-        private List<Laser> alienLasers;
-        private List<Particle> particles;
-        private List<PowerUp> powerUps;
-        private int score;
-        private int lives;
-        private int currentLevel;
-        private int alienMoveDirection = 1;
-        private long lastAlienMoveTime;
-        private long alienMoveInterval;
-        private long alienFireInterval;
-        private int alienSpeed;
-        private long lastAlienFireTime;
-        private final Random random;
-        private final List<Point2D.Float> stars;
+        public void record(long nanos) {
+            long micros = Math.max(0, nanos / 1000);
+            counts[bucketFor(micros)]++;
+            total++;
+            if (nanos > maxNanos) maxNanos = nanos;
+        }
 
-        public GamePanel() {
-            setPreferredSize(new Dimension(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT));
-            setBackground(Color.BLACK);
-            setFocusable(true);
+        private static int bucketFor(long micros) {
+            if (micros < 4) return (int) micros;
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int subBucket = (int) (micros >>> (exponent - 2)) & 3;
+            return Math.min((exponent - 1) * 4 + subBucket, BUCKET_COUNT - 1);
+        }
 
-            addKeyListener(new GameKeyListener());
-            gameTimer = new Timer(16, this); // ~60 FPS
-            random = new Random();
+        private static long bucketUpperBoundMicros(int bucket) {
+            if (bucket < 4) return bucket;
+            int exponent = bucket / 4 + 1;
+            long width = 1L << (exponent - 2);
+            return (4 + bucket % 4) * width + width - 1;
+        }
 
-            particles = new ArrayList<>();
-            powerUps = new ArrayList<>();
-            stars = new ArrayList<>();
-            for (int i = 0; i < GameConstants.BACKGROUND_STAR_COUNT; i++) {
-                stars.add(new Point2D.Float(random.nextInt(GameConstants.WINDOW_WIDTH), random.nextInt(GameConstants.WINDOW_HEIGHT)));
+        /**
+         * Returns the upper bound, in microseconds, of the bucket holding the given percentile (0-100).
+         * ---
+         * Retourne la borne supérieure, en microsecondes, de l'intervalle contenant le percentile donné (0-100).
+         */
+        public long percentileMicros(double percentile) {
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(total * percentile / 100.0);
+            long seen = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                seen += counts[i];
+                if (seen >= rank && counts[i] > 0) return Math.min(bucketUpperBoundMicros(i), maxNanos / 1000);
             }
-            
-            resetGame();
-            setGameState(GameState.MAIN_MENU);
+            return maxNanos / 1000;
         }
 
-        public void resetGame() {
-            player = new PlayerShip(GameConstants.WINDOW_WIDTH / 2 - 30, GameConstants.WINDOW_HEIGHT - 80);
-            aliens = new ArrayList<>();
-            playerLasers = new ArrayList<>();
-            alienLasers = new ArrayList<>();
-            particles.clear();
-            powerUps.clear();
-            score = 0;
-            lives = GameConstants.INITIAL_LIVES;
-            currentLevel = 1;
-            alienMoveDirection = 1;
-            lastAlienMoveTime = System.currentTimeMillis();
-            lastAlienFireTime = System.currentTimeMillis();
-            initializeLevel();
+        public long getCount() { return total; }
+
+        public void reset() {
+            Arrays.fill(counts, 0);
+            total = 0;
+            maxNanos = 0;
         }
 
-        private void initializeLevel() {
-            aliens.clear();
-            playerLasers.clear();
-            alienLasers.clear();
-            powerUps.clear();
-            player.resetPowerUps();
+        public String summary() {
+            return String.format("n=%d p50=%dus p90=%dus p99=%dus max=%dus",
+                    total, percentileMicros(50), percentileMicros(90), percentileMicros(99), maxNanos / 1000);
+        }
+    }
 
-            alienSpeed = 2 + (currentLevel / 4);
-            alienMoveInterval = Math.max(100, 500 - (currentLevel - 1) * 20);
-            alienFireInterval = Math.max(200, 1500 - (currentLevel - 1) * 50);
+    /**
+     * Adapts rendering quality to the machine. It keeps a moving window of the work done per loop iteration
+     * (simulation ticks plus painting) and steps down one {@link Tier} when the mean exceeds most of the frame budget
+     * or too many iterations overrun it; it steps back up only after several windows well under budget. The gap between
+     * the two thresholds, the longer wait to upgrade and a fresh window after every change keep it from flapping.
+     * Only rendering is affected: the simulation always runs at {@link GameConstants#TICKS_PER_SECOND}.
+     * ---
+     * Adapte la qualité du rendu à la machine. Il conserve une fenêtre glissante du travail effectué par itération de la
+     * boucle (ticks de simulation plus dessin) et descend d'un {@link Tier} quand la moyenne dépasse l'essentiel du budget
+     * par image ou que trop d'itérations le dépassent ; il ne remonte qu'après plusieurs fenêtres nettement sous le budget.
+     * L'écart entre les deux seuils, l'attente plus longue pour remonter et une fenêtre vierge après chaque changement
+     * l'empêchent d'osciller. Seul le rendu est concerné : la simulation tourne toujours à {@link GameConstants#TICKS_PER_SECOND}.
+     */
+    public static final class QualityGovernor {
+        public static final String PROPERTY = "spaceinvaders.quality";
+        static final int WINDOW_FRAMES = 60;
+        static final double DEGRADE_RATIO = 0.85;
+        static final double UPGRADE_RATIO = 0.45;
+        static final int UPGRADE_WINDOWS = 3;
 
-            for (int row = 0; row < 5; row++) {
-                for (int col = 0; col < 10; col++) {
-                    int alienType = row < 2 ? 2 : (row < 4 ? 1 : 0);
-                    aliens.add(new Alien(50 + col * 60, 50 + row * 40, alienSpeed, alienType));
-                }
+        /**
+         * Rendering quality tiers, from best to cheapest.
+         * ---
+         * Niveaux de qualité du rendu, du meilleur au moins coûteux.
+         */
+        public enum Tier {
+            HIGH(true, 1, GameConstants.EXPLOSION_PARTICLE_COUNT, false, 1),
+            MEDIUM(false, 1, 20, false, 1),
+            LOW(false, 2, 12, true, 1),
+            MINIMAL(false, 4, 6, true, 2);
+
+            final boolean antialiasing;
+            // Draw one star out of this many. / Dessiner une étoile sur N.
+            final int starStride;
+            final int particlesPerExplosion;
+            // Outline the shield instead of filling a translucent oval. / Contourner le bouclier au lieu de remplir un ovale translucide.
+            final boolean simpleShield;
+            // Repaint once every this many loop iterations. / Redessiner une fois toutes les N itérations de la boucle.
+            final int renderDivisor;
+
+            Tier(boolean antialiasing, int starStride, int particlesPerExplosion, boolean simpleShield, int renderDivisor) {
+                this.antialiasing = antialiasing;
+                this.starStride = starStride;
+                this.particlesPerExplosion = particlesPerExplosion;
+                this.simpleShield = simpleShield;
+                this.renderDivisor = renderDivisor;
             }
         }
-        
-        public void nextLevel() {
-            currentLevel++;
-            JOptionPane.showMessageDialog(this, "Congratulations! Proceeding to Level " + currentLevel + "!", "Level Complete", JOptionPane.INFORMATION_MESSAGE);
-            initializeLevel();
+
+        private final long[] window = new long[WINDOW_FRAMES];
+        private final boolean adaptive;
+        private Tier tier;
+        private int frames;
+        private long windowSum;
+        private int windowOverruns;
+        private int calmFrames;
+
+        public QualityGovernor(Tier initialTier, boolean adaptive) {
+            this.tier = initialTier;
+            this.adaptive = adaptive;
         }
 
-        public void startGame() { if (!gameTimer.isRunning()) gameTimer.start(); }
-        public void stopGame() { if (gameTimer.isRunning()) gameTimer.stop(); }
-        public void setGameState(GameState state) {
-            this.gameState = state;
-            if (state == GameState.PLAYING) startGame(); else stopGame();
-            repaint();
+        /**
+         * Reads {@value #PROPERTY}: {@code auto} (default) adapts from HIGH, a tier name pins that tier.
+         * ---
+         * Lit {@value #PROPERTY} : {@code auto} (par défaut) s'adapte à partir de HIGH, un nom de niveau fixe ce niveau.
+         */
+        public static QualityGovernor fromSystemProperty() {
+            String value = System.getProperty(PROPERTY, "auto");
+            if (value.equalsIgnoreCase("auto")) return new QualityGovernor(Tier.HIGH, true);
+            try {
+                return new QualityGovernor(Tier.valueOf(value.toUpperCase()), false);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown quality tier " + value + ", using auto.");
+                return new QualityGovernor(Tier.HIGH, true);
+            }
         }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        public Tier getTier() { return tier; }
 
-            g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, getWidth(), getHeight());
-            g2d.setColor(Color.WHITE);
-            for(Point2D.Float star : stars) g2d.fillOval((int)star.x, (int)star.y, 2, 2);
-
-            if (gameState == GameState.PLAYING || gameState == GameState.PAUSE_MENU) {
-                player.draw(g2d);
-                for (Alien alien : aliens) alien.draw(g2d);
-                for (Laser laser : playerLasers) laser.draw(g2d);
-                for (Laser laser : alienLasers) laser.draw(g2d);
-                for (PowerUp powerUp : powerUps) powerUp.draw(g2d);
-                
-                // Draw particles on top. / Dessiner les particules par-dessus.
-                // Create a copy to avoid ConcurrentModificationException. / Créer une copie pour éviter ConcurrentModificationException.
-                for (Particle particle : new ArrayList<>(particles)) particle.draw(g2d);
+        /**
+         * Records the work of one loop iteration against the frame budget. Returns true if the tier changed.
+         * ---
+         * Enregistre le travail d'une itération de la boucle par rapport au budget par image. Retourne vrai si le niveau a changé.
+         */
+        public boolean record(long workNanos, long frameBudgetNanos) {
+            if (!adaptive) return false;
+            int slot = frames++ % WINDOW_FRAMES;
+            if (frames > WINDOW_FRAMES) {
+                windowSum -= window[slot];
+                if (window[slot] > frameBudgetNanos) windowOverruns--;
+            }
+            window[slot] = workNanos;
+            windowSum += workNanos;
+            if (workNanos > frameBudgetNanos) windowOverruns++;
+            if (frames < WINDOW_FRAMES) return false;
 
-                drawHUD(g2d);
+            long mean = windowSum / WINDOW_FRAMES;
+            if ((mean > frameBudgetNanos * DEGRADE_RATIO || windowOverruns > WINDOW_FRAMES / 10) && tier.ordinal() < Tier.values().length - 1) {
+                return change(Tier.values()[tier.ordinal() + 1], mean, frameBudgetNanos);
+            }
+            calmFrames = mean < frameBudgetNanos * UPGRADE_RATIO && windowOverruns == 0 ? calmFrames + 1 : 0;
+            if (calmFrames >= UPGRADE_WINDOWS * WINDOW_FRAMES && tier.ordinal() > 0) {
+                return change(Tier.values()[tier.ordinal() - 1], mean, frameBudgetNanos);
+            }
+            return false;
+        }
 
-                if (gameState == GameState.PAUSE_MENU) drawPauseOverlay(g2d);
+        private boolean change(Tier next, long meanNanos, long frameBudgetNanos) {
+            // Telemetry exports the tier as quality_tier; the reason is only printed for diagnostics.
+            // La télémétrie exporte le niveau dans quality_tier ; la raison n'est affichée que pour les diagnostics.
+            if (GameConstants.DIAGNOSTICS) {
+                System.out.printf("Quality %s -> %s (mean frame work %.2f ms of %.2f ms)%n",
+                        tier, next, meanNanos / 1e6, frameBudgetNanos / 1e6);
             }
+            tier = next;
+            // Start a fresh window so the new tier is judged on its own frames.
+            // Repartir d'une fenêtre vierge pour juger le nouveau niveau sur ses propres images.
+            frames = 0;
+            windowSum = 0;
+            windowOverruns = 0;
+            calmFrames = 0;
+            return true;
         }
+    }
 
-        private void drawHUD(Graphics2D g2d) {
-            g2d.setColor(Color.CYAN);
-            g2d.setFont(AssetLoader.fontUI != null ? AssetLoader.fontUI.deriveFont(20f) : new Font("Arial", Font.BOLD, 20));
-            g2d.drawString("Score: " + score, 10, 25);
-            g2d.drawString("Lives: " + lives, GameConstants.WINDOW_WIDTH - 100, 25);
-            g2d.drawString("Level: " + currentLevel, GameConstants.WINDOW_WIDTH / 2 - 50, 25);
+    /**
+     * Java Flight Recorder events of the game, so that its own activity shows next to GC and thread samples in a recording:
+     * ticks with their entity counts and phase durations, collision passes, explosion spawns, level transitions, asset
+     * loads and high-score file I/O. Until a recording exists, JFR is not even started: every call site reads a single
+     * flag of {@link FlightRecorder}, allocates nothing and reads no clock. The event types are only looked up once the
+     * recorder runs, and then each call site checks that its own type is enabled. {@code resources/spaceinvaders.jfc} is a settings
+     * profile with these events and low-overhead JDK events; {@value #PROPERTY} starts a recording with it from the game
+     * itself, {@code --jfr-summary file} summarizes a recording into per-phase percentiles and {@code --bench-jfr}
+     * measures the cost of the tick events.
+     * ---
+     * Les événements Java Flight Recorder du jeu, pour que sa propre activité apparaisse à côté du GC et des échantillons de
+     * threads dans un enregistrement : ticks avec leurs nombres d'entités et les durées de leurs phases, passes de collision,
+     * apparitions d'explosions, transitions de niveau, chargements de ressources et lectures-écritures des meilleurs scores.
+     * Tant qu'aucun enregistrement n'existe, JFR n'est même pas démarré : chaque point d'appel lit un simple indicateur de
+     * {@link FlightRecorder}, n'alloue rien et ne lit aucune horloge. Les types d'événements ne sont recherchés qu'une fois
+     * l'enregistreur lancé, puis chaque point d'appel vérifie que son propre type est activé. {@code resources/spaceinvaders.jfc} est un profil de
+     * paramètres avec ces événements et des événements JDK peu coûteux ; {@value #PROPERTY} démarre un enregistrement avec
+     * lui depuis le jeu, {@code --jfr-summary fichier} résume un enregistrement en percentiles par phase et
+     * {@code --bench-jfr} mesure le coût des événements de tick.
+     */
+    static final class FlightEvents {
+        // File the game records itself into, written on exit. / Fichier dans lequel le jeu s'enregistre, écrit à la sortie.
+        public static final String PROPERTY = "spaceinvaders.jfr";
+        static final String SETTINGS_RESOURCE = "/resources/spaceinvaders.jfc";
+        static final String CATEGORY = "Space Invaders";
+        static final int BENCH_TICKS = 20_000;
+
+        @Name("spaceinvaders.Tick")
+        @Label("Game Tick")
+        @Category({CATEGORY, "Simulation"})
+        @Description("One fixed simulation tick, with its entity counts and the duration of each phase")
+        @StackTrace(false)
+        static final class Tick extends Event {
+            @Label("Tick") long tick;
+            @Label("Level") int level;
+            @Label("Aliens") int aliens;
+            @Label("Player Lasers") int playerLasers;
+            @Label("Alien Lasers") int alienLasers;
+            @Label("Power-Ups") int powerUps;
+            @Label("Particles") int particles;
+            @Label("Movement") @Description("Ships, effects, projectiles, aliens and their timers") @Timespan long movement;
+            @Label("Collisions") @Timespan long collisions;
+            @Label("Events") @Description("Rules, audio and totals reacting to the events of the tick") @Timespan long events;
         }
 
-        private void drawPauseOverlay(Graphics2D g2d) {
-            g2d.setColor(new Color(0, 0, 0, 150));
-            g2d.fillRect(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
-            g2d.setColor(Color.WHITE);
-            g2d.setFont(AssetLoader.fontTitle != null ? AssetLoader.fontTitle.deriveFont(50f) : new Font("Arial", Font.BOLD, 50));
-            String pauseText = "PAUSED";
-            FontMetrics fm = g2d.getFontMetrics();
-            int x = (GameConstants.WINDOW_WIDTH - fm.stringWidth(pauseText)) / 2;
-            int y = (GameConstants.WINDOW_HEIGHT - fm.getHeight()) / 2 + fm.getAscent();
-            g2d.drawString(pauseText, x, y);
+        @Name("spaceinvaders.CollisionPass")
+        @Label("Collision Pass")
+        @Category({CATEGORY, "Simulation"})
+        @Description("The collision tests of one tick")
+        @StackTrace(false)
+        static final class CollisionPass extends Event {
+            @Label("Tick") long tick;
+            @Label("Pairs Tested") int pairsTested;
+            @Label("Hits") int hits;
+        }
+
+        @Name("spaceinvaders.ExplosionSpawn")
+        @Label("Explosion Spawn")
+        @Category({CATEGORY, "Simulation"})
+        @StackTrace(false)
+        static final class ExplosionSpawn extends Event {
+            @Label("X") int x;
+            @Label("Y") int y;
+            @Label("Particles Spawned") int spawned;
+            @Label("Particles Alive") int alive;
+        }
+
+        @Name("spaceinvaders.LevelTransition")
+        @Label("Level Transition")
+        @Category({CATEGORY, "Simulation"})
+        @Description("A wave installed in the world; the preparation of the wave may have run on another thread")
+        @StackTrace(false)
+        static final class LevelTransition extends Event {
+            @Label("From Level") int fromLevel;
+            @Label("To Level") int toLevel;
+            @Label("Wave Preparation") @Timespan long preparation;
+        }
+
+        @Name("spaceinvaders.AssetLoad")
+        @Label("Asset Load")
+        @Category({CATEGORY, "I/O"})
+        @StackTrace(false)
+        static final class AssetLoad extends Event {
+            @Label("Kind") String kind;
+            @Label("Path") String path;
+            @Label("Loaded") boolean loaded;
+        }
+
+        @Name("spaceinvaders.HighScoreIO")
+        @Label("High Score I/O")
+        @Category({CATEGORY, "I/O"})
+        @StackTrace(false)
+        static final class HighScoreIo extends Event {
+            @Label("Operation") String operation;
+            @Label("File") String file;
+            @Label("Entries") int entries;
+            @Label("Bytes") @DataAmount long bytes;
+            @Label("Succeeded") boolean succeeded;
+        }
+
+        /**
+         * The event types, looked up on first use: the first lookup starts JFR, which takes a few hundred milliseconds,
+         * so only a running recorder may touch this class.
+         * ---
+         * Les types d'événements, recherchés à la première utilisation : la première recherche démarre JFR, ce qui prend
+         * quelques centaines de millisecondes ; seul un enregistreur en marche peut donc toucher cette classe.
+         */
+        private static final class Types {
+            static final EventType TICK = EventType.getEventType(Tick.class);
+            static final EventType COLLISION_PASS = EventType.getEventType(CollisionPass.class);
+            static final EventType EXPLOSION_SPAWN = EventType.getEventType(ExplosionSpawn.class);
+            static final EventType LEVEL_TRANSITION = EventType.getEventType(LevelTransition.class);
+            static final EventType ASSET_LOAD = EventType.getEventType(AssetLoad.class);
+            static final EventType HIGH_SCORE_IO = EventType.getEventType(HighScoreIo.class);
+        }
+
+        private FlightEvents() {}
+
+        // True once a recording was started, by -XX:StartFlightRecording, the property, jcmd or a benchmark.
+        // Vrai dès qu'un enregistrement a été démarré, par -XX:StartFlightRecording, la propriété, jcmd ou un banc d'essai.
+        private static boolean recorderRunning() {
+            return FlightRecorder.isInitialized();
+        }
+
+        // Each begin method returns null when its event is not recorded. / Chaque méthode begin retourne null quand son événement n'est pas enregistré.
+        static Tick beginTick() {
+            if (!recorderRunning() || !Types.TICK.isEnabled()) return null;
+            Tick event = new Tick();
+            event.begin();
+            return event;
+        }
+
+        static void commitTick(Tick event, GameWorld world, long start, long moved, long collided) {
+            event.movement = moved - start;
+            event.collisions = collided - moved;
+            event.events = System.nanoTime() - collided;
+            event.end();
+            event.tick = world.clock.now();
+            event.level = world.currentLevel;
+            event.aliens = world.aliens.size();
+            event.playerLasers = world.playerLasers.size();
+            event.alienLasers = world.alienLasers.size();
+            event.powerUps = world.powerUps.size();
+            event.particles = world.particles.size();
+            event.commit();
+        }
+
+        static CollisionPass beginCollisionPass() {
+            if (!recorderRunning() || !Types.COLLISION_PASS.isEnabled()) return null;
+            CollisionPass event = new CollisionPass();
+            event.begin();
+            return event;
+        }
+
+        static void commitCollisionPass(CollisionPass event, long tick, int pairsTested, int hits) {
+            event.tick = tick;
+            event.pairsTested = pairsTested;
+            event.hits = hits;
+            event.commit();
+        }
+
+        static void explosionSpawned(int x, int y, int spawned, int alive) {
+            if (!recorderRunning() || !Types.EXPLOSION_SPAWN.isEnabled()) return;
+            ExplosionSpawn event = new ExplosionSpawn();
+            event.x = x;
+            event.y = y;
+            event.spawned = spawned;
+            event.alive = alive;
+            event.commit();
+        }
+
+        static LevelTransition beginLevelTransition() {
+            if (!recorderRunning() || !Types.LEVEL_TRANSITION.isEnabled()) return null;
+            LevelTransition event = new LevelTransition();
+            event.begin();
+            return event;
+        }
+
+        static void commitLevelTransition(LevelTransition event, int fromLevel, GameWorld.Wave wave) {
+            event.fromLevel = fromLevel;
+            event.toLevel = wave.getLevel();
+            event.preparation = wave.getPrepareNanos();
+            event.commit();
+        }
+
+        static AssetLoad beginAssetLoad() {
+            if (!recorderRunning() || !Types.ASSET_LOAD.isEnabled()) return null;
+            AssetLoad event = new AssetLoad();
+            event.begin();
+            return event;
+        }
+
+        static void commitAssetLoad(AssetLoad event, String kind, String path, boolean loaded) {
+            if (event == null) return;
+            event.kind = kind;
+            event.path = path;
+            event.loaded = loaded;
+            event.commit();
+        }
+
+        static HighScoreIo beginHighScoreIo() {
+            if (!recorderRunning() || !Types.HIGH_SCORE_IO.isEnabled()) return null;
+            HighScoreIo event = new HighScoreIo();
+            event.begin();
+            return event;
+        }
+
+        static void commitHighScoreIo(HighScoreIo event, String operation, String file, int entries, boolean succeeded) {
+            if (event == null) return;
+            event.end();
+            event.operation = operation;
+            event.file = file;
+            event.entries = entries;
+            event.bytes = new File(file).length();
+            event.succeeded = succeeded;
+            event.commit();
+        }
+
+        /**
+         * Starts a recording with the bundled settings when {@value #PROPERTY} names a file; it is written when the game exits.
+         * ---
+         * Démarre un enregistrement avec les paramètres fournis quand {@value #PROPERTY} désigne un fichier ; il est écrit à la sortie du jeu.
+         */
+        static void startFromSystemProperty() {
+            String file = System.getProperty(PROPERTY);
+            if (file == null || file.isEmpty()) return;
+            try {
+                Recording recording = new Recording(settings());
+                recording.setName("Space Invaders");
+                recording.setToDisk(true);
+                recording.setDestination(Paths.get(file));
+                recording.setDumpOnExit(true);
+                recording.start();
+                System.out.println("Flight recording to " + file + ", written on exit");
+            } catch (IOException | ParseException e) {
+                System.err.println("Flight recording disabled: " + e.getMessage());
+            }
+        }
+
+        /**
+         * The bundled settings, or the JDK default profile (in which the game events are enabled) when they are not on the class path.
+         * ---
+         * Les paramètres fournis, ou le profil par défaut du JDK (où les événements du jeu sont activés) s'ils ne sont pas dans le chemin de classes.
+         */
+        static Configuration settings() throws IOException, ParseException {
+            try (InputStream in = FlightEvents.class.getResourceAsStream(SETTINGS_RESOURCE)) {
+                if (in != null) return Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+            System.err.println("Flight recorder settings not found: " + SETTINGS_RESOURCE + ". Using the JDK default profile.");
+            return Configuration.getConfiguration("default");
+        }
+
+        /**
+         * Summarizes the game events of a recording ({@code --jfr-summary file}): percentiles of each tick phase and of
+         * the collision passes, entity counts, explosions, each level transition, and asset loads and high-score I/O by kind.
+         * ---
+         * Résume les événements du jeu d'un enregistrement ({@code --jfr-summary fichier}) : percentiles de chaque phase du
+         * tick et des passes de collision, nombres d'entités, explosions, chaque transition de niveau, et chargements de
+         * ressources et lectures-écritures des scores par type.
+         */
+        static void summarize(String[] args) throws IOException {
+            if (args.length < 2) {
+                System.err.println("Usage: --jfr-summary recording.jfr");
+                System.exit(2);
+            }
+            summarize(Paths.get(args[1]));
+        }
+
+        static void summarize(Path file) throws IOException {
+            String[] phases = {"tick", "movement", "collisions", "events", "collision pass"};
+            LatencyHistogram[] phaseTimes = new LatencyHistogram[phases.length];
+            for (int i = 0; i < phases.length; i++) phaseTimes[i] = new LatencyHistogram();
+            String[] counts = {"aliens", "playerLasers", "alienLasers", "powerUps", "particles"};
+            long[] countSums = new long[counts.length], countMaxima = new long[counts.length];
+            long pairs = 0, hits = 0, explosions = 0, spawned = 0;
+            List<String> transitions = new ArrayList<>();
+            Map<String, LatencyHistogram> io = new TreeMap<>();
+            Map<String, Long> ioBytes = new TreeMap<>();
+            Map<String, Integer> ioFailures = new TreeMap<>();
+            try (RecordingFile recording = new RecordingFile(file)) {
+                while (recording.hasMoreEvents()) {
+                    RecordedEvent event = recording.readEvent();
+                    switch (event.getEventType().getName()) {
+                        case "spaceinvaders.Tick":
+                            phaseTimes[0].record(event.getDuration().toNanos());
+                            phaseTimes[1].record(event.getDuration("movement").toNanos());
+                            phaseTimes[2].record(event.getDuration("collisions").toNanos());
+                            phaseTimes[3].record(event.getDuration("events").toNanos());
+                            for (int i = 0; i < counts.length; i++) {
+                                int count = event.getInt(counts[i]);
+                                countSums[i] += count;
+                                countMaxima[i] = Math.max(countMaxima[i], count);
+                            }
+                            break;
+                        case "spaceinvaders.CollisionPass":
+                            phaseTimes[4].record(event.getDuration().toNanos());
+                            pairs += event.getInt("pairsTested");
+                            hits += event.getInt("hits");
+                            break;
+                        case "spaceinvaders.ExplosionSpawn":
+                            explosions++;
+                            spawned += event.getInt("spawned");
+                            break;
+                        case "spaceinvaders.LevelTransition":
+                            transitions.add(String.format("  level %d -> %d: installed in %d us, wave prepared in %.2f ms",
+                                    event.getInt("fromLevel"), event.getInt("toLevel"), event.getDuration().toNanos() / 1000,
+                                    event.getDuration("preparation").toNanos() / 1e6));
+                            break;
+                        case "spaceinvaders.AssetLoad":
+                            record(io, ioBytes, ioFailures, "asset " + event.getString("kind"), event, 0, event.getBoolean("loaded"));
+                            break;
+                        case "spaceinvaders.HighScoreIO":
+                            record(io, ioBytes, ioFailures, "high scores " + event.getString("operation"), event,
+                                    event.getLong("bytes"), event.getBoolean("succeeded"));
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+            long ticks = phaseTimes[0].getCount();
+            System.out.println("Recording " + file + ": " + ticks + " ticks");
+            for (int i = 0; i < phases.length; i++) System.out.printf("  %-16s %s%n", phases[i], phaseTimes[i].summary());
+            if (ticks > 0) {
+                for (int i = 0; i < counts.length; i++) {
+                    System.out.printf("  %-16s mean %.1f, max %d%n", counts[i], countSums[i] / (double) ticks, countMaxima[i]);
+                }
+            }
+            long passes = phaseTimes[4].getCount();
+            if (passes > 0) System.out.printf("Collisions: %.1f pairs tested and %.2f hits per pass%n", pairs / (double) passes, hits / (double) passes);
+            System.out.println("Explosions: " + explosions + ", " + spawned + " particles spawned");
+            System.out.println("Level transitions: " + transitions.size());
+            for (String transition : transitions) System.out.println(transition);
+            for (Map.Entry<String, LatencyHistogram> entry : io.entrySet()) {
+                long bytes = ioBytes.get(entry.getKey());
+                System.out.printf("%-20s %s%s%s%n", entry.getKey() + ":", entry.getValue().summary(),
+                        bytes > 0 ? ", " + bytes / 1024 + " KB" : "",
+                        ioFailures.get(entry.getKey()) > 0 ? ", " + ioFailures.get(entry.getKey()) + " failed" : "");
+            }
+        }
+
+        private static void record(Map<String, LatencyHistogram> io, Map<String, Long> ioBytes, Map<String, Integer> ioFailures,
+                                   String kind, RecordedEvent event, long bytes, boolean succeeded) {
+            io.computeIfAbsent(kind, k -> new LatencyHistogram()).record(event.getDuration().toNanos());
+            ioBytes.merge(kind, bytes, Long::sum);
+            ioFailures.merge(kind, succeeded ? 0 : 1, Integer::sum);
+        }
+
+        /**
+         * Measures a firefight tick without a recording and with the bundled settings, then summarizes what was recorded
+         * along with a load of the assets and a save and load of the high scores: {@code java SpaceInvadersGame --bench-jfr}.
+         * ---
+         * Mesure un tick de fusillade sans enregistrement et avec les paramètres fournis, puis résume ce qui a été enregistré
+         * avec un chargement des ressources et une sauvegarde et un chargement des scores : {@code java SpaceInvadersGame --bench-jfr}.
+         */
+        static void benchmark() throws Exception {
+            AssetLoader.load();
+            GameWorld world = new GameWorld(7);
+            world.reset();
+            long[] tick = {0};
+            timeTicks(world, tick);
+            long disabledNanos = timeTicks(world, tick);
+            Path file = Files.createTempFile("spaceinvaders", ".jfr");
+            Path scores = Files.createTempFile("spaceinvaders-scores", ".dat");
+            try (Recording recording = new Recording(settings())) {
+                recording.start();
+                long enabledNanos = timeTicks(world, tick);
+                AssetLoader.load();
+                HighScoreManager manager = new HighScoreManager(scores.toString());
+                for (int i = 0; i < 10_000; i++) manager.addHighScore("PLAYER" + i % 97, i * 7 % 50_000);
+                manager.saveHighScores();
+                new HighScoreManager(scores.toString()).loadHighScores();
+                recording.stop();
+                recording.dump(file);
+                System.out.printf("Firefight tick: %d ns without a recording, %d ns with the game profile%n", disabledNanos, enabledNanos);
+                summarize(file);
+            } finally {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(scores);
+            }
+        }
+
+        private static long timeTicks(GameWorld world, long[] tick) {
+            long start = System.nanoTime();
+            for (int i = 0; i < BENCH_TICKS; i++) SnapshotExchange.benchTick(world, null, tick[0]++);
+            return (System.nanoTime() - start) / BENCH_TICKS;
+        }
+    }
+
+    /**
+     * Publishes live counters into a small memory-mapped file so that an external watchdog can monitor the game
+     * without JMX. The file has a fixed layout of little-endian 64-bit slots (magic, version, field count, sequence,
+     * then the fields listed in {@link #FIELD_NAMES}) and is written as a seqlock by the game thread only: the sequence
+     * is odd while a frame is being written and even once it is complete. Publishing never allocates.
+     * ---
+     * Publie des compteurs en direct dans un petit fichier projeté en mémoire afin qu'un processus de surveillance externe
+     * puisse suivre le jeu sans JMX. Le fichier a une organisation fixe de cases 64 bits petit-boutistes (magique, version,
+     * nombre de champs, séquence, puis les champs de {@link #FIELD_NAMES}) et est écrit comme un seqlock par le seul thread du jeu :
+     * la séquence est impaire pendant l'écriture et paire une fois l'écriture terminée. La publication n'alloue jamais.
+     */
+    public static final class Telemetry implements Closeable {
+        public static final String PROPERTY = "spaceinvaders.telemetry";
+        static final long MAGIC = 0x4D4C5456_4E495053L; // "SPINVTLM" in little-endian / en petit-boutiste
+        static final int VERSION = 2;
+        static final String[] FIELD_NAMES = {
+                "tick", "state", "fps_x100", "tick_nanos", "aliens", "player_lasers", "alien_lasers",
+                "particles", "power_ups", "audio_voices", "heap_used", "heap_max", "updated_millis", "quality_tier"
+        };
+        static final int TICK = 0, STATE = 1, FPS_X100 = 2, TICK_NANOS = 3, ALIENS = 4, PLAYER_LASERS = 5, ALIEN_LASERS = 6,
+                PARTICLES = 7, POWER_UPS = 8, AUDIO_VOICES = 9, HEAP_USED = 10, HEAP_MAX = 11, UPDATED_MILLIS = 12, QUALITY_TIER = 13;
+        private static final int SEQUENCE_OFFSET = 24;
+        private static final int FIELDS_OFFSET = 32;
+        // Slow-moving gauges (heap, audio voices) are refreshed once every this many publications.
+        // Les jauges lentes (tas, voix audio) sont rafraîchies une fois toutes les N publications.
+        private static final int GAUGE_PERIOD = 16;
+        private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private long sequence;
+        private int publications;
+
+        private Telemetry(FileChannel channel, MappedByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static int fileSize() { return FIELDS_OFFSET + FIELD_NAMES.length * 8; }
+
+        public static Telemetry open(Path path) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize());
+            LONGS.set(buffer, SEQUENCE_OFFSET, 0L);
+            for (int i = 0; i < FIELD_NAMES.length; i++) LONGS.set(buffer, FIELDS_OFFSET + i * 8, 0L);
+            LONGS.set(buffer, 8, (long) VERSION);
+            LONGS.set(buffer, 16, (long) FIELD_NAMES.length);
+            LONGS.setRelease(buffer, 0, MAGIC);
+            return new Telemetry(channel, buffer);
+        }
+
+        /**
+         * Opens the file named by the {@value #PROPERTY} system property, or returns null when telemetry is disabled.
+         * ---
+         * Ouvre le fichier désigné par la propriété système {@value #PROPERTY}, ou retourne null si la télémétrie est désactivée.
+         */
+        public static Telemetry fromSystemProperty() {
+            String path = System.getProperty(PROPERTY);
+            if (path == null || path.isEmpty()) return null;
+            try {
+                return open(Paths.get(path));
+            } catch (IOException e) {
+                System.err.println("Telemetry disabled, could not map " + path + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Writes one consistent frame of counters.
+         * ---
+         * Écrit une image cohérente de compteurs.
+         */
+        public void publish(GameWorld world, GameState state, long fpsTimes100, long tickNanos, int qualityTier) {
+            LONGS.set(buffer, SEQUENCE_OFFSET, ++sequence);
+            VarHandle.storeStoreFence();
+            put(TICK, world.getClock().now());
+            put(STATE, state.ordinal());
+            put(FPS_X100, fpsTimes100);
+            put(TICK_NANOS, tickNanos);
+            put(ALIENS, world.getAliens().size());
+            put(PLAYER_LASERS, world.getPlayerLasers().size());
+            put(ALIEN_LASERS, world.getAlienLasers().size());
+            put(PARTICLES, world.getParticles().size());
+            put(POWER_UPS, world.getPowerUps().size());
+            put(QUALITY_TIER, qualityTier);
+            if (publications++ % GAUGE_PERIOD == 0) {
+                Runtime runtime = Runtime.getRuntime();
+                put(AUDIO_VOICES, SoundManager.countActiveVoices());
+                put(HEAP_USED, runtime.totalMemory() - runtime.freeMemory());
+                put(HEAP_MAX, runtime.maxMemory());
+            }
+            put(UPDATED_MILLIS, System.currentTimeMillis());
+            LONGS.setRelease(buffer, SEQUENCE_OFFSET, ++sequence);
+        }
+
+        private void put(int field, long value) {
+            LONGS.set(buffer, FIELDS_OFFSET + field * 8, value);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        /**
+         * Copies a consistent frame from a mapped telemetry file into {@code out}, retrying while the writer is busy.
+         * Returns false if the file is not (yet) a telemetry file.
+         * ---
+         * Copie une image cohérente d'un fichier de télémétrie projeté dans {@code out}, en réessayant tant que l'écrivain est occupé.
+         * Retourne faux si le fichier n'est pas (encore) un fichier de télémétrie.
+         */
+        static boolean read(MappedByteBuffer mapped, long[] out) {
+            if ((long) LONGS.getAcquire(mapped, 0) != MAGIC) return false;
+            int fields = (int) Math.min(out.length, (long) LONGS.get(mapped, 16));
+            while (true) {
+                long before = (long) LONGS.getAcquire(mapped, SEQUENCE_OFFSET);
+                if ((before & 1) != 0) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                for (int i = 0; i < fields; i++) out[i] = (long) LONGS.get(mapped, FIELDS_OFFSET + i * 8);
+                VarHandle.loadLoadFence();
+                if ((long) LONGS.getAcquire(mapped, SEQUENCE_OFFSET) == before) return true;
+            }
+        }
+
+        /**
+         * The bundled watchdog reader: {@code java SpaceInvadersGame --telemetry-reader <file> [interval-ms] [field<value|field>value ...]}.
+         * It prints one line per interval and an ALERT line on stderr for every threshold crossed, or when the game
+         * stops ticking while playing.
+         * ---
+         * Le lecteur de surveillance fourni : {@code java SpaceInvadersGame --telemetry-reader <fichier> [intervalle-ms] [champ<valeur|champ>valeur ...]}.
+         * Il affiche une ligne par intervalle et une ligne ALERT sur stderr pour chaque seuil franchi, ou lorsque le jeu
+         * cesse d'avancer en cours de partie.
+         */
+        static void tail(String[] args) throws IOException, InterruptedException {
+            if (args.length < 2) {
+                System.err.println("Usage: --telemetry-reader <file> [interval-ms] [field<value|field>value ...]");
+                return;
+            }
+            Path path = Paths.get(args[1]);
+            long intervalMillis = 1000;
+            List<String> thresholds = new ArrayList<>();
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].matches("\\d+")) intervalMillis = Long.parseLong(args[i]); else thresholds.add(args[i]);
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize());
+                long[] values = new long[FIELD_NAMES.length];
+                long lastTick = -1;
+                while (true) {
+                    if (!read(mapped, values)) {
+                        System.err.println("Waiting for the game to publish telemetry in " + path);
+                    } else {
+                        System.out.println(format(values));
+                        for (String threshold : thresholds) checkThreshold(threshold, values);
+                        if (values[STATE] == GameState.PLAYING.ordinal() && values[TICK] == lastTick) {
+                            System.err.println("ALERT stalled: tick " + lastTick + " did not advance while playing");
+                        }
+                        lastTick = values[TICK];
+                    }
+                    Thread.sleep(intervalMillis);
+                }
+            }
+        }
+
+        private static String format(long[] values) {
+            GameState[] states = GameState.values();
+            String state = values[STATE] >= 0 && values[STATE] < states.length ? states[(int) values[STATE]].name() : "?";
+            return String.format("tick=%d state=%s fps=%.1f tick=%.1fus aliens=%d lasers=%d/%d particles=%d powerups=%d voices=%d heap=%d/%dMB",
+                    values[TICK], state, values[FPS_X100] / 100.0, values[TICK_NANOS] / 1000.0, values[ALIENS],
+                    values[PLAYER_LASERS], values[ALIEN_LASERS], values[PARTICLES], values[POWER_UPS], values[AUDIO_VOICES],
+                    values[HEAP_USED] >> 20, values[HEAP_MAX] >> 20);
+        }
+
+        private static void checkThreshold(String threshold, long[] values) {
+            int operator = Math.max(threshold.indexOf('<'), threshold.indexOf('>'));
+            if (operator <= 0) return;
+            int field = Arrays.asList(FIELD_NAMES).indexOf(threshold.substring(0, operator));
+            if (field < 0) return;
+            long limit = Long.parseLong(threshold.substring(operator + 1));
+            boolean crossed = threshold.charAt(operator) == '<' ? values[field] < limit : values[field] > limit;
+            if (crossed) System.err.println("ALERT " + threshold + " (" + FIELD_NAMES[field] + "=" + values[field] + ")");
+        }
+
+        /**
+         * Measures the cost of one publication: {@code java SpaceInvadersGame --bench-telemetry}.
+         * ---
+         * Mesure le coût d'une publication : {@code java SpaceInvadersGame --bench-telemetry}.
+         */
+        static void benchmark() throws IOException {
+            Path file = Files.createTempFile("spaceinvaders-telemetry", ".bin");
+            GameWorld world = new GameWorld();
+            world.reset();
+            try (Telemetry telemetry = open(file)) {
+                int iterations = 20_000_000;
+                for (int round = 0; round < 3; round++) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < iterations; i++) telemetry.publish(world, GameState.PLAYING, 6000, i, 0);
+                    System.out.printf("Telemetry publish: %.1f ns per tick%n", (System.nanoTime() - start) / (double) iterations);
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Measures heap allocation per simulation tick and per off-screen render under seeded scenarios, and checks it
+     * against budgets: {@code java SpaceInvadersGame --bench-alloc}. The process exits with status 1 when a budget is
+     * exceeded, and then prints the top allocation sites from a JFR recording of the failing scenario.
+     * Budgets are in bytes and can be overridden with {@value #TICK_BUDGET_PROPERTY} and {@value #RENDER_BUDGET_PROPERTY}.
+     * ---
+     * Mesure l'allocation sur le tas par tick de simulation et par rendu hors écran dans des scénarios à graine fixe, et la
+     * compare à des budgets : {@code java SpaceInvadersGame --bench-alloc}. Le processus se termine avec le code 1 quand un
+     * budget est dépassé, puis affiche les principaux sites d'allocation d'un enregistrement JFR du scénario fautif.
+     * Les budgets sont en octets et peuvent être remplacés par {@value #TICK_BUDGET_PROPERTY} et {@value #RENDER_BUDGET_PROPERTY}.
+     */
+    static final class AllocationBudget {
+        static final String TICK_BUDGET_PROPERTY = "spaceinvaders.allocBudget.tick";
+        static final String RENDER_BUDGET_PROPERTY = "spaceinvaders.allocBudget.render";
+        // Ticks only allocate what gameplay creates (lasers, particles); a render only what Java2D needs per Graphics.
+        // Les ticks n'allouent que ce que le jeu crée (lasers, particules) ; un rendu que ce dont Java2D a besoin par Graphics.
+        static final long DEFAULT_TICK_BUDGET = 1024;
+        static final long DEFAULT_RENDER_BUDGET = 1024;
+        static final int WARMUP_RUNS = 20;
+        static final int TICKS_PER_RUN = 600;
+        static final String[] SCENARIOS = {"idle", "firefight", "explosions"};
+
+        private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        private final GameRenderer renderer = new GameRenderer();
+        private final BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        private long tickBytes, renderBytes;
+
+        private AllocationBudget() {}
+
+        static void run(String[] args) throws IOException {
+            AssetLoader.load();
+            long tickBudget = Long.getLong(TICK_BUDGET_PROPERTY, DEFAULT_TICK_BUDGET);
+            long renderBudget = Long.getLong(RENDER_BUDGET_PROPERTY, DEFAULT_RENDER_BUDGET);
+            boolean alwaysReport = args.length > 1 && args[1].equals("--sites");
+            AllocationBudget harness = new AllocationBudget();
+            boolean failed = false;
+            System.out.printf("%-12s %14s %14s%n", "scenario", "bytes/tick", "bytes/render");
+            for (String scenario : SCENARIOS) {
+                for (int i = 0; i < WARMUP_RUNS; i++) harness.runScenario(scenario);
+                harness.runScenario(scenario);
+                long perTick = harness.tickBytes / TICKS_PER_RUN, perRender = harness.renderBytes / TICKS_PER_RUN;
+                boolean over = perTick > tickBudget || perRender > renderBudget;
+                System.out.printf("%-12s %14d %14d%s%n", scenario, perTick, perRender, over ? "   OVER BUDGET" : "");
+                if (over || alwaysReport) harness.reportAllocationSites(scenario);
+                failed |= over;
+            }
+            System.out.printf("Budgets: %d bytes/tick, %d bytes/render%n", tickBudget, renderBudget);
+            if (failed) System.exit(1);
+        }
+
+        /**
+         * Plays one seeded scenario, counting the bytes allocated by this thread in ticks and in renders separately.
+         * ---
+         * Joue un scénario à graine fixe, en comptant séparément les octets alloués par ce thread dans les ticks et dans les rendus.
+         */
+        private void runScenario(String scenario) {
+            long threadId = Thread.currentThread().getId();
+            GameWorld world = new GameWorld(42);
+            world.reset();
+            tickBytes = 0;
+            renderBytes = 0;
+            for (int tick = 0; tick < TICKS_PER_RUN; tick++) {
+                long before = threads.getThreadAllocatedBytes(threadId);
+                switch (scenario) {
+                    case "firefight":
+                        world.applyInput(InputState.FIRE | ((tick / 90) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+                        break;
+                    case "explosions":
+                        if (tick % 30 == 0) {
+                            for (int i = 0; i < 8; i++) world.createExplosion(100 + i * 80, 200 + (tick % 120));
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                world.tick();
+                // Keep the scenario going for its whole length. / Faire durer le scénario sur toute sa longueur.
+                if (world.isPlayerDead()) world.lives = GameConstants.INITIAL_LIVES;
+                long ticked = threads.getThreadAllocatedBytes(threadId);
+                Graphics2D g = frame.createGraphics();
+                renderer.render(g, world, GameState.PLAYING, 0.5f, "");
+                g.dispose();
+                tickBytes += ticked - before;
+                renderBytes += threads.getThreadAllocatedBytes(threadId) - ticked;
+            }
+        }
+
+        /**
+         * Records the scenario with JFR allocation events and prints the ten sites that allocated the most.
+         * ---
+         * Enregistre le scénario avec les événements d'allocation JFR et affiche les dix sites qui ont le plus alloué.
+         */
+        private void reportAllocationSites(String scenario) throws IOException {
+            Path file = Files.createTempFile("spaceinvaders-alloc", ".jfr");
+            try (Recording recording = new Recording()) {
+                recording.enable("jdk.ObjectAllocationSample").withStackTrace();
+                recording.enable("jdk.ObjectAllocationInNewTLAB").withStackTrace();
+                recording.enable("jdk.ObjectAllocationOutsideTLAB").withStackTrace();
+                recording.start();
+                for (int i = 0; i < 5; i++) runScenario(scenario);
+                recording.stop();
+                recording.dump(file);
+                // Prefer the weighted samples (JDK 16+); older JDKs only have the per-TLAB events.
+                // Préférer les échantillons pondérés (JDK 16+) ; les JDK plus anciens n'ont que les événements par TLAB.
+                Map<String, Long> sampled = new HashMap<>(), byTlab = new HashMap<>();
+                for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                    String name = event.getEventType().getName();
+                    if (name.endsWith("Sample")) sampled.merge(allocationSite(event), event.getLong("weight"), Long::sum);
+                    else byTlab.merge(allocationSite(event), event.getLong(name.endsWith("NewTLAB") ? "tlabSize" : "allocationSize"), Long::sum);
+                }
+                Map<String, Long> bytesBySite = sampled.isEmpty() ? byTlab : sampled;
+                List<Map.Entry<String, Long>> sites = new ArrayList<>(bytesBySite.entrySet());
+                sites.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+                System.out.println("  Top allocation sites (" + scenario + ", sampled):");
+                for (Map.Entry<String, Long> site : sites.subList(0, Math.min(10, sites.size()))) {
+                    System.out.printf("  %12d  %s%n", site.getValue(), site.getKey());
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        // The allocated class and the innermost game frame that led to it.
+        // La classe allouée et la plus profonde frame du jeu qui y a mené.
+        private static String allocationSite(RecordedEvent event) {
+            String allocated = event.getClass("objectClass").getName();
+            if (event.getStackTrace() == null) return allocated;
+            String top = null;
+            for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+                String where = frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                if (top == null) top = where;
+                if (where.startsWith("SpaceInvadersGame")) return allocated + " at " + where + (where.equals(top) ? "" : " (via " + top + ")");
+            }
+            return allocated + " at " + top;
+        }
+    }
+
+    /**
+     * Measures rendering headless and guards it against visual regressions: {@code java SpaceInvadersGame --bench-render}.
+     * Seeded scenes at several entity densities are drawn into an off-screen image for each render pass (the game scene,
+     * the pause, level-clear and game-over overlays, the menu background), timed in nanoseconds per frame, and the last
+     * frame of each pass is compared with a golden frame through a perceptual hash: the luma of a 100x75 grid of 8x8 cells
+     * quantized to 32 levels, where only cells that move by more than one level count, which ignores antialiasing and font
+     * hinting noise but catches a missing alien (10 cells or more) or a frame shifted by one pixel (sprites as thin as a
+     * laser may stay under the tolerance).
+     * Golden frames are PNG files in {@value #GOLDEN_PROPERTY} (default {@value #DEFAULT_GOLDEN_DIRECTORY}), one set with
+     * the sprite images and one with the fallback shapes (the one committed, since the tree ships no sprites);
+     * {@code --update-golden} records them. The process exits with status 1 when a golden frame is missing or when more
+     * than {@value #TOLERANCE_PROPERTY} cells differ (default {@value #DEFAULT_TOLERANCE}), after writing the frame next
+     * to its golden copy.
+     * ---
+     * Mesure le rendu sans affichage et le protège contre les régressions visuelles : {@code java SpaceInvadersGame --bench-render}.
+     * Des scènes à graine fixe de plusieurs densités d'entités sont dessinées dans une image hors écran pour chaque passe de rendu
+     * (la scène de jeu, les calques de pause, de fin de niveau et de fin de partie, le fond des menus), chronométrées en nanosecondes
+     * par image, et la dernière image de chaque passe est comparée à une image de référence par une empreinte perceptuelle :
+     * la luminance d'une grille 100x75 de cellules de 8x8 quantifiée sur 32 niveaux, où seules comptent les cellules qui bougent
+     * de plus d'un niveau, insensible au bruit de l'anticrénelage et du lissage des polices mais qui détecte un alien manquant
+     * (10 cellules ou plus) ou une image décalée d'un pixel (un sprite aussi fin qu'un laser peut rester sous la tolérance). Les images de référence sont des fichiers PNG dans
+     * {@value #GOLDEN_PROPERTY} (par défaut {@value #DEFAULT_GOLDEN_DIRECTORY}), un jeu avec les images des sprites et un avec
+     * les formes de repli (celui qui est versionné, puisque l'arborescence ne fournit aucun sprite) ;
+     * {@code --update-golden} les enregistre. Le processus se termine avec le code 1 quand une image de référence manque ou
+     * quand plus de {@value #TOLERANCE_PROPERTY} cellules diffèrent (par défaut {@value #DEFAULT_TOLERANCE}), après avoir
+     * écrit l'image à côté de sa copie de référence.
+     */
+    static final class RenderBenchmark {
+        static final String GOLDEN_PROPERTY = "spaceinvaders.golden";
+        static final String TOLERANCE_PROPERTY = "spaceinvaders.golden.tolerance";
+        static final String DEFAULT_GOLDEN_DIRECTORY = "golden";
+        static final int DEFAULT_TOLERANCE = 4;
+        static final int WARMUP_FRAMES = 1000;
+        static final int MEASURED_FRAMES = 1000;
+        static final int HASH_COLUMNS = 100, HASH_ROWS = 75, LUMA_STEP = 8;
+        // Density and pass of each case. / Densité et passe de chaque cas.
+        static final String[][] CASES = {
+                {"empty", "playing"}, {"wave", "playing"}, {"firefight", "playing"}, {"dense", "playing"},
+                {"firefight", "pause"}, {"firefight", "level-clear"}, {"dense", "game-over"}, {"menu", "background"}
+        };
+        static final long SCENE_SEED = 2024;
+
+        private RenderBenchmark() {}
+
+        static void run(String[] args) throws IOException {
+            AssetLoader.load();
+            boolean update = args.length > 1 && args[1].equals("--update-golden");
+            int tolerance = Integer.getInteger(TOLERANCE_PROPERTY, DEFAULT_TOLERANCE);
+            // Fallback shapes and sprite images look nothing alike. / Formes de repli et images des sprites n'ont rien de commun.
+            Path golden = Paths.get(System.getProperty(GOLDEN_PROPERTY, DEFAULT_GOLDEN_DIRECTORY), AssetLoader.playerShip != null ? "sprites" : "fallback");
+            Files.createDirectories(golden);
+            BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            boolean failed = false;
+            System.out.printf("%-22s %12s %12s %9s  %s%n", "case", "ns/frame", "p99 ns", "distance", "golden");
+            for (String[] c : CASES) {
+                String name = c[0] + "-" + c[1];
+                long[] frameNanos = measure(c[0], c[1], frame);
+                Arrays.sort(frameNanos);
+                long total = 0;
+                for (long nanos : frameNanos) total += nanos;
+                Path goldenFile = golden.resolve(name + ".png");
+                Path actualFile = golden.resolve(name + ".actual.png");
+                String verdict;
+                int distance = -1;
+                if (update) {
+                    ImageIO.write(frame, "png", goldenFile.toFile());
+                    Files.deleteIfExists(actualFile);
+                    verdict = "recorded";
+                } else if (!Files.exists(goldenFile)) {
+                    // A missing reference would otherwise pass every run without checking anything.
+                    // Une référence manquante passerait sinon chaque lancement sans rien vérifier.
+                    ImageIO.write(frame, "png", actualFile.toFile());
+                    verdict = "MISSING, see " + actualFile + " (--update-golden records it)";
+                    failed = true;
+                } else {
+                    distance = distance(perceptualHash(frame), perceptualHash(ImageIO.read(goldenFile.toFile())));
+                    if (distance <= tolerance) {
+                        Files.deleteIfExists(actualFile);
+                        verdict = "match";
+                    } else {
+                        ImageIO.write(frame, "png", actualFile.toFile());
+                        verdict = "DIFFERENT, see " + actualFile;
+                        failed = true;
+                    }
+                }
+                System.out.printf("%-22s %12d %12d %9s  %s%n", name, total / frameNanos.length,
+                        frameNanos[frameNanos.length * 99 / 100], distance < 0 ? "-" : String.valueOf(distance), verdict);
+            }
+            System.out.printf("Golden frames: %s, tolerance %d of %d cells%n", golden, tolerance, HASH_COLUMNS * HASH_ROWS);
+            if (failed) System.exit(1);
+        }
+
+        /**
+         * Draws one pass of a scene repeatedly and returns the time of each measured frame; the image keeps the last one.
+         * ---
+         * Dessine une passe d'une scène à répétition et retourne le temps de chaque image mesurée ; l'image garde la dernière.
+         */
+        private static long[] measure(String density, String pass, BufferedImage frame) {
+            GameRenderer renderer = new GameRenderer();
+            RenderSnapshot scene = new RenderSnapshot();
+            GameWorld world = scene(density);
+            scene.capture(world, 0);
+            GameState state;
+            switch (pass) {
+                case "pause": state = GameState.PAUSE_MENU; break;
+                case "level-clear": state = GameState.LEVEL_CLEAR; break;
+                case "game-over": state = GameState.GAME_OVER; break;
+                default: state = GameState.PLAYING; break;
+            }
+            long[] frameNanos = new long[MEASURED_FRAMES];
+            for (int i = -WARMUP_FRAMES; i < MEASURED_FRAMES; i++) {
+                long start = System.nanoTime();
+                Graphics2D g = frame.createGraphics();
+                if (pass.equals("background")) {
+                    GameRenderer.drawMenuBackground(g, world.getStars(), frame.getWidth(), frame.getHeight());
+                } else {
+                    renderer.render(g, scene, state, 0.5f, "ACE");
+                }
+                g.dispose();
+                if (i >= 0) frameNanos[i] = System.nanoTime() - start;
+            }
+            return frameNanos;
+        }
+
+        /**
+         * Builds the seeded world of a density: the player alone, a fresh wave, a firefight, or a fast wave mid-firefight
+         * with power-ups and a burst of explosions.
+         * ---
+         * Construit le monde à graine fixe d'une densité : le joueur seul, une vague neuve, une fusillade, ou une vague rapide
+         * en pleine fusillade avec des power-ups et une salve d'explosions.
+         */
+        private static GameWorld scene(String density) {
+            GameWorld world = new GameWorld(SCENE_SEED);
+            world.reset();
+            if (density.equals("empty")) world.aliens.clear();
+            if (density.equals("dense")) world.installWave(GameWorld.prepareWave(6));
+            if (density.equals("firefight") || density.equals("dense")) {
+                for (int tick = 0; tick < 240; tick++) {
+                    world.applyInput(InputState.FIRE | ((tick / 60) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+                    world.tick();
+                    if (world.isPlayerDead()) world.lives = GameConstants.INITIAL_LIVES;
+                }
+            }
+            if (density.equals("dense")) {
+                for (int i = 0; i < 12; i++) world.createExplosion(80 + i * 55, 180 + (i % 4) * 60);
+                world.powerUps.add(new PowerUp(200, 320, PowerUp.PowerUpType.SHIELD));
+                world.powerUps.add(new PowerUp(560, 280, PowerUp.PowerUpType.RAPID_FIRE));
+                world.players.get(0).activatePowerUp(PowerUp.PowerUpType.SHIELD);
+                for (int i = 0; i < 3; i++) world.tick();
+            }
+            return world;
+        }
+
+        /**
+         * The perceptual hash of an image: one luma level per cell of the grid, averaged over the cell and quantized.
+         * ---
+         * L'empreinte perceptuelle d'une image : un niveau de luminance par cellule de la grille, moyenné sur la cellule et quantifié.
+         */
+        static byte[] perceptualHash(BufferedImage image) {
+            int width = image.getWidth(), height = image.getHeight();
+            long[] sums = new long[HASH_COLUMNS * HASH_ROWS];
+            int[] counts = new int[HASH_COLUMNS * HASH_ROWS];
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                image.getRGB(0, y, width, 1, row, 0, width);
+                int cellRow = y * HASH_ROWS / height * HASH_COLUMNS;
+                for (int x = 0; x < width; x++) {
+                    int rgb = row[x];
+                    sums[cellRow + x * HASH_COLUMNS / width] += 299 * (rgb >>> 16 & 0xFF) + 587 * (rgb >>> 8 & 0xFF) + 114 * (rgb & 0xFF);
+                    counts[cellRow + x * HASH_COLUMNS / width]++;
+                }
+            }
+            byte[] hash = new byte[HASH_COLUMNS * HASH_ROWS];
+            for (int i = 0; i < hash.length; i++) hash[i] = (byte) (sums[i] / counts[i] / 1000 / LUMA_STEP);
+            return hash;
+        }
+
+        /**
+         * Counts the cells whose level moved by more than one step: a cell sitting on a level boundary may flip on rounding noise.
+         * ---
+         * Compte les cellules dont le niveau a bougé de plus d'un cran : une cellule à la limite d'un niveau peut basculer sur du bruit d'arrondi.
+         */
+        static int distance(byte[] a, byte[] b) {
+            int distance = 0;
+            for (int i = 0; i < a.length; i++) if (Math.abs(a[i] - b[i]) > 1) distance++;
+            return distance;
+        }
+    }
+
+    /**
+     * Reports how long the game takes to reach a startup milestone, counted from the launch of the JVM process.
+     * Each milestone is printed once, the first time it is reached, with {@code spaceinvaders.diagnostics} or during the
+     * class-data-sharing training script; otherwise it is only recorded.
+     * ---
+     * Indique combien de temps le jeu met pour atteindre une étape du démarrage, à compter du lancement du processus JVM.
+     * Chaque étape n'est affichée qu'une fois, la première fois qu'elle est atteinte, avec {@code spaceinvaders.diagnostics}
+     * ou pendant le script d'entraînement du partage de classes ; sinon elle est seulement notée.
+     */
+    static final class StartupTimer {
+        private static final long PROCESS_START_MILLIS = ProcessHandle.current().info().startInstant()
+                .map(instant -> instant.toEpochMilli())
+                .orElse(ManagementFactory.getRuntimeMXBean().getStartTime());
+        private static final Map<String, Long> requested = new HashMap<>();
+        private static final List<String> reached = new ArrayList<>();
+        // Set for the training script, whose timings are compared with and without the archive.
+        // Levé pour le script d'entraînement, dont les temps sont comparés avec et sans l'archive.
+        private static volatile boolean printing = GameConstants.DIAGNOSTICS;
+
+        private StartupTimer() {}
+
+        static void printMilestones() {
+            printing = true;
+        }
+
+        /**
+         * Notes when the action leading to a milestone starts, so the report also shows the time spent after it.
+         * ---
+         * Note le début de l'action qui mène à une étape, pour que le rapport montre aussi le temps écoulé depuis.
+         */
+        static synchronized void begin(String milestone) {
+            if (!reached.contains(milestone)) requested.putIfAbsent(milestone, System.currentTimeMillis());
+        }
+
+        static synchronized void mark(String milestone) {
+            if (reached.contains(milestone)) return;
+            reached.add(milestone);
+            long now = System.currentTimeMillis();
+            Long since = requested.remove(milestone);
+            if (printing) System.out.printf("Startup: %s after %d ms%s%n", milestone, now - PROCESS_START_MILLIS,
+                    since != null ? " (" + (now - since) + " ms after request)" : "");
+        }
+    }
+
+    /**
+     * Builds a class-data-sharing archive for faster launches ({@code --cds-training [archive]}). A child JVM runs a
+     * scripted session ({@code --cds-script}) through the menus and a short game with {@code -XX:ArchiveClassesAtExit},
+     * so every class that session loads is archived; launching with {@code -XX:SharedArchiveFile} then maps them instead
+     * of loading and verifying them again. The script is run once more with and without the archive to compare.
+     * ---
+     * Construit une archive de partage de données de classes pour des lancements plus rapides ({@code --cds-training [archive]}).
+     * Une JVM enfant joue une session scriptée ({@code --cds-script}) à travers les menus et une courte partie avec
+     * {@code -XX:ArchiveClassesAtExit} : toutes les classes chargées par cette session sont archivées ; lancer avec
+     * {@code -XX:SharedArchiveFile} les projette ensuite au lieu de les charger et vérifier à nouveau. Le script est relancé
+     * avec et sans l'archive pour comparer.
+     */
+    static final class CdsTraining {
+        static final String DEFAULT_ARCHIVE = "spaceinvaders.jsa";
+        static final int SCRIPT_STEP_MS = 400;
+        static final int SCRIPT_HEADLESS_TICKS = 600;
+
+        private CdsTraining() {}
+
+        static void train(String[] args) throws IOException, InterruptedException {
+            Path archive = Paths.get(args.length > 1 ? args[1] : DEFAULT_ARCHIVE).toAbsolutePath();
+            Files.deleteIfExists(archive);
+            String classPath = archivableClassPath(archive);
+            System.out.println("Training run, writing " + archive);
+            if (runScript(classPath, "-XX:ArchiveClassesAtExit=" + archive) != 0 || !Files.exists(archive)) {
+                System.err.println("The training run did not produce an archive (the dynamic archive needs JDK 13 or later).");
+                System.exit(1);
+            }
+            System.out.printf("Archive: %s (%d KB)%n", archive, Files.size(archive) / 1024);
+            System.out.println("Script without archive:");
+            runScript(classPath, "-Xshare:auto");
+            System.out.println("Script with archive:");
+            runScript(classPath, "-XX:SharedArchiveFile=" + archive);
+            System.out.println("Launch with: java -XX:SharedArchiveFile=" + archive + " -cp " + classPath + " "
+                    + SpaceInvadersGame.class.getName());
+        }
+
+        /**
+         * CDS only archives classes loaded from JAR files, so when the game runs from a class directory its classes
+         * and resources are packed into a JAR next to the archive, and that JAR must be used at launch.
+         * ---
+         * CDS n'archive que les classes chargées depuis des fichiers JAR : quand le jeu tourne depuis un répertoire de classes,
+         * ses classes et ressources sont regroupées dans un JAR à côté de l'archive, et ce JAR doit être utilisé au lancement.
+         */
+        private static String archivableClassPath(Path archive) throws IOException {
+            Path codeSource;
+            try {
+                codeSource = Paths.get(SpaceInvadersGame.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            } catch (java.net.URISyntaxException e) {
+                throw new IOException("Cannot locate the game classes", e);
+            }
+            if (!Files.isDirectory(codeSource)) return codeSource.toString();
+            Path jar = archive.resolveSibling("spaceinvaders.jar");
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar));
+                 Stream<Path> files = Files.walk(codeSource)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    String name = codeSource.relativize(file).toString().replace(File.separatorChar, '/');
+                    boolean gameClass = name.startsWith(SpaceInvadersGame.class.getSimpleName()) && name.endsWith(".class");
+                    if (!Files.isRegularFile(file) || !(gameClass || name.startsWith("resources/"))) continue;
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(file, out);
+                    out.closeEntry();
+                }
+            }
+            return jar.toString();
+        }
+
+        private static int runScript(String classPath, String vmOption) throws IOException, InterruptedException {
+            List<String> command = new ArrayList<>();
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add(vmOption);
+            // The child plays with the same game options as this JVM. / L'enfant joue avec les mêmes options de jeu que cette JVM.
+            for (String name : System.getProperties().stringPropertyNames()) {
+                if (name.startsWith("spaceinvaders.") || name.equals("java.awt.headless")) {
+                    command.add("-D" + name + "=" + System.getProperty(name));
+                }
+            }
+            command.add("-cp");
+            command.add(classPath);
+            command.add(SpaceInvadersGame.class.getName());
+            command.add("--cds-script");
+            return new ProcessBuilder(command).inheritIO().start().waitFor();
+        }
+
+        /**
+         * Plays the scripted session: the real window when a display is available, otherwise the simulation and renderer off screen.
+         * ---
+         * Joue la session scriptée : la vraie fenêtre si un écran est disponible, sinon la simulation et le rendu hors écran.
+         */
+        static void script() {
+            if (GraphicsEnvironment.isHeadless()) {
+                scriptHeadless();
+                StartupTimer.mark("training script finished");
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                SpaceInvadersGame game = new SpaceInvadersGame();
+                Runnable[] steps = {
+                        game::startGame, game::showPauseMenu, game::resumeGame, game::showPauseMenu, game::showHighScores,
+                        game::showInstructions, game::showAbout, game::showMainMenu
+                };
+                int[] next = {0};
+                Timer timer = new Timer(SCRIPT_STEP_MS, null);
+                timer.addActionListener(e -> {
+                    if (next[0] < steps.length) {
+                        steps[next[0]++].run();
+                        return;
+                    }
+                    timer.stop();
+                    StartupTimer.mark("training script finished");
+                    System.exit(0);
+                });
+                timer.start();
+            });
+        }
+
+        private static void scriptHeadless() {
+            AssetLoader.load();
+            SoundManager.init();
+            GameRenderer renderer = new GameRenderer();
+            BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            GameWorld world = new GameWorld(42);
+            world.reset();
+            for (int tick = 0; tick < SCRIPT_HEADLESS_TICKS; tick++) {
+                world.applyInput(InputState.FIRE | ((tick / 90) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+                world.tick();
+                if (world.isPlayerDead()) world.lives = GameConstants.INITIAL_LIVES;
+                Graphics2D g = frame.createGraphics();
+                renderer.render(g, world, tick % 120 < 100 ? GameState.PLAYING : GameState.PAUSE_MENU, 0.5f, "");
+                g.dispose();
+                if (tick == 0) StartupTimer.mark("first game frame");
+            }
+        }
+    }
+
+    // ===================================================================================
+    // SECTION: UI Inner Classes / Classes Internes de l'Interface Utilisateur
+    // ===================================================================================
+
+    /**
+     * What the renderer needs from one simulation tick, copied into flat arrays: stars, sprites in drawing order
+     * (ships, aliens, player lasers, alien lasers, power-ups) with their previous and current positions, particles,
+     * bunker cells and the HUD values. The arrays only grow, so once sized for the busiest scene a capture allocates
+     * nothing, and a snapshot never refers to a live entity: the simulation can move on while it is drawn.
+     * ---
+     * Ce dont le rendu a besoin d'un tick de simulation, copié dans des tableaux plats : étoiles, sprites dans l'ordre
+     * de dessin (vaisseaux, aliens, lasers des joueurs, lasers des aliens, power-ups) avec leurs positions précédente et
+     * courante, particules, cellules des abris et valeurs du HUD. Les tableaux ne font que grandir : une fois dimensionnée
+     * pour la scène la plus chargée, une capture n'alloue rien, et un instantané ne désigne jamais une entité vivante :
+     * la simulation peut avancer pendant qu'il est dessiné.
+     */
+    private static final class RenderSnapshot {
+        static final int SPRITE_PLAYER = 0, SPRITE_ALIEN_1 = 1, SPRITE_ALIEN_2 = 2, SPRITE_ALIEN_3 = 3,
+                SPRITE_PLAYER_LASER = 4, SPRITE_ALIEN_LASER = 5, SPRITE_SHIELD_POWERUP = 6, SPRITE_RAPID_POWERUP = 7;
+
+        // Tick number and the time it became due, from which the renderer derives its interpolation factor.
+        // Numéro du tick et heure à laquelle il était dû, dont le rendu déduit son facteur d'interpolation.
+        long tick, tickNanos;
+        int score, lives, level;
+        // Whether the autopilot flies the ship, shown on the HUD; set by the game panel, not by capture.
+        // Si le pilote automatique pilote le vaisseau, affiché sur le HUD ; fixé par le panneau de jeu, pas par la capture.
+        boolean autopilot;
+
+        int starCount;
+        float[] starX = new float[0], starY = new float[0];
+
+        int spriteCount, playerCount;
+        int[] spriteId = new int[0], spriteX = new int[0], spriteY = new int[0], spritePrevX = new int[0], spritePrevY = new int[0],
+                spriteWidth = new int[0], spriteHeight = new int[0];
+        // Shield end tick of each ship (the first playerCount sprites), or -1 without a shield.
+        // Tick de fin du bouclier de chaque vaisseau (les playerCount premiers sprites), ou -1 sans bouclier.
+        long[] shieldEndTick = new long[0];
+
+        int particleCount;
+        float[] particleX = new float[0], particleY = new float[0], particlePrevX = new float[0], particlePrevY = new float[0];
+        int[] particleSize = new int[0], particleHue = new int[0], particleLifetime = new int[0];
+
+        int bunkerCount;
+        final int[] bunkerX = new int[GameWorld.BUNKER_COUNT], bunkerY = new int[GameWorld.BUNKER_COUNT];
+        final long[] bunkerRows = new long[GameWorld.BUNKER_COUNT * Bunker.ROWS];
+
+        /**
+         * Copies the visible state of the world, as of the tick that became due at {@code tickNanos}.
+         * ---
+         * Copie l'état visible du monde, tel qu'au tick devenu dû à {@code tickNanos}.
+         */
+        public void capture(GameWorld world, long tickNanos) {
+            this.tickNanos = tickNanos;
+            tick = world.clock.now();
+            score = world.score;
+            lives = world.lives;
+            level = world.currentLevel;
+
+            List<Point2D.Float> stars = world.stars;
+            starCount = stars.size();
+            if (starX.length < starCount) {
+                starX = new float[starCount];
+                starY = new float[starCount];
+            }
+            for (int i = 0; i < starCount; i++) {
+                Point2D.Float star = stars.get(i);
+                starX[i] = star.x;
+                starY[i] = star.y;
+            }
+
+            ensureSprites(world.players.size() + world.aliens.size() + world.playerLasers.size()
+                    + world.alienLasers.size() + world.powerUps.size());
+            spriteCount = 0;
+            playerCount = world.players.size();
+            if (shieldEndTick.length < playerCount) shieldEndTick = new long[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                PlayerShip player = world.players.get(i);
+                shieldEndTick[i] = player.shieldActive ? tick + player.shieldTicksLeft() : -1;
+                addSprite(SPRITE_PLAYER, player.x, player.y, player.prevX, player.prevY, player.width, player.height);
+            }
+            for (int i = 0; i < world.aliens.size(); i++) {
+                Alien alien = world.aliens.get(i);
+                addSprite(SPRITE_ALIEN_1 + Math.min(alien.type, 2), alien.x, alien.y, alien.prevX, alien.prevY, alien.width, alien.height);
+            }
+            addLasers(world.playerLasers);
+            addLasers(world.alienLasers);
+            for (int i = 0; i < world.powerUps.size(); i++) {
+                PowerUp powerUp = world.powerUps.get(i);
+                addSprite(powerUp.type == PowerUp.PowerUpType.SHIELD ? SPRITE_SHIELD_POWERUP : SPRITE_RAPID_POWERUP,
+                        powerUp.x, powerUp.y, powerUp.x, powerUp.prevY, powerUp.width, powerUp.height);
+            }
+
+            List<Particle> particles = world.particles;
+            particleCount = particles.size();
+            if (particleX.length < particleCount) {
+                int capacity = Math.max(particleCount, particleX.length * 2);
+                particleX = new float[capacity];
+                particleY = new float[capacity];
+                particlePrevX = new float[capacity];
+                particlePrevY = new float[capacity];
+                particleSize = new int[capacity];
+                particleHue = new int[capacity];
+                particleLifetime = new int[capacity];
+            }
+            for (int i = 0; i < particleCount; i++) {
+                Particle particle = particles.get(i);
+                particleX[i] = particle.x;
+                particleY[i] = particle.y;
+                particlePrevX[i] = particle.prevX;
+                particlePrevY[i] = particle.prevY;
+                particleSize[i] = particle.size;
+                particleHue[i] = particle.hue;
+                particleLifetime[i] = particle.lifetime;
+            }
+
+            List<Bunker> bunkers = world.bunkers;
+            bunkerCount = bunkers.size();
+            for (int b = 0; b < bunkerCount; b++) {
+                Bunker bunker = bunkers.get(b);
+                bunkerX[b] = bunker.x;
+                bunkerY[b] = bunker.y;
+                System.arraycopy(bunker.rows, 0, bunkerRows, b * Bunker.ROWS, Bunker.ROWS);
+            }
+        }
+
+        private void addLasers(List<Laser> lasers) {
+            for (int i = 0; i < lasers.size(); i++) {
+                Laser laser = lasers.get(i);
+                addSprite(laser.isAlienLaser ? SPRITE_ALIEN_LASER : SPRITE_PLAYER_LASER,
+                        laser.x, laser.y, laser.x, laser.prevY, laser.width, laser.height);
+            }
+        }
+
+        private void addSprite(int id, int x, int y, int prevX, int prevY, int width, int height) {
+            int i = spriteCount++;
+            spriteId[i] = id;
+            spriteX[i] = x;
+            spriteY[i] = y;
+            spritePrevX[i] = prevX;
+            spritePrevY[i] = prevY;
+            spriteWidth[i] = width;
+            spriteHeight[i] = height;
+        }
+
+        private void ensureSprites(int count) {
+            if (spriteId.length >= count) return;
+            int capacity = Math.max(count, spriteId.length * 2);
+            spriteId = new int[capacity];
+            spriteX = new int[capacity];
+            spriteY = new int[capacity];
+            spritePrevX = new int[capacity];
+            spritePrevY = new int[capacity];
+            spriteWidth = new int[capacity];
+            spriteHeight = new int[capacity];
+        }
+
+        static Image image(int spriteId) {
+            switch (spriteId) {
+                case SPRITE_PLAYER: return AssetLoader.playerShip;
+                case SPRITE_ALIEN_1: return AssetLoader.alien1;
+                case SPRITE_ALIEN_2: return AssetLoader.alien2;
+                case SPRITE_ALIEN_3: return AssetLoader.alien3;
+                case SPRITE_PLAYER_LASER: return AssetLoader.laserPlayer;
+                case SPRITE_ALIEN_LASER: return AssetLoader.laserAlien;
+                case SPRITE_SHIELD_POWERUP: return AssetLoader.powerUpShield;
+                default: return AssetLoader.powerUpRapid;
+            }
+        }
+    }
+
+    /**
+     * A lock-free triple buffer of {@link RenderSnapshot}s between one writer (the simulation) and one reader (the renderer).
+     * The writer fills its back buffer and swaps it with the middle one in a single atomic exchange; the reader swaps its
+     * front buffer with the middle one only when a fresh snapshot is there. Neither side ever waits for the other, the reader
+     * always gets the latest complete snapshot, and a snapshot being drawn is never written.
+     * ---
+     * Un triple tampon sans verrou de {@link RenderSnapshot} entre un écrivain (la simulation) et un lecteur (le rendu).
+     * L'écrivain remplit son tampon arrière et l'échange avec celui du milieu en un seul échange atomique ; le lecteur n'échange
+     * son tampon avant avec celui du milieu que lorsqu'un instantané neuf s'y trouve. Aucun côté n'attend l'autre, le lecteur
+     * obtient toujours le dernier instantané complet, et un instantané en cours de dessin n'est jamais écrit.
+     */
+    private static final class SnapshotExchange {
+        // auto (a simulation thread on multi-core machines), true or false. / auto (un thread de simulation sur les machines multicœurs), true ou false.
+        static final String THREAD_PROPERTY = "spaceinvaders.simulationThread";
+        static final long BENCH_NANOS = 3_000_000_000L;
+
+        // The middle index, with this bit set while it holds a snapshot the reader has not taken yet.
+        // L'indice du milieu, avec ce bit levé tant qu'il contient un instantané que le lecteur n'a pas encore pris.
+        private static final int FRESH = 4;
+
+        private final RenderSnapshot[] buffers = {new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()};
+        private final AtomicInteger middle = new AtomicInteger(1);
+        private int back = 0;   // Writer only. / Écrivain seulement.
+        private int front = 2;  // Reader only. / Lecteur seulement.
+
+        /**
+         * Returns the snapshot to fill; it stays the writer's until {@link #publish()}.
+         * ---
+         * Retourne l'instantané à remplir ; il reste à l'écrivain jusqu'à {@link #publish()}.
+         */
+        public RenderSnapshot beginWrite() {
+            return buffers[back];
+        }
+
+        public void publish() {
+            back = middle.getAndSet(back | FRESH) & 3;
+        }
+
+        /**
+         * Returns the most recent published snapshot; it stays valid until the next call.
+         * ---
+         * Retourne le dernier instantané publié ; il reste valide jusqu'au prochain appel.
+         */
+        public RenderSnapshot latest() {
+            if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & 3;
+            return buffers[front];
+        }
+
+        public boolean isFresh() {
+            return (middle.get() & FRESH) != 0;
+        }
+
+        static boolean useSimulationThread() {
+            String value = System.getProperty(THREAD_PROPERTY, "auto");
+            return "auto".equals(value) ? Runtime.getRuntime().availableProcessors() > 1 : Boolean.parseBoolean(value);
+        }
+
+        /**
+         * Compares the sustainable frame rate of simulating then rendering each frame on one thread with the pipeline of the
+         * game panel, where a simulation thread computes frame N+1 while the rendering thread draws frame N, in a firefight
+         * with explosions and the same scene played by the autopilot: {@code java SpaceInvadersGame --bench-pipeline}.
+         * With a free core per stage, the pipelined rate tends to that of the slower stage alone.
+         * ---
+         * Compare la cadence d'images soutenable de la simulation puis du rendu de chaque image sur un seul thread avec le pipeline
+         * du panneau de jeu, où un thread de simulation calcule l'image N+1 pendant que le thread de rendu dessine l'image N, dans
+         * une fusillade avec explosions et la même scène jouée par le pilote automatique : {@code java SpaceInvadersGame --bench-pipeline}.
+         * Avec un cœur libre par étape, la cadence en pipeline tend vers celle de l'étape la plus lente seule.
+         */
+        static void benchmark() throws InterruptedException {
+            AssetLoader.load();
+            System.out.printf("%d core(s), %.0f s per measure%n", Runtime.getRuntime().availableProcessors(), BENCH_NANOS / 1e9);
+            System.out.printf("%-10s %10s %10s %12s %12s %8s%n", "scenario", "tick us", "render us", "sequential", "pipelined", "speedup");
+            for (boolean autopilot : new boolean[] {false, true}) {
+                try (Autopilot pilot = autopilot ? Autopilot.forGame() : null) {
+                    measureSequential(pilot, BENCH_NANOS);
+                    long[] sequential = measureSequential(pilot, BENCH_NANOS);
+                    double sequentialRate = sequential[0] * 1e9 / BENCH_NANOS;
+                    measurePipelined(pilot, BENCH_NANOS);
+                    double pipelinedRate = measurePipelined(pilot, BENCH_NANOS) * 1e9 / BENCH_NANOS;
+                    System.out.printf("%-10s %10.0f %10.0f %12.0f %12.0f %7.2fx%n", autopilot ? "autopilot" : "firefight",
+                            sequential[1] / 1e3 / sequential[0], sequential[2] / 1e3 / sequential[0],
+                            sequentialRate, pipelinedRate, pipelinedRate / sequentialRate);
+                }
+            }
+        }
+
+        // Returns the frame count and the nanoseconds spent ticking and rendering.
+        // Retourne le nombre d'images et les nanosecondes passées à simuler et à dessiner.
+        private static long[] measureSequential(Autopilot autopilot, long nanos) {
+            GameWorld world = benchWorld();
+            GameRenderer renderer = new GameRenderer();
+            RenderSnapshot snapshot = new RenderSnapshot();
+            BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            long frames = 0, tickNanos = 0, renderNanos = 0;
+            long start = System.nanoTime(), end = start + nanos;
+            for (long now = start; now < end; frames++) {
+                benchTick(world, autopilot, frames);
+                snapshot.capture(world, 0);
+                long ticked = System.nanoTime();
+                Graphics2D g = frame.createGraphics();
+                renderer.render(g, snapshot, GameState.PLAYING, 0.5f, "");
+                g.dispose();
+                tickNanos += ticked - now;
+                now = System.nanoTime();
+                renderNanos += now - ticked;
+            }
+            return new long[] {frames, tickNanos, renderNanos};
+        }
+
+        // Returns the frames drawn. The simulation runs at most one frame ahead, as in the game where ticks are paced.
+        // Retourne le nombre d'images dessinées. La simulation a au plus une image d'avance, comme en jeu où les ticks sont cadencés.
+        private static long measurePipelined(Autopilot autopilot, long nanos) throws InterruptedException {
+            GameWorld world = benchWorld();
+            GameRenderer renderer = new GameRenderer();
+            SnapshotExchange exchange = new SnapshotExchange();
+            BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            long end = System.nanoTime() + nanos;
+            Thread simulation = new Thread(() -> {
+                for (long tick = 0; System.nanoTime() < end; tick++) {
+                    benchTick(world, autopilot, tick);
+                    exchange.beginWrite().capture(world, 0);
+                    while (exchange.isFresh() && System.nanoTime() < end) Thread.yield();
+                    exchange.publish();
+                }
+            }, "SpaceInvaders-Simulation");
+            simulation.start();
+            long frames = 0;
+            while (System.nanoTime() < end) {
+                if (!exchange.isFresh()) {
+                    Thread.yield();
+                    continue;
+                }
+                Graphics2D g = frame.createGraphics();
+                renderer.render(g, exchange.latest(), GameState.PLAYING, 0.5f, "");
+                g.dispose();
+                frames++;
+            }
+            simulation.join();
+            return frames;
+        }
+
+        private static GameWorld benchWorld() {
+            GameWorld world = new GameWorld(11);
+            world.reset();
+            return world;
+        }
+
+        // A firefight with an explosion every eight ticks, endless: lives and waves are refilled.
+        // Une fusillade avec une explosion tous les huit ticks, sans fin : vies et vagues sont renouvelées.
+        private static void benchTick(GameWorld world, Autopilot autopilot, long tick) {
+            world.applyInput(autopilot != null ? autopilot.decide(world)
+                    : InputState.FIRE | ((tick / 45) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+            world.tick();
+            if (tick % 8 == 0) world.createExplosion(100 + (int) (tick * 37 % 600), 150 + (int) (tick * 53 % 300));
+            if (world.isPlayerDead()) world.lives = GameConstants.INITIAL_LIVES;
+            if (world.isWaveCleared()) world.nextLevel();
+        }
+    }
+
+    /**
+     * Draws a game scene at the logical resolution ({@link GameConstants#WINDOW_WIDTH} x {@link GameConstants#WINDOW_HEIGHT}).
+     * It has no Swing dependency, so the same pass renders on screen, into an off-screen image or in a benchmark.
+     * It only reads {@link RenderSnapshot}s, never the live world, so it can draw while the simulation runs on another thread.
+     * ---
+     * Dessine une scène de jeu à la résolution logique ({@link GameConstants#WINDOW_WIDTH} x {@link GameConstants#WINDOW_HEIGHT}).
+     * Il ne dépend pas de Swing : la même passe dessine à l'écran, dans une image hors écran ou dans un banc d'essai.
+     * Il ne lit que des {@link RenderSnapshot}, jamais le monde vivant : il peut dessiner pendant que la simulation tourne sur un autre thread.
+     */
+    private static class GameRenderer {
+        private static final Color BANNER_SHADE = new Color(0, 0, 0, 120);
+        private static final Color GAME_OVER_SHADE = new Color(0, 0, 0, 170);
+        private static final Color PAUSE_SHADE = new Color(0, 0, 0, 150);
+        // Colors of the sprites without an image, by sprite id. / Couleurs des sprites sans image, par identifiant de sprite.
+        private static final Color[] FALLBACK_COLORS = {
+                Color.GREEN, Color.RED, Color.RED, Color.RED, Color.YELLOW, Color.MAGENTA, Color.CYAN, Color.CYAN
+        };
+        // Shield colors from gone to half opaque. / Couleurs du bouclier, d'invisible à semi-opaque.
+        private static final Color[] SHIELD_FADE = new Color[32];
+        static {
+            for (int i = 0; i < SHIELD_FADE.length; i++) SHIELD_FADE[i] = new Color(0, 1, 1, 0.5f * i / (SHIELD_FADE.length - 1));
+        }
+
+        private QualityGovernor.Tier quality = QualityGovernor.Tier.HIGH;
+        // Fonts are derived once: deriving them every frame allocated a Font and its metrics each time.
+        // Les polices sont dérivées une seule fois : les dériver à chaque image allouait une police et ses métriques.
+        private final Font hudFont = uiFont(20f, Font.BOLD);
+        private final Font bannerTitleFont = titleFont(44f), bannerFont = uiFont(22f, Font.BOLD);
+        private final Font gameOverTitleFont = titleFont(56f), gameOverFont = uiFont(24f, Font.BOLD), hintFont = uiFont(16f, Font.PLAIN);
+        private final Font pauseFont = titleFont(50f);
+        private int hudScore = -1, hudLives = -1, hudLevel = -1;
+        private String scoreText, livesText, levelText;
+        // Bunker images, redrawn row by row where the cells differ from the last drawn snapshot.
+        // Images des abris, redessinées ligne par ligne là où les cellules diffèrent du dernier instantané dessiné.
+        private final BufferedImage[] bunkerImages = new BufferedImage[GameWorld.BUNKER_COUNT];
+        private final long[] drawnBunkerRows = new long[GameWorld.BUNKER_COUNT * Bunker.ROWS];
+        // Bumped each time a bunker image is redrawn. / Incrémenté à chaque fois qu'une image d'abri est redessinée.
+        private final int[] bunkerVersions = new int[GameWorld.BUNKER_COUNT];
+        // Draws the scene into image pixels instead of Java2D when set. / Dessine la scène dans les pixels de l'image au lieu de Java2D s'il est défini.
+        private final SoftwareRasterizer rasterizer;
+        // The frame being drawn by the rasterizer, whose shades it applies itself. / L'image dessinée par le rastériseur, qui applique lui-même ses voiles.
+        private BufferedImage rasterFrame;
+        // Used by callers that draw a world from the thread that simulates it.
+        // Utilisé par les appelants qui dessinent un monde depuis le thread qui le simule.
+        private final RenderSnapshot scratch = new RenderSnapshot();
+
+        GameRenderer() {
+            this(null);
+        }
+
+        GameRenderer(SoftwareRasterizer rasterizer) {
+            this.rasterizer = rasterizer;
+        }
+
+        public void setQuality(QualityGovernor.Tier quality) { this.quality = quality; }
+
+        public boolean isSoftware() { return rasterizer != null; }
+
+        /**
+         * Captures the world and draws it. Only for the thread that simulates the world (benchmarks, tools).
+         * ---
+         * Capture le monde et le dessine. Seulement pour le thread qui simule le monde (bancs d'essai, outils).
+         */
+        public void render(Graphics2D g2d, GameWorld world, GameState gameState, float alpha, CharSequence playerName) {
+            scratch.capture(world, 0);
+            render(g2d, scratch, gameState, alpha, playerName);
+        }
+
+        /**
+         * Draws a scene into an image. With a {@link SoftwareRasterizer} and an {@code INT_ARGB_PRE} image, the scene and
+         * the shades are written straight into its pixels and only the text goes through Java2D; otherwise it is the
+         * Java2D pass.
+         * ---
+         * Dessine une scène dans une image. Avec un {@link SoftwareRasterizer} et une image {@code INT_ARGB_PRE}, la scène et
+         * les voiles sont écrits directement dans ses pixels et seul le texte passe par Java2D ; sinon, c'est la passe Java2D.
+         */
+        public void render(BufferedImage frame, RenderSnapshot scene, GameState gameState, float alpha, CharSequence playerName) {
+            if (rasterizer == null || frame.getType() != BufferedImage.TYPE_INT_ARGB_PRE) {
+                Graphics2D g2d = frame.createGraphics();
+                render(g2d, scene, gameState, alpha, playerName);
+                g2d.dispose();
+                return;
+            }
+            rasterizer.drawScene(this, frame, scene, gameState, alpha);
+            if (gameState == GameState.MAIN_MENU) return;
+            Graphics2D g2d = frame.createGraphics();
+            setAntialiasing(g2d);
+            rasterFrame = frame;
+            try {
+                drawOverlays(g2d, scene, gameState, playerName);
+            } finally {
+                rasterFrame = null;
+                g2d.dispose();
+            }
+        }
+
+        public void render(Graphics2D g2d, RenderSnapshot scene, GameState gameState, float alpha, CharSequence playerName) {
+            setAntialiasing(g2d);
+
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+            g2d.setColor(Color.WHITE);
+            for (int i = 0; i < scene.starCount; i += quality.starStride) {
+                // A 2x2 square: an antialiased oval allocated a path iterator per star.
+                // Un carré 2x2 : un ovale anticrénelé allouait un itérateur de chemin par étoile.
+                float starY = scene.starY[i];
+                g2d.fillRect((int) scene.starX[i], GameClock.interpolate(starY - GameWorld.STAR_SCROLL_SPEED, starY, alpha), 2, 2);
+            }
+
+            if (gameState != GameState.MAIN_MENU) {
+                for (int b = 0; b < scene.bunkerCount; b++) drawBunker(g2d, scene, b);
+                for (int i = 0; i < scene.spriteCount; i++) drawSprite(g2d, scene, i, alpha);
+
+                // Draw particles on top. / Dessiner les particules par-dessus.
+                for (int i = 0; i < scene.particleCount; i++) {
+                    g2d.drawImage(Particle.sprite(scene.particleHue[i], particleStep(scene, i), scene.particleSize[i]),
+                            GameClock.interpolate(scene.particlePrevX[i], scene.particleX[i], alpha),
+                            GameClock.interpolate(scene.particlePrevY[i], scene.particleY[i], alpha), null);
+                }
+
+                drawOverlays(g2d, scene, gameState, playerName);
+            }
+        }
+
+        // The fading step of a particle, from its remaining lifetime. / Le palier d'estompage d'une particule, selon sa durée de vie restante.
+        static int particleStep(RenderSnapshot scene, int i) {
+            float opacity = Math.max(0, scene.particleLifetime[i] / 60.0f);
+            return Math.round(opacity * (Particle.FADE_STEPS - 1));
+        }
+
+        private void setAntialiasing(Graphics2D g2d) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    quality.antialiasing ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        }
+
+        private void drawOverlays(Graphics2D g2d, RenderSnapshot scene, GameState gameState, CharSequence playerName) {
+            drawHUD(g2d, scene);
+
+            if (gameState == GameState.PAUSE_MENU) drawPauseOverlay(g2d);
+            if (gameState == GameState.LEVEL_CLEAR) drawLevelClearBanner(g2d, scene);
+            if (gameState == GameState.GAME_OVER) drawGameOverOverlay(g2d, scene, playerName);
+        }
+
+        // Darkens full-width rows: every shade is black. / Assombrit des lignes entières : tous les voiles sont noirs.
+        private void shade(Graphics2D g2d, Color shade, int y, int height) {
+            if (rasterFrame != null) {
+                rasterizer.darken(rasterFrame, shade.getAlpha(), y, y + height);
+            } else {
+                g2d.setColor(shade);
+                g2d.fillRect(0, y, GameConstants.WINDOW_WIDTH, height);
+            }
+        }
+
+        private void drawSprite(Graphics2D g2d, RenderSnapshot scene, int i, float alpha) {
+            int id = scene.spriteId[i];
+            int x = GameClock.interpolate(scene.spritePrevX[i], scene.spriteX[i], alpha);
+            int y = GameClock.interpolate(scene.spritePrevY[i], scene.spriteY[i], alpha);
+            int width = scene.spriteWidth[i], height = scene.spriteHeight[i];
+            drawSpriteBody(g2d, id, x, y, width, height);
+            if (i >= scene.playerCount || scene.shieldEndTick[i] < 0) return;
+            drawShield(g2d, shieldLevel(scene, i, alpha), x, y, width, height);
+        }
+
+        static void drawSpriteBody(Graphics2D g2d, int id, int x, int y, int width, int height) {
+            Image image = RenderSnapshot.image(id);
+            if (image != null) {
+                g2d.drawImage(image, x, y, width, height, null);
+            } else {
+                g2d.setColor(FALLBACK_COLORS[id]);
+                g2d.fillRect(x, y, width, height);
+                if (id == RenderSnapshot.SPRITE_SHIELD_POWERUP || id == RenderSnapshot.SPRITE_RAPID_POWERUP) {
+                    g2d.setColor(Color.BLACK);
+                    g2d.drawString(id == RenderSnapshot.SPRITE_SHIELD_POWERUP ? "S" : "R", x + 10, y + 20);
+                }
+            }
+        }
+
+        /**
+         * The shield of a ship: an index into {@link #SHIELD_FADE}, or -1 for the outline of the cheaper tiers.
+         * ---
+         * Le bouclier d'un vaisseau : un indice dans {@link #SHIELD_FADE}, ou -1 pour le contour des niveaux moins coûteux.
+         */
+        int shieldLevel(RenderSnapshot scene, int i, float alpha) {
+            if (quality.simpleShield) return -1;
+            float remaining = (scene.shieldEndTick[i] - scene.tick - alpha) / GameClock.msToTicks(GameConstants.POWERUP_DURATION_MS);
+            return Math.round(Math.max(0, Math.min(1, remaining)) * (SHIELD_FADE.length - 1));
+        }
+
+        static void drawShield(Graphics2D g2d, int level, int x, int y, int width, int height) {
+            if (level < 0) {
+                g2d.setColor(Color.CYAN);
+                g2d.drawOval(x - 10, y - 10, width + 20, height + 20);
+            } else {
+                g2d.setColor(SHIELD_FADE[level]);
+                g2d.fillOval(x - 10, y - 10, width + 20, height + 20);
+            }
+        }
+
+        private void drawBunker(Graphics2D g2d, RenderSnapshot scene, int b) {
+            updateBunker(scene, b);
+            g2d.drawImage(bunkerImages[b], scene.bunkerX[b], scene.bunkerY[b], null);
+        }
+
+        /**
+         * Brings the cached image of a bunker up to date, redrawing the rows whose cells changed since it was last drawn.
+         * ---
+         * Met à jour l'image en cache d'un abri, en redessinant les lignes dont les cellules ont changé depuis son dernier dessin.
+         */
+        BufferedImage updateBunker(RenderSnapshot scene, int b) {
+            BufferedImage image = bunkerImages[b];
+            boolean blank = image == null;
+            if (blank) bunkerImages[b] = image = new BufferedImage(Bunker.WIDTH, Bunker.HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D ig = null;
+            for (int row = 0; row < Bunker.ROWS; row++) {
+                int index = b * Bunker.ROWS + row;
+                long bits = scene.bunkerRows[index];
+                if (blank ? bits == 0 : bits == drawnBunkerRows[index]) continue;
+                drawnBunkerRows[index] = bits;
+                if (ig == null) {
+                    ig = image.createGraphics();
+                    ig.setColor(Color.GREEN);
+                }
+                ig.setComposite(AlphaComposite.Clear);
+                ig.fillRect(0, row * Bunker.CELL_SIZE, Bunker.WIDTH, Bunker.CELL_SIZE);
+                ig.setComposite(AlphaComposite.SrcOver);
+                // Fill each horizontal run of intact cells with one rectangle.
+                // Remplir chaque suite horizontale de cellules intactes avec un seul rectangle.
+                while (bits != 0) {
+                    int start = Long.numberOfTrailingZeros(bits);
+                    int end = Long.numberOfTrailingZeros(~(bits >>> start)) + start;
+                    ig.fillRect(start * Bunker.CELL_SIZE, row * Bunker.CELL_SIZE, (end - start) * Bunker.CELL_SIZE, Bunker.CELL_SIZE);
+                    bits &= end >= 64 ? 0 : -1L << end;
+                }
+            }
+            if (ig != null) {
+                ig.dispose();
+                bunkerVersions[b]++;
+            }
+            return image;
+        }
+
+        private void drawHUD(Graphics2D g2d, RenderSnapshot scene) {
+            // The labels are rebuilt only when their value changes. / Les libellés ne sont reconstruits que si leur valeur change.
+            if (scene.score != hudScore) { hudScore = scene.score; scoreText = "Score: " + hudScore; }
+            if (scene.lives != hudLives) { hudLives = scene.lives; livesText = "Lives: " + hudLives; }
+            if (scene.level != hudLevel) { hudLevel = scene.level; levelText = "Level: " + hudLevel; }
+            g2d.setColor(Color.CYAN);
+            g2d.setFont(hudFont);
+            g2d.drawString(scoreText, 10, 25);
+            g2d.drawString(livesText, GameConstants.WINDOW_WIDTH - 100, 25);
+            g2d.drawString(levelText, GameConstants.WINDOW_WIDTH / 2 - 50, 25);
+            if (scene.autopilot) {
+                g2d.setColor(Color.YELLOW);
+                g2d.drawString("AUTOPILOT (B)", 10, GameConstants.WINDOW_HEIGHT - 15);
+            }
+        }
+
+        private void drawLevelClearBanner(Graphics2D g2d, RenderSnapshot scene) {
+            shade(g2d, BANNER_SHADE, GameConstants.WINDOW_HEIGHT / 2 - 80, 160);
+            g2d.setColor(Color.CYAN);
+            g2d.setFont(bannerTitleFont);
+            drawCentered(g2d, "LEVEL " + scene.level + " CLEARED", GameConstants.WINDOW_HEIGHT / 2 - 10);
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(bannerFont);
+            drawCentered(g2d, "Get ready for level " + (scene.level + 1), GameConstants.WINDOW_HEIGHT / 2 + 40);
+        }
+
+        private void drawGameOverOverlay(Graphics2D g2d, RenderSnapshot scene, CharSequence playerName) {
+            shade(g2d, GAME_OVER_SHADE, 0, GameConstants.WINDOW_HEIGHT);
+            g2d.setColor(Color.RED);
+            g2d.setFont(gameOverTitleFont);
+            drawCentered(g2d, "GAME OVER", GameConstants.WINDOW_HEIGHT / 2 - 90);
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(gameOverFont);
+            drawCentered(g2d, "Your score: " + scene.score, GameConstants.WINDOW_HEIGHT / 2 - 30);
+            drawCentered(g2d, "Enter your name:", GameConstants.WINDOW_HEIGHT / 2 + 20);
+            // Blinking caret, timed on the simulation clock. / Curseur clignotant, cadencé sur l'horloge de simulation.
+            boolean caretVisible = (scene.tick / (GameConstants.TICKS_PER_SECOND / 2)) % 2 == 0;
+            g2d.setColor(Color.CYAN);
+            drawCentered(g2d, playerName + (caretVisible ? "_" : " "), GameConstants.WINDOW_HEIGHT / 2 + 65);
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.setFont(hintFont);
+            drawCentered(g2d, "ENTER to save - ESCAPE to skip", GameConstants.WINDOW_HEIGHT / 2 + 120);
+        }
+
+        private void drawCentered(Graphics2D g2d, String text, int y) {
+            FontMetrics fm = g2d.getFontMetrics();
+            g2d.drawString(text, (GameConstants.WINDOW_WIDTH - fm.stringWidth(text)) / 2, y);
+        }
+
+        private void drawPauseOverlay(Graphics2D g2d) {
+            shade(g2d, PAUSE_SHADE, 0, GameConstants.WINDOW_HEIGHT);
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(pauseFont);
+            String pauseText = "PAUSED";
+            FontMetrics fm = g2d.getFontMetrics();
+            int x = (GameConstants.WINDOW_WIDTH - fm.stringWidth(pauseText)) / 2;
+            int y = (GameConstants.WINDOW_HEIGHT - fm.getHeight()) / 2 + fm.getAscent();
+            g2d.drawString(pauseText, x, y);
+        }
+
+        /**
+         * Draws the starfield behind the menus.
+         * ---
+         * Dessine le champ d'étoiles derrière les menus.
+         */
+        static void drawMenuBackground(Graphics2D g2d, List<Point2D.Float> stars, int width, int height) {
+            g2d.setColor(Color.BLACK);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setColor(Color.WHITE);
+            // Squares, as in the game: an oval allocated a path iterator per star, which made most of a menu frame.
+            // Des carrés, comme en jeu : un ovale allouait un itérateur de chemin par étoile, l'essentiel d'une image de menu.
+            for (int i = 0; i < stars.size(); i++) {
+                Point2D.Float star = stars.get(i);
+                g2d.fillRect((int) star.x, (int) star.y, 2, 2);
+            }
+        }
+
+        private static Font uiFont(float size, int fallbackStyle) {
+            return AssetLoader.fontUI != null ? AssetLoader.fontUI.deriveFont(size) : new Font("Arial", fallbackStyle, (int) size);
+        }
+
+        private static Font titleFont(float size) {
+            return AssetLoader.fontTitle != null ? AssetLoader.fontTitle.deriveFont(size) : new Font("Arial", Font.BOLD, (int) size);
+        }
+    }
+
+    /**
+     * A render backend for displays without working Java2D acceleration ({@value #PROPERTY}{@code =software}): the game scene
+     * is written straight into the {@code int[]} pixels of an {@code INT_ARGB_PRE} image instead of going through one
+     * Java2D call per star, sprite and particle. Sprites, shields, particles and bunkers become stamps, premultiplied
+     * pixel arrays drawn once with Java2D, then copied row by row when opaque or blended with the rounding of Java2D's
+     * SrcOver loops; the shades of the overlays darken the pixels in place. The frame is cut into horizontal bands
+     * rasterized in parallel on a fork-join pool ({@value #THREADS_PROPERTY} threads, one per core by default), each band
+     * drawing every stamp in order, clipped to its rows, so the output does not depend on the number of threads.
+     * Text (HUD, overlays) is still drawn by Java2D, on the same image.
+     * ---
+     * Un moteur de rendu pour les écrans sans accélération Java2D fonctionnelle ({@value #PROPERTY}{@code =software}) :
+     * la scène de jeu est écrite directement dans les pixels {@code int[]} d'une image {@code INT_ARGB_PRE} au lieu de
+     * passer par un appel Java2D par étoile, sprite et particule. Sprites, boucliers, particules et abris deviennent des
+     * tampons, des tableaux de pixels prémultipliés dessinés une fois avec Java2D, puis copiés ligne par ligne s'ils sont
+     * opaques ou mélangés avec l'arrondi des boucles SrcOver de Java2D ; les voiles des écrans superposés assombrissent
+     * les pixels sur place. L'image est découpée en bandes horizontales rastérisées en parallèle sur un pool fork-join
+     * ({@value #THREADS_PROPERTY} threads, un par cœur par défaut), chaque bande dessinant tous les tampons dans l'ordre,
+     * découpés à ses lignes : le résultat ne dépend pas du nombre de threads. Le texte (HUD, écrans superposés) est
+     * toujours dessiné par Java2D, sur la même image.
+     */
+    static final class SoftwareRasterizer implements AutoCloseable {
+        public static final String PROPERTY = "spaceinvaders.renderer";
+        static final String THREADS_PROPERTY = "spaceinvaders.renderer.threads";
+        // Bands per thread, so that a thread done early takes another band. / Bandes par thread, pour qu'un thread en avance en prenne une autre.
+        static final int BANDS_PER_THREAD = 4;
+        // Room around a shield stamp for the oval and its antialiased edge. / Marge autour d'un tampon de bouclier pour l'ovale et son bord anticrénelé.
+        static final int SHIELD_MARGIN = 12;
+        static final int OPAQUE_BLACK = 0xFF000000, OPAQUE_WHITE = 0xFFFFFFFF;
+        private static final int SCENE = 0, SHADE = 1;
+
+        /**
+         * Premultiplied ARGB pixels to copy into the frame, with what they were drawn from.
+         * ---
+         * Des pixels ARGB prémultipliés à copier dans l'image, avec ce à partir de quoi ils ont été dessinés.
+         */
+        static final class Stamp {
+            final int[] pixels;
+            final int width, height;
+            final boolean opaque;
+            final Image source;
+            final boolean antialiased;
+
+            Stamp(BufferedImage image, Image source, boolean antialiased) {
+                width = image.getWidth();
+                height = image.getHeight();
+                // A copy: taking the image's own array would stop Java2D from caching it. / Une copie : prendre le tableau de l'image empêcherait Java2D de la mettre en cache.
+                pixels = (int[]) image.getRaster().getDataElements(0, 0, width, height, null);
+                this.source = source;
+                this.antialiased = antialiased;
+                boolean allOpaque = true;
+                for (int pixel : pixels) {
+                    if (pixel >>> 24 != 0xFF) {
+                        allOpaque = false;
+                        break;
+                    }
+                }
+                opaque = allOpaque;
+            }
+
+            boolean matches(int width, int height, Image source, boolean antialiased) {
+                return this.width == width && this.height == height && this.source == source && this.antialiased == antialiased;
+            }
+        }
+
+        private final int threads;
+        // Null with a single thread: the bands are then drawn by the caller. / Nul avec un seul thread : les bandes sont alors dessinées par l'appelant.
+        private final ForkJoinPool pool;
+        private final Band[] bands;
+        private final RecursiveAction frameTask = new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(bands);
+            }
+        };
+
+        // The pass being drawn, written before the bands are forked. / La passe en cours, écrite avant de lancer les bandes.
+        private BufferedImage target;
+        private int[] pixels;
+        private int width, height, phase;
+        private RenderSnapshot scene;
+        private float alpha;
+        private int starStride;
+        private int shadeAlpha, shadeTop, shadeBottom;
+        // The stamps of the frame in drawing order. / Les tampons de l'image dans l'ordre de dessin.
+        private Stamp[] stamps = new Stamp[256];
+        private int[] stampX = new int[256], stampY = new int[256];
+        private int stampCount;
+
+        private final Stamp[] spriteStamps = new Stamp[RenderSnapshot.SPRITE_RAPID_POWERUP + 1];
+        // The outline, then each fade level of the filled shield. / Le contour, puis chaque palier d'estompage du bouclier plein.
+        private final Stamp[] shieldStamps = new Stamp[GameRenderer.SHIELD_FADE.length + 1];
+        private final Stamp[][][] particleStamps = new Stamp[Particle.HUES][Particle.FADE_STEPS][Particle.MAX_SIZE + 1];
+        private final Stamp[] bunkerStamps = new Stamp[GameWorld.BUNKER_COUNT];
+        private final int[] bunkerVersions = new int[GameWorld.BUNKER_COUNT];
+
+        SoftwareRasterizer(int threads) {
+            this.threads = Math.max(1, threads);
+            pool = this.threads > 1 ? new ForkJoinPool(this.threads, p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName("SpaceInvaders-Raster-" + thread.getPoolIndex());
+                return thread;
+            }, null, false) : null;
+            bands = new Band[this.threads == 1 ? 1 : this.threads * BANDS_PER_THREAD];
+            for (int i = 0; i < bands.length; i++) bands[i] = new Band(i);
+        }
+
+        /**
+         * Reads {@value #PROPERTY}: {@code java2d} (default) or {@code software}. Returns null for Java2D.
+         * ---
+         * Lit {@value #PROPERTY} : {@code java2d} (par défaut) ou {@code software}. Retourne null pour Java2D.
+         */
+        public static SoftwareRasterizer fromSystemProperty() {
+            String value = System.getProperty(PROPERTY, "java2d");
+            if (value.equalsIgnoreCase("software")) {
+                return new SoftwareRasterizer(Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors()));
+            }
+            if (!value.equalsIgnoreCase("java2d")) System.err.println("Unknown renderer " + value + ", using java2d.");
+            return null;
+        }
+
+        public int getThreads() { return threads; }
+
+        @Override
+        public void close() {
+            if (pool != null) pool.shutdown();
+        }
+
+        /**
+         * Draws the starfield and, out of the menus, the bunkers, sprites, shields and particles of a scene, as
+         * {@link GameRenderer} does with Java2D.
+         * ---
+         * Dessine le champ d'étoiles et, hors des menus, les abris, sprites, boucliers et particules d'une scène, comme
+         * {@link GameRenderer} le fait avec Java2D.
+         */
+        void drawScene(GameRenderer renderer, BufferedImage frame, RenderSnapshot scene, GameState gameState, float alpha) {
+            boolean antialiased = renderer.quality.antialiasing;
+            stampCount = 0;
+            if (gameState != GameState.MAIN_MENU) {
+                for (int b = 0; b < scene.bunkerCount; b++) {
+                    BufferedImage image = renderer.updateBunker(scene, b);
+                    if (bunkerStamps[b] == null || bunkerVersions[b] != renderer.bunkerVersions[b]) {
+                        bunkerStamps[b] = new Stamp(image, null, false);
+                        bunkerVersions[b] = renderer.bunkerVersions[b];
+                    }
+                    addStamp(bunkerStamps[b], scene.bunkerX[b], scene.bunkerY[b]);
+                }
+                for (int i = 0; i < scene.spriteCount; i++) {
+                    int x = GameClock.interpolate(scene.spritePrevX[i], scene.spriteX[i], alpha);
+                    int y = GameClock.interpolate(scene.spritePrevY[i], scene.spriteY[i], alpha);
+                    int width = scene.spriteWidth[i], height = scene.spriteHeight[i];
+                    addStamp(spriteStamp(scene.spriteId[i], width, height, antialiased), x, y);
+                    if (i >= scene.playerCount || scene.shieldEndTick[i] < 0) continue;
+                    addStamp(shieldStamp(renderer.shieldLevel(scene, i, alpha), width, height, antialiased),
+                            x - SHIELD_MARGIN, y - SHIELD_MARGIN);
+                }
+                for (int i = 0; i < scene.particleCount; i++) {
+                    addStamp(particleStamp(scene.particleHue[i], GameRenderer.particleStep(scene, i), scene.particleSize[i]),
+                            GameClock.interpolate(scene.particlePrevX[i], scene.particleX[i], alpha),
+                            GameClock.interpolate(scene.particlePrevY[i], scene.particleY[i], alpha));
+                }
+            }
+            this.scene = scene;
+            this.alpha = alpha;
+            starStride = renderer.quality.starStride;
+            run(frame, SCENE);
+            this.scene = null;
+        }
+
+        /**
+         * Blends black at the given opacity over full-width rows, as a Java2D fill would.
+         * ---
+         * Mélange du noir de l'opacité donnée sur des lignes entières, comme le ferait un remplissage Java2D.
+         */
+        void darken(BufferedImage frame, int opacity, int top, int bottom) {
+            shadeAlpha = opacity;
+            shadeTop = top;
+            shadeBottom = bottom;
+            run(frame, SHADE);
+        }
+
+        private void run(BufferedImage frame, int phase) {
+            if (frame != target) {
+                target = frame;
+                pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+                width = frame.getWidth();
+                height = frame.getHeight();
+            }
+            this.phase = phase;
+            if (pool == null) {
+                bands[0].compute();
+                return;
+            }
+            for (Band band : bands) band.reinitialize();
+            frameTask.reinitialize();
+            pool.invoke(frameTask);
+        }
+
+        private void addStamp(Stamp stamp, int x, int y) {
+            if (stampCount == stamps.length) {
+                stamps = Arrays.copyOf(stamps, stampCount * 2);
+                stampX = Arrays.copyOf(stampX, stampCount * 2);
+                stampY = Arrays.copyOf(stampY, stampCount * 2);
+            }
+            stamps[stampCount] = stamp;
+            stampX[stampCount] = x;
+            stampY[stampCount++] = y;
+        }
+
+        private Stamp spriteStamp(int id, int width, int height, boolean antialiased) {
+            Image source = RenderSnapshot.image(id);
+            Stamp stamp = spriteStamps[id];
+            if (stamp == null || !stamp.matches(width, height, source, antialiased)) {
+                BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g = graphics(image, antialiased);
+                GameRenderer.drawSpriteBody(g, id, 0, 0, width, height);
+                g.dispose();
+                spriteStamps[id] = stamp = new Stamp(image, source, antialiased);
+            }
+            return stamp;
+        }
+
+        private Stamp shieldStamp(int level, int width, int height, boolean antialiased) {
+            Stamp stamp = shieldStamps[level + 1];
+            if (stamp == null || !stamp.matches(width + 2 * SHIELD_MARGIN, height + 2 * SHIELD_MARGIN, null, antialiased)) {
+                BufferedImage image = new BufferedImage(width + 2 * SHIELD_MARGIN, height + 2 * SHIELD_MARGIN, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g = graphics(image, antialiased);
+                GameRenderer.drawShield(g, level, SHIELD_MARGIN, SHIELD_MARGIN, width, height);
+                g.dispose();
+                shieldStamps[level + 1] = stamp = new Stamp(image, null, antialiased);
+            }
+            return stamp;
+        }
+
+        private Stamp particleStamp(int hue, int step, int size) {
+            Stamp stamp = particleStamps[hue][step][size];
+            if (stamp == null) {
+                particleStamps[hue][step][size] = stamp = new Stamp((BufferedImage) Particle.sprite(hue, step, size), null, false);
+            }
+            return stamp;
+        }
+
+        private static Graphics2D graphics(BufferedImage image, boolean antialiased) {
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                    antialiased ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+            return g;
+        }
+
+        /**
+         * The rows {@code [index * height / bands, (index + 1) * height / bands)} of the frame.
+         * ---
+         * Les lignes {@code [index * hauteur / bandes, (index + 1) * hauteur / bandes)} de l'image.
+         */
+        private final class Band extends RecursiveAction {
+            private static final long serialVersionUID = 1L;
+            private final int index;
+
+            Band(int index) {
+                this.index = index;
+            }
+
+            @Override
+            protected void compute() {
+                int top = index * height / bands.length, bottom = (index + 1) * height / bands.length;
+                if (phase == SHADE) {
+                    darkenRows(Math.max(top, shadeTop), Math.min(bottom, shadeBottom));
+                    return;
+                }
+                Arrays.fill(pixels, top * width, bottom * width, OPAQUE_BLACK);
+                for (int i = 0; i < scene.starCount; i += starStride) {
+                    float starY = scene.starY[i];
+                    fill((int) scene.starX[i], GameClock.interpolate(starY - GameWorld.STAR_SCROLL_SPEED, starY, alpha), 2, 2, top, bottom);
+                }
+                for (int i = 0; i < stampCount; i++) blit(stamps[i], stampX[i], stampY[i], top, bottom);
+            }
+
+            private void fill(int x, int y, int fillWidth, int fillHeight, int top, int bottom) {
+                int left = Math.max(x, 0), right = Math.min(x + fillWidth, width);
+                for (int row = Math.max(y, top), end = Math.min(y + fillHeight, bottom); row < end && left < right; row++) {
+                    Arrays.fill(pixels, row * width + left, row * width + right, OPAQUE_WHITE);
+                }
+            }
+
+            private void blit(Stamp stamp, int x, int y, int top, int bottom) {
+                int left = Math.max(x, 0), right = Math.min(x + stamp.width, width);
+                int firstRow = Math.max(y, top), endRow = Math.min(y + stamp.height, bottom);
+                if (left >= right) return;
+                int[] source = stamp.pixels, destination = pixels;
+                for (int row = firstRow; row < endRow; row++) {
+                    int s = (row - y) * stamp.width + left - x, d = row * width + left;
+                    if (stamp.opaque) {
+                        System.arraycopy(source, s, destination, d, right - left);
+                        continue;
+                    }
+                    for (int end = s + right - left; s < end; s++, d++) {
+                        int pixel = source[s], a = pixel >>> 24;
+                        if (a == 0xFF) destination[d] = pixel;
+                        else if (a != 0) destination[d] = over(pixel, a, destination[d]);
+                    }
+                }
+            }
+
+            private void darkenRows(int top, int bottom) {
+                int shade = shadeAlpha << 24;
+                for (int d = Math.max(top, 0) * width, end = Math.min(bottom, height) * width; d < end; d++) {
+                    pixels[d] = over(shade, shadeAlpha, pixels[d]);
+                }
+            }
+        }
+
+        /**
+         * Compares the Java2D pass with the rasterizer, on one thread and on every core, at high entity counts: the
+         * render benchmark's firefight and dense scenes and a swarm with sixty explosions, playing and paused. Every frame
+         * of the rasterizer is compared pixel by pixel with the Java2D one: {@code java SpaceInvadersGame --bench-raster}.
+         * ---
+         * Compare la passe Java2D au rastériseur, sur un thread et sur tous les cœurs, avec beaucoup d'entités : les scènes
+         * fusillade et dense du banc d'essai du rendu et un essaim de soixante explosions, en jeu et en pause. Chaque image du
+         * rastériseur est comparée pixel par pixel à celle de Java2D : {@code java SpaceInvadersGame --bench-raster}.
+         */
+        static void benchmark() {
+            AssetLoader.load();
+            int cores = Runtime.getRuntime().availableProcessors();
+            int[] threadCounts = cores > 1 ? new int[] {1, cores} : new int[] {1};
+            GameState[] states = {GameState.PLAYING, GameState.PAUSE_MENU, GameState.LEVEL_CLEAR, GameState.GAME_OVER};
+            BufferedImage expected = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            BufferedImage actual = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            int[] expectedPixels = ((DataBufferInt) expected.getRaster().getDataBuffer()).getData();
+            int[] actualPixels = ((DataBufferInt) actual.getRaster().getDataBuffer()).getData();
+            System.out.printf("%-24s %8s %10s %12s", "scene", "sprites", "particles", "java2d ns");
+            for (int threads : threadCounts) System.out.printf(" %10s", threads + (threads == 1 ? " thread" : " threads"));
+            System.out.printf(" %10s%n", "differing");
+            long differing = 0;
+            for (String density : new String[] {"firefight", "dense", "swarm"}) {
+                GameWorld world = RenderBenchmark.scene(density.equals("swarm") ? "dense" : density);
+                if (density.equals("swarm")) {
+                    for (int i = 0; i < 60; i++) world.createExplosion(40 + i * 53 % 720, 120 + i % 6 * 70);
+                }
+                RenderSnapshot scene = new RenderSnapshot();
+                scene.capture(world, 0);
+                for (GameState state : states) {
+                    // The overlays are only checked; the timing is for the game, running and paused.
+                    // Les écrans superposés sont seulement vérifiés ; la mesure porte sur le jeu, en cours et en pause.
+                    boolean timed = state == GameState.PLAYING || state == GameState.PAUSE_MENU;
+                    GameRenderer java2d = new GameRenderer();
+                    long java2dNanos = time(java2d, expected, scene, state, timed);
+                    System.out.printf("%-24s %8d %10d %12s", density + "-" + state.name().toLowerCase().replace('_', '-'), scene.spriteCount,
+                            scene.particleCount, timed ? String.valueOf(java2dNanos) : "-");
+                    long frameDiffering = 0;
+                    for (int threads : threadCounts) {
+                        try (SoftwareRasterizer rasterizer = new SoftwareRasterizer(threads)) {
+                            long nanos = time(new GameRenderer(rasterizer), actual, scene, state, timed);
+                            System.out.printf(" %10s", timed ? String.valueOf(nanos) : "-");
+                        }
+                        for (int p = 0; p < expectedPixels.length; p++) if (expectedPixels[p] != actualPixels[p]) frameDiffering++;
+                    }
+                    System.out.printf(" %10d%n", frameDiffering);
+                    differing += frameDiffering;
+                }
+            }
+            System.out.println(differing == 0 ? "Every frame of the rasterizer is identical to Java2D"
+                    : differing + " pixels differ from Java2D");
+            if (differing != 0) System.exit(1);
+        }
+
+        // Renders a scene repeatedly and returns the mean time of a measured frame. / Dessine une scène à répétition et retourne le temps moyen d'une image mesurée.
+        private static long time(GameRenderer renderer, BufferedImage frame, RenderSnapshot scene, GameState state, boolean timed) {
+            int warmup = timed ? 300 : 1, measured = timed ? 300 : 1;
+            for (int i = 0; i < warmup; i++) renderer.render(frame, scene, state, 0.5f, "ACE");
+            long start = System.nanoTime();
+            for (int i = 0; i < measured; i++) renderer.render(frame, scene, state, 0.5f, "ACE");
+            return (System.nanoTime() - start) / measured;
+        }
+
+        // Java2D's SrcOver of premultiplied pixels: source + destination * (255 - source alpha) / 255, per channel.
+        // Le SrcOver de Java2D sur des pixels prémultipliés : source + destination * (255 - alpha source) / 255, par canal.
+        static int over(int source, int sourceAlpha, int destination) {
+            int f = 0xFF - sourceAlpha;
+            return sourceAlpha + mul8(f, destination >>> 24) << 24
+                    | (source >>> 16 & 0xFF) + mul8(f, destination >>> 16 & 0xFF) << 16
+                    | (source >>> 8 & 0xFF) + mul8(f, destination >>> 8 & 0xFF) << 8
+                    | (source & 0xFF) + mul8(f, destination & 0xFF);
+        }
+
+        // a * b / 255 rounded to nearest, as Java2D's multiplication table. / a * b / 255 arrondi au plus proche, comme la table de multiplication de Java2D.
+        static int mul8(int a, int b) {
+            int t = a * b + 128;
+            return t + (t >>> 8) >>> 8;
+        }
+    }
+
+    /**
+     * The logical-resolution back buffer of the game screen. The scene is always drawn at 800x600 into an accelerated
+     * {@link VolatileImage} (a plain image when headless) and presented with one nearest-neighbor scaled blit, either
+     * to the largest integer multiple that fits or to the largest letterboxed size ({@value DisplaySettings#SCALING_PROPERTY}).
+     * For the {@link SoftwareRasterizer} it is always a plain {@code INT_ARGB_PRE} image, whose pixels the rasterizer writes.
+     * ---
+     * Le tampon arrière à résolution logique de l'écran de jeu. La scène est toujours dessinée en 800x600 dans une
+     * {@link VolatileImage} accélérée (une image simple sans affichage) et présentée par une seule copie mise à l'échelle
+     * au plus proche voisin, soit au plus grand multiple entier qui tient, soit à la plus grande taille avec bandes noires
+     * ({@value DisplaySettings#SCALING_PROPERTY}).
+     * Pour le {@link SoftwareRasterizer}, c'est toujours une image {@code INT_ARGB_PRE} simple, dont le rastériseur écrit les pixels.
+     */
+    private static class ScaledBackBuffer {
+        private final boolean integerScaling = "integer".equals(System.getProperty(DisplaySettings.SCALING_PROPERTY));
+        private final boolean software;
+        private VolatileImage volatileImage;
+        private BufferedImage bufferedImage;
+        // Set when the buffer was created or restored, losing the previous frame. / Levé quand le tampon a été créé ou restauré, perdant l'image précédente.
+        private boolean contentsReset;
+
+        ScaledBackBuffer(boolean software) {
+            this.software = software;
+        }
+
+        /**
+         * Returns a graphics context on the back buffer, (re)creating it when the display configuration changed.
+         * ---
+         * Retourne un contexte graphique sur le tampon arrière, en le (re)créant si la configuration d'affichage a changé.
+         */
+        public Graphics2D beginFrame(GraphicsConfiguration configuration) {
+            if (software || configuration == null || GraphicsEnvironment.isHeadless()) {
+                if (bufferedImage == null) {
+                    bufferedImage = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT,
+                            software ? BufferedImage.TYPE_INT_ARGB_PRE : BufferedImage.TYPE_INT_RGB);
+                    contentsReset = true;
+                }
+                return bufferedImage.createGraphics();
+            }
+            int status = volatileImage == null ? VolatileImage.IMAGE_INCOMPATIBLE : volatileImage.validate(configuration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (volatileImage != null) volatileImage.flush();
+                volatileImage = configuration.createCompatibleVolatileImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+            }
+            if (status != VolatileImage.IMAGE_OK) contentsReset = true;
+            return volatileImage.createGraphics();
+        }
+
+        // Whether the previous frame was lost since the last call. / Si l'image précédente a été perdue depuis le dernier appel.
+        public boolean takeContentsReset() {
+            boolean reset = contentsReset;
+            contentsReset = false;
+            return reset;
+        }
+
+        public boolean contentsLost() {
+            return volatileImage != null && volatileImage.contentsLost();
+        }
+
+        // The image the software rasterizer draws into, or null. / L'image dans laquelle dessine le rastériseur logiciel, ou null.
+        public BufferedImage rasterFrame() {
+            return software ? bufferedImage : null;
+        }
+
+        // The last frame drawn, at the logical resolution. / La dernière image dessinée, à la résolution logique.
+        public Image frame() {
+            return volatileImage != null ? volatileImage : bufferedImage;
+        }
+
+        public void present(Graphics2D g, int outputWidth, int outputHeight) {
+            Rectangle viewport = viewport(outputWidth, outputHeight, integerScaling);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            g.drawImage(volatileImage != null ? volatileImage : bufferedImage, viewport.x, viewport.y, viewport.width, viewport.height, null);
+        }
+
+        /**
+         * Maps a point of an output of the given size back to the logical screen, or returns null on the letterbox bands.
+         * ---
+         * Ramène un point d'une sortie de la taille donnée sur l'écran logique, ou retourne null sur les bandes noires.
+         */
+        public Point toLogical(int x, int y, int outputWidth, int outputHeight) {
+            Rectangle viewport = viewport(outputWidth, outputHeight, integerScaling);
+            if (!viewport.contains(x, y)) return null;
+            return new Point((x - viewport.x) * GameConstants.WINDOW_WIDTH / viewport.width,
+                    (y - viewport.y) * GameConstants.WINDOW_HEIGHT / viewport.height);
+        }
+
+        /**
+         * Computes where the logical screen lands in an output of the given size, centered and aspect-preserving.
+         * ---
+         * Calcule où l'écran logique se place dans une sortie de la taille donnée, centré et en conservant les proportions.
+         */
+        static Rectangle viewport(int outputWidth, int outputHeight, boolean integerScaling) {
+            double scale = Math.min(outputWidth / (double) GameConstants.WINDOW_WIDTH, outputHeight / (double) GameConstants.WINDOW_HEIGHT);
+            if (integerScaling && scale >= 1) scale = Math.floor(scale);
+            int width = (int) Math.round(GameConstants.WINDOW_WIDTH * scale);
+            int height = (int) Math.round(GameConstants.WINDOW_HEIGHT * scale);
+            return new Rectangle((outputWidth - width) / 2, (outputHeight - height) / 2, width, height);
+        }
+
+        /**
+         * Compares presenting a frame with one scaled blit against drawing every sprite through a scaling transform,
+         * at 1080p and 4K: {@code java SpaceInvadersGame --bench-present}.
+         * ---
+         * Compare la présentation d'une image par une seule copie mise à l'échelle au dessin de chaque sprite à travers
+         * une transformation d'échelle, en 1080p et en 4K : {@code java SpaceInvadersGame --bench-present}.
+         */
+        static void benchmark() {
+            AssetLoader.load();
+            GameWorld world = new GameWorld();
+            world.reset();
+            for (int i = 0; i < 5; i++) world.createExplosion(150 + i * 120, 300);
+            GameRenderer renderer = new GameRenderer();
+            BufferedImage logical = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+            int[][] outputs = {{1920, 1080}, {3840, 2160}};
+            for (int[] size : outputs) {
+                BufferedImage output = new BufferedImage(size[0], size[1], BufferedImage.TYPE_INT_RGB);
+                Rectangle viewport = viewport(size[0], size[1], false);
+                int frames = size[0] > 2000 ? 30 : 60;
+                for (int pass = 0; pass < 2; pass++) {
+                    long renderNanos = 0, presentNanos = 0, transformedNanos = 0;
+                    for (int frame = 0; frame < frames; frame++) {
+                        long start = System.nanoTime();
+                        Graphics2D g = logical.createGraphics();
+                        renderer.render(g, world, GameState.PLAYING, 0.5f, "");
+                        g.dispose();
+                        long rendered = System.nanoTime();
+                        Graphics2D out = output.createGraphics();
+                        out.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                        out.drawImage(logical, viewport.x, viewport.y, viewport.width, viewport.height, null);
+                        out.dispose();
+                        long presented = System.nanoTime();
+                        Graphics2D direct = output.createGraphics();
+                        direct.translate(viewport.x, viewport.y);
+                        direct.scale(viewport.width / (double) GameConstants.WINDOW_WIDTH, viewport.height / (double) GameConstants.WINDOW_HEIGHT);
+                        renderer.render(direct, world, GameState.PLAYING, 0.5f, "");
+                        direct.dispose();
+                        renderNanos += rendered - start;
+                        presentNanos += presented - rendered;
+                        transformedNanos += System.nanoTime() - presented;
+                    }
+                    if (pass == 1) {
+                        System.out.printf("%dx%d: logical render %.2f ms + present blit %.2f ms = %.2f ms | per-sprite transforms %.2f ms%n",
+                                size[0], size[1], renderNanos / 1e6 / frames, presentNanos / 1e6 / frames,
+                                (renderNanos + presentNanos) / 1e6 / frames, transformedNanos / 1e6 / frames);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records gameplay without an external screen recorder. Each painted frame (or every Nth) is copied into one of a few
+     * pooled images and handed over a bounded queue to an encoder thread, which writes either a PNG sequence or a simple
+     * run-length encoded video file ({@code .sivr}). When the encoder falls behind the pool runs dry and the frame is
+     * dropped: capturing never waits. Its summary reports captured and dropped frames and the frame time it added.
+     * <p>
+     * A {@code .sivr} file is a header of big-endian ints (magic, version, width, height, capture interval), then per frame
+     * its index among painted frames (int), its time since the start (long, ns), its payload length (int) and the payload:
+     * runs of identical pixels, each as its length minus one (one byte) and its RGB color (three bytes).
+     * ---
+     * Enregistre le jeu sans enregistreur d'écran externe. Chaque image dessinée (ou une sur N) est copiée dans l'une de
+     * quelques images mises en commun et transmise par une file bornée à un thread d'encodage, qui écrit soit une suite de PNG,
+     * soit un fichier vidéo simple encodé par plages ({@code .sivr}). Quand l'encodeur prend du retard, la réserve s'épuise et
+     * l'image est abandonnée : la capture n'attend jamais. Son bilan indique les images capturées et abandonnées ainsi que
+     * le temps ajouté à chaque image.
+     * <p>
+     * Un fichier {@code .sivr} est un en-tête d'entiers gros-boutistes (magique, version, largeur, hauteur, intervalle de capture),
+     * puis par image son indice parmi les images dessinées (int), son heure depuis le début (long, ns), la longueur de ses
+     * données (int) et les données : des plages de pixels identiques, chacune comme sa longueur moins un (un octet) et sa
+     * couleur RVB (trois octets).
+     */
+    public static final class FrameRecorder implements Closeable {
+        // Output directory; recording is off without it. / Répertoire de sortie ; sans lui, l'enregistrement est désactivé.
+        public static final String PROPERTY = "spaceinvaders.record";
+        static final String FORMAT_PROPERTY = "spaceinvaders.record.format";  // sivr (default / défaut) or / ou png
+        static final String EVERY_PROPERTY = "spaceinvaders.record.every";
+        static final String POOL_PROPERTY = "spaceinvaders.record.pool";
+        static final int MAGIC = 0x53495652; // "SIVR"
+        static final int VERSION = 1;
+        static final int DEFAULT_POOL_SIZE = 8;
+
+        private static final class Frame {
+            final BufferedImage image;
+            final Graphics2D graphics;
+            long index, nanos;
+
+            Frame(int width, int height) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                graphics = image.createGraphics();
+            }
+        }
+
+        private final Path output;
+        private final boolean png;
+        private final int every, width, height;
+        private final ArrayBlockingQueue<Frame> free, queued;
+        // Queued after the last frame to stop the encoder. / Mis en file après la dernière image pour arrêter l'encodeur.
+        private final Frame endOfStream;
+        private final Thread encoder;
+        private final Thread shutdownHook = new Thread(this::closeQuietly, "SpaceInvaders-Recorder-Shutdown");
+        private final long startNanos = System.nanoTime();
+        private volatile IOException failure;
+        private boolean closed;
+        // Capturing thread only. / Thread de capture seulement.
+        private long painted, captured, dropped, captureNanos, worstCaptureNanos;
+        // Encoder thread only, read after it has ended. / Thread d'encodage seulement, lus après sa fin.
+        private long encoded, encodeNanos, bytesWritten;
+        private byte[] runs;
+
+        public FrameRecorder(Path output, boolean png, int every, int poolSize, int width, int height) throws IOException {
+            this.output = output;
+            this.png = png;
+            this.every = Math.max(1, every);
+            this.width = width;
+            this.height = height;
+            if (png) Files.createDirectories(output); else Files.createDirectories(output.toAbsolutePath().getParent());
+            free = new ArrayBlockingQueue<>(poolSize);
+            queued = new ArrayBlockingQueue<>(poolSize + 1);
+            for (int i = 0; i < poolSize; i++) free.add(new Frame(width, height));
+            endOfStream = new Frame(1, 1);
+            OutputStream stream = png ? null : new BufferedOutputStream(Files.newOutputStream(output), 1 << 16);
+            encoder = new Thread(() -> encode(stream), "SpaceInvaders-Recorder");
+            encoder.setDaemon(true);
+            encoder.start();
+            // A game closed mid-recording still gets a complete file. / Une partie fermée en cours d'enregistrement garde un fichier complet.
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
+
+        /**
+         * Starts a recording of one game in the directory named by {@value #PROPERTY}, or returns null when recording is off.
+         * ---
+         * Démarre l'enregistrement d'une partie dans le répertoire désigné par {@value #PROPERTY}, ou retourne null si l'enregistrement est désactivé.
+         */
+        public static FrameRecorder fromSystemProperty() {
+            String directory = System.getProperty(PROPERTY);
+            if (directory == null || directory.isEmpty()) return null;
+            boolean png = "png".equalsIgnoreCase(System.getProperty(FORMAT_PROPERTY));
+            String name = String.format("game-%1$tY%1$tm%1$td-%1$tH%1$tM%1$tS", System.currentTimeMillis()) + (png ? "" : ".sivr");
+            try {
+                return new FrameRecorder(Paths.get(directory, name), png, Integer.getInteger(EVERY_PROPERTY, 1),
+                        Integer.getInteger(POOL_PROPERTY, DEFAULT_POOL_SIZE), GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+            } catch (IOException e) {
+                System.err.println("Recording disabled, could not create " + name + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * Called once per painted frame with the image just drawn. Copies it if it is due and a pooled image is free,
+         * otherwise counts it as dropped. Never blocks and never allocates.
+         * ---
+         * Appelée une fois par image dessinée avec l'image qui vient d'être dessinée. La copie si elle est due et qu'une image
+         * de la réserve est libre, sinon la compte comme abandonnée. Ne bloque jamais et n'alloue jamais.
+         */
+        public void capture(Image source) {
+            if (painted++ % every != 0 || failure != null) return;
+            long start = System.nanoTime();
+            Frame frame = free.poll();
+            if (frame == null) {
+                dropped++;
+                return;
+            }
+            frame.graphics.drawImage(source, 0, 0, null);
+            frame.index = painted - 1;
+            frame.nanos = start - startNanos;
+            // Never full: the queue has a slot for every pooled frame. / Jamais pleine : la file a une place par image de la réserve.
+            queued.offer(frame);
+            captured++;
+            long nanos = System.nanoTime() - start;
+            captureNanos += nanos;
+            worstCaptureNanos = Math.max(worstCaptureNanos, nanos);
+        }
+
+        private void encode(OutputStream stream) {
+            try (DataOutputStream out = stream != null ? new DataOutputStream(stream) : null) {
+                if (out != null) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(width);
+                    out.writeInt(height);
+                    out.writeInt(every);
+                    runs = new byte[width * height * 4];
+                }
+                while (true) {
+                    Frame frame = queued.take();
+                    if (frame == endOfStream) break;
+                    long start = System.nanoTime();
+                    try {
+                        if (out != null) {
+                            int length = encodeRuns(((DataBufferInt) frame.image.getRaster().getDataBuffer()).getData(), runs);
+                            out.writeInt((int) frame.index);
+                            out.writeLong(frame.nanos);
+                            out.writeInt(length);
+                            out.write(runs, 0, length);
+                            bytesWritten += 16 + length;
+                        } else {
+                            Path file = output.resolve(String.format("frame-%06d.png", frame.index));
+                            ImageIO.write(frame.image, "png", file.toFile());
+                            bytesWritten += Files.size(file);
+                        }
+                    } finally {
+                        free.offer(frame);
+                    }
+                    encoded++;
+                    encodeNanos += System.nanoTime() - start;
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        static int encodeRuns(int[] pixels, byte[] out) {
+            int length = 0;
+            for (int i = 0; i < pixels.length; ) {
+                int color = pixels[i] & 0xFFFFFF;
+                int run = 1;
+                while (run < 256 && i + run < pixels.length && (pixels[i + run] & 0xFFFFFF) == color) run++;
+                out[length++] = (byte) (run - 1);
+                out[length++] = (byte) (color >>> 16);
+                out[length++] = (byte) (color >>> 8);
+                out[length++] = (byte) color;
+                i += run;
+            }
+            return length;
+        }
+
+        /**
+         * Reads the next frame of a {@code .sivr} stream into {@code pixels}, returning its index or -1 at the end.
+         * ---
+         * Lit l'image suivante d'un flux {@code .sivr} dans {@code pixels}, en retournant son indice ou -1 à la fin.
+         */
+        static int decodeFrame(DataInputStream in, int[] pixels) throws IOException {
+            int index;
+            try {
+                index = in.readInt();
+            } catch (EOFException e) {
+                return -1;
+            }
+            in.readLong();
+            int length = in.readInt();
+            int position = 0;
+            for (int i = 0; i < length; i += 4) {
+                int run = in.readUnsignedByte() + 1;
+                int color = 0xFF000000 | in.readUnsignedByte() << 16 | in.readUnsignedByte() << 8 | in.readUnsignedByte();
+                Arrays.fill(pixels, position, position + run, color);
+                position += run;
+            }
+            return index;
+        }
+
+        /**
+         * Finishes the recording: waits for the queued frames to be written.
+         * ---
+         * Termine l'enregistrement : attend l'écriture des images en file.
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            queued.add(endOfStream);
+            try {
+                encoder.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (Thread.currentThread() != shutdownHook) Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            if (failure != null) throw failure;
+        }
+
+        private void closeQuietly() {
+            try {
+                close();
+                System.out.println("Recording " + output + ": " + summary());
+            } catch (IOException e) {
+                System.err.println("Recording failed: " + e.getMessage());
+            }
+        }
+
+        public Path getOutput() { return output; }
+
+        public String summary() {
+            return String.format("%d frames captured, %d dropped (%.1f%%), %d encoded (%.1f MB, %.2f ms each), "
+                            + "capture %.3f ms avg / %.3f ms worst, %.3f ms per painted frame",
+                    captured, dropped, 100.0 * dropped / Math.max(1, captured + dropped), encoded, bytesWritten / 1e6,
+                    encodeNanos / 1e6 / Math.max(1, encoded), captureNanos / 1e6 / Math.max(1, captured),
+                    worstCaptureNanos / 1e6, captureNanos / 1e6 / Math.max(1, painted));
+        }
+
+        /**
+         * Converts a {@code .sivr} recording into a PNG sequence, e.g. for a video editor:
+         * {@code java SpaceInvadersGame --export-recording game.sivr directory}.
+         * ---
+         * Convertit un enregistrement {@code .sivr} en suite de PNG, par exemple pour un logiciel de montage :
+         * {@code java SpaceInvadersGame --export-recording partie.sivr répertoire}.
+         */
+        static void export(String[] args) throws IOException {
+            if (args.length < 3) {
+                System.err.println("Usage: --export-recording <file.sivr> <directory>");
+                return;
+            }
+            Path directory = Files.createDirectories(Paths.get(args[2]));
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(args[1])), 1 << 16))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) throw new IOException("Not a recording: " + args[1]);
+                BufferedImage image = new BufferedImage(in.readInt(), in.readInt(), BufferedImage.TYPE_INT_RGB);
+                in.readInt();
+                int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                int frames = 0;
+                for (int index; (index = decodeFrame(in, pixels)) >= 0; frames++) {
+                    ImageIO.write(image, "png", directory.resolve(String.format("frame-%06d.png", index)).toFile());
+                }
+                System.out.println("Exported " + frames + " frames to " + directory);
+            }
+        }
+
+        /**
+         * Plays a firefight at 60 frames per second, headless, without and with recording in each format, and reports the
+         * added frame time, captured and dropped frames, then checks that the {@code .sivr} file decodes to the frames drawn:
+         * {@code java SpaceInvadersGame --bench-capture}.
+         * ---
+         * Joue une fusillade à 60 images par seconde, sans affichage, sans puis avec enregistrement dans chaque format, et
+         * indique le temps ajouté par image, les images capturées et abandonnées, puis vérifie que le fichier {@code .sivr}
+         * se décode en les images dessinées : {@code java SpaceInvadersGame --bench-capture}.
+         */
+        static void benchmark() throws IOException {
+            AssetLoader.load();
+            Path directory = Files.createTempDirectory("spaceinvaders-capture");
+            // The first run only warms up the renderer. / La première passe ne fait que chauffer le rendu.
+            String[] formats = {null, null, "sivr", "sivr", "png", "png"};
+            int[] intervals = {1, 1, 1, 2, 1, 3};
+            System.out.printf("%d frames at %d fps, pool of %d images%n", BENCH_FRAMES, GameConstants.TICKS_PER_SECOND, DEFAULT_POOL_SIZE);
+            System.out.printf("%-6s %6s %10s %10s %9s %9s %10s %8s%n",
+                    "format", "every", "frame ms", "added ms", "captured", "dropped", "encode ms", "MB");
+            double baselineMillis = 0;
+            try {
+                for (int run = 0; run < formats.length; run++) {
+                    boolean png = "png".equals(formats[run]);
+                    Path output = directory.resolve("run" + run + (png ? "" : ".sivr"));
+                    BufferedImage frame = new BufferedImage(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+                    FrameRecorder recorder = formats[run] == null ? null
+                            : new FrameRecorder(output, png, intervals[run], DEFAULT_POOL_SIZE, frame.getWidth(), frame.getHeight());
+                    int[] firstFrame = null;
+                    GameWorld world = new GameWorld(5);
+                    world.reset();
+                    GameRenderer renderer = new GameRenderer();
+                    long frameNanos = 0, next = System.nanoTime();
+                    for (int i = 0; i < BENCH_FRAMES; i++) {
+                        world.applyInput(InputState.FIRE | ((i / 45) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+                        world.tick();
+                        if (i % 20 == 0) world.createExplosion(100 + i * 37 % 600, 150 + i * 53 % 300);
+                        if (world.isPlayerDead()) world.lives = GameConstants.INITIAL_LIVES;
+                        long start = System.nanoTime();
+                        Graphics2D g = frame.createGraphics();
+                        renderer.render(g, world, GameState.PLAYING, 0.5f, "");
+                        g.dispose();
+                        if (recorder != null) recorder.capture(frame);
+                        frameNanos += System.nanoTime() - start;
+                        if (i == 0) firstFrame = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData().clone();
+                        next += GameConstants.TICK_NANOS;
+                        LockSupport.parkNanos(next - System.nanoTime());
+                    }
+                    double frameMillis = frameNanos / 1e6 / BENCH_FRAMES;
+                    if (recorder == null) {
+                        baselineMillis = frameMillis;
+                        if (run > 0) System.out.printf("%-6s %6s %10.3f %10s %9s %9s %10s %8s%n", "none", "-", frameMillis, "-", "-", "-", "-", "-");
+                        continue;
+                    }
+                    recorder.close();
+                    System.out.printf("%-6s %6d %10.3f %10.3f %9d %9d %10.2f %8.1f%n", formats[run], intervals[run], frameMillis,
+                            frameMillis - baselineMillis, recorder.captured, recorder.dropped,
+                            recorder.encodeNanos / 1e6 / Math.max(1, recorder.encoded), recorder.bytesWritten / 1e6);
+                    if (!png) verify(output, firstFrame);
+                }
+            } finally {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+
+        static final int BENCH_FRAMES = 300;
+
+        // Decodes a recording and compares its first frame, which is always captured, with the frame drawn.
+        // Décode un enregistrement et compare sa première image, toujours capturée, avec l'image dessinée.
+        private static void verify(Path file, int[] expected) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+                in.skipBytes(20);
+                int[] pixels = new int[expected.length];
+                int[] first = null;
+                int frames = 0;
+                while (decodeFrame(in, pixels) >= 0) {
+                    if (frames++ == 0) first = pixels.clone();
+                }
+                int mismatches = 0;
+                for (int i = 0; i < expected.length; i++) if (first == null || (expected[i] | 0xFF000000) != first[i]) mismatches++;
+                System.out.printf("       decoded %d frames, first frame %s%n", frames,
+                        mismatches == 0 ? "identical" : "differs in " + mismatches + " pixels");
+            }
+        }
+    }
+
+    /**
+     * Display options read from system properties: full-screen exclusive mode, display mode selection and scaling.
+     * ---
+     * Options d'affichage lues dans les propriétés système : mode plein écran exclusif, choix du mode d'affichage et mise à l'échelle.
+     */
+    static final class DisplaySettings {
+        static final String FULLSCREEN_PROPERTY = "spaceinvaders.fullscreen";
+        static final String DISPLAY_MODE_PROPERTY = "spaceinvaders.displayMode";
+        static final String SCALING_PROPERTY = "spaceinvaders.scaling";
+
+        private DisplaySettings() {}
+
+        static boolean isFullScreenRequested() {
+            return Boolean.getBoolean(FULLSCREEN_PROPERTY) && !GraphicsEnvironment.isHeadless();
+        }
+
+        /**
+         * Finds the display mode matching {@code WIDTHxHEIGHT[@HZ]}, preferring the highest refresh rate and bit depth.
+         * Returns null if the description is empty or no mode matches.
+         * ---
+         * Trouve le mode d'affichage correspondant à {@code LARGEURxHAUTEUR[@HZ]}, en préférant la fréquence et la profondeur les plus élevées.
+         * Retourne null si la description est vide ou si aucun mode ne correspond.
+         */
+        static DisplayMode selectDisplayMode(GraphicsDevice device, String description) {
+            if (description == null || description.isEmpty()) return null;
+            String[] parts = description.split("[x@]");
+            int width = Integer.parseInt(parts[0].trim());
+            int height = Integer.parseInt(parts[1].trim());
+            int refreshRate = parts.length > 2 ? Integer.parseInt(parts[2].trim()) : DisplayMode.REFRESH_RATE_UNKNOWN;
+            DisplayMode best = null;
+            for (DisplayMode mode : device.getDisplayModes()) {
+                if (mode.getWidth() != width || mode.getHeight() != height) continue;
+                if (refreshRate != DisplayMode.REFRESH_RATE_UNKNOWN && mode.getRefreshRate() != refreshRate) continue;
+                if (best == null || mode.getRefreshRate() > best.getRefreshRate()
+                        || (mode.getRefreshRate() == best.getRefreshRate() && mode.getBitDepth() > best.getBitDepth())) {
+                    best = mode;
+                }
+            }
+            if (best == null) System.err.println("No display mode matches " + description + ", keeping the current one.");
+            return best;
+        }
+
+        static void listDisplayModes() {
+            for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+                System.out.println(device.getIDstring() + " (full-screen " + (device.isFullScreenSupported() ? "supported" : "not supported") + ")");
+                for (DisplayMode mode : device.getDisplayModes()) {
+                    System.out.printf("  %dx%d@%d %d-bit%n", mode.getWidth(), mode.getHeight(), mode.getRefreshRate(), mode.getBitDepth());
+                }
+            }
+        }
+    }
+
+    /**
+     * Inner class representing the main gameplay panel. It drives the game loop and renders the game world.
+     * The simulation runs in fixed ticks inside {@link GameWorld}, while this panel repaints at the display
+     * refresh rate and interpolates entity positions between the previous and the current tick.
+     * On a multi-core machine the ticks run on a simulation thread that publishes a {@link RenderSnapshot} after each
+     * frame through a {@link SnapshotExchange}, so frame N+1 is simulated while frame N is painted; screen changes
+     * decided by the simulation are handed to the Event Dispatch Thread, which stops the simulation while it touches the world.
+     * As an inner class, it has direct access to the main frame's methods like gameOver().
+     * ---
+     * Classe interne représentant le panneau de jeu principal. Elle pilote la boucle de jeu et dessine le monde du jeu.
+     * La simulation avance par ticks fixes dans {@link GameWorld}, tandis que ce panneau se redessine à la fréquence
+     * de l'écran et interpole la position des entités entre le tick précédent et le tick courant.
+     * Sur une machine multicœur, les ticks tournent sur un thread de simulation qui publie un {@link RenderSnapshot} après
+     * chaque image via un {@link SnapshotExchange} : l'image N+1 est simulée pendant que l'image N est dessinée ; les
+     * changements d'écran décidés par la simulation sont confiés à l'Event Dispatch Thread, qui arrête la simulation
+     * pendant qu'il touche au monde.
+     * En tant que classe interne, elle a un accès direct aux méthodes de la fenêtre principale comme gameOver().
+     */
+    private class GamePanel extends JPanel implements ActionListener {
+
+        private final Timer gameTimer;
+        private volatile GameState gameState;
+        private final GameWorld world;
+        private final InputState input = new InputState();
+        private final GameRenderer renderer = new GameRenderer(SoftwareRasterizer.fromSystemProperty());
+        private final ScaledBackBuffer backBuffer = new ScaledBackBuffer(renderer.isSoftware());
+        // Set when playing on a co-op server: the world is then a replica fed by snapshots.
+        // Défini lors d'une partie sur un serveur coopératif : le monde est alors une réplique alimentée par les instantanés.
+        private GameClient netClient;
+
+        // Simulation time not yet consumed by a tick, and the last time the loop ran.
+        // Temps de simulation pas encore consommé par un tick, et dernier passage de la boucle.
+        private long tickAccumulatorNanos;
+        private long lastFrameNanos;
+        private float interpolationAlpha;
+        private long frameBudgetNanos;
+        private volatile long lastPaintNanos;
+
+        // The latest simulated frame, the only thing painting reads. / La dernière image simulée, seule chose que le dessin lit.
+        private final SnapshotExchange snapshots = new SnapshotExchange();
+        // Simulation thread, if used: it runs while simulationRunning is set; simulationBusy covers one frame of work.
+        // Thread de simulation, s'il est utilisé : il tourne tant que simulationRunning est levé ; simulationBusy couvre une image de travail.
+        private final boolean simulationThreaded = SnapshotExchange.useSimulationThread();
+        private final Object simulationLock = new Object();
+        private volatile boolean simulationRunning;
+        private boolean simulationBusy;
+        private Thread simulationThread;
+
+        // Rendering quality, adapted to the paint and update cost measured each frame.
+        // Qualité du rendu, adaptée au coût de dessin et de mise à jour mesuré à chaque image.
+        private final QualityGovernor quality = QualityGovernor.fromSystemProperty();
+        private long unmeasuredPaintNanos;
+        private int framesSinceRepaint;
+        // Startup milestones of the paint path, after which painting no longer touches the startup timer.
+        // Étapes du démarrage du chemin de dessin, après lesquelles le dessin ne touche plus le chronomètre de démarrage.
+        private boolean firstGameFrameMarked, mainMenuMarked;
+
+        // Telemetry for external monitoring, null unless enabled. / Télémétrie pour la surveillance externe, null sauf si activée.
+        private final Telemetry telemetry = Telemetry.fromSystemProperty();
+        // Recording of the current game, null unless enabled with -Dspaceinvaders.record=directory.
+        // Enregistrement de la partie en cours, null sauf si activé avec -Dspaceinvaders.record=répertoire.
+        private FrameRecorder recorder;
+        private long lastTickNanos;
+        private long fpsWindowStartNanos;
+        private int framesInWindow;
+        private volatile long fpsTimes100;
+
+        // Level transition: the next wave is built in the background while the banner is shown.
+        // Transition de niveau : la vague suivante est construite en arrière-plan pendant l'affichage de la bannière.
+        private Future<GameWorld.Wave> nextWave;
+        private long transitionTicksRemaining;
+        private long transitionStartNanos;
+        private long transitionWorstFrameNanos;
+
+        // Name typed on the game-over overlay, and the score it is for. / Nom saisi sur le calque de fin de partie, et le score concerné.
+        private final StringBuilder playerName = new StringBuilder();
+        private int finalScore;
+
+        // Plays local games when enabled (B key or -Dspaceinvaders.autopilot=true); its workers start on first use.
+        // Joue les parties locales quand il est activé (touche B ou -Dspaceinvaders.autopilot=true) ; ses travailleurs démarrent au premier usage.
+        private volatile boolean autopilotEnabled = Boolean.getBoolean(Autopilot.PROPERTY);
+        private Autopilot autopilot;
+
+        // Starfield behind the menus, scrolled by its own slow timer while one is shown; the pause menu draws over the game.
+        // Champ d'étoiles derrière les menus, défilant avec son propre minuteur lent pendant leur affichage ; le menu de pause se dessine sur le jeu.
+        private static final int MENU_FRAME_MS = 50;
+        private final List<Point2D.Float> menuStars = new ArrayList<>();
+        private final Random menuRandom = new Random();
+        private final Timer menuTimer = new Timer(MENU_FRAME_MS, e -> animateMenuStars());
+        // The menu whose frame the back buffer holds, if any. / Le menu dont le tampon arrière contient l'image, s'il y en a un.
+        private MenuScene drawnMenu;
+        private boolean handCursor;
+
+        public GamePanel() {
+            setPreferredSize(new Dimension(GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT));
+            setBackground(Color.BLACK);
+            setFocusable(true);
+            // Tab moves the menu selection, not the keyboard focus. / Tab déplace la sélection du menu, pas le focus clavier.
+            setFocusTraversalKeysEnabled(false);
+
+            addKeyListener(new GameKeyListener());
+            MenuMouseListener menuMouse = new MenuMouseListener();
+            addMouseListener(menuMouse);
+            addMouseMotionListener(menuMouse);
+            addMouseWheelListener(menuMouse);
+            for (int i = 0; i < GameConstants.BACKGROUND_STAR_COUNT; i++) {
+                menuStars.add(new Point2D.Float(menuRandom.nextInt(GameConstants.WINDOW_WIDTH), menuRandom.nextInt(GameConstants.WINDOW_HEIGHT)));
+            }
+            // Repaint at the display refresh rate; the simulation keeps its own fixed tick rate.
+            // Redessiner à la fréquence de l'écran ; la simulation garde sa propre cadence fixe.
+            gameTimer = new Timer(16, this);
+            updateRefreshRate(detectRefreshRate());
+            world = new GameWorld();
+            applyQuality();
+
+            resetGame();
+            setGameState(GameState.MAIN_MENU);
+        }
+
+        private int detectRefreshRate() {
+            if (GraphicsEnvironment.isHeadless()) return GameConstants.TICKS_PER_SECOND;
+            int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return refreshRate > 0 ? refreshRate : GameConstants.TICKS_PER_SECOND;
+        }
+
+        /**
+         * Adapts the repaint rate and frame budget to the refresh rate of the display, e.g. after a display mode change.
+         * ---
+         * Adapte la cadence de rafraîchissement et le budget par image à la fréquence de l'écran, par exemple après un changement de mode.
+         */
+        public void updateRefreshRate(int refreshRate) {
+            if (refreshRate <= 0) refreshRate = GameConstants.TICKS_PER_SECOND;
+            frameBudgetNanos = 1_000_000_000L / refreshRate;
+            gameTimer.setDelay(Math.max(1, 1000 / refreshRate));
+        }
+
+        public void resetGame() {
+            haltSimulation();
+            world.reset();
+            // A replica shows nothing until the first snapshot. / Une réplique n'affiche rien avant le premier instantané.
+            if (netClient != null) world.getAliens().clear();
+            resetFrameClock();
+            publishSnapshot(lastFrameNanos);
+        }
+
+        public void setNetworkClient(GameClient client) {
+            haltSimulation();
+            if (netClient != null && netClient != client) netClient.close();
+            netClient = client;
+        }
+
+        /**
+         * One tick of a co-op game: send the sampled input, read snapshots and refresh the replica world.
+         * ---
+         * Un tick d'une partie coopérative : envoyer l'entrée échantillonnée, lire les instantanés et rafraîchir le monde réplique.
+         */
+        private void updateNetworkTick() {
+            try {
+                netClient.sendInput(input.sample());
+                netClient.poll();
+                netClient.applyTo(world);
+                world.tickEffects();
+            } catch (IOException e) {
+                System.err.println("Disconnected from the co-op server: " + e.getMessage());
+                fromSimulation(() -> showMainMenu());
+            }
+        }
+
+        /**
+         * Starts the level-clear banner and hands the construction of the next wave to the background thread.
+         * ---
+         * Lance la bannière de fin de niveau et confie la construction de la vague suivante au thread d'arrière-plan.
+         */
+        public void nextLevel() {
+            int level = world.getCurrentLevel() + 1;
+            nextWave = backgroundExecutor.submit(() -> GameWorld.prepareWave(level));
+            transitionTicksRemaining = GameClock.msToTicks(GameConstants.LEVEL_BANNER_DURATION_MS);
+            transitionStartNanos = System.nanoTime();
+            transitionWorstFrameNanos = 0;
+            fromSimulation(() -> setGameState(GameState.LEVEL_CLEAR));
+        }
+
+        /**
+         * Advances the banner by one tick and installs the next wave once the banner is over and the wave is
+         * ready. It never waits on the background thread: a late wave simply keeps the banner up.
+         * ---
+         * Fait avancer la bannière d'un tick et installe la vague suivante une fois la bannière terminée et la vague prête.
+         * N'attend jamais le thread d'arrière-plan : une vague en retard prolonge simplement la bannière.
+         */
+        private void updateLevelTransition() {
+            world.tickEffects();
+            if (--transitionTicksRemaining > 0 || !nextWave.isDone()) return;
+            GameWorld.Wave wave;
+            try {
+                wave = nextWave.get();
+            } catch (Exception e) {
+                System.err.println("Failed to prepare the next wave: " + e.getMessage());
+                wave = GameWorld.prepareWave(world.getCurrentLevel() + 1);
+            }
+            long installStart = System.nanoTime();
+            world.installWave(wave);
+            long installNanos = System.nanoTime() - installStart;
+            nextWave = null;
+            // Without diagnostics, a flight recording still gets the preparation time through its LevelTransition events.
+            // Sans diagnostics, un enregistrement de vol reçoit tout de même le temps de préparation par ses événements LevelTransition.
+            if (GameConstants.DIAGNOSTICS) {
+                System.out.printf("Level %d transition: wave prepared in %.2f ms (background), installed in %d us, banner %d ms, worst frame %.2f ms (budget %.2f ms)%n",
+                        wave.getLevel(), wave.getPrepareNanos() / 1e6, installNanos / 1000,
+                        (System.nanoTime() - transitionStartNanos) / 1_000_000, transitionWorstFrameNanos / 1e6, frameBudgetNanos / 1e6);
+                if (transitionWorstFrameNanos > frameBudgetNanos) {
+                    System.err.println("Warning: a frame of the level transition exceeded the frame budget.");
+                }
+            }
+            fromSimulation(() -> setGameState(GameState.PLAYING));
+        }
+
+        private void resetFrameClock() {
+            tickAccumulatorNanos = 0;
+            lastFrameNanos = System.nanoTime();
+            interpolationAlpha = 0;
+        }
+
+        public void startGame() {
+            if (!gameTimer.isRunning()) {
+                lastFrameNanos = System.nanoTime();
+                gameTimer.start();
+            }
+            resumeSimulation();
+        }
+        public void stopGame() {
+            if (gameTimer.isRunning()) gameTimer.stop();
+            haltSimulation();
+        }
+
+        /**
+         * Lets the simulation thread run frames again, starting it on first use.
+         * ---
+         * Laisse le thread de simulation exécuter à nouveau des images, en le démarrant au premier usage.
+         */
+        private void resumeSimulation() {
+            if (!simulationThreaded) return;
+            synchronized (simulationLock) {
+                if (simulationThread == null) {
+                    simulationThread = new Thread(this::runSimulation, "SpaceInvaders-Simulation");
+                    simulationThread.setDaemon(true);
+                    simulationThread.start();
+                }
+                simulationRunning = true;
+                simulationLock.notifyAll();
+            }
+        }
+
+        /**
+         * Stops the simulation thread and waits for the frame in progress, after which the caller owns the world.
+         * ---
+         * Arrête le thread de simulation et attend la fin de l'image en cours, après quoi l'appelant possède le monde.
+         */
+        private void haltSimulation() {
+            if (!simulationThreaded) return;
+            boolean interrupted = false;
+            synchronized (simulationLock) {
+                simulationRunning = false;
+                while (simulationBusy) {
+                    try {
+                        simulationLock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        private void runSimulation() {
+            try {
+                while (true) {
+                    synchronized (simulationLock) {
+                        while (!simulationRunning) simulationLock.wait();
+                        simulationBusy = true;
+                    }
+                    try {
+                        simulateFrame(System.nanoTime());
+                    } catch (RuntimeException e) {
+                        // Like an exception on the Event Dispatch Thread: reported, and the loop goes on.
+                        // Comme une exception sur l'Event Dispatch Thread : signalée, et la boucle continue.
+                        System.err.println("Simulation error: " + e);
+                    } finally {
+                        synchronized (simulationLock) {
+                            simulationBusy = false;
+                            simulationLock.notifyAll();
+                        }
+                    }
+                    LockSupport.parkNanos(GameConstants.TICK_NANOS - tickAccumulatorNanos);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Applies a screen change decided by the simulation. With a simulation thread, the loop stops and the change runs
+         * on the Event Dispatch Thread; it is dropped if the player left the screen meanwhile, and decided again once play resumes.
+         * ---
+         * Applique un changement d'écran décidé par la simulation. Avec un thread de simulation, la boucle s'arrête et le
+         * changement s'exécute sur l'Event Dispatch Thread ; il est abandonné si le joueur a quitté l'écran entre-temps, et
+         * décidé à nouveau à la reprise du jeu.
+         */
+        private void fromSimulation(Runnable change) {
+            if (!simulationThreaded) {
+                change.run();
+                return;
+            }
+            GameState decidedIn = gameState;
+            synchronized (simulationLock) {
+                simulationRunning = false;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (gameState != decidedIn) return;
+                haltSimulation();
+                change.run();
+            });
+        }
+
+        public void setGameState(GameState state) {
+            haltSimulation();
+            // Keys released while another screen had focus never reach this panel.
+            // Les touches relâchées pendant qu'un autre écran avait le focus n'atteignent jamais ce panneau.
+            if (state != gameState) input.clear();
+            if (state == GameState.MAIN_MENU && isInGame(gameState)) {
+                reportInputLatency();
+                if (GameConstants.DIAGNOSTICS) System.out.println("Gameplay events: " + world.getEventTotals().summary());
+                if (GameConstants.DIAGNOSTICS && autopilot != null) System.out.println("Autopilot: " + autopilot.summary());
+                stopRecording();
+            }
+            if (state == GameState.PLAYING && gameState == GameState.MAIN_MENU) recorder = FrameRecorder.fromSystemProperty();
+            if (state == GameState.GAME_OVER) playerName.setLength(0);
+            if (state == GameState.MAIN_MENU && nextWave != null) {
+                nextWave.cancel(false);
+                nextWave = null;
+            }
+            this.gameState = state;
+            if (telemetry != null) telemetry.publish(world, state, fpsTimes100, lastTickNanos, quality.getTier().ordinal());
+            if (isLoopRunningIn(state)) startGame(); else stopGame();
+            if (isInGame(state)) menuTimer.stop(); else menuTimer.start();
+            if (handCursor) setCursor(Cursor.getDefaultCursor());
+            handCursor = false;
+            repaint();
+        }
+
+        private boolean isLoopRunningIn(GameState state) {
+            return state == GameState.PLAYING || state == GameState.LEVEL_CLEAR || state == GameState.GAME_OVER;
+        }
+
+        // A game is on screen, running or paused; the other states are menus over the starfield.
+        // Une partie est à l'écran, en cours ou en pause ; les autres états sont des menus sur le champ d'étoiles.
+        private boolean isInGame(GameState state) {
+            return isLoopRunningIn(state) || state == GameState.PAUSE_MENU;
+        }
+
+        private void animateMenuStars() {
+            MenuScene.scrollStars(menuStars, menuRandom);
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            long paintStart = System.nanoTime();
+            super.paintComponent(g);
+            RenderSnapshot scene = snapshots.latest();
+            if (isLoopRunningIn(gameState)) {
+                // How far the display is past the last simulated tick; paused screens keep their last factor.
+                // De combien l'affichage a dépassé le dernier tick simulé ; les écrans en pause gardent leur dernier facteur.
+                interpolationAlpha = Math.max(0f, Math.min(1f, (float) (paintStart - scene.tickNanos) / GameConstants.TICK_NANOS));
+            }
+            // Draw the scene and the menu of the screen, if any, at the logical resolution, then present them with a single scaled blit.
+            // A menu over the starfield only redraws what changed, as long as the buffer still holds its previous frame.
+            // Dessiner la scène et le menu de l'écran, s'il y en a un, à la résolution logique, puis les présenter en une seule copie mise à l'échelle.
+            // Un menu sur le champ d'étoiles ne redessine que ce qui a changé, tant que le tampon contient encore son image précédente.
+            MenuScene menu = menuFor(gameState);
+            boolean overStars = menu != null && !isInGame(gameState);
+            boolean fullRedraw = menu != drawnMenu;
+            do {
+                Graphics2D bufferGraphics = backBuffer.beginFrame(getGraphicsConfiguration());
+                if (backBuffer.takeContentsReset()) fullRedraw = true;
+                if (overStars) {
+                    menu.paintOverStars(bufferGraphics, menuStars, fullRedraw);
+                } else {
+                    BufferedImage rasterFrame = backBuffer.rasterFrame();
+                    if (rasterFrame != null) {
+                        renderer.render(rasterFrame, scene, gameState, interpolationAlpha, playerName);
+                    } else {
+                        renderer.render(bufferGraphics, scene, gameState, interpolationAlpha, playerName);
+                    }
+                    if (menu != null) menu.paint(bufferGraphics);
+                }
+                bufferGraphics.dispose();
+                backBuffer.present((Graphics2D) g, getWidth(), getHeight());
+                fullRedraw = true;
+            } while (backBuffer.contentsLost());
+            drawnMenu = overStars ? menu : null;
+            if (recorder != null) recorder.capture(backBuffer.frame());
+            Toolkit.getDefaultToolkit().sync();
+            input.framePresented();
+            lastPaintNanos = System.nanoTime() - paintStart;
+            // Menu frames must not count against the quality of the next game. / Les images des menus ne doivent pas peser sur la qualité de la partie suivante.
+            if (isLoopRunningIn(gameState)) unmeasuredPaintNanos += lastPaintNanos;
+            countFrame(paintStart);
+            if (!firstGameFrameMarked && gameState == GameState.PLAYING) {
+                StartupTimer.mark("first game frame");
+                firstGameFrameMarked = true;
+            }
+            if (!mainMenuMarked && gameState == GameState.MAIN_MENU) {
+                StartupTimer.mark("main menu shown");
+                mainMenuMarked = true;
+            }
+        }
+
+        private void countFrame(long frameNanos) {
+            framesInWindow++;
+            long elapsed = frameNanos - fpsWindowStartNanos;
+            if (elapsed >= 1_000_000_000L) {
+                fpsTimes100 = framesInWindow * 100_000_000_000L / elapsed;
+                framesInWindow = 0;
+                fpsWindowStartNanos = frameNanos;
+            }
+        }
+
+        private void stopRecording() {
+            if (recorder == null) return;
+            try {
+                recorder.close();
+                System.out.println("Recording " + recorder.getOutput() + ": " + recorder.summary());
+            } catch (IOException e) {
+                System.err.println("Recording failed: " + e.getMessage());
+            }
+            recorder = null;
+        }
+
+        private void reportInputLatency() {
+            if (input.inputToSimulation.getCount() == 0) return;
+            if (GameConstants.DIAGNOSTICS) {
+                System.out.println("Input latency (input -> simulation): " + input.inputToSimulation.summary());
+                System.out.println("Input latency (input -> present):    " + input.inputToPresent.summary());
+            }
+            input.inputToSimulation.reset();
+            input.inputToPresent.reset();
+        }
+
+        /**
+         * One iteration of the repaint timer. Without a simulation thread it first runs the frame's ticks itself;
+         * then it feeds the quality governor and repaints.
+         * ---
+         * Une itération du minuteur de rafraîchissement. Sans thread de simulation, il exécute d'abord lui-même les ticks
+         * de l'image ; puis il alimente le régulateur de qualité et redessine.
+         */
+        @Override
+        public void actionPerformed(ActionEvent e) {
+            long now = System.nanoTime();
+            if (!simulationThreaded && isLoopRunningIn(gameState)) simulateFrame(now);
+            if (isLoopRunningIn(gameState)) {
+                // Work of this iteration: the ticks above plus any painting done since the last one.
+                // With a simulation thread only the painting, which overlaps the ticks.
+                // Travail de cette itération : les ticks ci-dessus plus le dessin effectué depuis la précédente.
+                // Avec un thread de simulation, seulement le dessin, qui chevauche les ticks.
+                if (quality.record(System.nanoTime() - now + unmeasuredPaintNanos, frameBudgetNanos)) applyQuality();
+                unmeasuredPaintNanos = 0;
+            }
+            // Lower tiers repaint less often; the simulation still runs every tick.
+            // Les niveaux inférieurs redessinent moins souvent ; la simulation tourne toujours à chaque tick.
+            if (++framesSinceRepaint >= quality.getTier().renderDivisor) {
+                framesSinceRepaint = 0;
+                repaint();
+            }
+        }
+
+        /**
+         * One frame of simulation: runs as many fixed ticks as the elapsed real time allows, then publishes a snapshot of
+         * the result, stamped with the time its last tick was due.
+         * ---
+         * Une image de simulation : exécute autant de ticks fixes que le temps réel écoulé le permet, puis publie un
+         * instantané du résultat, daté de l'heure à laquelle son dernier tick était dû.
+         */
+        private void simulateFrame(long now) {
+            boolean inTransition = gameState == GameState.LEVEL_CLEAR;
+            // Cap the catch-up so a long stall doesn't trigger a burst of ticks.
+            // Limiter le rattrapage pour qu'un long blocage ne déclenche pas une rafale de ticks.
+            tickAccumulatorNanos += Math.min(now - lastFrameNanos, GameConstants.MAX_FRAME_CATCHUP_NANOS);
+            lastFrameNanos = now;
+            boolean ticked = false;
+            while (tickAccumulatorNanos >= GameConstants.TICK_NANOS && isTicking()) {
+                tickAccumulatorNanos -= GameConstants.TICK_NANOS;
+                long tickStart = System.nanoTime();
+                if (gameState == GameState.PLAYING && netClient != null) {
+                    updateNetworkTick();
+                } else if (gameState == GameState.PLAYING) {
+                    int actions = input.sample();
+                    if (autopilotEnabled) {
+                        if (autopilot == null) autopilot = Autopilot.forGame();
+                        actions = autopilot.decide(world);
+                    }
+                    world.applyInput(actions);
+                    world.tick();
+                    checkGameConditions();
+                } else if (gameState == GameState.LEVEL_CLEAR) {
+                    updateLevelTransition();
+                } else {
+                    world.tickEffects();
+                }
+                ticked = true;
+                lastTickNanos = System.nanoTime() - tickStart;
+                if (telemetry != null) telemetry.publish(world, gameState, fpsTimes100, lastTickNanos, quality.getTier().ordinal());
+            }
+            if (ticked) publishSnapshot(now - tickAccumulatorNanos);
+            if (inTransition) {
+                // Update time of this frame plus paint time of the previous one, or the longer of the two when they overlap.
+                // Temps de mise à jour de cette image plus temps de dessin de la précédente, ou le plus long des deux s'ils se chevauchent.
+                long updateNanos = System.nanoTime() - now;
+                transitionWorstFrameNanos = Math.max(transitionWorstFrameNanos,
+                        simulationThreaded ? Math.max(updateNanos, lastPaintNanos) : updateNanos + lastPaintNanos);
+            }
+        }
+
+        private boolean isTicking() {
+            return isLoopRunningIn(gameState) && (!simulationThreaded || simulationRunning);
+        }
+
+        private void publishSnapshot(long tickNanos) {
+            RenderSnapshot snapshot = snapshots.beginWrite();
+            snapshot.capture(world, tickNanos);
+            snapshot.autopilot = autopilotEnabled;
+            snapshots.publish();
+        }
+
+        private void applyQuality() {
+            renderer.setQuality(quality.getTier());
+            world.setParticlesPerExplosion(quality.getTier().particlesPerExplosion);
+        }
+
+        private void checkGameConditions() {
+            if (world.isPlayerDead()) {
+                int score = world.getScore();
+                fromSimulation(() -> {
+                    finalScore = score;
+                    gameOver(score);
+                });
+            } else if (world.isWaveCleared()) {
+                nextLevel();
+            }
+        }
+
+        /**
+         * Records gameplay keys into the {@link InputState}; only screen changes (pause) are handled immediately.
+         * On a menu screen, keys go to its {@link MenuScene}.
+         * ---
+         * Enregistre les touches de jeu dans l'{@link InputState} ; seuls les changements d'écran (pause) sont traités immédiatement.
+         * Sur un écran de menu, les touches vont à sa {@link MenuScene}.
+         */
+        private class GameKeyListener extends KeyAdapter {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                MenuScene menu = menuFor(gameState);
+                if (gameState == GameState.PAUSE_MENU && e.getKeyCode() == KeyEvent.VK_P) {
+                    resumeGame();
+                } else if (menu != null) {
+                    if (menu.keyPressed(e.getKeyCode(), e.isShiftDown())) repaint();
+                } else if (gameState == GameState.GAME_OVER) {
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_ENTER: submitHighScore(playerName.toString(), finalScore); break;
+                        case KeyEvent.VK_ESCAPE: submitHighScore(null, finalScore); break;
+                        case KeyEvent.VK_BACK_SPACE: if (playerName.length() > 0) playerName.setLength(playerName.length() - 1); break;
+                    }
+                } else if (gameState == GameState.PLAYING) {
+                    switch (e.getKeyCode()) {
+                        case KeyEvent.VK_ESCAPE:
+                        case KeyEvent.VK_P: showPauseMenu(); break;
+                        case KeyEvent.VK_B:
+                            autopilotEnabled = !autopilotEnabled;
+                            break;
+                        default: input.press(InputState.actionFor(e.getKeyCode()));
+                    }
+                }
+            }
+
+            @Override
+            public void keyReleased(KeyEvent e) {
+                input.release(InputState.actionFor(e.getKeyCode()));
+            }
+
+            @Override
+            public void keyTyped(KeyEvent e) {
+                char c = e.getKeyChar();
+                MenuScene menu = menuFor(gameState);
+                if (menu != null) {
+                    if (menu.keyTyped(c)) repaint();
+                } else if (gameState == GameState.GAME_OVER && playerName.length() < GameConstants.MAX_PLAYER_NAME_LENGTH
+                        && (Character.isLetterOrDigit(c) || c == ' ' || c == '-' || c == '_')) {
+                    playerName.append(c);
+                }
+            }
+        }
+
+        /**
+         * Hands the mouse to the menu of the current screen, in logical coordinates, and shows a hand over what can be clicked.
+         * ---
+         * Confie la souris au menu de l'écran courant, en coordonnées logiques, et affiche une main sur ce qui peut être cliqué.
+         */
+        private class MenuMouseListener extends MouseAdapter {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                MenuScene menu = menuFor(gameState);
+                Point point = backBuffer.toLogical(e.getX(), e.getY(), getWidth(), getHeight());
+                if (menu == null || point == null) return;
+                if (menu.mouseMoved(point.x, point.y)) repaint();
+                boolean clickable = menu.isClickable(point.x, point.y);
+                if (clickable != handCursor) {
+                    handCursor = clickable;
+                    setCursor(Cursor.getPredefinedCursor(clickable ? Cursor.HAND_CURSOR : Cursor.DEFAULT_CURSOR));
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                MenuScene menu = menuFor(gameState);
+                Point point = backBuffer.toLogical(e.getX(), e.getY(), getWidth(), getHeight());
+                if (menu != null && point != null && menu.mouseDragged(point.x, point.y)) repaint();
+            }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                MenuScene menu = menuFor(gameState);
+                Point point = backBuffer.toLogical(e.getX(), e.getY(), getWidth(), getHeight());
+                if (menu != null && point != null && SwingUtilities.isLeftMouseButton(e) && menu.mousePressed(point.x, point.y)) repaint();
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                MenuScene menu = menuFor(gameState);
+                if (menu != null) menu.mouseReleased();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                MenuScene menu = menuFor(gameState);
+                Point point = backBuffer.toLogical(e.getX(), e.getY(), getWidth(), getHeight());
+                if (menu != null && point != null && menu.mouseWheelMoved(point.x, point.y, e.getWheelRotation() * 3)) repaint();
+            }
+        }
+    }
+
+    /**
+     * A preallocated ring buffer of gameplay events, each stored as four primitive fields (type, x, y, value).
+     * The simulation only records what happened while it iterates; once per tick the queue is drained to
+     * subscribers (rules, particles, audio, statistics), which also receive a per-type count so they can
+     * coalesce bursts, e.g. one louder explosion instead of twenty. Publishing never allocates; if the buffer
+     * is full the event is dropped and counted.
+     * ---
+     * Un tampon circulaire préalloué d'événements de jeu, chacun stocké en quatre champs primitifs (type, x, y, valeur).
+     * La simulation ne fait qu'enregistrer ce qui s'est passé pendant ses boucles ; une fois par tick, la file est vidée
+     * vers les abonnés (règles, particules, audio, statistiques), qui reçoivent aussi un nombre par type pour regrouper
+     * les rafales, par exemple une seule explosion plus forte au lieu de vingt. La publication n'alloue jamais ; si le
+     * tampon est plein, l'événement est abandonné et compté.
+     */
+    public static final class GameEventQueue {
+        public static final int ALIEN_HIT = 0;         // value: remaining hit points / points de vie restants
+        public static final int ALIEN_DESTROYED = 1;   // value: score value / valeur en points
+        public static final int PLAYER_HIT = 2;        // value: player index / indice du joueur
+        public static final int POWERUP_COLLECTED = 3; // value: power-up type ordinal / ordinal du type de power-up
+        public static final int PLAYER_FIRED = 4;     // value: player index / indice du joueur
+        public static final int ALIEN_FIRED = 5;
+        public static final int BUNKER_HIT = 6;
+        static final String[] TYPE_NAMES = {
+                "alien_hit", "alien_destroyed", "player_hit", "powerup_collected", "player_fired", "alien_fired", "bunker_hit"
+        };
+        static final int DEFAULT_CAPACITY = 256;
+
+        /**
+         * Receives drained events. Both callbacks run on the simulation thread, in publication order.
+         * ---
+         * Reçoit les événements vidés. Les deux rappels s'exécutent sur le thread de simulation, dans l'ordre de publication.
+         */
+        public interface Subscriber {
+            default void onEvent(int type, int x, int y, int value) {}
+
+            /**
+             * Called once after the events of a tick, with how many of each type occurred (indexed by type).
+             * ---
+             * Appelé une fois après les événements d'un tick, avec le nombre de chaque type survenu (indexé par type).
+             */
+            default void onTickSummary(int[] countsByType) {}
+        }
+
+        private final int[] types, xs, ys, values;
+        private final int[] counts = new int[TYPE_NAMES.length];
+        private int head, size;
+        private long dropped;
+
+        public GameEventQueue(int capacity) {
+            types = new int[capacity];
+            xs = new int[capacity];
+            ys = new int[capacity];
+            values = new int[capacity];
+        }
+
+        public void publish(int type, int x, int y, int value) {
+            if (size == types.length) {
+                dropped++;
+                return;
+            }
+            int slot = (head + size) % types.length;
+            types[slot] = type;
+            xs[slot] = x;
+            ys[slot] = y;
+            values[slot] = value;
+            size++;
+        }
+
+        public void drain(List<Subscriber> subscribers) {
+            if (size == 0) return;
+            while (size > 0) {
+                int type = types[head];
+                counts[type]++;
+                for (int i = 0; i < subscribers.size(); i++) subscribers.get(i).onEvent(type, xs[head], ys[head], values[head]);
+                head = (head + 1) % types.length;
+                size--;
+            }
+            for (int i = 0; i < subscribers.size(); i++) subscribers.get(i).onTickSummary(counts);
+            Arrays.fill(counts, 0);
+        }
+
+        public void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        public int size() { return size; }
+        public long getDropped() { return dropped; }
+
+        /**
+         * Counts every event of a session, per type.
+         * ---
+         * Compte chaque événement d'une session, par type.
+         */
+        public static final class Totals implements Subscriber {
+            private final long[] totals = new long[TYPE_NAMES.length];
+
+            @Override
+            public void onTickSummary(int[] countsByType) {
+                for (int type = 0; type < totals.length; type++) totals[type] += countsByType[type];
+            }
+
+            public long get(int type) { return totals[type]; }
+            public void reset() { Arrays.fill(totals, 0); }
+
+            public String summary() {
+                StringBuilder sb = new StringBuilder();
+                for (int type = 0; type < totals.length; type++) {
+                    if (sb.length() > 0) sb.append(", ");
+                    sb.append(TYPE_NAMES[type]).append('=').append(totals[type]);
+                }
+                return sb.toString();
+            }
+        }
+    }
+
+    /**
+     * A hierarchical timing wheel counting simulation ticks, owned by the game world: cooldowns, power-up expiries and
+     * the alien cadences are timers on it instead of tick comparisons repeated every tick. Four levels of 64 slots each
+     * cover delays up to {@link #MAX_DELAY} ticks; a slot of level L spans 64^L ticks and is spread over the level below
+     * when its turn comes, so scheduling, cancelling and advancing by one tick are all O(1) whatever the number of timers.
+     * Timers live in parallel arrays used as a pool of nodes linked by index: scheduling allocates nothing once the pool
+     * has grown to the largest number of pending timers, and {@link #copyFrom} is a plain array copy. A timer is known by
+     * a handle holding its node and the node's generation, so a handle kept after its timer fired or was cancelled is
+     * simply stale. Timers due on the same tick fire in an order set only by the sequence of calls, never by hash codes
+     * or wall-clock time: two wheels fed the same calls fire identically, which keeps seeded worlds and look-ahead copies
+     * deterministic. The wheel only advances with {@link GameWorld#tick}, so banners and overlays do not run timers down.
+     * ---
+     * Une roue de minuteries hiérarchique qui compte les ticks de simulation, possédée par le monde du jeu : délais de tir,
+     * fins de bonus et cadences des aliens y sont des minuteries au lieu de comparaisons de ticks répétées à chaque tick.
+     * Quatre niveaux de 64 cases couvrent des délais jusqu'à {@link #MAX_DELAY} ticks ; une case du niveau L couvre 64^L ticks
+     * et est répartie sur le niveau inférieur quand vient son tour, si bien que programmer, annuler et avancer d'un tick sont
+     * tous en O(1) quel que soit le nombre de minuteries. Les minuteries vivent dans des tableaux parallèles servant de réserve
+     * de nœuds chaînés par indice : programmer n'alloue rien une fois la réserve à la taille du plus grand nombre de minuteries
+     * en attente, et {@link #copyFrom} est une simple copie de tableaux. Une minuterie est désignée par un identifiant qui
+     * contient son nœud et la génération du nœud, si bien qu'un identifiant gardé après le déclenchement ou l'annulation de
+     * sa minuterie est simplement périmé. Les minuteries dues au même tick se déclenchent dans un ordre fixé uniquement par
+     * la suite des appels, jamais par des codes de hachage ou l'heure réelle : deux roues qui reçoivent les mêmes appels se
+     * déclenchent à l'identique, ce qui garde déterministes les mondes à graine fixe et les copies d'anticipation. La roue
+     * n'avance qu'avec {@link GameWorld#tick} : bannières et calques n'écoulent pas les minuteries.
+     */
+    public static final class TimerWheel {
+        // A handle that never designates a timer. / Un identifiant qui ne désigne jamais de minuterie.
+        public static final long NONE = 0;
+        static final int SLOT_BITS = 6, SLOTS = 1 << SLOT_BITS, LEVELS = 4;
+        // Longer delays are shortened to this one. / Les délais plus longs sont ramenés à celui-ci.
+        public static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+        static final int DEFAULT_CAPACITY = 16;
+        static final int BENCH_TIMERS = 100_000;
+        static final int BENCH_TICKS = 36_000;
+        static final int BENCH_MAX_PERIOD = 36_000;
+        static final int BENCH_RESCHEDULES_PER_TICK = 1_000;
+        private static final int NIL = -1;
+
+        /**
+         * Runs the action of a timer that came due, on the simulation thread. The timer is already released, so the
+         * listener may schedule it again.
+         * ---
+         * Exécute l'action d'une minuterie arrivée à échéance, sur le thread de simulation. La minuterie est déjà libérée :
+         * l'écouteur peut la programmer à nouveau.
+         */
+        public interface Listener {
+            void onTimer(int action, int target);
+        }
+
+        private final int[] heads = new int[LEVELS * SLOTS], tails = new int[LEVELS * SLOTS];
+        // Per node: its slot (NIL when free), neighbors, generation, action, target and deadline.
+        // Par nœud : sa case (NIL quand il est libre), ses voisins, sa génération, son action, sa cible et son échéance.
+        private int[] slots, next, previous, generations, actions, targets;
+        private long[] deadlines;
+        private int freeHead = NIL, size;
+        private long now;
+
+        public TimerWheel() {
+            this(DEFAULT_CAPACITY);
+        }
+
+        public TimerWheel(int capacity) {
+            Arrays.fill(heads, NIL);
+            Arrays.fill(tails, NIL);
+            slots = new int[0];
+            next = previous = generations = actions = targets = slots;
+            deadlines = new long[0];
+            grow(Math.max(1, capacity));
+        }
+
+        /**
+         * Schedules an action to run in {@code delay} ticks (at least one, at most {@link #MAX_DELAY}) and returns its handle.
+         * ---
+         * Programme une action à exécuter dans {@code delay} ticks (au moins un, au plus {@link #MAX_DELAY}) et retourne son identifiant.
+         */
+        public long schedule(long delay, int action, int target) {
+            if (freeHead == NIL) grow(slots.length * 2);
+            int node = freeHead;
+            freeHead = next[node];
+            deadlines[node] = now + Math.max(1, Math.min(delay, MAX_DELAY));
+            actions[node] = action;
+            targets[node] = target;
+            size++;
+            link(node);
+            return (long) generations[node] << 32 | node;
+        }
+
+        /**
+         * Cancels a pending timer. Returns false, and does nothing, when the handle is stale or {@link #NONE}.
+         * ---
+         * Annule une minuterie en attente. Retourne faux, sans rien faire, quand l'identifiant est périmé ou vaut {@link #NONE}.
+         */
+        public boolean cancel(long handle) {
+            int node = nodeOf(handle);
+            if (node == NIL) return false;
+            unlink(node);
+            release(node);
+            return true;
+        }
+
+        public boolean isPending(long handle) { return nodeOf(handle) != NIL; }
+
+        // Ticks left before a pending timer fires, 0 for a stale handle. / Ticks restants avant le déclenchement, 0 si l'identifiant est périmé.
+        public long remaining(long handle) {
+            int node = nodeOf(handle);
+            return node == NIL ? 0 : deadlines[node] - now;
+        }
+
+        public long now() { return now; }
+        public int size() { return size; }
+
+        /**
+         * Advances the wheel by one tick and runs the timers due on it. Every 64^L ticks, the next slot of level L is
+         * first spread over the levels below; the timers it holds are all due within its span.
+         * ---
+         * Fait avancer la roue d'un tick et exécute les minuteries qui y sont dues. Tous les 64^L ticks, la case suivante
+         * du niveau L est d'abord répartie sur les niveaux inférieurs ; ses minuteries sont toutes dues dans son intervalle.
+         */
+        public void advance(Listener listener) {
+            now++;
+            for (int level = 1; level < LEVELS && (now & (1L << (SLOT_BITS * level)) - 1) == 0; level++) {
+                int slot = level * SLOTS + (int) (now >>> (SLOT_BITS * level) & (SLOTS - 1));
+                while (heads[slot] != NIL) {
+                    int node = heads[slot];
+                    unlink(node);
+                    link(node);
+                }
+            }
+            // Popped one at a time: an action may cancel another timer due on this tick.
+            // Retirées une à une : une action peut annuler une autre minuterie due à ce tick.
+            int slot = (int) (now & (SLOTS - 1));
+            while (heads[slot] != NIL) {
+                int node = heads[slot];
+                unlink(node);
+                int action = actions[node], target = targets[node];
+                release(node);
+                listener.onTimer(action, target);
+            }
+        }
+
+        /**
+         * Cancels every timer and restarts the count at tick 0. Handles given out before become stale.
+         * ---
+         * Annule toutes les minuteries et reprend le compte au tick 0. Les identifiants donnés auparavant deviennent périmés.
+         */
+        public void clear() {
+            for (int slot = 0; slot < heads.length; slot++) {
+                while (heads[slot] != NIL) {
+                    int node = heads[slot];
+                    unlink(node);
+                    release(node);
+                }
+            }
+            now = 0;
+        }
+
+        /**
+         * Makes this wheel an exact copy of another one, handles included. It only allocates while this wheel's pool is
+         * smaller than the source's.
+         * ---
+         * Fait de cette roue une copie exacte d'une autre, identifiants compris. N'alloue que tant que la réserve de cette roue
+         * est plus petite que celle de la source.
+         */
+        public void copyFrom(TimerWheel source) {
+            int capacity = source.slots.length;
+            if (slots.length < capacity) {
+                slots = new int[capacity];
+                next = new int[capacity];
+                previous = new int[capacity];
+                generations = new int[capacity];
+                actions = new int[capacity];
+                targets = new int[capacity];
+                deadlines = new long[capacity];
+            }
+            System.arraycopy(source.heads, 0, heads, 0, heads.length);
+            System.arraycopy(source.tails, 0, tails, 0, tails.length);
+            System.arraycopy(source.slots, 0, slots, 0, capacity);
+            System.arraycopy(source.next, 0, next, 0, capacity);
+            System.arraycopy(source.previous, 0, previous, 0, capacity);
+            System.arraycopy(source.generations, 0, generations, 0, capacity);
+            System.arraycopy(source.actions, 0, actions, 0, capacity);
+            System.arraycopy(source.targets, 0, targets, 0, capacity);
+            System.arraycopy(source.deadlines, 0, deadlines, 0, capacity);
+            freeHead = source.freeHead;
+            // The extra nodes of a larger pool go in front of the free list. / Les nœuds en plus d'une réserve plus grande passent en tête de la liste libre.
+            for (int node = slots.length - 1; node >= capacity; node--) {
+                slots[node] = NIL;
+                next[node] = freeHead;
+                freeHead = node;
+            }
+            size = source.size;
+            now = source.now;
+        }
+
+        private int nodeOf(long handle) {
+            int node = (int) handle;
+            if (node < 0 || node >= slots.length || slots[node] == NIL || generations[node] != (int) (handle >>> 32)) return NIL;
+            return node;
+        }
+
+        // Appends a node to the slot of its deadline, on the lowest level whose span covers the delay.
+        // Ajoute un nœud à la case de son échéance, au plus bas niveau dont l'intervalle couvre le délai.
+        private void link(int node) {
+            long delay = deadlines[node] - now;
+            int level = Math.min(LEVELS - 1, (63 - Long.numberOfLeadingZeros(delay | 1)) / SLOT_BITS);
+            int slot = level * SLOTS + (int) (deadlines[node] >>> (SLOT_BITS * level) & (SLOTS - 1));
+            slots[node] = slot;
+            next[node] = NIL;
+            previous[node] = tails[slot];
+            if (tails[slot] == NIL) heads[slot] = node;
+            else next[tails[slot]] = node;
+            tails[slot] = node;
+        }
+
+        private void unlink(int node) {
+            int slot = slots[node];
+            if (previous[node] == NIL) heads[slot] = next[node];
+            else next[previous[node]] = next[node];
+            if (next[node] == NIL) tails[slot] = previous[node];
+            else previous[next[node]] = previous[node];
+        }
+
+        private void release(int node) {
+            slots[node] = NIL;
+            // Generation 0 is skipped so that no handle equals NONE. / La génération 0 est sautée pour qu'aucun identifiant ne vaille NONE.
+            if (++generations[node] == 0) generations[node] = 1;
+            next[node] = freeHead;
+            freeHead = node;
+            size--;
+        }
+
+        private void grow(int capacity) {
+            int old = slots.length;
+            slots = Arrays.copyOf(slots, capacity);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            generations = Arrays.copyOf(generations, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            for (int node = capacity - 1; node >= old; node--) {
+                slots[node] = NIL;
+                generations[node] = 1;
+                next[node] = freeHead;
+                freeHead = node;
+            }
+        }
+
+        /**
+         * Measures the wheel with {@value #BENCH_TIMERS} concurrent periodic timers ({@code --bench-timers}): each one
+         * schedules itself again when it fires, and every tick {@value #BENCH_RESCHEDULES_PER_TICK} random timers are
+         * cancelled and scheduled again, like cooldowns reset by a power-up. The same workload then runs as the per-tick
+         * deadline comparisons the wheel replaced. Reports the cost of a tick, a schedule and a cancel, the bytes allocated
+         * per tick, and checks that every timer fired on its tick and that two runs fired in the same order.
+         * ---
+         * Mesure la roue avec {@value #BENCH_TIMERS} minuteries périodiques simultanées ({@code --bench-timers}) : chacune
+         * se reprogramme en se déclenchant, et à chaque tick {@value #BENCH_RESCHEDULES_PER_TICK} minuteries au hasard sont
+         * annulées et reprogrammées, comme des délais remis à zéro par un bonus. La même charge tourne ensuite sous forme des
+         * comparaisons d'échéances à chaque tick que la roue a remplacées. Indique le coût d'un tick, d'une programmation et
+         * d'une annulation, les octets alloués par tick, et vérifie que chaque minuterie s'est déclenchée à son tick et que deux
+         * exécutions se sont déclenchées dans le même ordre.
+         */
+        static void benchmark() {
+            System.out.printf("%d concurrent timers, periods of 1 to %d ticks, %d ticks, %d cancel and reschedule per tick%n",
+                    BENCH_TIMERS, BENCH_MAX_PERIOD, BENCH_TICKS, BENCH_RESCHEDULES_PER_TICK);
+            System.out.printf("%-14s %10s %14s %12s %10s %11s %10s %9s%n",
+                    "scheduler", "ns/tick", "ns/reschedule", "ns/schedule", "ns/cancel", "bytes/tick", "fired", "off-tick");
+            // The first run warms the JIT up. / La première exécution chauffe le JIT.
+            BenchRun first = new BenchRun(), second = new BenchRun(), polling = new BenchRun();
+            first.measureWheel(null);
+            second.measureWheel("timing wheel");
+            polling.measurePolling();
+            System.out.println("Firing order: " + (first.order == second.order ? "identical in both runs" : "DIFFERENT between runs")
+                    + ", " + (second.fired == polling.fired ? "same timers fired as polling" : "NOT the timers fired by polling"));
+        }
+
+        private static final class BenchRun implements Listener {
+            final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            final long threadId = Thread.currentThread().getId();
+            final Random random = new Random(42);
+            final int[] periods = new int[BENCH_TIMERS], shuffled = new int[BENCH_TIMERS];
+            final long[] handles = new long[BENCH_TIMERS], due = new long[BENCH_TIMERS];
+            TimerWheel wheel;
+            long fired, offTick, order = 1;
+
+            BenchRun() {
+                for (int i = 0; i < BENCH_TIMERS; i++) {
+                    periods[i] = 1 + random.nextInt(BENCH_MAX_PERIOD);
+                    shuffled[i] = i;
+                }
+                for (int i = BENCH_TIMERS - 1; i > 0; i--) {
+                    int j = random.nextInt(i + 1), swap = shuffled[i];
+                    shuffled[i] = shuffled[j];
+                    shuffled[j] = swap;
+                }
+            }
+
+            @Override
+            public void onTimer(int action, int target) {
+                fired++;
+                if (wheel.now() != due[target]) offTick++;
+                order = order * 31 + target;
+                handles[target] = wheel.schedule(periods[target], action, target);
+                due[target] = wheel.now() + periods[target];
+            }
+
+            void measureWheel(String name) {
+                wheel = new TimerWheel();
+                long start = System.nanoTime();
+                for (int i = 0; i < BENCH_TIMERS; i++) {
+                    handles[i] = wheel.schedule(periods[i], 0, i);
+                    due[i] = periods[i];
+                }
+                long scheduleNanos = System.nanoTime() - start;
+                long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+                long rescheduleNanos = 0, tickNanos = 0;
+                for (int tick = 0; tick < BENCH_TICKS; tick++) {
+                    start = System.nanoTime();
+                    for (int i = 0; i < BENCH_RESCHEDULES_PER_TICK; i++) {
+                        int target = random.nextInt(BENCH_TIMERS);
+                        wheel.cancel(handles[target]);
+                        handles[target] = wheel.schedule(periods[target], 0, target);
+                        due[target] = wheel.now() + periods[target];
+                    }
+                    long rescheduled = System.nanoTime();
+                    wheel.advance(this);
+                    tickNanos += System.nanoTime() - rescheduled;
+                    rescheduleNanos += rescheduled - start;
+                }
+                long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+                start = System.nanoTime();
+                for (int i = 0; i < BENCH_TIMERS; i++) wheel.cancel(handles[shuffled[i]]);
+                long cancelNanos = System.nanoTime() - start;
+                if (wheel.size() != 0) offTick += wheel.size();
+                if (name != null) print(name, tickNanos, rescheduleNanos, scheduleNanos, cancelNanos, bytes);
+            }
+
+            // Each timer is a deadline compared with the tick count on every tick. / Chaque minuterie est une échéance comparée au compte de ticks à chaque tick.
+            void measurePolling() {
+                long start = System.nanoTime();
+                for (int i = 0; i < BENCH_TIMERS; i++) due[i] = periods[i];
+                long scheduleNanos = System.nanoTime() - start;
+                long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+                long rescheduleNanos = 0, tickNanos = 0;
+                for (long now = 1; now <= BENCH_TICKS; now++) {
+                    start = System.nanoTime();
+                    for (int i = 0; i < BENCH_RESCHEDULES_PER_TICK; i++) {
+                        int target = random.nextInt(BENCH_TIMERS);
+                        due[target] = now - 1 + periods[target];
+                    }
+                    long rescheduled = System.nanoTime();
+                    rescheduleNanos += rescheduled - start;
+                    for (int i = 0; i < BENCH_TIMERS; i++) {
+                        if (now >= due[i]) {
+                            fired++;
+                            if (now != due[i]) offTick++;
+                            due[i] = now + periods[i];
+                        }
+                    }
+                    tickNanos += System.nanoTime() - rescheduled;
+                }
+                long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+                start = System.nanoTime();
+                for (int i = 0; i < BENCH_TIMERS; i++) due[shuffled[i]] = Long.MAX_VALUE;
+                long cancelNanos = System.nanoTime() - start;
+                print("polling", tickNanos, rescheduleNanos, scheduleNanos, cancelNanos, bytes);
+            }
+
+            void print(String name, long tickNanos, long rescheduleNanos, long scheduleNanos, long cancelNanos, long bytes) {
+                System.out.printf("%-14s %10d %14.1f %12.1f %10.1f %11d %10d %9d%n", name, tickNanos / BENCH_TICKS,
+                        (double) rescheduleNanos / BENCH_TICKS / BENCH_RESCHEDULES_PER_TICK, (double) scheduleNanos / BENCH_TIMERS,
+                        (double) cancelNanos / BENCH_TIMERS, bytes / BENCH_TICKS, fired, offTick);
+            }
+        }
+    }
+
+    /**
+     * The simulation state and rules of a game session, independent of any Swing component.
+     * It advances one fixed tick at a time on its own {@link GameClock}, so gameplay speed no longer
+     * depends on how often the screen is repainted. Entities remember their previous tick position
+     * so that the renderer can interpolate between two simulation states.
+     * ---
+     * L'état et les règles de simulation d'une partie, indépendants de tout composant Swing.
+     * Il avance d'un tick fixe à la fois sur sa propre {@link GameClock}, si bien que la vitesse du jeu
+     * ne dépend plus de la fréquence de rafraîchissement. Les entités mémorisent leur position au tick
+     * précédent pour que le rendu puisse interpoler entre deux états de la simulation.
+     */
+    private static class GameWorld {
+        static final float STAR_SCROLL_SPEED = 0.5f;
+        // Actions of the timers; the target is a player index for the ship timers.
+        // Actions des minuteries ; la cible est un indice de joueur pour les minuteries des vaisseaux.
+        static final int TIMER_ALIEN_MOVE = 0, TIMER_ALIEN_FIRE = 1, TIMER_WEAPON_READY = 2, TIMER_RAPID_FIRE_END = 3, TIMER_SHIELD_END = 4;
+        static final int ALIENS_PER_WAVE = 50;
+        static final int BUNKER_COUNT = 4;
+
+        private final GameClock clock = new GameClock();
+        private final Random random;
+        private final List<Point2D.Float> stars = new ArrayList<>();
+        // Set by the quality governor on the Event Dispatch Thread. / Réglé par le régulateur de qualité sur l'Event Dispatch Thread.
+        private volatile int particlesPerExplosion = GameConstants.EXPLOSION_PARTICLE_COUNT;
+        private final List<Alien> aliens = new ArrayList<>();
+        private final List<Laser> playerLasers = new ArrayList<>();
+        private final List<Laser> alienLasers = new ArrayList<>();
+        private final List<Particle> particles = new ArrayList<>();
+        private final List<PowerUp> powerUps = new ArrayList<>();
+        private final List<Bunker> bunkers = createBunkers();
+
+        // Side effects of a tick, applied once the collision loops are done.
+        // Effets de bord d'un tick, appliqués une fois les boucles de collision terminées.
+        private final GameEventQueue events = new GameEventQueue(GameEventQueue.DEFAULT_CAPACITY);
+        private final GameEventQueue.Totals eventTotals = new GameEventQueue.Totals();
+        private final List<GameEventQueue.Subscriber> subscribers;
+        // Pairs tested and hits of the last collision pass, for its flight recorder event.
+        // Paires testées et touches de la dernière passe de collision, pour son événement de l'enregistreur de vol.
+        private int collisionPairs, collisionHits;
+        // False for the look-ahead worlds of the autopilot: no sound, no stars, no particles.
+        // Faux pour les mondes d'anticipation du pilote automatique : ni son, ni étoiles, ni particules.
+        private final boolean cosmetic;
+        // Entities reused by copyFrom, only in look-ahead worlds. / Entités réutilisées par copyFrom, seulement dans les mondes d'anticipation.
+        private final List<PlayerShip> playerPool = new ArrayList<>();
+        private final List<Alien> alienPool = new ArrayList<>();
+        private final List<Laser> playerLaserPool = new ArrayList<>();
+        private final List<Laser> alienLaserPool = new ArrayList<>();
+        private final List<PowerUp> powerUpPool = new ArrayList<>();
+        // The ships of every player; a local game has one, a co-op server two.
+        // Les vaisseaux de tous les joueurs ; une partie locale en a un, un serveur coopératif deux.
+        private final List<PlayerShip> players = new ArrayList<>();
+        private int score;
+        private int lives;
+        private int currentLevel;
+        private int alienMoveDirection = 1;
+        private long alienMoveIntervalTicks;
+        private long alienFireIntervalTicks;
+        private int alienSpeed;
+        // Cooldowns, power-up expiries and alien cadences. / Délais de tir, fins de bonus et cadences des aliens.
+        final TimerWheel timers = new TimerWheel();
+        private final TimerWheel.Listener timerActions = this::onTimer;
+        private long alienMoveTimer = TimerWheel.NONE, alienFireTimer = TimerWheel.NONE;
+
+        public GameWorld() {
+            this(new Random());
+        }
+
+        /**
+         * Creates a world whose every random choice follows the given seed, for reproducible scenarios.
+         * ---
+         * Crée un monde dont chaque choix aléatoire suit la graine donnée, pour des scénarios reproductibles.
+         */
+        public GameWorld(long seed) {
+            this(new Random(seed));
+        }
+
+        private GameWorld(Random random) {
+            this(random, true);
+        }
+
+        private GameWorld(Random random, boolean cosmetic) {
+            this.random = random;
+            this.cosmetic = cosmetic;
+            GameEventQueue.Subscriber rules = new GameEventQueue.Subscriber() {
+                @Override
+                public void onEvent(int type, int x, int y, int value) { applyEvent(type, x, y, value); }
+            };
+            subscribers = cosmetic ? Arrays.asList(rules, SoundManager.EVENT_AUDIO, eventTotals) : Arrays.asList(rules, eventTotals);
+            if (!cosmetic) {
+                particlesPerExplosion = 0;
+                return;
+            }
+            for (int i = 0; i < GameConstants.BACKGROUND_STAR_COUNT; i++) {
+                stars.add(new Point2D.Float(random.nextInt(GameConstants.WINDOW_WIDTH), random.nextInt(GameConstants.WINDOW_HEIGHT)));
+            }
+        }
+
+        /**
+         * Creates a silent world without cosmetic effects, meant to be overwritten by {@link #copyFrom} and played ahead.
+         * ---
+         * Crée un monde silencieux sans effets visuels, destiné à être écrasé par {@link #copyFrom} et joué en avance.
+         */
+        public static GameWorld createLookAhead() {
+            return new GameWorld(new Random(), false);
+        }
+
+        /**
+         * Creates a silent world with its own random choices, for a server that simulates without a display: no stars,
+         * particles or audio, which no snapshot carries.
+         * ---
+         * Crée un monde silencieux avec ses propres choix aléatoires, pour un serveur qui simule sans affichage : ni étoiles,
+         * ni particules, ni audio, qu'aucun instantané ne transporte.
+         */
+        static GameWorld createHeadless() {
+            return new GameWorld(new Random(), false);
+        }
+
+        /**
+         * Makes this world an exact copy of another one's gameplay state: clock, timing wheel, ships, aliens,
+         * lasers, power-ups, bunkers, score and alien timings. Stars and particles are not copied. The entities are taken
+         * from this world's pools, so once they have grown to the largest wave, a copy allocates nothing.
+         * ---
+         * Fait de ce monde une copie exacte de l'état de jeu d'un autre : horloge, roue de minuteries, vaisseaux, aliens,
+         * lasers, power-ups, abris, score et cadences des aliens. Les étoiles et les particules ne sont pas copiées. Les entités
+         * sont prises dans les réserves de ce monde : une fois celles-ci à la taille de la plus grande vague, une copie n'alloue rien.
+         */
+        public void copyFrom(GameWorld source) {
+            clock.tick = source.clock.tick;
+            timers.copyFrom(source.timers);
+            players.clear();
+            for (int i = 0; i < source.players.size(); i++) {
+                if (i == playerPool.size()) playerPool.add(new PlayerShip(i, 0, 0, timers));
+                PlayerShip player = playerPool.get(i);
+                player.copyFrom(source.players.get(i));
+                players.add(player);
+            }
+            copyEntities(source.aliens, aliens, alienPool, () -> new Alien(0, 0, 0, 0, 0), Alien::copyFrom);
+            copyEntities(source.playerLasers, playerLasers, playerLaserPool, () -> new Laser(0, 0, false), Laser::copyFrom);
+            copyEntities(source.alienLasers, alienLasers, alienLaserPool, () -> new Laser(0, 0, true), Laser::copyFrom);
+            copyEntities(source.powerUps, powerUps, powerUpPool, () -> new PowerUp(0, 0, PowerUp.PowerUpType.SHIELD), PowerUp::copyFrom);
+            for (int i = 0; i < bunkers.size(); i++) bunkers.get(i).copyFrom(source.bunkers.get(i));
+            particles.clear();
+            events.clear();
+            score = source.score;
+            lives = source.lives;
+            currentLevel = source.currentLevel;
+            alienMoveDirection = source.alienMoveDirection;
+            alienMoveIntervalTicks = source.alienMoveIntervalTicks;
+            alienFireIntervalTicks = source.alienFireIntervalTicks;
+            alienSpeed = source.alienSpeed;
+            alienMoveTimer = source.alienMoveTimer;
+            alienFireTimer = source.alienFireTimer;
+        }
+
+        private static <T> void copyEntities(List<T> from, List<T> to, List<T> pool, Supplier<T> factory, BiConsumer<T, T> copier) {
+            to.clear();
+            for (int i = 0; i < from.size(); i++) {
+                if (i == pool.size()) pool.add(factory.get());
+                T copy = pool.get(i);
+                copier.accept(copy, from.get(i));
+                to.add(copy);
+            }
+        }
+
+
+        public void reset() {
+            reset(1);
+        }
+
+        /**
+         * Starts a new game for the given number of players, spreading their ships evenly across the bottom of the screen.
+         * ---
+         * Démarre une nouvelle partie pour le nombre de joueurs donné, en répartissant leurs vaisseaux en bas de l'écran.
+         */
+        public void reset(int playerCount) {
+            clock.reset();
+            timers.clear();
+            players.clear();
+            for (int i = 0; i < playerCount; i++) {
+                int startX = GameConstants.WINDOW_WIDTH * (i + 1) / (playerCount + 1) - 30;
+                players.add(new PlayerShip(i, startX, GameConstants.WINDOW_HEIGHT - 80, timers));
+            }
+            particles.clear();
+            events.clear();
+            eventTotals.reset();
+            score = 0;
+            lives = GameConstants.INITIAL_LIVES;
+            currentLevel = 1;
+            alienMoveDirection = 1;
+            initializeLevel();
+        }
+
+        // Evenly spaced between the aliens and the ships. / Régulièrement espacés entre les aliens et les vaisseaux.
+        private static List<Bunker> createBunkers() {
+            List<Bunker> bunkers = new ArrayList<>(BUNKER_COUNT);
+            for (int i = 0; i < BUNKER_COUNT; i++) {
+                bunkers.add(new Bunker(GameConstants.WINDOW_WIDTH * (i + 1) / (BUNKER_COUNT + 1) - Bunker.WIDTH / 2,
+                        GameConstants.WINDOW_HEIGHT - 155));
+            }
+            return bunkers;
+        }
+
+        private void initializeLevel() {
+            installWave(prepareWave(currentLevel));
+        }
+
+        /**
+         * Builds the aliens and timings of a level. It only reads static assets, so it can safely run
+         * on a background thread while the current wave is still being played or celebrated.
+         * ---
+         * Construit les aliens et les cadences d'un niveau. Elle ne lit que des ressources statiques et peut donc
+         * s'exécuter sur un thread d'arrière-plan pendant que la vague courante est encore jouée ou célébrée.
+         */
+        public static Wave prepareWave(int level) {
+            long start = System.nanoTime();
+            int speed = 2 + (level / 4);
+            List<Alien> waveAliens = new ArrayList<>(ALIENS_PER_WAVE);
+            for (int row = 0; row < 5; row++) {
+                for (int col = 0; col < 10; col++) {
+                    int alienType = row < 2 ? 2 : (row < 4 ? 1 : 0);
+                    waveAliens.add(new Alien(row * 10 + col, 50 + col * 60, 50 + row * 40, speed, alienType));
+                }
+            }
+            return new Wave(level, speed,
+                    GameClock.msToTicks(Math.max(100, 500 - (level - 1) * 20)),
+                    GameClock.msToTicks(Math.max(200, 1500 - (level - 1) * 50)),
+                    waveAliens, System.nanoTime() - start);
+        }
+
+        /**
+         * Swaps a prepared wave into the world. This only moves references, so it is cheap enough for any frame.
+         * ---
+         * Place une vague préparée dans le monde. Cela ne déplace que des références, assez peu coûteux pour n'importe quelle image.
+         */
+        public void installWave(Wave wave) {
+            FlightEvents.LevelTransition event = cosmetic ? FlightEvents.beginLevelTransition() : null;
+            int fromLevel = currentLevel;
+            currentLevel = wave.level;
+            aliens.clear();
+            aliens.addAll(wave.aliens);
+            playerLasers.clear();
+            alienLasers.clear();
+            powerUps.clear();
+            for (Bunker bunker : bunkers) bunker.restore();
+            for (PlayerShip player : players) player.resetPowerUps();
+            alienSpeed = wave.alienSpeed;
+            alienMoveIntervalTicks = wave.moveIntervalTicks;
+            alienFireIntervalTicks = wave.fireIntervalTicks;
+            timers.cancel(alienMoveTimer);
+            timers.cancel(alienFireTimer);
+            alienMoveTimer = timers.schedule(alienMoveIntervalTicks, TIMER_ALIEN_MOVE, 0);
+            alienFireTimer = timers.schedule(alienFireIntervalTicks, TIMER_ALIEN_FIRE, 0);
+            if (event != null) FlightEvents.commitLevelTransition(event, fromLevel, wave);
+        }
+
+        public void nextLevel() {
+            installWave(prepareWave(currentLevel + 1));
+        }
+
+        /**
+         * Advances the simulation by exactly one tick.
+         * ---
+         * Fait avancer la simulation d'exactement un tick.
+         */
+        public void tick() {
+            // Silent worlds, played ahead by the autopilot, are never recorded. / Les mondes silencieux, joués en avance par le pilote automatique, ne sont jamais enregistrés.
+            FlightEvents.Tick event = cosmetic ? FlightEvents.beginTick() : null;
+            long start = event != null ? System.nanoTime() : 0;
+            clock.advance();
+            updatePlayer();
+            if (cosmetic) {
+                updateParticles();
+                updateBackground();
+            }
+            updatePlayerLasers();
+            updateAliens();
+            timers.advance(timerActions);
+            updateAlienLasers();
+            updatePowerUps();
+            long moved = event != null ? System.nanoTime() : 0;
+            checkCollisions();
+            long collided = event != null ? System.nanoTime() : 0;
+            events.drain(subscribers);
+            if (event != null) FlightEvents.commitTick(event, this, start, moved, collided);
+        }
+
+        /**
+         * Advances only the cosmetic effects (stars and particles), used while a banner or overlay is shown.
+         * ---
+         * Fait avancer uniquement les effets visuels (étoiles et particules), utilisé pendant l'affichage d'une bannière ou d'un calque.
+         */
+        public void tickEffects() {
+            clock.advance();
+            updateParticles();
+            updateBackground();
+        }
+
+        /**
+         * Applies the actions sampled for the coming tick. Holding fire shoots whenever the cooldown allows.
+         * ---
+         * Applique les actions échantillonnées pour le tick à venir. Maintenir le tir fait feu dès que le délai le permet.
+         */
+        public void applyInput(int actions) {
+            applyInput(0, actions);
+        }
+
+        public void applyInput(int playerIndex, int actions) {
+            PlayerShip player = players.get(playerIndex);
+            player.setMovingLeft((actions & InputState.MOVE_LEFT) != 0);
+            player.setMovingRight((actions & InputState.MOVE_RIGHT) != 0);
+            if ((actions & InputState.FIRE) != 0) firePlayerLaser(playerIndex);
+        }
+
+        public void firePlayerLaser(int playerIndex) {
+            PlayerShip player = players.get(playerIndex);
+            Laser laser = player.fire();
+            if (laser != null) {
+                playerLasers.add(laser);
+                events.publish(GameEventQueue.PLAYER_FIRED, player.getX(), player.getY(), playerIndex);
+            }
+        }
+
+        private void updatePlayer() { players.forEach(PlayerShip::update); }
+        private void updateParticles() { particles.removeIf(Particle::isDead); particles.forEach(Particle::update); }
+        private void updateBackground() {
+            for (Point2D.Float star : stars) {
+                star.y += STAR_SCROLL_SPEED;
+                if (star.y > GameConstants.WINDOW_HEIGHT) {
+                    star.y = 0;
+                    star.x = random.nextInt(GameConstants.WINDOW_WIDTH);
+                }
+            }
+        }
+        private void updatePlayerLasers() { playerLasers.removeIf(laser -> laser.getY() < 0); playerLasers.forEach(Laser::update); }
+        private void updateAlienLasers() { alienLasers.removeIf(laser -> laser.getY() > GameConstants.WINDOW_HEIGHT); alienLasers.forEach(Laser::update); }
+        private void updatePowerUps() { powerUps.removeIf(p -> p.getY() > GameConstants.WINDOW_HEIGHT); powerUps.forEach(PowerUp::update); }
+
+        // Aliens only move and fire on their timers. / Les aliens ne bougent et ne tirent que sur leurs minuteries.
+        private void updateAliens() {
+            for (int i = 0; i < aliens.size(); i++) aliens.get(i).storePreviousPosition();
+        }
+
+        private void onTimer(int action, int target) {
+            switch (action) {
+                case TIMER_ALIEN_MOVE:
+                    moveAliens();
+                    alienMoveTimer = timers.schedule(alienMoveIntervalTicks, TIMER_ALIEN_MOVE, 0);
+                    break;
+                case TIMER_ALIEN_FIRE:
+                    if (!aliens.isEmpty()) fireAlienLaser();
+                    alienFireTimer = timers.schedule(alienFireIntervalTicks, TIMER_ALIEN_FIRE, 0);
+                    break;
+                case TIMER_RAPID_FIRE_END:
+                    players.get(target).rapidFireActive = false;
+                    break;
+                case TIMER_SHIELD_END:
+                    players.get(target).shieldActive = false;
+                    break;
+                default:
+                    // TIMER_WEAPON_READY: the cooldown is over once its timer is gone. / Le délai est écoulé dès que sa minuterie a disparu.
+                    break;
+            }
+        }
+
+        private void moveAliens() {
+            boolean moveDown = false;
+            for (int i = 0; i < aliens.size(); i++) {
+                Alien alien = aliens.get(i);
+                alien.move(alienMoveDirection);
+                if (alien.getX() <= 0 || alien.getX() + alien.getWidth() >= GameConstants.WINDOW_WIDTH) {
+                    moveDown = true;
+                }
+            }
+            if (moveDown) {
+                alienMoveDirection *= -1;
+                for (int i = 0; i < aliens.size(); i++) aliens.get(i).moveDown();
+            }
+        }
+
+        private void fireAlienLaser() {
+            Alien randomAlien = aliens.get(random.nextInt(aliens.size()));
+            alienLasers.add(new Laser(randomAlien.getX() + randomAlien.getWidth() / 2 - 2, randomAlien.getY() + randomAlien.getHeight(), true));
+            events.publish(GameEventQueue.ALIEN_FIRED, randomAlien.getX(), randomAlien.getY(), randomAlien.getSlot());
+        }
+        
+        // Collision loops walk the lists by index, from the end so removals don't shift what is left to visit,
+        // and compare plain coordinates: iterators, capturing lambdas and getBounds() rectangles all allocated per tick.
+        // Les boucles de collision parcourent les listes par indice, depuis la fin pour que les retraits ne décalent pas
+        // ce qui reste à visiter, et comparent des coordonnées simples : itérateurs, lambdas et rectangles de getBounds() allouaient à chaque tick.
+        private void checkCollisions() {
+            FlightEvents.CollisionPass pass = cosmetic ? FlightEvents.beginCollisionPass() : null;
+            collisionPairs = 0;
+            collisionHits = 0;
+            // Lasers vs Bunkers, from below and from above / Lasers contre abris, par le dessous et par le dessus
+            for (int i = playerLasers.size() - 1; i >= 0; i--) {
+                if (absorbedByBunker(playerLasers.get(i))) playerLasers.remove(i);
+            }
+            for (int i = alienLasers.size() - 1; i >= 0; i--) {
+                if (absorbedByBunker(alienLasers.get(i))) alienLasers.remove(i);
+            }
+            // Aliens walking into a bunker tear it down / Les aliens qui entrent dans un abri le détruisent
+            for (int a = 0; a < aliens.size(); a++) {
+                Alien alien = aliens.get(a);
+                for (int b = 0; b < bunkers.size(); b++) {
+                    Bunker bunker = bunkers.get(b);
+                    collisionPairs++;
+                    if (bunker.intersects(alien.x, alien.y, alien.width, alien.height)) bunker.erodeUnder(alien.x, alien.y, alien.width, alien.height);
+                }
+            }
+
+            // Projectiles are swept along their motion of the tick and stop at the first target met, the first in list order
+            // when several are met at the same step. At normal speeds the sweep is the end position alone, the former discrete test.
+            // Les projectiles sont balayés le long de leur mouvement du tick et s'arrêtent à la première cible rencontrée, la première
+            // dans l'ordre de la liste si plusieurs le sont au même pas. Aux vitesses normales, le balayage se réduit à la position
+            // d'arrivée, l'ancien test discret.
+
+            // Player lasers vs Aliens
+            for (int i = playerLasers.size() - 1; i >= 0; i--) {
+                Laser laser = playerLasers.get(i);
+                int steps = CollisionMask.steps(laser.prevY, laser.y, laser.height);
+                int first = -1, firstStep = steps + 1;
+                for (int a = 0; a < aliens.size() && firstStep > 1; a++) {
+                    Alien alien = aliens.get(a);
+                    collisionPairs++;
+                    int step = CollisionMask.sweep(laser.getMask(), laser.x, laser.prevY, laser.y, laser.width, laser.height, steps,
+                            alien.getMask(), alien.x, alien.y, alien.width, alien.height);
+                    if (step > 0 && step < firstStep) {
+                        first = a;
+                        firstStep = step;
+                    }
+                }
+                if (first < 0) continue;
+                collisionHits++;
+                // A laser can only hit one alien / Un laser ne peut toucher qu'un alien
+                Alien alien = aliens.get(first);
+                playerLasers.remove(i);
+                alien.takeHit();
+                int centerX = alien.getX() + alien.getWidth() / 2, centerY = alien.getY() + alien.getHeight() / 2;
+                if (alien.isDestroyed()) {
+                    aliens.remove(first);
+                    events.publish(GameEventQueue.ALIEN_DESTROYED, centerX, centerY, alien.getScoreValue());
+                } else {
+                    events.publish(GameEventQueue.ALIEN_HIT, centerX, centerY, alien.hp);
+                }
+            }
+            
+            // Alien lasers vs Players (co-op players share the lives)
+            for (int i = alienLasers.size() - 1; i >= 0; i--) {
+                Laser laser = alienLasers.get(i);
+                int steps = CollisionMask.steps(laser.prevY, laser.y, laser.height);
+                int first = -1, firstStep = steps + 1;
+                for (int p = 0; p < players.size() && firstStep > 1; p++) {
+                    PlayerShip player = players.get(p);
+                    if (player.isShieldActive()) continue;
+                    collisionPairs++;
+                    int step = CollisionMask.sweep(laser.getMask(), laser.x, laser.prevY, laser.y, laser.width, laser.height, steps,
+                            player.getMask(), player.x, player.y, player.width, player.height);
+                    if (step > 0 && step < firstStep) {
+                        first = p;
+                        firstStep = step;
+                    }
+                }
+                if (first < 0) continue;
+                collisionHits++;
+                alienLasers.remove(i);
+                events.publish(GameEventQueue.PLAYER_HIT, laser.getX(), laser.getY(), first);
+            }
+            
+            // PowerUps vs Players
+            for (int i = powerUps.size() - 1; i >= 0; i--) {
+                PowerUp powerUp = powerUps.get(i);
+                int steps = CollisionMask.steps(powerUp.prevY, powerUp.y, powerUp.height);
+                int first = -1, firstStep = steps + 1;
+                for (int p = 0; p < players.size() && firstStep > 1; p++) {
+                    PlayerShip player = players.get(p);
+                    collisionPairs++;
+                    int step = CollisionMask.sweep(powerUp.getMask(), powerUp.x, powerUp.prevY, powerUp.y, powerUp.width, powerUp.height, steps,
+                            player.getMask(), player.x, player.y, player.width, player.height);
+                    if (step > 0 && step < firstStep) {
+                        first = p;
+                        firstStep = step;
+                    }
+                }
+                if (first < 0) continue;
+                collisionHits++;
+                powerUps.remove(i);
+                players.get(first).activatePowerUp(powerUp.getType());
+                events.publish(GameEventQueue.POWERUP_COLLECTED, powerUp.getX(), powerUp.getY(), powerUp.getType().ordinal());
+            }
+            if (pass != null) FlightEvents.commitCollisionPass(pass, clock.now(), collisionPairs, collisionHits);
+        }
+
+        private boolean absorbedByBunker(Laser laser) {
+            for (int b = 0; b < bunkers.size(); b++) {
+                collisionPairs++;
+                if (bunkers.get(b).absorb(laser)) {
+                    collisionHits++;
+                    events.publish(GameEventQueue.BUNKER_HIT, laser.getX(), laser.getY(), laser.isAlienLaser ? 1 : 0);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * The game rules reacting to the events of a tick: score, shared lives, explosions and power-up drops.
+         * ---
+         * Les règles du jeu réagissant aux événements d'un tick : score, vies partagées, explosions et apparition de power-ups.
+         */
+        private void applyEvent(int type, int x, int y, int value) {
+            switch (type) {
+                case GameEventQueue.ALIEN_DESTROYED:
+                    score += value;
+                    createExplosion(x, y);
+                    if (random.nextInt(100) < GameConstants.POWERUP_DROP_CHANCE) {
+                        powerUps.add(new PowerUp(x - GameConstants.POWERUP_SIZE / 2, y - GameConstants.POWERUP_SIZE / 2,
+                                random.nextBoolean() ? PowerUp.PowerUpType.SHIELD : PowerUp.PowerUpType.RAPID_FIRE));
+                    }
+                    break;
+                case GameEventQueue.PLAYER_HIT:
+                    lives--;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        public GameEventQueue.Totals getEventTotals() { return eventTotals; }
+
+        /**
+         * Caps the number of particles spawned per explosion; particles are purely cosmetic.
+         * ---
+         * Limite le nombre de particules créées par explosion ; les particules sont purement décoratives.
+         */
+        public void setParticlesPerExplosion(int count) { particlesPerExplosion = count; }
+
+        private void createExplosion(int x, int y) {
+            for (int i = 0; i < particlesPerExplosion; i++) {
+                particles.add(new Particle(x, y, random));
+            }
+            if (cosmetic) FlightEvents.explosionSpawned(x, y, particlesPerExplosion, particles.size());
+        }
+
+        public boolean isPlayerDead() { return lives <= 0; }
+        public boolean isWaveCleared() { return aliens.isEmpty(); }
+        public GameClock getClock() { return clock; }
+        public PlayerShip getPlayer() { return players.get(0); }
+        public List<PlayerShip> getPlayers() { return players; }
+        public List<Point2D.Float> getStars() { return stars; }
+        public List<Alien> getAliens() { return aliens; }
+        public List<Laser> getPlayerLasers() { return playerLasers; }
+        public List<Laser> getAlienLasers() { return alienLasers; }
+        public List<Particle> getParticles() { return particles; }
+        public List<PowerUp> getPowerUps() { return powerUps; }
+        public List<Bunker> getBunkers() { return bunkers; }
+        public int getScore() { return score; }
+        public int getLives() { return lives; }
+        public int getCurrentLevel() { return currentLevel; }
+
+        /**
+         * An immutable, ready-to-install alien wave.
+         * ---
+         * Une vague d'aliens immuable, prête à être installée.
+         */
+        public static class Wave {
+            private final int level;
+            private final int alienSpeed;
+            private final long moveIntervalTicks;
+            private final long fireIntervalTicks;
+            private final List<Alien> aliens;
+            private final long prepareNanos;
+
+            Wave(int level, int alienSpeed, long moveIntervalTicks, long fireIntervalTicks, List<Alien> aliens, long prepareNanos) {
+                this.level = level;
+                this.alienSpeed = alienSpeed;
+                this.moveIntervalTicks = moveIntervalTicks;
+                this.fireIntervalTicks = fireIntervalTicks;
+                this.aliens = aliens;
+                this.prepareNanos = prepareNanos;
+            }
+
+            public int getLevel() { return level; }
+            public long getPrepareNanos() { return prepareNanos; }
+        }
+    }
+
+    /**
+     * A Monte Carlo autopilot, used for the demo mode and as a test opponent. Every few ticks it tries each candidate
+     * action (left, stay, right, each with and without fire) in many short rollouts: a look-ahead copy of the world
+     * holds the candidate for a moment, then plays on with random actions. Rollout {@code n} of every candidate uses
+     * the same seed, so candidates are compared on the same futures. The rollouts are shared by one worker per core,
+     * each with its own look-ahead world, and stop at the rollout budget or at a deadline inside the frame budget.
+     * ---
+     * Un pilote automatique Monte-Carlo, utilisé pour le mode démo et comme adversaire de test. Tous les quelques ticks, il
+     * essaie chaque action candidate (gauche, immobile, droite, chacune avec et sans tir) dans de nombreuses simulations
+     * courtes : une copie d'anticipation du monde maintient le candidat un moment, puis continue avec des actions aléatoires.
+     * La simulation {@code n} de chaque candidat utilise la même graine : les candidats sont comparés sur les mêmes avenirs.
+     * Les simulations sont réparties entre un travailleur par cœur, chacun avec son propre monde d'anticipation, et s'arrêtent
+     * au budget de simulations ou à une échéance comprise dans le budget d'image.
+     */
+    public static final class Autopilot implements Closeable {
+        public static final String PROPERTY = "spaceinvaders.autopilot";
+        public static final String ROLLOUTS_PROPERTY = "spaceinvaders.autopilot.rollouts";
+        static final int DEFAULT_ROLLOUTS = 192;
+        static final int DECISION_INTERVAL_TICKS = 4;
+        static final int HOLD_TICKS = 8;
+        static final int HORIZON_TICKS = 60;
+        static final int LIFE_PENALTY = 500;
+        // Armored aliens take several hits, so a hit counts before the kill falls inside the horizon.
+        // Les aliens blindés encaissent plusieurs coups : un coup compte avant que la destruction n'entre dans l'horizon.
+        static final int HIT_REWARD = 5;
+        // Stay and fire first, so it wins ties when nothing is at stake. / Immobile et tir d'abord, pour gagner les égalités quand rien n'est en jeu.
+        static final int[] CANDIDATES = {
+                InputState.FIRE, 0,
+                InputState.MOVE_LEFT | InputState.FIRE, InputState.MOVE_LEFT,
+                InputState.MOVE_RIGHT | InputState.FIRE, InputState.MOVE_RIGHT
+        };
+
+        private final int rolloutBudget;
+        private final long deadlineNanos;
+        private final List<Worker> workers = new ArrayList<>();
+        private final ExecutorService pool;
+        private final AtomicInteger nextRollout = new AtomicInteger();
+        private GameWorld root;
+        private long seedBase;
+        private int rolloutLimit;
+        private long deadline;
+
+        private long lastDecisionTick = Long.MIN_VALUE;
+        private int lastAction;
+        private long decisions, rollouts, decisionNanos, worstDecisionNanos;
+        // Sums of every worker per candidate, reused by each decision. / Sommes de tous les travailleurs par candidat, réutilisées à chaque décision.
+        private final long[] totals = new long[CANDIDATES.length];
+        private final int[] counts = new int[CANDIDATES.length];
+
+        /**
+         * @param rolloutBudget Rollouts per decision, shared by all candidates. / Simulations par décision, réparties entre tous les candidats.
+         * @param deadlineNanos Time allowed per decision, or 0 for none. / Temps accordé par décision, ou 0 pour aucun.
+         * @param threads       Number of workers. / Nombre de travailleurs.
+         */
+        public Autopilot(int rolloutBudget, long deadlineNanos, int threads) {
+            this.rolloutBudget = rolloutBudget;
+            this.deadlineNanos = deadlineNanos;
+            for (int i = 0; i < threads; i++) workers.add(new Worker());
+            pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "SpaceInvaders-Autopilot");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * The in-game autopilot: the configured rollout budget, one worker per core, and 40% of a tick as deadline,
+         * so a decision plus the tick and the paint still fit in the frame.
+         * ---
+         * Le pilote automatique en jeu : le budget de simulations configuré, un travailleur par cœur, et 40 % d'un tick
+         * comme échéance, pour qu'une décision plus le tick et le dessin tiennent encore dans l'image.
+         */
+        public static Autopilot forGame() {
+            return new Autopilot(Integer.getInteger(ROLLOUTS_PROPERTY, DEFAULT_ROLLOUTS), GameConstants.TICK_NANOS * 2 / 5,
+                    Runtime.getRuntime().availableProcessors());
+        }
+
+        /**
+         * Returns the actions for player 0 this tick, deciding again every {@link #DECISION_INTERVAL_TICKS} ticks.
+         * ---
+         * Retourne les actions du joueur 0 pour ce tick, en décidant à nouveau tous les {@link #DECISION_INTERVAL_TICKS} ticks.
+         */
+        public int decide(GameWorld world) {
+            long now = world.clock.now();
+            if (now >= lastDecisionTick && now < lastDecisionTick + DECISION_INTERVAL_TICKS) return lastAction;
+            lastDecisionTick = now;
+            long start = System.nanoTime();
+            root = world;
+            seedBase = now * 0x9E3779B97F4A7C15L;
+            rolloutLimit = rolloutBudget;
+            deadline = deadlineNanos > 0 ? start + deadlineNanos : Long.MAX_VALUE;
+            nextRollout.set(0);
+            try {
+                pool.invokeAll(workers);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return lastAction;
+            } finally {
+                root = null;
+            }
+            lastAction = bestCandidate();
+            long elapsed = System.nanoTime() - start;
+            decisions++;
+            decisionNanos += elapsed;
+            worstDecisionNanos = Math.max(worstDecisionNanos, elapsed);
+            return lastAction;
+        }
+
+        private int bestCandidate() {
+            Arrays.fill(totals, 0);
+            Arrays.fill(counts, 0);
+            for (Worker worker : workers) {
+                for (int c = 0; c < CANDIDATES.length; c++) {
+                    totals[c] += worker.totals[c];
+                    counts[c] += worker.counts[c];
+                }
+            }
+            int best = 0;
+            double bestMean = Double.NEGATIVE_INFINITY;
+            for (int c = 0; c < CANDIDATES.length; c++) {
+                rollouts += counts[c];
+                if (counts[c] == 0) continue;
+                double mean = (double) totals[c] / counts[c];
+                if (mean > bestMean) {
+                    bestMean = mean;
+                    best = c;
+                }
+            }
+            return CANDIDATES[best];
+        }
+
+        public long getDecisions() { return decisions; }
+        public long getRollouts() { return rollouts; }
+
+        public String summary() {
+            if (decisions == 0) return "no decisions";
+            return String.format("%d decisions, %.0f rollouts/decision, avg %.2f ms, worst %.2f ms, %.0f rollouts/s",
+                    decisions, (double) rollouts / decisions, decisionNanos / 1e6 / decisions, worstDecisionNanos / 1e6,
+                    rollouts * 1e9 / Math.max(1, decisionNanos));
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+
+        /**
+         * Takes rollouts from the shared counter until the budget or the deadline is reached, summing their values per candidate.
+         * ---
+         * Prend des simulations au compteur partagé jusqu'au budget ou à l'échéance, en sommant leurs valeurs par candidat.
+         */
+        private final class Worker implements Callable<Void> {
+            private final GameWorld lookAhead = GameWorld.createLookAhead();
+            private final Random policy = new Random();
+            private final long[] totals = new long[CANDIDATES.length];
+            private final int[] counts = new int[CANDIDATES.length];
+
+            @Override
+            public Void call() {
+                Arrays.fill(totals, 0);
+                Arrays.fill(counts, 0);
+                while (System.nanoTime() < deadline) {
+                    int index = nextRollout.getAndIncrement();
+                    if (index >= rolloutLimit) break;
+                    int candidate = index % CANDIDATES.length;
+                    totals[candidate] += rollout(CANDIDATES[candidate], seedBase + index / CANDIDATES.length);
+                    counts[candidate]++;
+                }
+                return null;
+            }
+
+            // The score and hits gained over the horizon, minus a penalty if a life is lost.
+            // Le score et les coups gagnés sur l'horizon, moins une pénalité si une vie est perdue.
+            private int rollout(int action, long seed) {
+                lookAhead.copyFrom(root);
+                lookAhead.random.setSeed(seed);
+                policy.setSeed(~seed);
+                int startScore = lookAhead.score, startLives = lookAhead.lives;
+                long startHits = lookAhead.eventTotals.get(GameEventQueue.ALIEN_HIT);
+                for (int tick = 0; tick < HORIZON_TICKS; tick++) {
+                    if (tick >= HOLD_TICKS && tick % HOLD_TICKS == 0) action = CANDIDATES[policy.nextInt(CANDIDATES.length)];
+                    lookAhead.applyInput(action);
+                    lookAhead.tick();
+                    if (lookAhead.lives < startLives || lookAhead.isWaveCleared()) break;
+                }
+                return lookAhead.score - startScore - LIFE_PENALTY * (startLives - lookAhead.lives)
+                        + HIT_REWARD * (int) (lookAhead.eventTotals.get(GameEventQueue.ALIEN_HIT) - startHits);
+            }
+        }
+
+        /**
+         * Measures the autopilot ({@code --bench-autopilot}): the cost of a world copy, rollouts per second for 1 to N
+         * workers, then seeded games played with growing rollout budgets (and a random player as baseline), reporting
+         * score, lives lost and decision time against the frame budget.
+         * ---
+         * Mesure le pilote automatique ({@code --bench-autopilot}) : le coût d'une copie du monde, les simulations par seconde
+         * pour 1 à N travailleurs, puis des parties à graine fixe jouées avec des budgets de simulations croissants (et un
+         * joueur aléatoire comme référence), en indiquant le score, les vies perdues et le temps de décision face au budget d'image.
+         */
+        static void benchmark() {
+            AssetLoader.load();
+            GameWorld source = new GameWorld(7);
+            source.reset();
+            for (int tick = 0; tick < 600; tick++) {
+                source.applyInput(InputState.FIRE | ((tick / 45) % 2 == 0 ? InputState.MOVE_LEFT : InputState.MOVE_RIGHT));
+                source.tick();
+            }
+            GameWorld copy = GameWorld.createLookAhead();
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            for (int i = 0; i < 100_000; i++) copy.copyFrom(source);
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            for (int i = 0; i < 100_000; i++) copy.copyFrom(source);
+            System.out.printf("World copy: %.0f ns, %d bytes (%d aliens, %d lasers)%n", (System.nanoTime() - start) / 100_000.0,
+                    (threads.getThreadAllocatedBytes(threadId) - bytesBefore) / 100_000,
+                    source.aliens.size(), source.playerLasers.size() + source.alienLasers.size());
+
+            int cores = Runtime.getRuntime().availableProcessors();
+            System.out.printf("Frame budget %.1f ms, decision deadline in game %.1f ms, %d core(s)%n",
+                    GameConstants.TICK_NANOS / 1e6, GameConstants.TICK_NANOS * 2 / 5 / 1e6, cores);
+            for (int threadCount = 1; threadCount <= cores; threadCount *= 2) {
+                try (Autopilot autopilot = new Autopilot(Integer.MAX_VALUE, 20_000_000L, threadCount)) {
+                    for (int i = 0; i < 100; i++) {
+                        autopilot.lastDecisionTick = Long.MIN_VALUE;
+                        autopilot.decide(source);
+                    }
+                    System.out.printf("%2d worker(s): %,.0f rollouts/s%n", threadCount,
+                            autopilot.rollouts * 1e9 / autopilot.decisionNanos);
+                }
+            }
+
+            System.out.printf("%n%-10s %8s %8s %8s %12s %12s%n", "rollouts", "score", "lost", "level", "avg ms", "worst ms");
+            int[] budgets = {0, 6, 24, 96, 192};
+            long[] seeds = {1, 2, 3};
+            for (int budget : budgets) {
+                int score = 0, lost = 0, levels = 0;
+                try (Autopilot autopilot = budget > 0 ? new Autopilot(budget, 0, cores) : null) {
+                    for (long seed : seeds) {
+                        GameWorld world = playGame(autopilot, seed);
+                        score += world.score;
+                        lost += GameConstants.INITIAL_LIVES - Math.max(0, world.lives);
+                        levels += world.currentLevel;
+                    }
+                    System.out.printf("%-10s %8d %8.1f %8.1f %12s %12s%n", budget > 0 ? budget : "random",
+                            score / seeds.length, (double) lost / seeds.length, (double) levels / seeds.length,
+                            autopilot != null ? String.format("%.2f", autopilot.decisionNanos / 1e6 / autopilot.decisions) : "-",
+                            autopilot != null ? String.format("%.2f", autopilot.worstDecisionNanos / 1e6) : "-");
+                }
+            }
+        }
+
+        static final int BENCH_GAME_TICKS = 3600;
+
+        // One minute of play, or until the lives run out. / Une minute de jeu, ou jusqu'à épuisement des vies.
+        private static GameWorld playGame(Autopilot autopilot, long seed) {
+            GameWorld world = GameWorld.createLookAhead();
+            world.random.setSeed(seed);
+            world.reset();
+            Random randomPlayer = new Random(seed);
+            int randomAction = 0;
+            for (int tick = 0; tick < BENCH_GAME_TICKS && !world.isPlayerDead(); tick++) {
+                if (autopilot != null) {
+                    world.applyInput(autopilot.decide(world));
+                } else {
+                    if (tick % DECISION_INTERVAL_TICKS == 0) randomAction = CANDIDATES[randomPlayer.nextInt(CANDIDATES.length)];
+                    world.applyInput(randomAction);
+                }
+                world.tick();
+                if (world.isWaveCleared()) world.nextLevel();
+            }
+            return world;
+        }
+    }
+
+    /**
+     * A menu screen drawn in retained mode on the game surface, in place of Swing components. It is a flat list of
+     * widgets placed once in logical coordinates; each widget renders into its own cached image, and only again when its
+     * text or state changes (selection, typing, scrolling), so a frame is the background plus one blit per widget. The
+     * scene does its own hit-testing, hover and keyboard navigation: the arrows or Tab move the selection, Enter or Space
+     * activate it and Escape goes back. Changing screens is a change of game state, with no layout pass nor card switch.
+     * ---
+     * Un écran de menu dessiné en mode retenu sur la surface du jeu, à la place de composants Swing. C'est une liste plate
+     * de widgets placés une fois pour toutes en coordonnées logiques ; chaque widget se dessine dans sa propre image en
+     * cache, et seulement à nouveau quand son texte ou son état change (sélection, saisie, défilement) : une image se résume
+     * au fond plus une copie par widget. La scène gère elle-même le test de position, le survol et la navigation au clavier :
+     * les flèches ou Tab déplacent la sélection, Entrée ou Espace l'activent et Échap revient en arrière. Changer d'écran
+     * est un changement d'état du jeu, sans passe de mise en page ni changement de carte.
+     */
+    private static final class MenuScene {
+        static final int BUTTON_WIDTH = 340;
+        static final int BUTTON_GAP = 10;
+        static final int STAR_SIZE = 2;
+        // Only measures text, so widgets can be placed before anything is drawn.
+        // Ne sert qu'à mesurer le texte, pour placer les widgets avant tout dessin.
+        private static final Graphics2D MEASURE = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+        /**
+         * A rectangle of the scene that draws itself at (0, 0) into its cache.
+         * ---
+         * Un rectangle de la scène qui se dessine en (0, 0) dans son cache.
+         */
+        abstract static class Widget {
+            final int x, y, width, height;
+            boolean selected;
+            private BufferedImage cache;
+            private boolean dirty = true;
+
+            Widget(int x, int y, int width, int height) {
+                this.x = x;
+                this.y = y;
+                this.width = width;
+                this.height = height;
+            }
+
+            abstract void paint(Graphics2D g);
+
+            boolean isFocusable() { return false; }
+            void activate() {}
+            // Input offered to the widget (the selected one for keys), in its own coordinates; true when it was used.
+            // Entrée proposée au widget (celui qui est sélectionné pour les touches), dans ses coordonnées ; vrai si elle a servi.
+            boolean keyPressed(int keyCode) { return false; }
+            boolean keyTyped(char c) { return false; }
+            boolean scroll(int rows) { return false; }
+            void press(int localX, int localY) { activate(); }
+            void drag(int localX, int localY) {}
+
+            final void invalidate() { dirty = true; }
+
+            final boolean contains(int px, int py) {
+                return px >= x && py >= y && px < x + width && py < y + height;
+            }
+        }
+
+        /**
+         * Centered lines of text.
+         * ---
+         * Des lignes de texte centrées.
+         */
+        static final class Label extends Widget {
+            private final Font font;
+            private final Color color;
+            private final String[] lines;
+
+            Label(int centerX, int y, Font font, Color color, String... lines) {
+                super(centerX - textWidth(font, lines) / 2, y, Math.max(1, textWidth(font, lines)), metrics(font).getHeight() * lines.length);
+                this.font = font;
+                this.color = color;
+                this.lines = lines;
+            }
+
+            @Override
+            void paint(Graphics2D g) {
+                g.setFont(font);
+                g.setColor(color);
+                int lineHeight = g.getFontMetrics().getHeight();
+                for (int i = 0; i < lines.length; i++) drawCentered(g, lines[i], width, i * lineHeight, lineHeight);
+            }
+
+            private static int textWidth(Font font, String[] lines) {
+                int width = 0;
+                for (String line : lines) width = Math.max(width, metrics(font).stringWidth(line));
+                return width;
+            }
+        }
+
+        /**
+         * A button: white text, cyan while selected (hovered or reached with the keyboard).
+         * ---
+         * Un bouton : texte blanc, cyan tant qu'il est sélectionné (survolé ou atteint au clavier).
+         */
+        static final class Button extends Widget {
+            private final Font font;
+            private final String text;
+            private final Runnable action;
+
+            Button(int centerX, int y, int width, Font font, String text, Runnable action) {
+                super(centerX - width / 2, y, width, metrics(font).getHeight() + 16);
+                this.font = font;
+                this.text = text;
+                this.action = action;
+            }
+
+            @Override boolean isFocusable() { return true; }
+
+            @Override
+            void activate() {
+                SoundManager.playSound(SoundManager.clickSound);
+                action.run();
+            }
+
+            @Override
+            void paint(Graphics2D g) {
+                g.setFont(font);
+                g.setColor(selected ? Color.CYAN : Color.WHITE);
+                drawCentered(g, text, width, 0, height);
+            }
+        }
+
+        /**
+         * A one-line text field accepting the same characters as the name typed after a game.
+         * ---
+         * Un champ de texte d'une ligne qui accepte les mêmes caractères que le nom saisi après une partie.
+         */
+        static final class TextField extends Widget {
+            private final Font font;
+            private final int maxLength;
+            private final Runnable onChange;
+            private final StringBuilder text = new StringBuilder();
+
+            TextField(int x, int y, int width, Font font, int maxLength, Runnable onChange) {
+                super(x, y, width, metrics(font).getHeight() + 8);
+                this.font = font;
+                this.maxLength = maxLength;
+                this.onChange = onChange;
+            }
+
+            String getText() { return text.toString(); }
+
+            void setText(String value) {
+                text.setLength(0);
+                text.append(value);
+                invalidate();
+            }
+
+            @Override boolean isFocusable() { return true; }
+
+            @Override
+            boolean keyPressed(int keyCode) {
+                if (keyCode == KeyEvent.VK_BACK_SPACE && text.length() > 0) {
+                    text.setLength(text.length() - 1);
+                    changed();
+                }
+                // Space is typed, not an activation. / Espace se tape, ce n'est pas une activation.
+                return keyCode == KeyEvent.VK_BACK_SPACE || keyCode == KeyEvent.VK_SPACE;
+            }
+
+            @Override
+            boolean keyTyped(char c) {
+                if (text.length() >= maxLength || !(Character.isLetterOrDigit(c) || c == ' ' || c == '-' || c == '_')) return false;
+                text.append(c);
+                changed();
+                return true;
+            }
+
+            private void changed() {
+                invalidate();
+                onChange.run();
+            }
+
+            @Override
+            void paint(Graphics2D g) {
+                g.setColor(Color.BLACK);
+                g.fillRect(0, 0, width, height);
+                g.setColor(Color.CYAN);
+                g.drawRect(0, 0, width - 1, height - 1);
+                g.setFont(font);
+                g.setColor(Color.WHITE);
+                FontMetrics metrics = g.getFontMetrics();
+                int baseline = (height - metrics.getHeight()) / 2 + metrics.getAscent();
+                g.drawString(text.toString(), 6, baseline);
+                if (selected) g.drawString("_", 6 + metrics.stringWidth(text.toString()), baseline);
+            }
+        }
+
+        private final List<Widget> widgets = new ArrayList<>();
+        // Escape, or null when the screen has nowhere to go back to. / Échap, ou null quand l'écran n'a pas de retour.
+        private final Runnable back;
+        private Widget selected, pressed;
+        private int renders;
+        // The star squares as this scene last drew them, and the rectangles (x, y, width, height) to redraw this frame.
+        // Les carrés des étoiles tels que cette scène les a dessinés en dernier, et les rectangles (x, y, largeur, hauteur) à redessiner à cette image.
+        private int[] drawnStarX = new int[0], drawnStarY = new int[0];
+        private int[] damage = new int[0];
+        private int damageCount;
+
+        MenuScene(Runnable back) {
+            this.back = back;
+        }
+
+        /**
+         * A title (none for the pause menu, drawn over the game's own banner) above a column of buttons.
+         * ---
+         * Un titre (aucun pour le menu de pause, dessiné sous la propre bannière du jeu) au-dessus d'une colonne de boutons.
+         */
+        static MenuScene menu(String title, Runnable back, String[] items, Runnable[] actions) {
+            MenuScene scene = new MenuScene(back);
+            int centerX = GameConstants.WINDOW_WIDTH / 2;
+            int y = GameConstants.WINDOW_HEIGHT / 2 + 50;
+            if (title != null) {
+                scene.add(new Label(centerX, 50, GameRenderer.titleFont(64f), Color.WHITE, title));
+                y = 200;
+            }
+            Font font = GameRenderer.uiFont(24f, Font.BOLD);
+            for (int i = 0; i < items.length; i++) {
+                y += scene.add(new Button(centerX, y, BUTTON_WIDTH, font, items[i], actions[i])).height + BUTTON_GAP;
+            }
+            return scene;
+        }
+
+        <W extends Widget> W add(W widget) {
+            widgets.add(widget);
+            if (selected == null && widget.isFocusable()) select(widget);
+            return widget;
+        }
+
+        static FontMetrics metrics(Font font) {
+            return MEASURE.getFontMetrics(font);
+        }
+
+        static void drawCentered(Graphics2D g, String text, int width, int top, int height) {
+            FontMetrics metrics = g.getFontMetrics();
+            g.drawString(text, (width - metrics.stringWidth(text)) / 2, top + (height - metrics.getHeight()) / 2 + metrics.getAscent());
+        }
+
+        /**
+         * Draws the widgets over what the frame already holds, first re-rendering the caches of those that changed.
+         * ---
+         * Dessine les widgets par-dessus ce que contient déjà l'image, en redessinant d'abord le cache de ceux qui ont changé.
+         */
+        void paint(Graphics2D g) {
+            for (int i = 0; i < widgets.size(); i++) {
+                Widget widget = widgets.get(i);
+                if (widget.dirty) render(widget);
+                g.drawImage(widget.cache, widget.x, widget.y, null);
+            }
+        }
+
+        /**
+         * Draws the screen over the starfield. Unless asked for a full redraw, the frame must hold what this scene drew
+         * last, and only what changed since is touched: the squares of the stars that moved and the widgets whose cache was
+         * re-rendered, each redrawn as black, the stars in it and the widgets over it. Squares clear of every widget are
+         * batched, one color at a time; the others are restored one by one so no translucent pixel is blended twice.
+         * ---
+         * Dessine l'écran sur le champ d'étoiles. Sauf demande de dessin complet, l'image doit contenir ce que cette scène a
+         * dessiné en dernier, et seul ce qui a changé depuis est touché : les carrés des étoiles qui ont bougé et les widgets
+         * dont le cache a été redessiné, chacun redessiné en noir, avec ses étoiles et les widgets par-dessus. Les carrés à
+         * l'écart de tout widget sont traités en lot, une couleur à la fois ; les autres sont restaurés un par un pour
+         * qu'aucun pixel translucide ne soit mélangé deux fois.
+         */
+        void paintOverStars(Graphics2D g, List<Point2D.Float> stars, boolean full) {
+            int count = stars.size();
+            if (full || drawnStarX.length != count) {
+                if (drawnStarX.length != count) {
+                    drawnStarX = new int[count];
+                    drawnStarY = new int[count];
+                }
+                for (int i = 0; i < count; i++) {
+                    drawnStarX[i] = (int) stars.get(i).x;
+                    drawnStarY[i] = (int) stars.get(i).y;
+                }
+                GameRenderer.drawMenuBackground(g, stars, GameConstants.WINDOW_WIDTH, GameConstants.WINDOW_HEIGHT);
+                paint(g);
+                return;
+            }
+            damageCount = 0;
+            for (int i = 0; i < count; i++) {
+                Point2D.Float star = stars.get(i);
+                int x = (int) star.x, y = (int) star.y, oldX = drawnStarX[i], oldY = drawnStarY[i];
+                if (x == oldX && y == oldY) continue;
+                drawnStarX[i] = x;
+                drawnStarY[i] = y;
+                if (x == oldX && Math.abs(y - oldY) <= STAR_SIZE) {
+                    addDamage(x, Math.min(y, oldY), STAR_SIZE, STAR_SIZE + Math.abs(y - oldY));
+                } else {
+                    addDamage(oldX, oldY, STAR_SIZE, STAR_SIZE);
+                    addDamage(x, y, STAR_SIZE, STAR_SIZE);
+                }
+            }
+            // Every cache is up to date before anything is restored. / Chaque cache est à jour avant toute restauration.
+            for (int i = 0; i < widgets.size(); i++) {
+                Widget widget = widgets.get(i);
+                if (!widget.dirty) continue;
+                render(widget);
+                addDamage(widget.x, widget.y, widget.width, widget.height);
+            }
+            g.setColor(Color.BLACK);
+            for (int d = 0; d < damageCount * 4; d += 4) {
+                if (!touchesWidget(d)) g.fillRect(damage[d], damage[d + 1], damage[d + 2], damage[d + 3]);
+            }
+            g.setColor(Color.WHITE);
+            for (int d = 0; d < damageCount * 4; d += 4) {
+                if (!touchesWidget(d)) drawStars(g, damage[d], damage[d + 1], damage[d + 2], damage[d + 3]);
+            }
+            for (int d = 0; d < damageCount * 4; d += 4) {
+                if (touchesWidget(d)) restore(g, damage[d], damage[d + 1], damage[d + 2], damage[d + 3]);
+            }
+        }
+
+        private void addDamage(int x, int y, int width, int height) {
+            if (damageCount * 4 == damage.length) damage = Arrays.copyOf(damage, damage.length * 2 + 4);
+            int d = damageCount++ * 4;
+            damage[d] = x;
+            damage[d + 1] = y;
+            damage[d + 2] = width;
+            damage[d + 3] = height;
+        }
+
+        private boolean touchesWidget(int d) {
+            for (int i = 0; i < widgets.size(); i++) {
+                Widget widget = widgets.get(i);
+                if (damage[d] < widget.x + widget.width && widget.x < damage[d] + damage[d + 2]
+                        && damage[d + 1] < widget.y + widget.height && widget.y < damage[d + 1] + damage[d + 3]) return true;
+            }
+            return false;
+        }
+
+        // Draws the parts of the stars inside a rectangle. / Dessine les parties des étoiles comprises dans un rectangle.
+        private void drawStars(Graphics2D g, int x, int y, int width, int height) {
+            for (int i = 0; i < drawnStarX.length; i++) {
+                int left = Math.max(x, drawnStarX[i]), top = Math.max(y, drawnStarY[i]);
+                int right = Math.min(x + width, drawnStarX[i] + STAR_SIZE), bottom = Math.min(y + height, drawnStarY[i] + STAR_SIZE);
+                if (left < right && top < bottom) g.fillRect(left, top, right - left, bottom - top);
+            }
+        }
+
+        // Redraws one rectangle of the screen as a full redraw would. / Redessine un rectangle de l'écran comme le ferait un dessin complet.
+        private void restore(Graphics2D g, int x, int y, int width, int height) {
+            g.setColor(Color.BLACK);
+            g.fillRect(x, y, width, height);
+            g.setColor(Color.WHITE);
+            drawStars(g, x, y, width, height);
+            for (int i = 0; i < widgets.size(); i++) {
+                Widget widget = widgets.get(i);
+                int left = Math.max(x, widget.x), top = Math.max(y, widget.y);
+                int right = Math.min(x + width, widget.x + widget.width), bottom = Math.min(y + height, widget.y + widget.height);
+                if (left < right && top < bottom) {
+                    g.drawImage(widget.cache, left, top, right, bottom, left - widget.x, top - widget.y, right - widget.x, bottom - widget.y, null);
+                }
+            }
+        }
+
+        /**
+         * Scrolls the menu starfield down by half a pixel, sending the stars that leave the bottom back to the top.
+         * ---
+         * Fait défiler le champ d'étoiles des menus d'un demi-pixel vers le bas, en renvoyant en haut les étoiles qui sortent en bas.
+         */
+        static void scrollStars(List<Point2D.Float> stars, Random random) {
+            for (int i = 0; i < stars.size(); i++) {
+                Point2D.Float star = stars.get(i);
+                star.y += 0.5f;
+                if (star.y > GameConstants.WINDOW_HEIGHT) {
+                    star.y = 0;
+                    star.x = random.nextInt(GameConstants.WINDOW_WIDTH);
+                }
+            }
+        }
+
+        private void render(Widget widget) {
+            if (widget.cache == null) widget.cache = new BufferedImage(widget.width, widget.height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = widget.cache.createGraphics();
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, widget.width, widget.height);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            widget.paint(g);
+            g.dispose();
+            widget.dirty = false;
+            renders++;
+        }
+
+        // Widgets rendered into their cache since the last call. / Widgets dessinés dans leur cache depuis le dernier appel.
+        int takeRenders() {
+            int count = renders;
+            renders = 0;
+            return count;
+        }
+
+        void invalidateAll() {
+            for (Widget widget : widgets) widget.invalidate();
+        }
+
+        private void select(Widget widget) {
+            if (widget == selected) return;
+            if (selected != null) {
+                selected.selected = false;
+                selected.invalidate();
+            }
+            selected = widget;
+            widget.selected = true;
+            widget.invalidate();
+        }
+
+        // Moves the selection to the next focusable widget in the given direction, wrapping around.
+        // Déplace la sélection vers le widget sélectionnable suivant dans la direction donnée, en bouclant.
+        private void moveSelection(int direction) {
+            int count = widgets.size();
+            int start = selected == null ? (direction > 0 ? -1 : count) : widgets.indexOf(selected);
+            for (int step = 1; step <= count; step++) {
+                Widget widget = widgets.get(Math.floorMod(start + direction * step, count));
+                if (widget.isFocusable()) {
+                    select(widget);
+                    return;
+                }
+            }
+        }
+
+        private Widget widgetAt(int x, int y) {
+            for (int i = widgets.size() - 1; i >= 0; i--) {
+                if (widgets.get(i).contains(x, y)) return widgets.get(i);
+            }
+            return null;
+        }
+
+        boolean isClickable(int x, int y) {
+            Widget widget = widgetAt(x, y);
+            return widget != null && widget.isFocusable();
+        }
+
+        /*
+         * Input, in logical coordinates. Each method returns true when the scene changed and the screen must be repainted.
+         * Entrées, en coordonnées logiques. Chaque méthode retourne vrai quand la scène a changé et que l'écran doit être redessiné.
+         */
+
+        boolean mouseMoved(int x, int y) {
+            Widget widget = widgetAt(x, y);
+            if (widget == null || !widget.isFocusable() || widget == selected) return false;
+            select(widget);
+            return true;
+        }
+
+        boolean mousePressed(int x, int y) {
+            pressed = widgetAt(x, y);
+            if (pressed == null) return false;
+            if (pressed.isFocusable()) select(pressed);
+            pressed.press(x - pressed.x, y - pressed.y);
+            return true;
+        }
+
+        boolean mouseDragged(int x, int y) {
+            if (pressed == null) return mouseMoved(x, y);
+            pressed.drag(x - pressed.x, y - pressed.y);
+            return true;
+        }
+
+        void mouseReleased() {
+            pressed = null;
+        }
+
+        boolean mouseWheelMoved(int x, int y, int rows) {
+            Widget widget = widgetAt(x, y);
+            return widget != null && widget.scroll(rows);
+        }
+
+        boolean keyPressed(int keyCode, boolean shift) {
+            if (selected != null && selected.keyPressed(keyCode)) return true;
+            switch (keyCode) {
+                case KeyEvent.VK_UP: moveSelection(-1); return true;
+                case KeyEvent.VK_DOWN: moveSelection(1); return true;
+                case KeyEvent.VK_TAB: moveSelection(shift ? -1 : 1); return true;
+                case KeyEvent.VK_ENTER:
+                case KeyEvent.VK_SPACE:
+                    if (selected != null) selected.activate();
+                    return true;
+                case KeyEvent.VK_ESCAPE:
+                    if (back != null) back.run();
+                    return true;
+                // Paging keys scroll whatever scrolls, wherever the selection is.
+                // Les touches de page font défiler ce qui défile, où que soit la sélection.
+                case KeyEvent.VK_PAGE_UP: return scrollAll(-LeaderboardView.VISIBLE_ROWS);
+                case KeyEvent.VK_PAGE_DOWN: return scrollAll(LeaderboardView.VISIBLE_ROWS);
+                case KeyEvent.VK_HOME: return scrollAll(Integer.MIN_VALUE);
+                case KeyEvent.VK_END: return scrollAll(Integer.MAX_VALUE);
+                default: return false;
+            }
+        }
+
+        boolean keyTyped(char c) {
+            return selected != null && selected.keyTyped(c);
+        }
+
+        private boolean scrollAll(int rows) {
+            boolean scrolled = false;
+            for (Widget widget : widgets) scrolled |= widget.scroll(rows);
+            return scrolled;
+        }
+
+        /**
+         * Measures the main menu as the stars scroll ({@code --bench-menu}): frames drawn by the scene over the previous one,
+         * the same while the hovered button changes at every frame, full redraws from the widget caches, and the same menu
+         * built from Swing components (title label and buttons in a GridBagLayout panel) as it was before. Checks that the
+         * retained frame is identical to a full redraw, then times the switch from the menu to the first game frame, as a
+         * change of state on one surface and as a CardLayout card switch. Times and bytes allocated per frame.
+         * ---
+         * Mesure le menu principal pendant le défilement des étoiles ({@code --bench-menu}) : des images dessinées par la
+         * scène par-dessus la précédente, de même quand le bouton survolé change à chaque image, des dessins complets depuis
+         * les caches des widgets, et le même menu construit en composants Swing (étiquette de titre et boutons dans un panneau
+         * GridBagLayout) comme il l'était auparavant. Vérifie que l'image retenue est identique à un dessin complet, puis
+         * chronomètre le passage du menu à la première image de jeu, comme changement d'état sur une seule surface et comme
+         * changement de carte d'un CardLayout. Temps et octets alloués par image.
+         */
+        static void benchmark() {
+            AssetLoader.load();
+            String[] items = {"New Game", "High Scores", "Instructions", "About", "Quit"};
+            Runnable[] actions = new Runnable[items.length];
+            Arrays.fill(actions, (Runnable) () -> {});
+            MenuScene scene = menu("SPACE INVADERS", null, items, actions);
+            Random random = new Random(42);
+            List<Point2D.Float> stars = new ArrayList<>();
+            for (int i = 0; i < GameConstants.BACKGROUND_STAR_COUNT; i++) {
+                stars.add(new Point2D.Float(random.nextInt(GameConstants.WINDOW_WIDTH), random.nextInt(GameConstants.WINDOW_HEIGHT)));
+            }
+            int width = GameConstants.WINDOW_WIDTH, height = GameConstants.WINDOW_HEIGHT;
+            BufferedImage frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Widget first = scene.widgets.get(1), second = scene.widgets.get(2);
+
+            JPanel swingMenu = new JPanel(new GridBagLayout()) {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    super.paintComponent(g);
+                    GameRenderer.drawMenuBackground((Graphics2D) g, stars, getWidth(), getHeight());
+                }
+            };
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.gridwidth = GridBagConstraints.REMAINDER;
+            gbc.insets = new Insets(10, 0, 10, 0);
+            JLabel title = new JLabel("SPACE INVADERS", JLabel.CENTER);
+            title.setFont(GameRenderer.titleFont(64f));
+            title.setForeground(Color.WHITE);
+            swingMenu.add(title, gbc);
+            for (String item : items) {
+                JButton button = new JButton(item);
+                button.setFont(GameRenderer.uiFont(24f, Font.BOLD));
+                button.setForeground(Color.WHITE);
+                button.setContentAreaFilled(false);
+                button.setBorderPainted(false);
+                swingMenu.add(button, gbc);
+            }
+            swingMenu.setSize(width, height);
+            swingMenu.doLayout();
+
+            System.out.printf("%-22s %12s %12s %16s%n", "main menu frame", "ns/frame", "bytes/frame", "widgets/frame");
+            Graphics2D g = frame.createGraphics();
+            for (int pass = 0; pass < 2; pass++) {
+                boolean print = pass == 1; // The first pass warms up. / Le premier passage sert de chauffe.
+                for (int mode = 0; mode < 4; mode++) {
+                    String name = mode == 0 ? "scene, retained" : mode == 1 ? "scene, hover change" : mode == 2 ? "scene, full redraw" : "Swing components";
+                    int frames = 2_000;
+                    long nanos = 0, bytes = 0;
+                    scene.paintOverStars(g, stars, true);
+                    scene.takeRenders();
+                    for (int i = 0; i < frames; i++) {
+                        scrollStars(stars, random);
+                        long before = allocatedBytes();
+                        long start = System.nanoTime();
+                        if (mode == 1) scene.mouseMoved(i % 2 == 0 ? first.x + 1 : second.x + 1, (i % 2 == 0 ? first.y : second.y) + 1);
+                        if (mode == 3) {
+                            swingMenu.paint(g);
+                        } else {
+                            scene.paintOverStars(g, stars, mode == 2);
+                        }
+                        nanos += System.nanoTime() - start;
+                        bytes += allocatedBytes() - before;
+                    }
+                    int renders = scene.takeRenders();
+                    if (print) {
+                        System.out.printf("%-22s %12d %12d %16s%n", name, nanos / frames, bytes / frames,
+                                mode == 3 ? "-" : String.format("%.1f", renders / (double) frames));
+                    }
+                }
+            }
+            // Retained frames must add up to what a full redraw draws. / Les images retenues doivent équivaloir à un dessin complet.
+            scene.paintOverStars(g, stars, true);
+            for (int i = 0; i < 600; i++) {
+                scrollStars(stars, random);
+                if (i % 7 == 0) scene.mouseMoved(i % 2 == 0 ? first.x + 1 : second.x + 1, (i % 2 == 0 ? first.y : second.y) + 1);
+                scene.paintOverStars(g, stars, false);
+            }
+            g.dispose();
+            BufferedImage reference = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D rg = reference.createGraphics();
+            scene.paintOverStars(rg, stars, true);
+            rg.dispose();
+            boolean identical = Arrays.equals(((DataBufferInt) frame.getRaster().getDataBuffer()).getData(),
+                    ((DataBufferInt) reference.getRaster().getDataBuffer()).getData());
+            System.out.println("Retained frame after 600 frames " + (identical ? "identical to" : "DIFFERENT from") + " a full redraw");
+
+            // One frame of a game, as the first frame after the switch. / Une image de jeu, comme la première après le passage.
+            GameRenderer renderer = new GameRenderer();
+            GameWorld world = new GameWorld(42);
+            world.reset();
+            RenderSnapshot snapshot = new RenderSnapshot();
+            snapshot.capture(world, 0);
+            JComponent gameCard = new JComponent() {
+                @Override
+                protected void paintComponent(Graphics g) {
+                    renderer.render((Graphics2D) g, snapshot, GameState.PLAYING, 0f, "");
+                }
+            };
+            CardLayout cards = new CardLayout();
+            JPanel cardPanel = new JPanel(cards);
+            cardPanel.add(swingMenu, "MENU");
+            cardPanel.add(gameCard, "GAME");
+            cardPanel.setSize(width, height);
+            cardPanel.doLayout();
+            int switches = 500;
+            long sceneNanos = 0, cardNanos = 0;
+            for (int i = -switches; i < switches; i++) {
+                // On one surface the switch is the next frame drawn in the new state. / Sur une seule surface, le passage est la prochaine image dessinée dans le nouvel état.
+                g = frame.createGraphics();
+                long start = System.nanoTime();
+                renderer.render(g, snapshot, GameState.PLAYING, 0f, "");
+                long elapsed = System.nanoTime() - start;
+                g.dispose();
+                cards.show(cardPanel, "MENU");
+                cardPanel.validate();
+                g = frame.createGraphics();
+                start = System.nanoTime();
+                cards.show(cardPanel, "GAME");
+                cardPanel.validate();
+                cardPanel.paint(g);
+                long cardElapsed = System.nanoTime() - start;
+                g.dispose();
+                if (i >= 0) {
+                    sceneNanos += elapsed;
+                    cardNanos += cardElapsed;
+                }
+            }
+            System.out.printf("Menu to first game frame: %.3f ms on one surface (the frame itself), %.3f ms with a CardLayout switch%n",
+                    sceneNanos / 1e6 / switches, cardNanos / 1e6 / switches);
+            if (!identical) System.exit(1);
+        }
+
+        private static long allocatedBytes() {
+            return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * A virtualized leaderboard widget: it scrolls through the whole history but only fetches and paints the rows it
+     * shows, under a header row and beside a scroll bar. Rows are copied from the {@link HighScoreManager} one page at a
+     * time into a few cached page buffers, and ranks and scores are formatted into a reused character buffer, so
+     * scrolling through a million scores costs the same as scrolling through ten. The mouse wheel, the paging keys and
+     * the scroll bar move it.
+     * ---
+     * Un widget de classement virtualisé : il parcourt tout l'historique mais ne récupère et ne dessine que les lignes
+     * qu'il montre, sous une ligne d'en-tête et à côté d'une barre de défilement. Les lignes sont copiées depuis le
+     * {@link HighScoreManager} page par page dans quelques tampons de pages en cache, et les rangs et scores sont formatés
+     * dans un tampon de caractères réutilisé : parcourir un million de scores coûte autant que d'en parcourir dix. La
+     * molette, les touches de page et la barre de défilement le font défiler.
+     */
+    private static class LeaderboardView extends MenuScene.Widget {
+        static final int PAGE_SIZE = 64;
+        static final int CACHED_PAGES = 4;
+        static final int VISIBLE_ROWS = 9;
+        static final int FILTER_DELAY_MS = 150;
+        private static final int SCROLL_BAR_WIDTH = 8;
+        private static final Color BACKGROUND = new Color(0, 0, 0, 128);
+        private static final Color ROW_HIGHLIGHT = new Color(0, 255, 255, 70);
+
+        private final HighScoreManager manager;
+        private final Font font;
+        private final int rowHeight;
+        private int[] filteredRanks; // null when every entry is shown / null quand toutes les entrées sont affichées
+        private String filter = "";
+        private int rowCount;
+        private int firstRow;
+        private int highlightedRank = -1;
+
+        private final int[] cachedPage = new int[CACHED_PAGES];
+        private final int[] pageLength = new int[CACHED_PAGES];
+        private final int[][] pageScores = new int[CACHED_PAGES][PAGE_SIZE];
+        private final String[][] pageNames = new String[CACHED_PAGES][PAGE_SIZE];
+        private int nextEviction;
+        private final StringBuilder numberText = new StringBuilder(16);
+        private final char[] numberChars = new char[16];
+
+        LeaderboardView(HighScoreManager manager, Font font, int x, int y, int width) {
+            super(x, y, width, (VISIBLE_ROWS + 1) * rowHeight(font));
+            this.manager = manager;
+            this.font = font;
+            rowHeight = rowHeight(font);
+            refresh();
+        }
+
+        private static int rowHeight(Font font) {
+            return MenuScene.metrics(font).getHeight() + 6;
+        }
+
+        /**
+         * Re-reads the history size (and the filter result) after scores changed, keeping the filter.
+         * ---
+         * Relit la taille de l'historique (et le résultat du filtre) après un changement des scores, en gardant le filtre.
+         */
+        void refresh() {
+            filteredRanks = filter.isEmpty() ? null : manager.findRanks(filter);
+            rowCount = filteredRanks == null ? manager.size() : filteredRanks.length;
+            Arrays.fill(cachedPage, -1);
+            scrollTo(firstRow);
+            invalidate();
+        }
+
+        void setFilter(String text) {
+            if (text.equals(filter)) return;
+            filter = text;
+            firstRow = 0;
+            refresh();
+        }
+
+        boolean isShown(int rank) {
+            return filteredRanks == null ? rank < rowCount : Arrays.binarySearch(filteredRanks, rank) >= 0;
+        }
+
+        /**
+         * Highlights a rank and scrolls it to the middle of the list.
+         * ---
+         * Met un rang en évidence et le fait défiler au milieu de la liste.
+         */
+        void jumpToRank(int rank) {
+            int row = filteredRanks == null ? rank : Arrays.binarySearch(filteredRanks, rank);
+            if (row < 0 || row >= rowCount) return;
+            highlightedRank = rank;
+            scrollTo(row - VISIBLE_ROWS / 2);
+            invalidate();
+        }
+
+        private boolean scrollTo(int row) {
+            int first = Math.max(0, Math.min(row, rowCount - VISIBLE_ROWS));
+            if (first == firstRow) return false;
+            firstRow = first;
+            invalidate();
+            return true;
+        }
+
+        @Override
+        boolean scroll(int rows) {
+            return scrollTo((int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, (long) firstRow + rows)));
+        }
+
+        // A press on the scroll bar jumps there, and dragging follows. / Un clic sur la barre de défilement y saute, et le glisser suit.
+        @Override
+        void press(int localX, int localY) {
+            if (localX >= width - SCROLL_BAR_WIDTH * 2) drag(localX, localY);
+        }
+
+        @Override
+        void drag(int localX, int localY) {
+            int trackHeight = height - rowHeight;
+            scrollTo((int) ((long) (localY - rowHeight) * rowCount / trackHeight) - VISIBLE_ROWS / 2);
+        }
+
+        private int pageSlot(int page) {
+            for (int slot = 0; slot < CACHED_PAGES; slot++) {
+                if (cachedPage[slot] == page) return slot;
+            }
+            int slot = nextEviction;
+            nextEviction = (nextEviction + 1) % CACHED_PAGES;
+            int firstRow = page * PAGE_SIZE;
+            pageLength[slot] = filteredRanks == null
+                    ? manager.fetchPage(firstRow, PAGE_SIZE, pageScores[slot], pageNames[slot])
+                    : manager.fetchRanks(filteredRanks, firstRow, PAGE_SIZE, pageScores[slot], pageNames[slot]);
+            cachedPage[slot] = page;
+            return slot;
+        }
+
+        @Override
+        void paint(Graphics2D g) {
+            g.setColor(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+            g.setFont(font);
+            FontMetrics metrics = g.getFontMetrics();
+            int baseline = (rowHeight - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.setColor(Color.CYAN);
+            g.drawRect(0, 0, width - 1, height - 1);
+            g.drawString("Rank", rankColumnRight() - metrics.stringWidth("Rank"), baseline);
+            g.drawString("Name", nameColumnLeft(), baseline);
+            g.drawString("Score", scoreColumnRight() - metrics.stringWidth("Score"), baseline);
+            g.drawLine(0, rowHeight - 1, width, rowHeight - 1);
+            if (rowCount == 0) {
+                g.setColor(Color.LIGHT_GRAY);
+                g.drawString(filter.isEmpty() ? "No scores recorded yet." : "No player matches \"" + filter + "\".", 20, rowHeight + baseline);
+                return;
+            }
+            int last = Math.min(rowCount, firstRow + VISIBLE_ROWS);
+            for (int row = firstRow; row < last; row++) {
+                int slot = pageSlot(row / PAGE_SIZE);
+                int index = row % PAGE_SIZE;
+                if (index >= pageLength[slot]) break;
+                int rank = filteredRanks == null ? row : filteredRanks[row];
+                int y = (row - firstRow + 1) * rowHeight;
+                if (rank == highlightedRank) {
+                    g.setColor(ROW_HIGHLIGHT);
+                    g.fillRect(1, y, width - 2, rowHeight);
+                }
+                g.setColor(Color.WHITE);
+                drawNumber(g, metrics, rank + 1, '.', rankColumnRight(), y + baseline);
+                g.drawString(pageNames[slot][index], nameColumnLeft(), y + baseline);
+                drawNumber(g, metrics, pageScores[slot][index], '\0', scoreColumnRight(), y + baseline);
+            }
+            if (rowCount > VISIBLE_ROWS) {
+                int trackHeight = height - rowHeight - 4;
+                int thumbHeight = Math.max(SCROLL_BAR_WIDTH, trackHeight * VISIBLE_ROWS / rowCount);
+                int thumbY = rowHeight + 2 + (int) ((long) (trackHeight - thumbHeight) * firstRow / (rowCount - VISIBLE_ROWS));
+                g.setColor(Color.CYAN);
+                g.fillRect(width - SCROLL_BAR_WIDTH - 3, thumbY, SCROLL_BAR_WIDTH, thumbHeight);
+            }
+        }
+
+        // Right-aligns a number formatted into the reused buffer. / Aligne à droite un nombre formaté dans le tampon réutilisé.
+        private void drawNumber(Graphics g, FontMetrics metrics, int value, char suffix, int right, int baseline) {
+            numberText.setLength(0);
+            numberText.append(value);
+            if (suffix != '\0') numberText.append(suffix);
+            int length = numberText.length();
+            numberText.getChars(0, length, numberChars, 0);
+            g.drawChars(numberChars, 0, length, right - metrics.charsWidth(numberChars, 0, length), baseline);
+        }
+
+        private int rankColumnRight() { return 110; }
+        private int nameColumnLeft() { return 130; }
+        private int scoreColumnRight() { return width - 20 - SCROLL_BAR_WIDTH; }
+
+        /**
+         * Fills a history with a million random scores ({@code --bench-leaderboard [count]}) and measures what the
+         * screen does: saving and loading the file, fetching pages, filtering, finding a rank and painting the
+         * list at random scroll positions (time and bytes allocated per paint).
+         * ---
+         * Remplit un historique d'un million de scores aléatoires ({@code --bench-leaderboard [nombre]}) et mesure ce
+         * que fait l'écran : sauvegarde et chargement du fichier, récupération de pages, filtrage, recherche d'un rang et
+         * dessin de la liste à des positions de défilement aléatoires (temps et octets alloués par dessin).
+         */
+        static void benchmark(String[] args) throws IOException, ClassNotFoundException {
+            int count = args.length > 1 ? Integer.parseInt(args[1]) : GameConstants.HIGHSCORE_HISTORY_LIMIT;
+            String[] syllables = {"ka", "zo", "ri", "ne", "tu", "mal", "ax", "bo", "vi", "der"};
+            Random random = new Random(42);
+            int[] scores = new int[count];
+            String[] names = new String[count];
+            for (int i = 0; i < count; i++) {
+                scores[i] = random.nextInt(100_000);
+                names[i] = syllables[random.nextInt(syllables.length)] + syllables[random.nextInt(syllables.length)] + random.nextInt(1000);
+            }
+            Path file = Files.createTempFile("leaderboard", ".dat");
+            try {
+                HighScoreManager manager = new HighScoreManager(file.toString());
+                long start = System.nanoTime();
+                manager.addHighScores(scores, names, count);
+                System.out.printf("Insert %d scores: %.1f ms%n", count, (System.nanoTime() - start) / 1e6);
+                start = System.nanoTime();
+                manager.saveHighScores();
+                System.out.printf("Save: %.1f ms (%d KB)%n", (System.nanoTime() - start) / 1e6, Files.size(file) / 1024);
+                HighScoreManager loaded = new HighScoreManager(file.toString());
+                start = System.nanoTime();
+                loaded.loadHighScores();
+                System.out.printf("Load: %.1f ms%n", (System.nanoTime() - start) / 1e6);
+                start = System.nanoTime();
+                loaded.addHighScore("newcomer", 50_000);
+                System.out.printf("Add one score: %.3f ms%n", (System.nanoTime() - start) / 1e6);
+
+                int[] pageScores = new int[PAGE_SIZE];
+                String[] pageNames = new String[PAGE_SIZE];
+                start = System.nanoTime();
+                for (int i = 0; i < 10_000; i++) loaded.fetchPage(random.nextInt(loaded.size()), PAGE_SIZE, pageScores, pageNames);
+                System.out.printf("Fetch page of %d: %.2f us%n", PAGE_SIZE, (System.nanoTime() - start) / 10_000 / 1e3);
+                start = System.nanoTime();
+                int matches = loaded.findRanks("zoka").length;
+                System.out.printf("Filter \"zoka\": %.1f ms (%d matches)%n", (System.nanoTime() - start) / 1e6, matches);
+                start = System.nanoTime();
+                int rank = loaded.rankOf("newcomer");
+                System.out.printf("Rank of \"newcomer\": %d, %.1f ms%n", rank + 1, (System.nanoTime() - start) / 1e6);
+
+                Font font = new Font("Monospaced", Font.PLAIN, 20);
+                LeaderboardView view = new LeaderboardView(loaded, font, 0, 0, 440);
+                BufferedImage frame = new BufferedImage(view.width, view.height, BufferedImage.TYPE_INT_ARGB_PRE);
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+                long threadId = Thread.currentThread().getId();
+                int paints = 2_000;
+                long bytes = 0, nanos = 0;
+                for (int i = 0; i < paints * 2; i++) {
+                    view.scrollTo(random.nextInt(Math.max(1, view.rowCount - VISIBLE_ROWS)));
+                    Graphics2D g = frame.createGraphics();
+                    long before = threads.getThreadAllocatedBytes(threadId);
+                    start = System.nanoTime();
+                    view.paint(g);
+                    long elapsed = System.nanoTime() - start;
+                    long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+                    g.dispose();
+                    // The first half warms up. / La première moitié sert de chauffe.
+                    if (i >= paints) {
+                        nanos += elapsed;
+                        bytes += allocated;
+                    }
+                }
+                System.out.printf("Paint at a random position: %.1f us, %d bytes (%d rows of %d px)%n",
+                        nanos / paints / 1e3, bytes / paints, view.rowCount, view.rowHeight);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // ===================================================================================
+    // SECTION: Networking / Réseau
+    // ===================================================================================
+
+    /**
+     * The wire format of the co-op mode. Every message is a frame made of a 16-bit length, a type byte and a payload.
+     * The world is flattened into a vector of quantized integers (positions fit in 16 bits); snapshots carry that
+     * vector as a delta against the previous snapshot, with runs of unchanged values collapsed and every difference
+     * written as a zig-zag varint, so a typical tick costs a few dozen bytes.
+     * ---
+     * Le format réseau du mode coopératif. Chaque message est une trame composée d'une longueur sur 16 bits, d'un octet
+     * de type et d'une charge utile. Le monde est aplati en un vecteur d'entiers quantifiés (les positions tiennent sur
+     * 16 bits) ; les instantanés transportent ce vecteur sous forme de delta par rapport au précédent, les suites de valeurs
+     * inchangées étant regroupées et chaque différence écrite en varint zig-zag : un tick typique coûte quelques dizaines d'octets.
+     */
+    public static final class NetProtocol {
+        public static final byte MSG_HELLO = 1;
+        public static final byte MSG_WELCOME = 2;
+        public static final byte MSG_INPUT = 3;
+        public static final byte MSG_KEYFRAME = 4;
+        public static final byte MSG_DELTA = 5;
+        public static final byte ROLE_PLAYER = 0;
+        public static final byte ROLE_SPECTATOR = 1;
+        public static final int MAX_PLAYERS = 2;
+        public static final int MAX_STATE_INTS = 4096;
+        public static final int MAX_FRAME_BYTES = 0xFFFF;
+
+        // Layout of the state vector. / Organisation du vecteur d'état.
+        static final int HEADER_INTS = 5;          // score, lives, level, player count, alien slots
+        static final int INTS_PER_PLAYER = 4;      // x, y, flags, last processed input sequence
+        static final int INTS_PER_ALIEN = 3;       // hp (0 = absent), x, y
+        // Then one int per bunker row: its cell bitset (columns fit in 32 bits). / Puis un entier par ligne d'abri : son ensemble de cellules (les colonnes tiennent sur 32 bits).
+
+        private NetProtocol() {}
+
+        /**
+         * Flattens the world into {@code out} and returns the number of integers written.
+         * ---
+         * Aplatit le monde dans {@code out} et retourne le nombre d'entiers écrits.
+         */
+        static int encodeState(GameWorld world, int[] lastInputSequences, int[] out) {
+            int n = 0;
+            out[n++] = world.score;
+            out[n++] = world.lives;
+            out[n++] = world.currentLevel;
+            out[n++] = world.players.size();
+            out[n++] = GameWorld.ALIENS_PER_WAVE;
+            for (int i = 0; i < world.players.size(); i++) {
+                PlayerShip player = world.players.get(i);
+                out[n++] = player.x;
+                out[n++] = player.y;
+                out[n++] = (player.shieldActive ? 1 : 0) | (player.rapidFireActive ? 2 : 0);
+                out[n++] = lastInputSequences[i];
+            }
+            int alienBase = n;
+            Arrays.fill(out, alienBase, alienBase + GameWorld.ALIENS_PER_WAVE * INTS_PER_ALIEN, 0);
+            for (Alien alien : world.aliens) {
+                int at = alienBase + alien.slot * INTS_PER_ALIEN;
+                out[at] = alien.hp;
+                out[at + 1] = alien.x;
+                out[at + 2] = alien.y;
+            }
+            n = alienBase + GameWorld.ALIENS_PER_WAVE * INTS_PER_ALIEN;
+            for (Bunker bunker : world.bunkers) {
+                for (int row = 0; row < Bunker.ROWS; row++) out[n++] = (int) bunker.getRow(row);
+            }
+            n = encodeLasers(world.playerLasers, out, n);
+            n = encodeLasers(world.alienLasers, out, n);
+            int powerUpCount = Math.min(world.powerUps.size(), (out.length - n - 1) / 3);
+            out[n++] = powerUpCount;
+            for (int i = 0; i < powerUpCount; i++) {
+                PowerUp powerUp = world.powerUps.get(i);
+                out[n++] = powerUp.x;
+                out[n++] = powerUp.y;
+                out[n++] = powerUp.type.ordinal();
+            }
+            return n;
+        }
+
+        private static int encodeLasers(List<Laser> lasers, int[] out, int n) {
+            int count = Math.min(lasers.size(), (out.length - n - 8) / 2);
+            out[n++] = count;
+            for (int i = 0; i < count; i++) {
+                out[n++] = lasers.get(i).x;
+                out[n++] = lasers.get(i).y;
+            }
+            return n;
+        }
+
+        static int checksum(int[] state, int length) {
+            int hash = 1;
+            for (int i = 0; i < length; i++) hash = 31 * hash + state[i];
+            return hash;
+        }
+
+        /**
+         * Writes a complete snapshot frame. A keyframe is simply a delta against an empty baseline.
+         * ---
+         * Écrit une trame d'instantané complète. Une image clé est simplement un delta par rapport à une base vide.
+         */
+        static void writeSnapshot(ByteBuffer buffer, byte type, int tick, int[] baseline, int baselineLength, int[] state, int length) {
+            int start = beginFrame(buffer, type);
+            buffer.putInt(tick);
+            buffer.putInt(checksum(state, length));
+            putVarint(buffer, length);
+            int i = 0;
+            while (i < length) {
+                int zeroRun = 0;
+                while (i < length && state[i] == baselineAt(baseline, baselineLength, i)) { zeroRun++; i++; }
+                putVarint(buffer, zeroRun);
+                if (i < length) {
+                    putVarint(buffer, zigZag(state[i] - baselineAt(baseline, baselineLength, i)));
+                    i++;
+                }
+            }
+            endFrame(buffer, start);
+        }
+
+        /**
+         * Decodes a snapshot payload into {@code out} against {@code baseline}; returns the state length.
+         * ---
+         * Décode la charge utile d'un instantané dans {@code out} par rapport à {@code baseline} ; retourne la longueur de l'état.
+         */
+        static int readSnapshot(ByteBuffer buffer, int[] baseline, int baselineLength, int[] out) {
+            int length = getVarint(buffer);
+            if (length > out.length) throw new IllegalStateException("Snapshot too large: " + length);
+            int i = 0;
+            while (i < length) {
+                int zeroRun = getVarint(buffer);
+                for (int end = i + zeroRun; i < end; i++) out[i] = baselineAt(baseline, baselineLength, i);
+                if (i < length) {
+                    out[i] = baselineAt(baseline, baselineLength, i) + unZigZag(getVarint(buffer));
+                    i++;
+                }
+            }
+            return length;
+        }
+
+        private static int baselineAt(int[] baseline, int baselineLength, int i) {
+            return i < baselineLength ? baseline[i] : 0;
+        }
+
+        static int beginFrame(ByteBuffer buffer, byte type) {
+            int start = buffer.position();
+            buffer.putShort((short) 0);
+            buffer.put(type);
+            return start;
+        }
+
+        static void endFrame(ByteBuffer buffer, int start) {
+            buffer.putShort(start, (short) (buffer.position() - start - 2));
+        }
+
+        static int zigZag(int value) { return (value << 1) ^ (value >> 31); }
+        static int unZigZag(int value) { return (value >>> 1) ^ -(value & 1); }
+
+        static void putVarint(ByteBuffer buffer, int value) {
+            while ((value & ~0x7F) != 0) {
+                buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            buffer.put((byte) value);
+        }
+
+        static int getVarint(ByteBuffer buffer) {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+    }
+
+    /**
+     * The authoritative co-op server. A single thread multiplexes every connection with a non-blocking
+     * {@link Selector}, applies one buffered input per player per tick, steps the {@link GameWorld} at the
+     * fixed tick rate and broadcasts delta snapshots. The delta is encoded once per snapshot and the same
+     * bytes go to every client, so spectators only add a socket write each. A client that cannot keep up
+     * has its backlog bounded and is resynchronized with a keyframe instead of stalling the server.
+     * ---
+     * Le serveur coopératif faisant autorité. Un seul thread multiplexe toutes les connexions avec un {@link Selector}
+     * non bloquant, applique une entrée mise en tampon par joueur et par tick, fait avancer le {@link GameWorld} à cadence
+     * fixe et diffuse des instantanés delta. Le delta est encodé une seule fois par instantané et les mêmes octets partent
+     * vers chaque client : les spectateurs ne coûtent qu'une écriture de socket chacun. Un client trop lent voit son retard
+     * borné et est resynchronisé par une image clé au lieu de bloquer le serveur.
+     */
+    public static class GameServer implements Runnable {
+        private static final int INPUT_QUEUE_SIZE = 8;
+        private static final int CLIENT_BACKLOG_BYTES = 64 * 1024;
+
+        private final Selector selector;
+        private final ServerSocketChannel serverChannel;
+        private final GameWorld world = GameWorld.createHeadless();
+        private final List<ClientConnection> clients = new ArrayList<>();
+        private final ClientConnection[] playerSlots = new ClientConnection[NetProtocol.MAX_PLAYERS];
+        private final int[] lastInputSequences = new int[NetProtocol.MAX_PLAYERS];
+        private int[] previousState = new int[NetProtocol.MAX_STATE_INTS];
+        private int[] currentState = new int[NetProtocol.MAX_STATE_INTS];
+        private int previousLength;
+        private int currentLength;
+        private final ByteBuffer deltaFrame = ByteBuffer.allocateDirect(NetProtocol.MAX_FRAME_BYTES + 2);
+        private final ByteBuffer keyframeFrame = ByteBuffer.allocateDirect(NetProtocol.MAX_FRAME_BYTES + 2);
+        private int serverTick;
+        private volatile boolean running = true;
+
+        // Statistics, written by the server thread only. / Statistiques, écrites uniquement par le thread serveur.
+        private final LatencyHistogram tickCost = new LatencyHistogram();
+        private volatile long bytesSent;
+        private volatile long keyframesSent;
+        private volatile boolean statsResetRequested;
+
+        public GameServer(InetSocketAddress bindAddress) throws IOException {
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(bindAddress, 1024);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            world.reset(NetProtocol.MAX_PLAYERS);
+        }
+
+        public int getPort() { return serverChannel.socket().getLocalPort(); }
+
+        @Override
+        public void run() {
+            long nextTickNanos = System.nanoTime();
+            try {
+                while (running) {
+                    long waitMillis = (nextTickNanos - System.nanoTime()) / 1_000_000;
+                    if (waitMillis > 0) selector.select(waitMillis); else selector.selectNow();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        handleKey(key);
+                    }
+                    long now = System.nanoTime();
+                    if (now - nextTickNanos > GameConstants.MAX_FRAME_CATCHUP_NANOS) nextTickNanos = now;
+                    while (now >= nextTickNanos) {
+                        tick();
+                        nextTickNanos += GameConstants.TICK_NANOS;
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("Game server stopped: " + e.getMessage());
+            } finally {
+                for (ClientConnection client : new ArrayList<>(clients)) disconnect(client);
+                try { serverChannel.close(); selector.close(); } catch (IOException ignored) { }
+            }
+        }
+
+        public void stop() {
+            running = false;
+            selector.wakeup();
+        }
+
+        private void handleKey(SelectionKey key) throws IOException {
+            if (!key.isValid()) return;
+            if (key.isAcceptable()) {
+                SocketChannel channel = serverChannel.accept();
+                if (channel == null) return;
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                ClientConnection client = new ClientConnection(channel);
+                client.key = channel.register(selector, SelectionKey.OP_READ, client);
+                clients.add(client);
+                return;
+            }
+            ClientConnection client = (ClientConnection) key.attachment();
+            try {
+                if (key.isReadable()) readFrom(client);
+                if (key.isValid() && key.isWritable()) flush(client);
+            } catch (IOException | RuntimeException e) {
+                disconnect(client);
+            }
+        }
+
+        private void readFrom(ClientConnection client) throws IOException {
+            if (client.channel.read(client.in) < 0) {
+                disconnect(client);
+                return;
+            }
+            client.in.flip();
+            while (client.in.remaining() >= 3) {
+                int length = client.in.getShort(client.in.position()) & 0xFFFF;
+                byte type = client.in.get(client.in.position() + 2);
+                // A frame larger than the buffer would never complete, leaving the key readable forever: drop the client.
+                // Une trame plus grande que le tampon ne serait jamais complète et laisserait la clé lisible pour toujours : déconnecter le client.
+                if (length != clientFrameLength(type)) {
+                    disconnect(client);
+                    return;
+                }
+                if (client.in.remaining() < length + 2) break;
+                int frameEnd = client.in.position() + 2 + length;
+                client.in.position(client.in.position() + 3);
+                if (type == NetProtocol.MSG_HELLO) {
+                    welcome(client, client.in.get());
+                } else if (type == NetProtocol.MSG_INPUT && client.playerIndex >= 0) {
+                    client.queueInput(client.in.getInt(), client.in.get());
+                }
+                client.in.position(frameEnd);
+            }
+            client.in.compact();
         }
 
-        @Override
-        public void actionPerformed(ActionEvent e) {
-            if (gameState == GameState.PLAYING) {
-                updateGame();
+        // Length of each frame a client may send, type byte included, or -1 for a type clients never send.
+        // Longueur de chaque trame qu'un client peut envoyer, octet de type compris, ou -1 pour un type que les clients n'envoient jamais.
+        private static int clientFrameLength(byte type) {
+            switch (type) {
+                case NetProtocol.MSG_HELLO: return 2;   // role / rôle
+                case NetProtocol.MSG_INPUT: return 6;   // sequence, actions / séquence, actions
+                default: return -1;
             }
-            repaint();
         }
 
-        private void updateGame() {
-            updatePlayer();
-            updateParticles();
-            updateBackground();
-            updatePlayerLasers();
-            updateAliens();
-            updateAlienLasers();
-            updatePowerUps();
-            checkCollisions();
-            checkGameConditions();
+        private void welcome(ClientConnection client, byte role) throws IOException {
+            // A second HELLO must not take another player slot. / Un second HELLO ne doit pas prendre une autre place de joueur.
+            if (client.welcomed) return;
+            if (role == NetProtocol.ROLE_PLAYER) {
+                for (int i = 0; i < playerSlots.length; i++) {
+                    if (playerSlots[i] == null) {
+                        playerSlots[i] = client;
+                        client.playerIndex = i;
+                        lastInputSequences[i] = 0;
+                        break;
+                    }
+                }
+            }
+            ByteBuffer frame = ByteBuffer.allocate(8);
+            int start = NetProtocol.beginFrame(frame, NetProtocol.MSG_WELCOME);
+            frame.put((byte) client.playerIndex);
+            NetProtocol.endFrame(frame, start);
+            frame.flip();
+            send(client, frame);
+            client.welcomed = true;
         }
 
-        private void updatePlayer() { player.update(); }
-        private void updateParticles() { particles.removeIf(Particle::isDead); particles.forEach(Particle::update); }
-        private void updateBackground() {
-            for (Point2D.Float star : stars) {
-                star.y += 0.5f;
-                if (star.y > GameConstants.WINDOW_HEIGHT) {
-                    star.y = 0;
-                    star.x = random.nextInt(GameConstants.WINDOW_WIDTH);
-                }
+        private void disconnect(ClientConnection client) {
+            clients.remove(client);
+            if (client.playerIndex >= 0 && playerSlots[client.playerIndex] == client) {
+                playerSlots[client.playerIndex] = null;
+                world.applyInput(client.playerIndex, 0);
             }
+            try { client.channel.close(); } catch (IOException ignored) { }
         }
-        private void updatePlayerLasers() { playerLasers.removeIf(laser -> laser.getY() < 0); playerLasers.forEach(Laser::update); }
-        private void updateAlienLasers() { alienLasers.removeIf(laser -> laser.getY() > GameConstants.WINDOW_HEIGHT); alienLasers.forEach(Laser::update); }
-        private void updatePowerUps() { powerUps.removeIf(p -> p.getY() > GameConstants.WINDOW_HEIGHT); powerUps.forEach(PowerUp::update); }
 
-        private void updateAliens() {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastAlienMoveTime > alienMoveInterval) {
-                boolean moveDown = false;
-                for (Alien alien : aliens) {
-                    alien.move(alienMoveDirection);
-                    if (alien.getX() <= 0 || alien.getX() + alien.getWidth() >= GameConstants.WINDOW_WIDTH) {
-                        moveDown = true;
-                    }
-                }
-                if (moveDown) {
-                    alienMoveDirection *= -1;
-                    for (Alien alien : aliens) alien.moveDown();
+        private void tick() {
+            long start = System.nanoTime();
+            if (statsResetRequested) {
+                tickCost.reset();
+                statsResetRequested = false;
+            }
+            for (int i = 0; i < playerSlots.length; i++) {
+                ClientConnection client = playerSlots[i];
+                if (client != null && client.inputCount > 0) {
+                    int slot = client.inputHead;
+                    client.inputHead = (client.inputHead + 1) % INPUT_QUEUE_SIZE;
+                    client.inputCount--;
+                    client.lastActions = client.inputActions[slot];
+                    lastInputSequences[i] = client.inputSequences[slot];
                 }
-                lastAlienMoveTime = currentTime;
+                // Without a fresh input the last known actions are repeated; the client reconciles if it guessed otherwise.
+                // Sans nouvelle entrée, les dernières actions connues sont répétées ; le client corrige s'il a prédit autrement.
+                world.applyInput(i, client != null ? client.lastActions : 0);
             }
-
-            if (currentTime - lastAlienFireTime > alienFireInterval && !aliens.isEmpty()) {
-                Alien randomAlien = aliens.get(random.nextInt(aliens.size()));
-                alienLasers.add(new Laser(randomAlien.getX() + randomAlien.getWidth() / 2 - 2, randomAlien.getY() + randomAlien.getHeight(), true));
-                SoundManager.playSound(SoundManager.alienShootSound);
-                lastAlienFireTime = currentTime;
+            world.tick();
+            if (world.isPlayerDead()) {
+                world.reset(NetProtocol.MAX_PLAYERS);
+            } else if (world.isWaveCleared()) {
+                world.nextLevel();
             }
+            serverTick++;
+            if (serverTick % GameConstants.NET_SNAPSHOT_INTERVAL_TICKS == 0) broadcastSnapshot();
+            tickCost.record(System.nanoTime() - start);
         }
-        
-        private void checkCollisions() {
-            // Player lasers vs Aliens
-            Iterator<Laser> playerLaserIter = playerLasers.iterator();
-            while(playerLaserIter.hasNext()) {
-                Laser laser = playerLaserIter.next();
-                Iterator<Alien> alienIter = aliens.iterator();
-                while(alienIter.hasNext()) {
-                    Alien alien = alienIter.next();
-                    if (laser.getBounds().intersects(alien.getBounds())) {
-                        playerLaserIter.remove();
-                        alien.takeHit();
-                        if (alien.isDestroyed()) {
-                            alienIter.remove();
-                            score += alien.getScoreValue();
-                            SoundManager.playSound(SoundManager.explosionSound);
-                            createExplosion(alien.getX() + alien.getWidth() / 2, alien.getY() + alien.getHeight() / 2);
-                            if (random.nextInt(100) < GameConstants.POWERUP_DROP_CHANCE) {
-                                powerUps.add(new PowerUp(alien.getX(), alien.getY()));
-                            }
-                        } else {
-                            SoundManager.playSound(SoundManager.hitSound);
+
+        private void broadcastSnapshot() {
+            int[] swap = previousState;
+            previousState = currentState;
+            currentState = swap;
+            previousLength = currentLength;
+            currentLength = NetProtocol.encodeState(world, lastInputSequences, currentState);
+
+            deltaFrame.clear();
+            NetProtocol.writeSnapshot(deltaFrame, NetProtocol.MSG_DELTA, serverTick, previousState, previousLength, currentState, currentLength);
+            deltaFrame.flip();
+            boolean keyframeEncoded = false;
+
+            for (int i = clients.size() - 1; i >= 0; i--) {
+                ClientConnection client = clients.get(i);
+                if (!client.welcomed) continue;
+                try {
+                    if (client.needsKeyframe) {
+                        // Resynchronize only once the backlog is gone, so the keyframe is never split from its predecessors.
+                        // Resynchroniser seulement une fois le retard écoulé, pour que l'image clé ne soit jamais séparée des précédentes.
+                        if (client.out.position() > 0) continue;
+                        if (!keyframeEncoded) {
+                            keyframeFrame.clear();
+                            NetProtocol.writeSnapshot(keyframeFrame, NetProtocol.MSG_KEYFRAME, serverTick, null, 0, currentState, currentLength);
+                            keyframeFrame.flip();
+                            keyframeEncoded = true;
                         }
-                        break; // A laser can only hit one alien
+                        client.needsKeyframe = false;
+                        send(client, keyframeFrame);
+                        keyframesSent++;
+                    } else {
+                        send(client, deltaFrame);
                     }
+                } catch (IOException e) {
+                    disconnect(client);
                 }
             }
-            
-            // Alien lasers vs Player
-            alienLasers.removeIf(laser -> {
-                if (laser.getBounds().intersects(player.getBounds()) && !player.isShieldActive()) {
-                    lives--;
-                    SoundManager.playSound(SoundManager.playerHitSound);
-                    return true;
-                }
-                return false;
-            });
-            
-            // PowerUps vs Player
-            powerUps.removeIf(powerUp -> {
-                if (powerUp.getBounds().intersects(player.getBounds())) {
-                    player.activatePowerUp(powerUp.getType());
-                    SoundManager.playSound(SoundManager.powerupSound);
-                    return true;
-                }
-                return false;
-            });
         }
-        
-        private void checkGameConditions() {
-            if (lives <= 0) {
-                gameOver(score);
-            }
-            if (aliens.isEmpty()) {
-                nextLevel();
+
+        /**
+         * Sends a frame without consuming it. Whatever the socket does not accept is queued in the client's
+         * bounded backlog; a frame that doesn't fit is dropped and the client is flagged for a keyframe.
+         * ---
+         * Envoie une trame sans la consommer. Ce que la socket n'accepte pas est placé dans le retard borné du client ;
+         * une trame qui ne tient pas est abandonnée et le client est marqué pour recevoir une image clé.
+         */
+        private void send(ClientConnection client, ByteBuffer frame) throws IOException {
+            int start = frame.position();
+            if (client.out.position() > 0) {
+                if (client.out.remaining() >= frame.remaining()) client.out.put(frame); else client.needsKeyframe = true;
+            } else {
+                bytesSent += client.channel.write(frame);
+                if (frame.hasRemaining()) {
+                    client.out.put(frame);
+                    client.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                }
             }
+            frame.position(start);
         }
 
-        private void createExplosion(int x, int y) {
-            for (int i = 0; i < GameConstants.EXPLOSION_PARTICLE_COUNT; i++) {
-                particles.add(new Particle(x, y));
-            }
+        private void flush(ClientConnection client) throws IOException {
+            client.out.flip();
+            bytesSent += client.channel.write(client.out);
+            client.out.compact();
+            if (client.out.position() == 0) client.key.interestOps(SelectionKey.OP_READ);
         }
 
-        private class GameKeyListener extends KeyAdapter {
-            @Override
-            public void keyPressed(KeyEvent e) {
-                if (gameState == GameState.PLAYING) {
-                    switch (e.getKeyCode()) {
-                        case KeyEvent.VK_LEFT: player.setMovingLeft(true); break;
-                        case KeyEvent.VK_RIGHT: player.setMovingRight(true); break;
-                        case KeyEvent.VK_SPACE: 
-                            List<Laser> newLasers = player.fire();
-                            if (!newLasers.isEmpty()) {
-                                playerLasers.addAll(newLasers);
-                                SoundManager.playSound(SoundManager.playerShootSound);
-                            }
-                            break;
-                        case KeyEvent.VK_ESCAPE:
-                        case KeyEvent.VK_P: showPauseMenu(); break;
-                    }
-                } else if (gameState == GameState.PAUSE_MENU) {
-                    if (e.getKeyCode() == KeyEvent.VK_ESCAPE || e.getKeyCode() == KeyEvent.VK_P) {
-                        resumeGame();
-                    }
+        public LatencyHistogram getTickCost() { return tickCost; }
+        public long getBytesSent() { return bytesSent; }
+        public long getKeyframesSent() { return keyframesSent; }
+        public void requestStatsReset() { statsResetRequested = true; }
+
+        private static class ClientConnection {
+            private final SocketChannel channel;
+            private SelectionKey key;
+            private final ByteBuffer in = ByteBuffer.allocate(4096);
+            private final ByteBuffer out = ByteBuffer.allocateDirect(CLIENT_BACKLOG_BYTES);
+            private int playerIndex = -1;
+            private boolean welcomed;
+            private boolean needsKeyframe = true;
+            private final int[] inputSequences = new int[INPUT_QUEUE_SIZE];
+            private final int[] inputActions = new int[INPUT_QUEUE_SIZE];
+            private int inputHead;
+            private int inputCount;
+            private int lastActions;
+
+            ClientConnection(SocketChannel channel) { this.channel = channel; }
+
+            void queueInput(int sequence, int actions) {
+                if (inputCount == INPUT_QUEUE_SIZE) {
+                    // Keep latency bounded: drop the oldest input. / Borner la latence : abandonner l'entrée la plus ancienne.
+                    inputHead = (inputHead + 1) % INPUT_QUEUE_SIZE;
+                    inputCount--;
                 }
+                int slot = (inputHead + inputCount) % INPUT_QUEUE_SIZE;
+                inputSequences[slot] = sequence;
+                inputActions[slot] = actions;
+                inputCount++;
             }
+        }
 
-            @Override
-            public void keyReleased(KeyEvent e) {
-                if (gameState == GameState.PLAYING) {
-                    if (e.getKeyCode() == KeyEvent.VK_LEFT) player.setMovingLeft(false);
-                    if (e.getKeyCode() == KeyEvent.VK_RIGHT) player.setMovingRight(false);
-                }
+        /**
+         * Runs a standalone headless server: {@code java SpaceInvadersGame --server [port]}.
+         * ---
+         * Lance un serveur autonome sans affichage : {@code java SpaceInvadersGame --server [port]}.
+         */
+        static void runStandalone(int port) throws IOException, InterruptedException {
+            AssetLoader.load();
+            GameServer server = new GameServer(new InetSocketAddress(port));
+            Thread thread = new Thread(server, "SpaceInvaders-Server");
+            thread.start();
+            System.out.println("Co-op server listening on port " + server.getPort());
+            long lastBytes = 0;
+            while (thread.isAlive()) {
+                thread.join(10_000);
+                long bytes = server.getBytesSent();
+                System.out.printf("clients=%d out=%.1f KB/s tick %s%n", server.clients.size(), (bytes - lastBytes) / 10240.0, server.getTickCost().summary());
+                lastBytes = bytes;
             }
         }
     }
 
     /**
-     * Inner class for all menu screens (Main, Pause, High Scores).
-     * It's configurable for different titles, buttons, and behaviors.
+     * The client side of the co-op mode. It polls its non-blocking socket from the game loop, rebuilds the world
+     * from snapshots into a replica {@link GameWorld} for rendering, and predicts its own ship: every input is
+     * applied locally right away, then replayed on top of each authoritative position (reconciliation).
      * ---
-     * Classe interne pour tous les écrans de menu (Principal, Pause, Meilleurs Scores).
-     * Elle est configurable pour différents titres, boutons et comportements.
+     * Le côté client du mode coopératif. Il interroge sa socket non bloquante depuis la boucle de jeu, reconstruit
+     * le monde à partir des instantanés dans un {@link GameWorld} réplique pour le rendu, et prédit son propre vaisseau :
+     * chaque entrée est appliquée localement tout de suite, puis rejouée par-dessus chaque position faisant autorité (réconciliation).
      */
-    private class GameMenu extends JPanel {
-        private final GameState menuState;
-        private JTextArea highscoreTextArea;
-        private final List<Point2D.Float> stars = new ArrayList<>();
-        private final Random random = new Random();
-        private final Timer animationTimer;
+    public static class GameClient {
+        private static final int INPUT_HISTORY = 256;
 
-        public GameMenu(String title, String[] menuItems, GameState menuState) {
-            this.menuState = menuState;
-            setLayout(new GridBagLayout());
-            setBackground(Color.BLACK);
-            
-            for (int i = 0; i < GameConstants.BACKGROUND_STAR_COUNT; i++) stars.add(new Point2D.Float(random.nextInt(GameConstants.WINDOW_WIDTH), random.nextInt(GameConstants.WINDOW_HEIGHT)));
-            animationTimer = new Timer(50, e -> {
-                for (Point2D.Float star : stars) {
-                    star.y += 0.5f;
-                    if (star.y > GameConstants.WINDOW_HEIGHT) { star.y = 0; star.x = random.nextInt(GameConstants.WINDOW_WIDTH); }
-                }
-                repaint();
-            });
-            animationTimer.start();
-            
-            GridBagConstraints gbc = new GridBagConstraints();
-            gbc.gridwidth = GridBagConstraints.REMAINDER;
-            gbc.anchor = GridBagConstraints.NORTH;
-            gbc.insets = new Insets(50, 0, 50, 0);
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocateDirect(256 * 1024);
+        private final ByteBuffer out = ByteBuffer.allocateDirect(16 * 1024);
+        private int playerIndex = -1;
+        private boolean welcomed;
+        private int[] state = new int[NetProtocol.MAX_STATE_INTS];
+        private int[] decoded = new int[NetProtocol.MAX_STATE_INTS];
+        private int stateLength;
+        private boolean hasState;
+        private boolean snapshotPending;
+        private int snapshotTick;
 
-            JLabel titleLabel = new JLabel(title, JLabel.CENTER);
-            titleLabel.setFont(AssetLoader.fontTitle != null ? AssetLoader.fontTitle : new Font("Arial", Font.BOLD, 64));
-            titleLabel.setForeground(Color.WHITE);
-            add(titleLabel, gbc);
+        // Client-side prediction of the own ship. / Prédiction côté client du vaisseau local.
+        private final int[] sentActions = new int[INPUT_HISTORY];
+        private int inputSequence;
+        private int predictedX = Integer.MIN_VALUE;
+        private int shipWidth = GameConstants.PLAYER_WIDTH;
+        private final Alien[] replicaAliens = new Alien[GameWorld.ALIENS_PER_WAVE];
+        private int replicaLevel;
 
-            gbc.anchor = GridBagConstraints.CENTER;
-            gbc.fill = GridBagConstraints.HORIZONTAL;
-            gbc.insets = new Insets(10, 0, 10, 0);
+        private long bytesReceived;
+        private long snapshotsReceived;
+        private long checksumErrors;
 
-            JPanel buttonPanel = new JPanel(new GridBagLayout());
-            buttonPanel.setOpaque(false);
-            
-            if(menuState != GameState.HIGHSCORE_MENU) {
-                for (String item : menuItems) {
-                    StyledButton button = new StyledButton(item);
-                    button.addActionListener(new MenuItemActionListener(item));
-                    buttonPanel.add(button, gbc);
-                }
+        private GameClient(SocketChannel channel) { this.channel = channel; }
+
+        /**
+         * Connects to a server and announces the requested role; the socket is non-blocking afterwards.
+         * ---
+         * Se connecte à un serveur et annonce le rôle demandé ; la socket est non bloquante ensuite.
+         */
+        public static GameClient connect(InetSocketAddress address, boolean asPlayer) throws IOException {
+            SocketChannel channel = SocketChannel.open();
+            try {
+                channel.socket().connect(address, 3000);
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
             }
-            
-            gbc.weighty = 1;
-            add(buttonPanel, gbc);
+            GameClient client = new GameClient(channel);
+            int start = NetProtocol.beginFrame(client.out, NetProtocol.MSG_HELLO);
+            client.out.put(asPlayer ? NetProtocol.ROLE_PLAYER : NetProtocol.ROLE_SPECTATOR);
+            NetProtocol.endFrame(client.out, start);
+            client.flush();
+            return client;
+        }
 
-            if (menuState == GameState.HIGHSCORE_MENU) {
-                setupHighscoreDisplay(gbc);
+        /**
+         * Sends this tick's actions and applies them to the predicted ship immediately.
+         * ---
+         * Envoie les actions de ce tick et les applique immédiatement au vaisseau prédit.
+         */
+        public void sendInput(int actions) throws IOException {
+            if (playerIndex < 0) return;
+            inputSequence++;
+            sentActions[inputSequence % INPUT_HISTORY] = actions;
+            if (predictedX != Integer.MIN_VALUE) predictedX = stepPrediction(predictedX, actions);
+            if (out.remaining() >= 8) {
+                int start = NetProtocol.beginFrame(out, NetProtocol.MSG_INPUT);
+                out.putInt(inputSequence);
+                out.put((byte) actions);
+                NetProtocol.endFrame(out, start);
             }
+            flush();
         }
-        
-        private void setupHighscoreDisplay(GridBagConstraints gbc) {
-            highscoreTextArea = new JTextArea();
-            highscoreTextArea.setFont(AssetLoader.fontUI != null ? AssetLoader.fontUI.deriveFont(20f) : new Font("Monospaced", Font.PLAIN, 20));
-            highscoreTextArea.setBackground(new Color(0,0,0,128));
-            highscoreTextArea.setForeground(Color.WHITE);
-            highscoreTextArea.setEditable(false);
-            highscoreTextArea.setMargin(new Insets(20, 20, 20, 20));
-            JScrollPane scrollPane = new JScrollPane(highscoreTextArea);
-            scrollPane.setPreferredSize(new Dimension(400, 300));
-            scrollPane.setOpaque(false);
-            scrollPane.getViewport().setOpaque(false);
-            scrollPane.setBorder(BorderFactory.createLineBorder(Color.CYAN));
-            
-            gbc.weighty = 0;
-            gbc.insets = new Insets(0, 0, 20, 0);
-            add(scrollPane, gbc);
-            
-            StyledButton backButton = new StyledButton("Back to Main Menu");
-            backButton.addActionListener(e -> {
-                SoundManager.playSound(SoundManager.clickSound);
-                showMainMenu();
-            });
-            add(backButton, gbc);
+
+        private int stepPrediction(int x, int actions) {
+            return PlayerShip.stepX(x, (actions & InputState.MOVE_LEFT) != 0, (actions & InputState.MOVE_RIGHT) != 0, shipWidth);
         }
 
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            drawAnimatedBackground(g, this);
+        private void flush() throws IOException {
+            out.flip();
+            channel.write(out);
+            out.compact();
         }
 
-        public void drawAnimatedBackground(Graphics g, Component c) {
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setColor(Color.BLACK);
-            g2d.fillRect(0, 0, c.getWidth(), c.getHeight());
-            g2d.setColor(Color.WHITE);
-            for (Point2D.Float star : stars) {
-                g2d.fillOval((int) star.x, (int) star.y, 2, 2);
+        /**
+         * Reads every complete frame available without blocking; returns true if a new snapshot arrived.
+         * ---
+         * Lit toutes les trames complètes disponibles sans bloquer ; retourne vrai si un nouvel instantané est arrivé.
+         */
+        public boolean poll() throws IOException {
+            if (out.position() > 0) flush();
+            int read;
+            boolean received = false;
+            while ((read = channel.read(in)) > 0) {
+                bytesReceived += read;
+                in.flip();
+                while (in.remaining() >= 2) {
+                    int length = in.getShort(in.position()) & 0xFFFF;
+                    if (in.remaining() < length + 2) break;
+                    int frameEnd = in.position() + 2 + length;
+                    in.position(in.position() + 2);
+                    received |= handleFrame(in.get());
+                    in.position(frameEnd);
+                }
+                in.compact();
             }
+            if (read < 0) throw new EOFException("Server closed the connection");
+            return received;
         }
 
-        public void updateHighScoresDisplay(List<HighScoreManager.ScoreEntry> scores) {
-            if (highscoreTextArea == null) return;
-            StringBuilder sb = new StringBuilder();
-            if (scores.isEmpty()) {
-                sb.append("\n   No scores recorded yet.\n");
-            } else {
-                sb.append(String.format(" %-4s %-15s %s\n", "Rank", "Name", "Score"));
-                sb.append("---------------------------------\n");
-                for (int i = 0; i < scores.size(); i++) {
-                    sb.append(String.format(" %2d.  %-15s %d\n", i + 1, scores.get(i).getName(), scores.get(i).getScore()));
-                }
+        private boolean handleFrame(byte type) {
+            if (type == NetProtocol.MSG_WELCOME) {
+                playerIndex = in.get();
+                welcomed = true;
+                return false;
+            }
+            if (type != NetProtocol.MSG_DELTA && type != NetProtocol.MSG_KEYFRAME) return false;
+            if (type == NetProtocol.MSG_DELTA && !hasState) return false;
+            int tick = in.getInt();
+            int checksum = in.getInt();
+            int length = type == NetProtocol.MSG_KEYFRAME
+                    ? NetProtocol.readSnapshot(in, null, 0, decoded)
+                    : NetProtocol.readSnapshot(in, state, stateLength, decoded);
+            if (NetProtocol.checksum(decoded, length) != checksum) {
+                checksumErrors++;
+                return false;
             }
-            highscoreTextArea.setText(sb.toString());
-            highscoreTextArea.setCaretPosition(0);
+            int[] swap = state;
+            state = decoded;
+            decoded = swap;
+            stateLength = length;
+            snapshotTick = tick;
+            hasState = true;
+            snapshotPending = true;
+            snapshotsReceived++;
+            reconcile();
+            return true;
         }
-        
-        private class MenuItemActionListener implements ActionListener {
-            private final String itemName;
-            public MenuItemActionListener(String itemName) { this.itemName = itemName; }
-            @Override public void actionPerformed(ActionEvent e) {
-                SoundManager.playSound(SoundManager.clickSound);
-                if (menuState == GameState.MAIN_MENU) handleMainMenuAction();
-                else if (menuState == GameState.PAUSE_MENU) handlePauseMenuAction();
-            }
-            private void handleMainMenuAction() {
-                switch (itemName) {
-                    case "New Game": startGame(); break;
-                    case "High Scores": showHighScores(); break;
-                    case "Instructions": showInstructions(); break;
-                    case "About": showAbout(); break;
-                    case "Quit":
-                        saveScoresOnExit();
-                        System.exit(0);
-                        break;
+
+        /**
+         * Restarts the prediction from the authoritative position and replays the inputs the server has not processed yet.
+         * ---
+         * Repart de la position faisant autorité et rejoue les entrées que le serveur n'a pas encore traitées.
+         */
+        private void reconcile() {
+            if (playerIndex < 0) return;
+            int base = NetProtocol.HEADER_INTS + playerIndex * NetProtocol.INTS_PER_PLAYER;
+            int x = state[base];
+            int acknowledged = state[base + 3];
+            for (int sequence = Math.max(acknowledged + 1, inputSequence - INPUT_HISTORY + 1); sequence <= inputSequence; sequence++) {
+                x = stepPrediction(x, sentActions[sequence % INPUT_HISTORY]);
+            }
+            predictedX = x;
+        }
+
+        /**
+         * Copies the latest snapshot into a replica world that is only rendered, never simulated.
+         * ---
+         * Copie le dernier instantané dans un monde réplique qui est seulement dessiné, jamais simulé.
+         */
+        public void applyTo(GameWorld world) {
+            if (!hasState) return;
+            int[] s = state;
+            int playerCount = Math.min(s[3], NetProtocol.MAX_PLAYERS);
+            while (world.players.size() < playerCount) {
+                world.players.add(new PlayerShip(world.players.size(), 0, GameConstants.WINDOW_HEIGHT - 80, world.timers));
+            }
+            while (world.players.size() > playerCount) world.players.remove(world.players.size() - 1);
+            for (int i = 0; i < playerCount; i++) {
+                PlayerShip player = world.players.get(i);
+                int base = NetProtocol.HEADER_INTS + i * NetProtocol.INTS_PER_PLAYER;
+                shipWidth = player.width;
+                player.prevX = player.x;
+                player.prevY = player.y;
+                if (i == playerIndex && predictedX != Integer.MIN_VALUE) {
+                    player.x = predictedX;
+                } else if (snapshotPending) {
+                    player.x = s[base];
                 }
+                player.y = s[base + 1];
+                player.shieldActive = (s[base + 2] & 1) != 0;
+                player.rapidFireActive = (s[base + 2] & 2) != 0;
+                if (i == playerIndex && predictedX == Integer.MIN_VALUE) predictedX = s[base];
             }
-            private void handlePauseMenuAction() {
-                switch (itemName) {
-                    case "Resume": resumeGame(); break;
-                    case "Main Menu": showMainMenu(); break;
-                    case "Quit":
-                        saveScoresOnExit();
-                        System.exit(0);
-                        break;
+            if (!snapshotPending) {
+                for (Alien alien : world.aliens) alien.storePreviousPosition();
+                return;
+            }
+            snapshotPending = false;
+            world.score = s[0];
+            world.lives = s[1];
+            if (s[2] != replicaLevel) {
+                Arrays.fill(replicaAliens, null);
+                replicaLevel = s[2];
+            }
+            world.currentLevel = s[2];
+
+            int n = NetProtocol.HEADER_INTS + playerCount * NetProtocol.INTS_PER_PLAYER;
+            world.aliens.clear();
+            for (int slot = 0; slot < s[4] && slot < replicaAliens.length; slot++, n += NetProtocol.INTS_PER_ALIEN) {
+                if (s[n] <= 0) {
+                    replicaAliens[slot] = null;
+                    continue;
                 }
+                Alien alien = replicaAliens[slot];
+                if (alien == null) {
+                    int row = slot / 10;
+                    alien = new Alien(slot, s[n + 1], s[n + 2], 0, row < 2 ? 2 : (row < 4 ? 1 : 0));
+                    replicaAliens[slot] = alien;
+                }
+                alien.storePreviousPosition();
+                alien.hp = s[n];
+                alien.x = s[n + 1];
+                alien.y = s[n + 2];
+                world.aliens.add(alien);
+            }
+            for (Bunker bunker : world.bunkers) {
+                for (int row = 0; row < Bunker.ROWS; row++) bunker.setRow(row, s[n++] & 0xFFFFFFFFL);
+            }
+            n = applyLasers(world.playerLasers, false, s, n);
+            n = applyLasers(world.alienLasers, true, s, n);
+            int powerUpCount = s[n++];
+            List<PowerUp> powerUps = world.powerUps;
+            while (powerUps.size() > powerUpCount) powerUps.remove(powerUps.size() - 1);
+            for (int i = 0; i < powerUpCount; i++, n += 3) {
+                PowerUp.PowerUpType type = PowerUp.PowerUpType.values()[s[n + 2]];
+                if (i >= powerUps.size()) powerUps.add(new PowerUp(s[n], s[n + 1], type));
+                else if (powerUps.get(i).type != type) powerUps.set(i, new PowerUp(s[n], s[n + 1], type));
+                PowerUp powerUp = powerUps.get(i);
+                powerUp.x = s[n];
+                powerUp.y = s[n + 1];
+                powerUp.prevY = powerUp.y - powerUp.speed;
+            }
+        }
+
+        private int applyLasers(List<Laser> lasers, boolean alienLasers, int[] s, int n) {
+            int count = s[n++];
+            while (lasers.size() > count) lasers.remove(lasers.size() - 1);
+            while (lasers.size() < count) lasers.add(new Laser(0, 0, alienLasers));
+            for (int i = 0; i < count; i++, n += 2) {
+                Laser laser = lasers.get(i);
+                laser.x = s[n];
+                laser.y = s[n + 1];
+                // Lasers keep a constant speed, so their previous position is implied.
+                // Les lasers gardent une vitesse constante : leur position précédente s'en déduit.
+                laser.prevY = laser.y + (alienLasers ? -laser.speed : laser.speed);
             }
+            return n;
         }
+
+        public void close() {
+            try { channel.close(); } catch (IOException ignored) { }
+        }
+
+        public boolean isWelcomed() { return welcomed; }
+        public int getPlayerIndex() { return playerIndex; }
+        public int getSnapshotTick() { return snapshotTick; }
+        public long getBytesReceived() { return bytesReceived; }
+        public long getSnapshotsReceived() { return snapshotsReceived; }
+        public long getChecksumErrors() { return checksumErrors; }
     }
-    
+
     /**
-     * A custom styled JButton for menu items.
+     * In-process loopback harness for the co-op server: {@code java SpaceInvadersGame --bench-net}.
+     * For 2, 16 and 256 connected clients (two players, the rest spectators) it reports bandwidth per client,
+     * server tick cost and snapshot integrity.
      * ---
-     * Un JButton personnalisé pour les éléments de menu.
+     * Banc d'essai en boucle locale, dans le même processus, pour le serveur coopératif : {@code java SpaceInvadersGame --bench-net}.
+     * Pour 2, 16 et 256 clients connectés (deux joueurs, les autres spectateurs), il mesure la bande passante par client,
+     * le coût d'un tick serveur et l'intégrité des instantanés.
      */
-    private class StyledButton extends JButton {
-        public StyledButton(String text) {
-            super(text);
-            setFont(AssetLoader.fontUI != null ? AssetLoader.fontUI : new Font("Arial", Font.BOLD, 24));
-            setForeground(Color.WHITE);
-            setContentAreaFilled(false);
-            setBorderPainted(false);
-            setFocusPainted(false);
-            setCursor(new Cursor(Cursor.HAND_CURSOR));
-            
-            addMouseListener(new MouseAdapter() {
-                @Override public void mouseEntered(MouseEvent e) { setForeground(Color.CYAN); }
-                @Override public void mouseExited(MouseEvent e) { setForeground(Color.WHITE); }
-            });
+    static class NetBenchmark {
+        private static final long WARMUP_NANOS = 1_000_000_000L;
+        private static final long MEASURE_NANOS = 5_000_000_000L;
+
+        static void run() throws Exception {
+            AssetLoader.load();
+            System.out.println("clients  bytes/s/client  snapshots/s  tick p50   tick p99   tick max   keyframes  checksum errors");
+            for (int clientCount : new int[]{2, 16, 256}) {
+                runScenario(clientCount);
+            }
+        }
+
+        private static void runScenario(int clientCount) throws Exception {
+            GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            Thread serverThread = new Thread(server, "SpaceInvaders-Server");
+            serverThread.start();
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            List<GameClient> clients = new ArrayList<>();
+            for (int i = 0; i < clientCount; i++) clients.add(GameClient.connect(address, i < NetProtocol.MAX_PLAYERS));
+            Random random = new Random(42);
+
+            long start = System.nanoTime();
+            long nextInput = start;
+            long measureStart = 0;
+            long[] bytesAtStart = new long[clientCount];
+            long[] snapshotsAtStart = new long[clientCount];
+            int[] actions = new int[NetProtocol.MAX_PLAYERS];
+            while (System.nanoTime() - start < WARMUP_NANOS + MEASURE_NANOS) {
+                long now = System.nanoTime();
+                if (measureStart == 0 && now - start >= WARMUP_NANOS) {
+                    measureStart = now;
+                    server.requestStatsReset();
+                    for (int i = 0; i < clientCount; i++) {
+                        bytesAtStart[i] = clients.get(i).getBytesReceived();
+                        snapshotsAtStart[i] = clients.get(i).getSnapshotsReceived();
+                    }
+                }
+                if (now >= nextInput) {
+                    for (int i = 0; i < NetProtocol.MAX_PLAYERS; i++) {
+                        if (random.nextInt(20) == 0) actions[i] = random.nextInt(8);
+                        clients.get(i).sendInput(actions[i]);
+                    }
+                    nextInput += GameConstants.TICK_NANOS;
+                }
+                for (GameClient client : clients) client.poll();
+                Thread.sleep(1);
+            }
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+            long bytes = 0, snapshots = 0, errors = 0;
+            for (int i = 0; i < clientCount; i++) {
+                bytes += clients.get(i).getBytesReceived() - bytesAtStart[i];
+                snapshots += clients.get(i).getSnapshotsReceived() - snapshotsAtStart[i];
+                errors += clients.get(i).getChecksumErrors();
+            }
+            LatencyHistogram tickCost = server.getTickCost();
+            System.out.printf("%7d  %14.0f  %11.1f  %6dus   %6dus   %6dus   %9d  %15d%n",
+                    clientCount, bytes / seconds / clientCount, snapshots / seconds / clientCount,
+                    tickCost.percentileMicros(50), tickCost.percentileMicros(99), tickCost.percentileMicros(100),
+                    server.getKeyframesSent(), errors);
+            for (GameClient client : clients) client.close();
+            server.stop();
+            serverThread.join();
         }
     }
 
@@ -969,82 +8156,114 @@ public class SpaceInvadersGame extends JFrame {
     // SECTION: Game Entity Inner Classes / Classes Internes des Entités du Jeu
     // ===================================================================================
 
-    private class PlayerShip {
-        private int x, y;
+    private static class PlayerShip {
+        private final int index;
+        private final TimerWheel timers;
+        private int x, y, prevX, prevY;
         private final int width, height;
         private boolean movingLeft, movingRight;
-        private long lastFireTime = 0;
         private boolean rapidFireActive = false;
         private boolean shieldActive = false;
-        private long rapidFireEndTime;
-        private long shieldEndTime;
+        // Weapon cooldown and power-up expiries on the world's timing wheel. / Délai de tir et fins des bonus sur la roue de minuteries du monde.
+        private long weaponTimer = TimerWheel.NONE, rapidFireTimer = TimerWheel.NONE, shieldTimer = TimerWheel.NONE;
+        private final CollisionMask mask;
 
-        public PlayerShip(int x, int y) {
-            this.x = x; this.y = y;
+        public PlayerShip(int index, int x, int y, TimerWheel timers) {
+            this.index = index;
+            this.x = x; this.y = y; this.prevX = x; this.prevY = y;
+            this.timers = timers;
             this.width = (AssetLoader.playerShip != null) ? AssetLoader.playerShip.getWidth(null) : GameConstants.PLAYER_WIDTH;
             this.height = (AssetLoader.playerShip != null) ? AssetLoader.playerShip.getHeight(null) : GameConstants.PLAYER_HEIGHT;
+            this.mask = AssetLoader.maskOf(AssetLoader.playerShip);
         }
 
         public void update() {
-            if (movingLeft) x -= GameConstants.PLAYER_SPEED;
-            if (movingRight) x += GameConstants.PLAYER_SPEED;
-            x = Math.max(0, Math.min(x, GameConstants.WINDOW_WIDTH - width)); // Clamp position
-            
-            long currentTime = System.currentTimeMillis();
-            if (rapidFireActive && currentTime > rapidFireEndTime) rapidFireActive = false;
-            if (shieldActive && currentTime > shieldEndTime) shieldActive = false;
-        }
-
-        public void draw(Graphics2D g) {
-            if (AssetLoader.playerShip != null) {
-                g.drawImage(AssetLoader.playerShip, x, y, width, height, null);
-            } else {
-                g.setColor(Color.GREEN);
-                g.fillRect(x, y, width, height);
-            }
-            if (shieldActive) {
-                long currentTime = System.currentTimeMillis();
-                float alpha = (float)(shieldEndTime - currentTime) / GameConstants.POWERUP_DURATION_MS;
-                g.setColor(new Color(0, 1, 1, Math.max(0, alpha * 0.5f)));
-                g.fillOval(x - 10, y - 10, width + 20, height + 20);
-            }
+            prevX = x; prevY = y;
+            x = stepX(x, movingLeft, movingRight, width);
         }
 
-        public List<Laser> fire() {
-            List<Laser> lasers = new ArrayList<>();
-            long currentTime = System.currentTimeMillis();
-            long fireRate = rapidFireActive ? GameConstants.PLAYER_RAPID_FIRE_RATE_MS : GameConstants.PLAYER_FIRE_RATE_MS;
-            if (currentTime - lastFireTime > fireRate) {
-                lasers.add(new Laser(x + width / 2 - 2, y, false));
-                lastFireTime = currentTime;
-            }
-            return lasers;
+        /**
+         * Returns the laser fired this tick, or null while the weapon is cooling down.
+         * ---
+         * Retourne le laser tiré ce tick, ou null pendant le refroidissement de l'arme.
+         */
+        public Laser fire() {
+            if (timers.isPending(weaponTimer)) return null;
+            long fireRate = GameClock.msToTicks(rapidFireActive ? GameConstants.PLAYER_RAPID_FIRE_RATE_MS : GameConstants.PLAYER_FIRE_RATE_MS);
+            weaponTimer = timers.schedule(fireRate, GameWorld.TIMER_WEAPON_READY, index);
+            return new Laser(x + width / 2 - 2, y, false);
         }
         
+        // Collecting a power-up again restarts its duration. / Ramasser à nouveau un bonus relance sa durée.
         public void activatePowerUp(PowerUp.PowerUpType type) {
-            long currentTime = System.currentTimeMillis();
+            long duration = GameClock.msToTicks(GameConstants.POWERUP_DURATION_MS);
             if (type == PowerUp.PowerUpType.RAPID_FIRE) {
                 rapidFireActive = true;
-                rapidFireEndTime = currentTime + GameConstants.POWERUP_DURATION_MS;
+                timers.cancel(rapidFireTimer);
+                rapidFireTimer = timers.schedule(duration, GameWorld.TIMER_RAPID_FIRE_END, index);
             } else if (type == PowerUp.PowerUpType.SHIELD) {
                 shieldActive = true;
-                shieldEndTime = currentTime + GameConstants.POWERUP_DURATION_MS;
+                timers.cancel(shieldTimer);
+                shieldTimer = timers.schedule(duration, GameWorld.TIMER_SHIELD_END, index);
             }
         }
+
+        /**
+         * Ticks left on the shield. The shield of a network replica comes from a snapshot, without a timer, and shows as full.
+         * ---
+         * Ticks restants au bouclier. Le bouclier d'une réplique réseau vient d'un instantané, sans minuterie, et s'affiche plein.
+         */
+        public long shieldTicksLeft() {
+            return timers.isPending(shieldTimer) ? timers.remaining(shieldTimer) : GameClock.msToTicks(GameConstants.POWERUP_DURATION_MS);
+        }
         
-        public void resetPowerUps() { rapidFireActive = false; shieldActive = false; }
+        /**
+         * The movement rule of a ship for one tick, shared with network clients that predict their own ship.
+         * ---
+         * La règle de déplacement d'un vaisseau pour un tick, partagée avec les clients réseau qui prédisent leur propre vaisseau.
+         */
+        public static int stepX(int x, boolean left, boolean right, int width) {
+            if (left) x -= GameConstants.PLAYER_SPEED;
+            if (right) x += GameConstants.PLAYER_SPEED;
+            return Math.max(0, Math.min(x, GameConstants.WINDOW_WIDTH - width)); // Clamp position
+        }
+
+        public void copyFrom(PlayerShip other) {
+            x = other.x; y = other.y; prevX = other.prevX; prevY = other.prevY;
+            movingLeft = other.movingLeft; movingRight = other.movingRight;
+            weaponTimer = other.weaponTimer;
+            rapidFireActive = other.rapidFireActive; rapidFireTimer = other.rapidFireTimer;
+            shieldActive = other.shieldActive; shieldTimer = other.shieldTimer;
+        }
+
+        public void resetPowerUps() {
+            rapidFireActive = false;
+            shieldActive = false;
+            timers.cancel(rapidFireTimer);
+            timers.cancel(shieldTimer);
+        }
         public boolean isShieldActive() { return shieldActive; }
+        public boolean isRapidFireActive() { return rapidFireActive; }
+        public int getX() { return x; }
+        public int getY() { return y; }
+        public int getWidth() { return width; }
         public Rectangle getBounds() { return new Rectangle(x, y, width, height); }
+        public CollisionMask getMask() { return mask; }
         public void setMovingLeft(boolean movingLeft) { this.movingLeft = movingLeft; }
         public void setMovingRight(boolean movingRight) { this.movingRight = movingRight; }
     }
 
-    private class Alien {
-        private int x, y, width, height, speed, type, hp, scoreValue;
-        private final Image alienImage;
+    private static class Alien {
+        private int x, y, prevX, prevY, width, height, speed, type, hp, scoreValue;
+        // Position of the alien in its wave formation, stable for its whole life.
+        // Position de l'alien dans la formation de sa vague, stable pendant toute sa vie.
+        private int slot;
+        private Image alienImage;
+        private CollisionMask mask;
 
-        public Alien(int x, int y, int speed, int type) {
-            this.x = x; this.y = y; this.speed = speed; this.type = type;
+        public Alien(int slot, int x, int y, int speed, int type) {
+            this.slot = slot;
+            this.x = x; this.y = y; this.prevX = x; this.prevY = y; this.speed = speed; this.type = type;
             Image baseImage = null;
             switch(type) {
                 case 0: hp = 1; scoreValue = 10; baseImage = AssetLoader.alien1; break;
@@ -1054,102 +8273,238 @@ public class SpaceInvadersGame extends JFrame {
             this.alienImage = baseImage;
             this.width = (this.alienImage != null) ? this.alienImage.getWidth(null) : 35;
             this.height = (this.alienImage != null) ? this.alienImage.getHeight(null) : 35;
+            this.mask = AssetLoader.maskOf(alienImage);
         }
 
+        public void copyFrom(Alien other) {
+            slot = other.slot;
+            x = other.x; y = other.y; prevX = other.prevX; prevY = other.prevY;
+            width = other.width; height = other.height; speed = other.speed;
+            type = other.type; hp = other.hp; scoreValue = other.scoreValue;
+            alienImage = other.alienImage; mask = other.mask;
+        }
+
+        public void storePreviousPosition() { prevX = x; prevY = y; }
         public void move(int direction) { x += speed * direction; }
         public void moveDown() { y += GameConstants.ALIEN_DROP_SPEED; }
 
-        public void draw(Graphics2D g) {
-            if (alienImage != null) {
-                g.drawImage(alienImage, x, y, width, height, null);
-            } else {
-                g.setColor(Color.RED); g.fillRect(x, y, width, height);
-            }
-        }
-        
         public void takeHit() { this.hp--; }
         public boolean isDestroyed() { return this.hp <= 0; }
         public int getScoreValue() { return this.scoreValue; }
+        public int getSlot() { return slot; }
+        public int getType() { return type; }
         public Rectangle getBounds() { return new Rectangle(x, y, width, height); }
+        public CollisionMask getMask() { return mask; }
         public int getX() { return x; }
         public int getY() { return y; }
         public int getWidth() { return width; }
         public int getHeight() { return height; }
     }
 
-    private class Laser {
-        private int x, y, width, height, speed;
-        private final boolean isAlienLaser;
-        private final Image laserImage;
+    private static class Laser {
+        private int x, y, prevY, width, height, speed;
+        private boolean isAlienLaser;
+        private Image laserImage;
+        private CollisionMask mask;
 
         public Laser(int x, int y, boolean isAlienLaser) {
-            this.x = x; this.y = y; 
+            this.x = x; this.y = y; this.prevY = y;
             this.isAlienLaser = isAlienLaser;
             this.speed = isAlienLaser ? GameConstants.ALIEN_LASER_SPEED : GameConstants.PLAYER_LASER_SPEED;
             this.laserImage = isAlienLaser ? AssetLoader.laserAlien : AssetLoader.laserPlayer;
             this.width = (this.laserImage != null) ? laserImage.getWidth(null) : 4;
             this.height = (this.laserImage != null) ? laserImage.getHeight(null) : 15;
+            this.mask = AssetLoader.maskOf(laserImage);
         }
 
-        public void update() { y += isAlienLaser ? speed : -speed; }
-
-        public void draw(Graphics2D g) {
-            if (laserImage != null) {
-                g.drawImage(laserImage, x, y, width, height, null);
-            } else {
-                g.setColor(isAlienLaser ? Color.MAGENTA : Color.YELLOW);
-                g.fillRect(x, y, width, height);
-            }
+        public void copyFrom(Laser other) {
+            x = other.x; y = other.y; prevY = other.prevY;
+            width = other.width; height = other.height; speed = other.speed;
+            isAlienLaser = other.isAlienLaser; laserImage = other.laserImage; mask = other.mask;
         }
+
+        public void update() { prevY = y; y += isAlienLaser ? speed : -speed; }
         public Rectangle getBounds() { return new Rectangle(x, y, width, height); }
+        public CollisionMask getMask() { return mask; }
+        public int getX() { return x; }
         public int getY() { return y; }
     }
 
-    private class PowerUp {
+    private static class PowerUp {
         public enum PowerUpType { SHIELD, RAPID_FIRE }
-        private int x, y;
-        private final int width = 30, height = 30, speed = 2;
-        private final PowerUpType type;
-        private final Image image;
+        private int x, y, prevY;
+        private final int width = GameConstants.POWERUP_SIZE, height = GameConstants.POWERUP_SIZE, speed = 2;
+        private PowerUpType type;
+        private Image image;
+        private CollisionMask mask;
         
-        public PowerUp(int x, int y) {
-            this.x = x; this.y = y;
-            this.type = Math.random() < 0.5 ? PowerUpType.SHIELD : PowerUpType.RAPID_FIRE;
+        public PowerUp(int x, int y, PowerUpType type) {
+            this.x = x; this.y = y; this.prevY = y;
+            this.type = type;
             this.image = this.type == PowerUpType.SHIELD ? AssetLoader.powerUpShield : AssetLoader.powerUpRapid;
+            this.mask = AssetLoader.maskOf(image);
         }
         
-        public void update() { y += speed; }
-        public void draw(Graphics2D g) {
-            if (image != null) {
-                g.drawImage(image, x, y, width, height, null);
-            } else {
-                g.setColor(Color.CYAN); g.fillRect(x, y, width, height);
-                g.setColor(Color.BLACK); g.drawString(type == PowerUpType.SHIELD ? "S" : "R", x+10, y+20);
-            }
+        public void copyFrom(PowerUp other) {
+            x = other.x; y = other.y; prevY = other.prevY;
+            type = other.type; image = other.image; mask = other.mask;
         }
+
+        public void update() { prevY = y; y += speed; }
         public Rectangle getBounds() { return new Rectangle(x, y, width, height); }
+        public CollisionMask getMask() { return mask; }
+        public int getX() { return x; }
         public int getY() { return y; }
         public PowerUpType getType() { return type; }
     }
     
-    private class Particle {
-        private float x, y, vx, vy;
+    /**
+     * A destructible shield. Its intact cells are a packed bitset, one {@code long} per row with column 0 in the lowest bit,
+     * so a laser is tested against a whole row with one AND. Lasers erode it from above (aliens) and below (players);
+     * the renderer redraws only the rows that changed since the last frame into its cached image.
+     * ---
+     * Un abri destructible. Ses cellules intactes forment un ensemble de bits compact, un {@code long} par ligne avec la colonne 0
+     * dans le bit de poids faible, si bien qu'un laser est testé contre une ligne entière avec un seul ET. Les lasers l'érodent
+     * par le haut (aliens) et par le bas (joueurs) ; le rendu ne redessine dans son image en cache que les lignes modifiées depuis la dernière image.
+     */
+    private static class Bunker {
+        static final int CELL_SIZE = 3, COLUMNS = 22, ROWS = 16;
+        static final int WIDTH = COLUMNS * CELL_SIZE, HEIGHT = ROWS * CELL_SIZE;
+        private static final long[] SHAPE = buildShape();
+        // Cells blown away by one impact, centered on bit 2, first row at the impact point.
+        // Cellules soufflées par un impact, centrées sur le bit 2, première ligne au point d'impact.
+        private static final long[] BLAST = {0b01110, 0b11111, 0b01110, 0b00100};
+
+        private final int x, y;
+        private final long[] rows = new long[ROWS];
+
+        public Bunker(int x, int y) {
+            this.x = x;
+            this.y = y;
+            restore();
+        }
+
+        // The classic arch: corners cut at the top, a notch at the bottom middle.
+        // L'arche classique : coins coupés en haut, une encoche en bas au milieu.
+        private static long[] buildShape() {
+            long[] shape = new long[ROWS];
+            long full = (1L << COLUMNS) - 1;
+            for (int row = 0; row < ROWS; row++) {
+                int cut = Math.max(0, 4 - row);
+                long bits = full & ~((1L << cut) - 1) & ~(((1L << cut) - 1) << (COLUMNS - cut));
+                if (row >= ROWS - 5) bits &= ~(((1L << 8) - 1) << (COLUMNS / 2 - 4));
+                shape[row] = bits;
+            }
+            return shape;
+        }
+
+        public void restore() {
+            System.arraycopy(SHAPE, 0, rows, 0, ROWS);
+        }
+
+        public void copyFrom(Bunker other) {
+            System.arraycopy(other.rows, 0, rows, 0, ROWS);
+        }
+
+        /**
+         * Stops a laser that reaches an intact cell during its last move and erodes the bunker there.
+         * Returns true if the laser was absorbed.
+         * ---
+         * Arrête un laser qui atteint une cellule intacte pendant son dernier déplacement et érode l'abri à cet endroit.
+         * Retourne vrai si le laser a été absorbé.
+         */
+        public boolean absorb(Laser laser) {
+            int firstColumn = Math.max(0, (laser.x - x) / CELL_SIZE);
+            int lastColumn = Math.min(COLUMNS - 1, Math.floorDiv(laser.x + laser.width - 1 - x, CELL_SIZE));
+            int firstRow = Math.max(0, Math.floorDiv(Math.min(laser.prevY, laser.y) - y, CELL_SIZE));
+            int lastRow = Math.min(ROWS - 1, Math.floorDiv(Math.max(laser.prevY, laser.y) + laser.height - 1 - y, CELL_SIZE));
+            if (laser.x >= x + WIDTH || laser.x + laser.width <= x || firstColumn > lastColumn || firstRow > lastRow) return false;
+            long columns = ((1L << (lastColumn - firstColumn + 1)) - 1) << firstColumn;
+            boolean downward = laser.isAlienLaser;
+            for (int i = 0; i <= lastRow - firstRow; i++) {
+                int row = downward ? firstRow + i : lastRow - i;
+                long hit = rows[row] & columns;
+                if (hit != 0) {
+                    erode(row, Long.numberOfTrailingZeros(hit), downward);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void erode(int row, int column, boolean downward) {
+            for (int i = 0; i < BLAST.length; i++) {
+                int r = downward ? row + i : row - i;
+                if (r < 0 || r >= ROWS) break;
+                rows[r] &= ~(column >= 2 ? BLAST[i] << (column - 2) : BLAST[i] >>> (2 - column));
+            }
+        }
+
+        /**
+         * Clears every cell under an alien that walks into the bunker.
+         * ---
+         * Efface toutes les cellules sous un alien qui entre dans l'abri.
+         */
+        public void erodeUnder(int left, int top, int width, int height) {
+            int firstColumn = Math.max(0, Math.floorDiv(left - x, CELL_SIZE));
+            int lastColumn = Math.min(COLUMNS - 1, Math.floorDiv(left + width - 1 - x, CELL_SIZE));
+            int firstRow = Math.max(0, Math.floorDiv(top - y, CELL_SIZE));
+            int lastRow = Math.min(ROWS - 1, Math.floorDiv(top + height - 1 - y, CELL_SIZE));
+            if (firstColumn > lastColumn || firstRow > lastRow) return;
+            long columns = ((1L << (lastColumn - firstColumn + 1)) - 1) << firstColumn;
+            for (int row = firstRow; row <= lastRow; row++) rows[row] &= ~columns;
+        }
+
+        /**
+         * Replaces one row with its state from a network snapshot.
+         * ---
+         * Remplace une ligne par son état issu d'un instantané réseau.
+         */
+        public void setRow(int row, long bits) {
+            rows[row] = bits;
+        }
+
+        public boolean intersects(int left, int top, int width, int height) {
+            return left < x + WIDTH && left + width > x && top < y + HEIGHT && top + height > y;
+        }
+
+        public long getRow(int row) { return rows[row]; }
+    }
+
+    private static class Particle {
+        // Particles are drawn from small pre-rendered sprites, one per fire color (red to yellow), fading step and size,
+        // created on first use: a new Color and an antialiased oval per particle and frame allocated several objects each.
+        // Les particules sont dessinées à partir de petits sprites pré-rendus, un par couleur de feu (rouge à jaune), palier
+        // d'estompage et taille, créés au premier usage : une Color et un ovale anticrénelé par particule et par image allouaient plusieurs objets.
+        static final int HUES = 8, FADE_STEPS = 16, MAX_SIZE = 6;
+        private static final Image[][][] SPRITES = new Image[HUES][FADE_STEPS][MAX_SIZE + 1];
+
+        static Image sprite(int hue, int step, int size) {
+            Image sprite = SPRITES[hue][step][size];
+            if (sprite == null) {
+                BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g.setColor(new Color(1.0f, 0.5f + 0.5f * hue / (HUES - 1), 0f, step / (float) (FADE_STEPS - 1)));
+                g.fillOval(0, 0, size, size);
+                g.dispose();
+                SPRITES[hue][step][size] = sprite = image;
+            }
+            return sprite;
+        }
+
+        private float x, y, prevX, prevY, vx, vy;
         private int size;
-        private final Color color;
+        private final int hue;
         private int lifetime;
         
-        public Particle(int x, int y) {
-            this.x = x; this.y = y; this.vx = (float) (Math.random() * 4 - 2); this.vy = (float) (Math.random() * 4 - 2);
-            this.size = (int) (Math.random() * 5 + 2); this.color = new Color(1.0f, (float)Math.random() * 0.5f + 0.5f, 0f);
-            this.lifetime = (int) (Math.random() * 40 + 20);
+        public Particle(int x, int y, Random random) {
+            this.x = x; this.y = y; this.prevX = x; this.prevY = y; this.vx = random.nextFloat() * 4 - 2; this.vy = random.nextFloat() * 4 - 2;
+            this.size = random.nextInt(MAX_SIZE - 1) + 2; this.hue = random.nextInt(HUES);
+            this.lifetime = random.nextInt(40) + 20;
         }
         
-        public void update() { x += vx; y += vy; vy += 0.05f; lifetime--; }
-        public void draw(Graphics2D g) {
-            float alpha = Math.max(0, (float)lifetime / 60.0f);
-            g.setColor(new Color(color.getRed()/255f, color.getGreen()/255f, color.getBlue()/255f, alpha));
-            g.fillOval((int)x, (int)y, size, size);
-        }
+        public void update() { prevX = x; prevY = y; x += vx; y += vy; vy += 0.05f; lifetime--; }
         public boolean isDead() { return lifetime <= 0; }
     }
 }
\ No newline at end of file